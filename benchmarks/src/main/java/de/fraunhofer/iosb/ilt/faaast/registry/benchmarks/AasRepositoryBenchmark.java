@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetConfig;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks the operations of the {@link AasRepository} implementations on a registry of the given size. The registry
+ * content and the sequence of accessed descriptors are fixed, so results of different runs and branches are
+ * comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {
+        "-Xms2g",
+        "-Xmx2g"
+})
+public class AasRepositoryBenchmark {
+
+    private static final int ASSET_TYPES = 10;
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final long SEED = 42;
+    private static final int SUBMODELS_PER_SHELL = 3;
+
+    @Param
+    public Backend backend;
+
+    @Param({
+            "1000",
+            "10000"
+    })
+    public int registrySize;
+
+    private DatasetGenerator generator;
+    private Backend.Registry registry;
+    private AasRepository repository;
+
+    /**
+     * Creates the repository and registers registrySize shells generated by {@link DatasetGenerator}.
+     *
+     * @throws Exception if registering fails
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        generator = new DatasetGenerator(new DatasetConfig.Builder()
+                .seed(SEED)
+                .shells(registrySize)
+                .minSubmodelsPerShell(SUBMODELS_PER_SHELL)
+                .maxSubmodelsPerShell(SUBMODELS_PER_SHELL)
+                .assetTypes(ASSET_TYPES)
+                .build());
+        registry = backend.open();
+        repository = registry.repository();
+        for (int start = 0; start < registrySize; start += BATCH_SIZE) {
+            int nr = repository.startTransaction();
+            for (int i = start; i < Math.min(start + BATCH_SIZE, registrySize); i++) {
+                repository.create(generator.shell(i));
+            }
+            repository.commitTransaction(nr);
+        }
+    }
+
+
+    /**
+     * Closes the repository.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+    }
+
+
+    /**
+     * Benchmark of getting a single shell.
+     *
+     * @param cursor The accessed shells.
+     * @return The shell.
+     * @throws Exception if the shell does not exist
+     */
+    @Benchmark
+    public AssetAdministrationShellDescriptor getAAS(Cursor cursor) throws Exception {
+        return repository.getAAS(DatasetGenerator.shellId(cursor.next(registrySize)));
+    }
+
+
+    /**
+     * Benchmark of getting the first page of shells filtered by asset type and asset kind.
+     *
+     * @param cursor The accessed asset types.
+     * @return The page.
+     */
+    @Benchmark
+    public Page<AssetAdministrationShellDescriptor> getAASsFiltered(Cursor cursor) {
+        return repository.getAASs(
+                DatasetGenerator.assetType(cursor.next(ASSET_TYPES)),
+                AssetKind.INSTANCE,
+                PagingInfo.builder().limit(PAGE_SIZE).build());
+    }
+
+
+    /**
+     * Benchmark of the discovery of a shell by its specific asset ID.
+     *
+     * @param cursor The accessed shells.
+     * @return The page with the ID of the shell.
+     */
+    @Benchmark
+    public Page<String> getAASIdentifiersByAssetLink(Cursor cursor) {
+        return repository.getAASIdentifiersByAssetLink(
+                List.of(new AssetLink(DatasetGenerator.SERIAL_NUMBER, DatasetGenerator.serialNumber(cursor.next(registrySize)))),
+                PagingInfo.ALL);
+    }
+
+
+    /**
+     * Benchmark of getting a submodel of a shell.
+     *
+     * @param cursor The accessed shells.
+     * @return The submodel.
+     * @throws Exception if the submodel does not exist
+     */
+    @Benchmark
+    public SubmodelDescriptor getSubmodelOfAAS(Cursor cursor) throws Exception {
+        int index = cursor.next(registrySize);
+        return repository.getSubmodel(DatasetGenerator.shellId(index), DatasetGenerator.submodelId(index, cursor.next(SUBMODELS_PER_SHELL)));
+    }
+
+
+    /**
+     * Benchmark of adding a submodel to a shell and deleting it again, so the registry keeps its size.
+     *
+     * @param cursor The accessed shells.
+     * @throws Exception if adding or deleting fails
+     */
+    @Benchmark
+    public void addAndDeleteSubmodelOfAAS(Cursor cursor) throws Exception {
+        int index = cursor.next(registrySize);
+        String shellId = DatasetGenerator.shellId(index);
+        SubmodelDescriptor submodel = DescriptorFactory.submodel(DatasetGenerator.submodelId(index, SUBMODELS_PER_SHELL));
+        repository.addSubmodel(shellId, submodel);
+        repository.deleteSubmodel(shellId, submodel.getId());
+    }
+
+
+    /**
+     * Benchmark of creating a shell and deleting it again, so the registry keeps its size.
+     *
+     * @param cursor The created shells.
+     * @throws Exception if creating or deleting fails
+     */
+    @Benchmark
+    public void createAndDeleteAAS(Cursor cursor) throws Exception {
+        AssetAdministrationShellDescriptor shell = generator.shell(registrySize + cursor.next(registrySize));
+        repository.create(shell);
+        repository.deleteAAS(shell.getId());
+    }
+
+
+    /**
+     * Benchmark of starting and committing an empty transaction.
+     */
+    @Benchmark
+    public void startAndCommitTransaction() {
+        repository.commitTransaction(repository.startTransaction());
+    }
+
+    /**
+     * The sequence of accessed descriptors of a benchmark thread, the same in every run.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final SplittableRandom random = new SplittableRandom(SEED);
+
+        /**
+         * Returns the next index.
+         *
+         * @param bound The upper bound, exclusive.
+         * @return The index.
+         */
+        public int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.memory.AasRepositoryMemory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+
+/**
+ * The repository implementations to benchmark.
+ */
+public enum Backend {
+    MEMORY,
+    JPA;
+
+    /**
+     * Creates an empty repository of this type.
+     *
+     * @return The repository, to be closed after the benchmark.
+     */
+    public Registry open() {
+        if (this == JPA) {
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JpaBenchmarkConfig.class);
+            return new Registry(context.getBean(AasRepository.class), context);
+        }
+        return new Registry(new AasRepositoryMemory(), null);
+    }
+
+    /**
+     * A repository together with the resources it uses.
+     *
+     * @param repository The repository.
+     * @param context The Spring context of the repository, null if it does not need one.
+     */
+    public record Registry(AasRepository repository, AnnotationConfigApplicationContext context) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.DeepCopyHelper;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks the JSON round-trips of {@link DeepCopyHelper}, which the In-Memory Persistence uses to back up the
+ * descriptors modified within a transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {
+        "-Xms2g",
+        "-Xmx2g"
+})
+public class DeepCopyBenchmark {
+
+    @Param
+    public DescriptorSize size;
+
+    private AssetAdministrationShellDescriptor shell;
+    private SubmodelDescriptor submodel;
+    private Map<String, String> backup;
+
+    /**
+     * Creates the shell and a backup of it.
+     */
+    @Setup
+    public void setup() {
+        shell = DescriptorFactory.shell(1, size);
+        submodel = DescriptorFactory.submodel(1, 0, size);
+        backup = DeepCopyHelper.createBackupMap(Map.of(shell.getId(), shell));
+    }
+
+
+    /**
+     * Creates a deep copy of the shell.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public AssetAdministrationShellDescriptor deepCopyShell() {
+        return DeepCopyHelper.deepCopy(shell, AssetAdministrationShellDescriptor.class);
+    }
+
+
+    /**
+     * Creates a deep copy of a submodel.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public SubmodelDescriptor deepCopySubmodel() {
+        return DeepCopyHelper.deepCopy(submodel, SubmodelDescriptor.class);
+    }
+
+
+    /**
+     * Creates a backup of the shell.
+     *
+     * @return the backup
+     */
+    @Benchmark
+    public Map<String, String> createBackup() {
+        return DeepCopyHelper.createBackupMap(Map.of(shell.getId(), shell));
+    }
+
+
+    /**
+     * Restores the shell from its backup.
+     *
+     * @return the restored shell
+     */
+    @Benchmark
+    public Map<String, AssetAdministrationShellDescriptor> restoreBackup() {
+        return DeepCopyHelper.restoreBackupMap(backup, DefaultAssetAdministrationShellDescriptor.class);
+    }
+}
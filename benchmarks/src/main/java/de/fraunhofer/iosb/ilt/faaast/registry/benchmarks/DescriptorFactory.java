@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
+import org.eclipse.digitaltwin.aas4j.v3.model.DataTypeDefXsd;
+import org.eclipse.digitaltwin.aas4j.v3.model.Extension;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringNameType;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAdministrativeInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEndpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultExtension;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringNameType;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProtocolInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+
+
+/**
+ * Creates the descriptors of the benchmarks of single descriptors. The descriptors only depend on their index and size,
+ * so every run works on the same data. Registry content is created by
+ * {@link de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator}.
+ */
+public class DescriptorFactory {
+
+    public static final int ASSET_TYPES = 10;
+    public static final String SPECIFIC_ASSET_ID_NAME = "serialNumber";
+    private static final String[] LANGUAGES = {
+            "en",
+            "de",
+            "fr",
+            "es",
+            "it"
+    };
+    // contains non-ASCII characters, so text checks cannot take shortcuts for ASCII strings
+    private static final String TEXT = "Größe, Gewicht und Maße des Geräts ";
+
+    private DescriptorFactory() {}
+
+
+    /**
+     * Returns the ID of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @return The ID of the shell.
+     */
+    public static String shellId(int index) {
+        return "https://example.com/ids/aas/" + index;
+    }
+
+
+    /**
+     * Returns the ID of a submodel of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @param submodel The index of the submodel within the shell.
+     * @return The ID of the submodel.
+     */
+    public static String submodelId(int index, int submodel) {
+        return "https://example.com/ids/sm/" + index + "/" + submodel;
+    }
+
+
+    /**
+     * Returns the asset type of the shells in the given group.
+     *
+     * @param group The group, between 0 and {@link #ASSET_TYPES}.
+     * @return The asset type.
+     */
+    public static String assetType(int group) {
+        return "https://example.com/types/" + group;
+    }
+
+
+    /**
+     * Returns the value of the specific asset ID of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @return The serial number of the asset.
+     */
+    public static String serialNumber(int index) {
+        return "SN-" + index;
+    }
+
+
+    /**
+     * Creates the shell with the given index and size. Shells of the same index and size are equal.
+     *
+     * @param index The index of the shell.
+     * @param size The size of the shell.
+     * @return The shell.
+     */
+    public static AssetAdministrationShellDescriptor shell(int index, DescriptorSize size) {
+        List<SpecificAssetId> specificAssetIds = new ArrayList<>();
+        specificAssetIds.add(new DefaultSpecificAssetId.Builder()
+                .name(SPECIFIC_ASSET_ID_NAME)
+                .value(serialNumber(index))
+                .build());
+        for (int i = 1; i < size.getSpecificAssetIds(); i++) {
+            specificAssetIds.add(new DefaultSpecificAssetId.Builder()
+                    .name("property" + i)
+                    .value("value-" + index + "-" + i)
+                    .semanticId(semanticId("https://example.com/semantics/property/" + i))
+                    .build());
+        }
+        List<SubmodelDescriptor> submodels = new ArrayList<>();
+        for (int i = 0; i < size.getSubmodels(); i++) {
+            submodels.add(submodel(index, i, size));
+        }
+        return new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id(shellId(index))
+                .idShort("Shell" + index)
+                .description(descriptions(size))
+                .displayName(displayNames("Shell " + index, size))
+                .extensions(extensions(size))
+                .assetKind(AssetKind.INSTANCE)
+                .assetType(assetType(index % ASSET_TYPES))
+                .globalAssetId("https://example.com/ids/asset/" + index)
+                .specificAssetIds(specificAssetIds)
+                .endpoints(endpoint("https://example.com/shells/" + index))
+                .submodelDescriptors(submodels)
+                .build();
+    }
+
+
+    /**
+     * Creates a submodel of the shell with the given index and size.
+     *
+     * @param index The index of the shell.
+     * @param submodel The index of the submodel within the shell.
+     * @param size The size of the shell.
+     * @return The submodel.
+     */
+    public static SubmodelDescriptor submodel(int index, int submodel, DescriptorSize size) {
+        return new DefaultSubmodelDescriptor.Builder()
+                .id(submodelId(index, submodel))
+                .idShort("Submodel" + submodel)
+                .description(descriptions(size))
+                .displayName(displayNames("Submodel " + submodel, size))
+                .administration(new DefaultAdministrativeInformation.Builder()
+                        .version("1")
+                        .revision(Integer.toString(submodel % 10))
+                        .build())
+                .semanticId(semanticId("https://example.com/semantics/submodel/" + (submodel % ASSET_TYPES)))
+                .extensions(extensions(size))
+                .endpoints(endpoint("https://example.com/submodels/" + index + "/" + submodel))
+                .build();
+    }
+
+
+    /**
+     * Creates a submodel with the given ID.
+     *
+     * @param id The ID of the submodel.
+     * @return The submodel.
+     */
+    public static SubmodelDescriptor submodel(String id) {
+        return new DefaultSubmodelDescriptor.Builder()
+                .id(id)
+                .idShort("Submodel")
+                .semanticId(new DefaultReference.Builder()
+                        .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder()
+                                .type(KeyTypes.GLOBAL_REFERENCE)
+                                .value("https://example.com/semantics/nameplate")
+                                .build())
+                        .build())
+                .endpoints(endpoint("https://example.com/submodels/" + id.hashCode()))
+                .build();
+    }
+
+
+    private static List<LangStringTextType> descriptions(DescriptorSize size) {
+        String text = TEXT.repeat(size.getTextLength() / TEXT.length() + 1).substring(0, size.getTextLength());
+        List<LangStringTextType> retval = new ArrayList<>();
+        for (int i = 0; i < size.getLanguages(); i++) {
+            retval.add(new DefaultLangStringTextType.Builder().text(text).language(LANGUAGES[i % LANGUAGES.length]).build());
+        }
+        return retval;
+    }
+
+
+    private static List<LangStringNameType> displayNames(String name, DescriptorSize size) {
+        List<LangStringNameType> retval = new ArrayList<>();
+        for (int i = 0; i < size.getLanguages(); i++) {
+            retval.add(new DefaultLangStringNameType.Builder().text(name).language(LANGUAGES[i % LANGUAGES.length]).build());
+        }
+        return retval;
+    }
+
+
+    private static List<Extension> extensions(DescriptorSize size) {
+        List<Extension> retval = new ArrayList<>();
+        for (int i = 0; i < size.getExtensions(); i++) {
+            retval.add(new DefaultExtension.Builder()
+                    .name("extension" + i)
+                    .valueType(DataTypeDefXsd.STRING)
+                    .value("value" + i)
+                    .build());
+        }
+        return retval;
+    }
+
+
+    private static Reference semanticId(String value) {
+        return new DefaultReference.Builder()
+                .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                .keys(new DefaultKey.Builder()
+                        .type(KeyTypes.GLOBAL_REFERENCE)
+                        .value(value)
+                        .build())
+                .build();
+    }
+
+
+    private static DefaultEndpoint endpoint(String href) {
+        return new DefaultEndpoint.Builder()
+                ._interface("AAS-3.0")
+                .protocolInformation(new DefaultProtocolInformation.Builder()
+                        .href(href)
+                        .endpointProtocol("HTTP")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+/**
+ * Size of the descriptors created by {@link DescriptorFactory#shell(int, DescriptorSize)}.
+ */
+public enum DescriptorSize {
+    /**
+     * A shell without submodels and with a single entry in each list.
+     */
+    SMALL(0, 1, 1, 0, 32),
+    /**
+     * A shell as typically registered by a single asset.
+     */
+    MEDIUM(3, 2, 3, 2, 128),
+    /**
+     * A shell with many submodels, languages and specific asset IDs, and texts close to the maximum length.
+     */
+    HUGE(100, 5, 20, 10, 1000);
+
+    private final int submodels;
+    private final int languages;
+    private final int specificAssetIds;
+    private final int extensions;
+    private final int textLength;
+
+    DescriptorSize(int submodels, int languages, int specificAssetIds, int extensions, int textLength) {
+        this.submodels = submodels;
+        this.languages = languages;
+        this.specificAssetIds = specificAssetIds;
+        this.extensions = extensions;
+        this.textLength = textLength;
+    }
+
+
+    public int getSubmodels() {
+        return submodels;
+    }
+
+
+    public int getLanguages() {
+        return languages;
+    }
+
+
+    public int getSpecificAssetIds() {
+        return specificAssetIds;
+    }
+
+
+    public int getExtensions() {
+        return extensions;
+    }
+
+
+    public int getTextLength() {
+        return textLength;
+    }
+}
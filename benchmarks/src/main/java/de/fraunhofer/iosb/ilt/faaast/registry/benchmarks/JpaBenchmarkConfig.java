@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.AasRepositoryJpa;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+
+/**
+ * Spring configuration of the JPA repository on an embedded H2 database, without the rest of the service.
+ */
+@Configuration
+public class JpaBenchmarkConfig {
+
+    /**
+     * Creates the in-memory H2 database.
+     *
+     * @return The data source.
+     */
+    @Bean
+    public DataSource dataSource() {
+        JdbcDataSource retval = new JdbcDataSource();
+        retval.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        return retval;
+    }
+
+
+    /**
+     * Creates the entity manager factory with the mapping of the JPA persistence.
+     *
+     * @param dataSource The data source.
+     * @return The entity manager factory.
+     */
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean retval = new LocalContainerEntityManagerFactoryBean();
+        retval.setDataSource(dataSource);
+        retval.setPackagesToScan("de.fraunhofer.iosb.ilt.faaast.registry.jpa.model");
+        retval.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        retval.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        return retval;
+    }
+
+
+    /**
+     * Creates the transaction manager.
+     *
+     * @param entityManagerFactory The entity manager factory.
+     * @return The transaction manager.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+
+    /**
+     * Creates the repository.
+     *
+     * @param transactionManager The transaction manager.
+     * @return The repository.
+     */
+    @Bean
+    public AasRepositoryJpa aasRepository(PlatformTransactionManager transactionManager) {
+        return new AasRepositoryJpa(transactionManager);
+    }
+}
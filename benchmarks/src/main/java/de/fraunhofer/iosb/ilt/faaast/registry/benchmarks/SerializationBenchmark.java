@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.config.DescriptorMapperConfig;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+
+/**
+ * Benchmarks the (de)serialization of shell descriptors with the mappers configured by {@link DescriptorMapperConfig},
+ * in each of the formats supported by the HTTP endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {
+        "-Xms2g",
+        "-Xmx2g"
+})
+public class SerializationBenchmark {
+
+    @Param
+    public DescriptorSize size;
+
+    @Param({
+            "json",
+            "cbor",
+            "smile"
+    })
+    public String format;
+
+    private ObjectMapper mapper;
+    private AssetAdministrationShellDescriptor shell;
+    private byte[] serialized;
+
+    /**
+     * Creates the mapper and the shell, and serializes the shell once as input for deserialization.
+     */
+    @Setup
+    public void setup() {
+        mapper = switch (format) {
+            case "json" -> DescriptorMapperConfig.configure(JsonMapper.builder()).build();
+            case "cbor" -> DescriptorMapperConfig.configure(CBORMapper.builder()).build();
+            case "smile" -> DescriptorMapperConfig.configure(SmileMapper.builder()).build();
+            default -> throw new IllegalArgumentException(String.format("unsupported format: %s", format));
+        };
+        shell = DescriptorFactory.shell(1, size);
+        serialized = mapper.writeValueAsBytes(shell);
+    }
+
+
+    /**
+     * Serializes the shell.
+     *
+     * @return the serialized shell
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(shell);
+    }
+
+
+    /**
+     * Deserializes the shell.
+     *
+     * @return the deserialized shell
+     */
+    @Benchmark
+    public AssetAdministrationShellDescriptor deserialize() {
+        return mapper.readValue(serialized, AssetAdministrationShellDescriptor.class);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.benchmarks;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.ConstraintHelper;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.TextConstraintHelper;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks the validation of descriptors with {@link ConstraintHelper}. The text and language checks are measured
+ * with {@link TextConstraintHelper} as well as with the equivalent regular expressions, so both can be compared
+ * directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {
+        "-Xms2g",
+        "-Xmx2g"
+})
+public class ValidationBenchmark {
+
+    @Param
+    public DescriptorSize size;
+
+    private AssetAdministrationShellDescriptor shell;
+    private SubmodelDescriptor submodel;
+    private String text;
+    private String language;
+
+    /**
+     * Creates the shell and takes the longest text of it as input for the text checks. The language tag is
+     * a field, so the checks cannot be constant-folded.
+     */
+    @Setup
+    public void setup() {
+        shell = DescriptorFactory.shell(1, size);
+        submodel = DescriptorFactory.submodel(1, 0, size);
+        text = shell.getDescription().get(0).getText();
+        language = "de-CH-1901";
+    }
+
+
+    /**
+     * Validates the shell.
+     *
+     * @return the validated shell
+     */
+    @Benchmark
+    public AssetAdministrationShellDescriptor validateShell() {
+        ConstraintHelper.validate(shell);
+        return shell;
+    }
+
+
+    /**
+     * Validates a submodel.
+     *
+     * @return the validated submodel
+     */
+    @Benchmark
+    public SubmodelDescriptor validateSubmodel() {
+        ConstraintHelper.validate(submodel);
+        return submodel;
+    }
+
+
+    /**
+     * Checks the text with {@link TextConstraintHelper}.
+     *
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean checkText() {
+        return TextConstraintHelper.isValidText(text);
+    }
+
+
+    /**
+     * Checks the text with the regular expression.
+     *
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean checkTextRegex() {
+        return ConstraintHelper.TEXT_PATTERN.matcher(text).matches();
+    }
+
+
+    /**
+     * Checks a language tag with {@link TextConstraintHelper}.
+     *
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean checkLanguage() {
+        return TextConstraintHelper.isValidLanguage(language);
+    }
+
+
+    /**
+     * Checks a language tag with the regular expression.
+     *
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean checkLanguageRegex() {
+        return ConstraintHelper.LANG_LANGUAGE_PATTERN.matcher(language).matches();
+    }
+}
@@ -14,11 +14,15 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.registry.core;
 
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.GoneException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import java.util.Collection;
 import java.util.List;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
@@ -51,6 +55,19 @@ public interface AasRepository {
     public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging);
 
 
+    /**
+     * Retrieves a list of all registered Asset Administration Shells which meet the given conditions, containing only
+     * the requested properties. Omitted properties are not loaded from the underlying storage.
+     *
+     * @param assetType The desired Asset Type.
+     * @param assetKind The desired Asset Kind.
+     * @param paging The desired Paging info.
+     * @param projection The desired properties.
+     * @return The list of the registered Asset Administration Shells for the desired page.
+     */
+    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging, DescriptorProjection projection);
+
+
     /**
      * Retrieves the Asset Administration Shell with the given ID.
      *
@@ -61,6 +78,16 @@ public interface AasRepository {
     public AssetAdministrationShellDescriptor getAAS(String aasId) throws ResourceNotFoundException;
 
 
+    /**
+     * Retrieves all Asset Administration Shells with the given IDs. IDs that are not registered are skipped, duplicate
+     * IDs are returned only once. The Asset Administration Shells are returned in the order of the given IDs.
+     *
+     * @param aasIds The IDs of the desired Asset Administration Shells.
+     * @return The list of the Asset Administration Shells found.
+     */
+    public List<AssetAdministrationShellDescriptor> getAASsByIds(Collection<String> aasIds);
+
+
     /**
      * Retrieves the Asset Administration Shells Identifiers with the given AssetLinks. *All* of the AssetLinks
      * must match.
@@ -74,6 +101,17 @@ public interface AasRepository {
     public Page<String> getAASIdentifiersByAssetLink(List<AssetLink> assetLinks, PagingInfo pagingInfo);
 
 
+    /**
+     * Evaluates many independent AssetLink queries at once. Each query is evaluated like
+     * {@link #getAASIdentifiersByAssetLink(List, PagingInfo)}, but without paging. A query without any AssetLink does
+     * not match any Asset Administration Shell.
+     *
+     * @param assetLinkQueries The queries, each query is a list of AssetLinks which must all match.
+     * @return The identifiers of the matching Asset Administration Shells for each query, in the order of the queries.
+     */
+    public List<List<String>> getAASIdentifiersByAssetLinks(List<List<AssetLink>> assetLinkQueries);
+
+
     /**
      * Create the given Asset Administration Shell.
      *
@@ -104,6 +142,16 @@ public interface AasRepository {
     public AssetAdministrationShellDescriptor update(String aasId, AssetAdministrationShellDescriptor descriptor) throws ResourceNotFoundException;
 
 
+    /**
+     * Creates the given Asset Administration Shell or replaces it, if an Asset Administration Shell with the same ID
+     * already exists.
+     *
+     * @param descriptor The desired Asset Administration Shell.
+     * @return The created or replaced Asset Administration Shell.
+     */
+    public AssetAdministrationShellDescriptor upsert(AssetAdministrationShellDescriptor descriptor);
+
+
     /**
      * Retrieves a list of all Submodels of the given Asset Administration Shell.
      *
@@ -115,6 +163,19 @@ public interface AasRepository {
     public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging) throws ResourceNotFoundException;
 
 
+    /**
+     * Retrieves a list of all Submodels of the given Asset Administration Shell, containing only the requested
+     * properties.
+     *
+     * @param aasId The ID of the desired Asset Administration Shell.
+     * @param paging The desired Paging info.
+     * @param projection The desired properties.
+     * @return The list of Submodels for the desired page.
+     * @throws ResourceNotFoundException if the requested resource does not exist
+     */
+    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging, DescriptorProjection projection) throws ResourceNotFoundException;
+
+
     /**
      * Retrieves a list of all registered Submodels.
      *
@@ -124,6 +185,16 @@ public interface AasRepository {
     public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging);
 
 
+    /**
+     * Retrieves a list of all registered Submodels, containing only the requested properties.
+     *
+     * @param paging The desired Paging info.
+     * @param projection The desired properties.
+     * @return The list of Submodels for the desired page.
+     */
+    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging, DescriptorProjection projection);
+
+
     /**
      * Retrieves the Submodel with given AAS ID and Submodel ID.
      *
@@ -145,6 +216,16 @@ public interface AasRepository {
     public SubmodelDescriptor getSubmodel(String submodelId) throws ResourceNotFoundException;
 
 
+    /**
+     * Retrieves all Submodels with the given IDs. IDs that are not registered are skipped, duplicate IDs are returned
+     * only once. The Submodels are returned in the order of the given IDs.
+     *
+     * @param submodelIds The IDs of the desired Submodels.
+     * @return The list of the Submodels found.
+     */
+    public List<SubmodelDescriptor> getSubmodelsByIds(Collection<String> submodelIds);
+
+
     /**
      * Adds a Submodel to the given AAS.
      *
@@ -186,6 +267,81 @@ public interface AasRepository {
     public void deleteSubmodel(String submodelId) throws ResourceNotFoundException;
 
 
+    /**
+     * Replaces the Submodel with the given AAS ID and Submodel ID by the given Submodel. The Submodel keeps its
+     * position in the AAS.
+     *
+     * @param aasId The ID of the desired AAS.
+     * @param submodelId The ID of the Submodel to replace.
+     * @param descriptor The desired Submodel.
+     * @return The updated Submodel.
+     * @throws ResourceNotFoundException if the AAS or the Submodel does not exist
+     * @throws ResourceAlreadyExistsException if the ID changes and the AAS already contains a Submodel with the new ID
+     */
+    public SubmodelDescriptor updateSubmodel(String aasId, String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException;
+
+
+    /**
+     * Replaces the Submodel with the given ID by the given Submodel.
+     *
+     * @param submodelId The ID of the Submodel to replace.
+     * @param descriptor The desired Submodel.
+     * @return The updated Submodel.
+     * @throws ResourceNotFoundException if the Submodel does not exist
+     * @throws ResourceAlreadyExistsException if the ID changes and a Submodel with the new ID already exists
+     */
+    public SubmodelDescriptor updateSubmodel(String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException;
+
+
+    /**
+     * Creates the given Submodel or replaces it, if a Submodel with the same ID already exists.
+     *
+     * @param descriptor The desired Submodel.
+     * @return The created or replaced Submodel.
+     */
+    public SubmodelDescriptor upsertSubmodel(SubmodelDescriptor descriptor);
+
+
+    /**
+     * Retrieves the current revision of the registry. Every modification of a descriptor increments the revision.
+     *
+     * @return The current revision, 0 if nothing was modified yet.
+     */
+    public long getRevision();
+
+
+    /**
+     * Gets the number of registered Asset Administration Shell Descriptors.
+     *
+     * @return The number of Asset Administration Shell Descriptors.
+     */
+    public long getAASCount();
+
+
+    /**
+     * Gets the number of registered standalone Submodel Descriptors, i.e. Submodel Descriptors not contained in an
+     * Asset Administration Shell Descriptor.
+     *
+     * @return The number of standalone Submodel Descriptors.
+     */
+    public long getSubmodelCount();
+
+
+    /**
+     * Retrieves the descriptors changed after the given revision, ordered by revision. For every descriptor only the
+     * latest change is returned, so the size of the result depends on the number of changed descriptors, not on the
+     * size of the registry. The cursor of the paging info is a revision as well and takes precedence over since.
+     * Deletions are pruned from the change log after a retention time, so the changes after a revision older than the
+     * latest pruned deletion are no longer available.
+     *
+     * @param since The revision after which the changes are requested, 0 for all changes.
+     * @param paging The desired Paging info.
+     * @return The changes for the desired page.
+     * @throws GoneException if deletions after the requested revision were pruned
+     */
+    public Page<DescriptorChange> getChanges(long since, PagingInfo paging);
+
+
     /**
      * Starts a transaction.
      *
@@ -218,6 +374,15 @@ public interface AasRepository {
     public boolean getTransactionActive();
 
 
+    /**
+     * Returns a value indicating whether multiple transactions can be active at the same time, each bound to the thread
+     * which started it.
+     *
+     * @return True when concurrent transactions are supported, false otherwise.
+     */
+    public boolean supportsConcurrentTransactions();
+
+
     /**
      * Clears the repos and deletes all descriptors.
      * Only used for tests!
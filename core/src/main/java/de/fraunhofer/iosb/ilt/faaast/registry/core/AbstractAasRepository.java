@@ -15,9 +15,12 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.core;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.GoneException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
@@ -29,6 +32,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
 import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 
@@ -38,6 +42,11 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
  */
 public abstract class AbstractAasRepository implements AasRepository {
 
+    /**
+     * The default time in milliseconds the deletion of a descriptor is kept in the change log (7 days).
+     */
+    public static final long DEFAULT_TOMBSTONE_RETENTION = 604800000;
+
     protected AbstractAasRepository() {}
 
 
@@ -47,6 +56,24 @@ public abstract class AbstractAasRepository implements AasRepository {
     }
 
 
+    @Override
+    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging) {
+        return getAASs(assetType, assetKind, paging, DescriptorProjection.ALL);
+    }
+
+
+    @Override
+    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging) throws ResourceNotFoundException {
+        return getSubmodels(aasId, paging, DescriptorProjection.ALL);
+    }
+
+
+    @Override
+    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging) {
+        return getSubmodels(paging, DescriptorProjection.ALL);
+    }
+
+
     /**
      * Creates a new {@link ResourceNotFoundException} for the AAS.
      *
@@ -149,6 +176,29 @@ public abstract class AbstractAasRepository implements AasRepository {
     }
 
 
+    /**
+     * Helper method to ensure a list of IDs is valid.
+     *
+     * @param ids the IDs to validate
+     * @throws IllegalArgumentException if ids is null or contains null
+     */
+    protected static void ensureIds(Collection<String> ids) {
+        Ensure.requireNonNull(ids, "ids must be non-null");
+        Ensure.require(ids.stream().allMatch(Objects::nonNull), "ids must not contain null");
+    }
+
+
+    /**
+     * Helper method to ensure a projection is not null.
+     *
+     * @param projection the projection to validate
+     * @throws IllegalArgumentException if projection is null
+     */
+    protected static void ensureProjection(DescriptorProjection projection) {
+        Ensure.requireNonNull(projection, "projection must be non-null");
+    }
+
+
     /**
      * Helper method to look for a submodel with the desired submodelId in a given list of submdels.
      *
@@ -279,6 +329,73 @@ public abstract class AbstractAasRepository implements AasRepository {
     }
 
 
+    /**
+     * Helper method to read the revision after which changes are requested. The cursor of the paging info contains the
+     * revision of the last change of the previous page and takes precedence over since.
+     *
+     * @param since The revision given by the client.
+     * @param paging The desired paging info.
+     * @return The revision after which changes are requested.
+     * @throws BadRequestException if the revision or the cursor is invalid
+     */
+    protected static long readRevision(long since, PagingInfo paging) {
+        long retval = since;
+        if (paging.getCursor() != null) {
+            try {
+                retval = Long.parseLong(paging.getCursor());
+            }
+            catch (NumberFormatException ex) {
+                throw new BadRequestException("Cursor must be a revision");
+            }
+        }
+        if (retval < 0) {
+            throw new BadRequestException("Revision must not be negative");
+        }
+        return retval;
+    }
+
+
+    /**
+     * Helper method to ensure that no deletion after the requested revision was pruned from the change log. Must be
+     * called after reading the changes, so a concurrent pruning is detected as well.
+     *
+     * @param since The revision after which changes are requested.
+     * @param horizon The revision of the latest pruned deletion, 0 if none was pruned.
+     * @throws GoneException if deletions after the requested revision were pruned, so the client must synchronize
+     *             all descriptors again
+     */
+    protected static void ensureHorizon(long since, long horizon) {
+        if (since > 0 && since < horizon) {
+            throw new GoneException(String.format(
+                    "Changes before revision %d are no longer available, synchronize all descriptors again (since: %d)", horizon, since));
+        }
+    }
+
+
+    /**
+     * Constructs a page of changes. The list must contain one element more than the limit if further changes exist.
+     * The cursor of the next page is the revision of the last change of the page.
+     *
+     * @param changes The changes, ordered by revision.
+     * @param limit The limit.
+     * @return The desired page.
+     */
+    protected static Page<DescriptorChange> getChangePage(List<DescriptorChange> changes, int limit) {
+        String nextCursor = null;
+        List<DescriptorChange> list = changes;
+        if (changes.size() > limit) {
+            list = changes.subList(0, limit);
+            nextCursor = Long.toString(list.get(limit - 1).getRevision());
+        }
+        return Page.<DescriptorChange> builder()
+                .result(list)
+                .metadata(PagingMetadata.builder()
+                        .cursor(nextCursor)
+                        .build())
+                .build();
+    }
+
+
     private void filterByGlobalAssetId(List<AssetAdministrationShellDescriptor> descriptors, Collection<AssetLink> assetLinks,
                                        List<AssetLink> realSpecificAssetIds) {
         List<AssetLink> globalAssetIds = assetLinks.stream()
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+
+
+/**
+ * Storage for the status of asynchronous bulk operations. The status of a finished operation expires after a
+ * configurable time, and when the configurable capacity is exceeded, the status of the operations finished first is
+ * removed. The status of running operations never expires.
+ */
+public interface BulkOperationStatusStore {
+
+    /**
+     * Sets the status of a bulk operation.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @param status the current status of the operation
+     */
+    public void setStatus(String handleId, ExecutionState status);
+
+
+    /**
+     * Retrieves the status of a bulk operation.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @return the current status, null if not found or expired
+     */
+    public ExecutionState getStatus(String handleId);
+
+
+    /**
+     * Sets an error message of a bulk operation. Ignored if there is no status of the operation, e.g. as it expired.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @param message The desired error message.
+     */
+    public void setErrorMessage(String handleId, String message);
+
+
+    /**
+     * Gets an error message of a bulk operation.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @return The corresponding error message, null if no message was found.
+     */
+    public String getErrorMessage(String handleId);
+
+
+    /**
+     * Sets the progress of a bulk operation executed in chunks. Failures are only added to the progress, so
+     * implementations only need to store the failures added since the last call. Ignored if there is no status of the
+     * operation, e.g. as it expired.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @param progress The progress.
+     */
+    public void setProgress(String handleId, BulkOperationProgress progress);
+
+
+    /**
+     * Gets the progress of a bulk operation executed in chunks.
+     *
+     * @param handleId unique identifier for the bulk operation
+     * @return The progress, null if the operation is not executed in chunks or not found.
+     */
+    public BulkOperationProgress getProgress(String handleId);
+
+
+    /**
+     * Gets the number of stored entries, including expired entries that are not removed yet.
+     *
+     * @return the number of stored entries
+     */
+    public long size();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * JDK Flight Recorder event for a phase of an asynchronous bulk operation. The validation phase is only recorded if the
+ * descriptors are validated as first step of the operation, the execution phase covers all transactions of the
+ * operation.
+ */
+@Name(BulkOperationEvent.NAME)
+@Label("Bulk Operation")
+@Description("Phase of an asynchronous bulk operation")
+@Category({
+        JfrConstants.CATEGORY,
+        "Bulk"
+})
+@StackTrace(false)
+public class BulkOperationEvent extends Event {
+
+    public static final String NAME = JfrConstants.PREFIX + "BulkOperation";
+    public static final String VALIDATION = "validation";
+    public static final String EXECUTION = "execution";
+
+    @Label("Handle Id")
+    private String handleId;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Items")
+    private int items;
+
+    @Label("Queue Time")
+    @Description("Time the operation waited for a worker")
+    @Timespan(Timespan.NANOSECONDS)
+    private long queueTime;
+
+    @Label("State")
+    @Description("State of the operation after the phase")
+    private String state;
+
+    public BulkOperationEvent(String handleId, String operation, String phase, int items, long queueTime) {
+        this.handleId = handleId;
+        this.operation = operation;
+        this.phase = phase;
+        this.items = items;
+        this.queueTime = queueTime;
+    }
+
+
+    public void setState(String state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * JDK Flight Recorder event for a call to an {@link de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository}. The
+ * duration of the event is the duration of the call.
+ */
+@Name(RepositoryOperationEvent.NAME)
+@Label("Repository Operation")
+@Description("Call to the AAS repository")
+@Category({
+        JfrConstants.CATEGORY,
+        "Repository"
+})
+@StackTrace(false)
+public class RepositoryOperationEvent extends Event {
+
+    public static final String NAME = JfrConstants.PREFIX + "RepositoryOperation";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Identifiers")
+    @Description("Identifiers passed to the operation")
+    private String ids;
+
+    @Label("Result Size")
+    @Description("Number of returned descriptors, 1 for a single result, 0 for none")
+    private int resultSize;
+
+    @Label("Exception")
+    private String exception;
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+
+    public void setIds(String ids) {
+        this.ids = ids;
+    }
+
+
+    public void setResultSize(int resultSize) {
+        this.resultSize = resultSize;
+    }
+
+
+    public void setException(String exception) {
+        this.exception = exception;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * JDK Flight Recorder event for the start, commit or rollback of a transaction of an
+ * {@link de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository}. The duration of a start event includes the time
+ * waiting for running transactions, the duration of a commit or rollback event the time to finish the transaction.
+ */
+@Name(TransactionEvent.NAME)
+@Label("Transaction")
+@Description("Start, commit or rollback of a repository transaction")
+@Category({
+        JfrConstants.CATEGORY,
+        "Repository"
+})
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    public static final String NAME = JfrConstants.PREFIX + "Transaction";
+    public static final String START = "start";
+    public static final String COMMIT = "commit";
+    public static final String ROLLBACK = "rollback";
+
+    @Label("Action")
+    private String action;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Transaction Number")
+    private int transactionNr;
+
+    @Label("Backup Size")
+    @Description("Number of descriptors backed up during the transaction, only recorded by the In-Memory Persistence")
+    private int backupSize;
+
+    @Label("Backup Time")
+    @Description("Time spent backing up descriptors during the transaction, only recorded by the In-Memory Persistence")
+    @Timespan(Timespan.NANOSECONDS)
+    private long backupTime;
+
+    public TransactionEvent(String backend, String action, int transactionNr) {
+        this.backend = backend;
+        this.action = action;
+        this.transactionNr = transactionNr;
+    }
+
+
+    public void setBackupSize(int backupSize) {
+        this.backupSize = backupSize;
+    }
+
+
+    public void setBackupTime(long backupTime) {
+        this.backupTime = backupTime;
+    }
+}
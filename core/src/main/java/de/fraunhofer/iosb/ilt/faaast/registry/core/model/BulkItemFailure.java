@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.model;
+
+import java.util.Objects;
+
+
+/**
+ * Outcome of an item of a bulk operation which failed.
+ */
+public class BulkItemFailure {
+
+    private int index;
+    private String id;
+    private String message;
+
+    public BulkItemFailure() {}
+
+
+    public BulkItemFailure(int index, String id, String message) {
+        this.index = index;
+        this.id = id;
+        this.message = message;
+    }
+
+
+    public int getIndex() {
+        return index;
+    }
+
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+
+    public String getId() {
+        return id;
+    }
+
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+
+    public String getMessage() {
+        return message;
+    }
+
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, message);
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        BulkItemFailure other = (BulkItemFailure) obj;
+        return index == other.index
+                && Objects.equals(id, other.id)
+                && Objects.equals(message, other.message);
+    }
+}
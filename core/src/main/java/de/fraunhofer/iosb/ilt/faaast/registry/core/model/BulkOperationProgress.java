@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+
+
+/**
+ * Progress and per-item outcome of a bulk operation executed in chunks. The items are processed in the order of the
+ * request, so all processed items not contained in the failures succeeded.
+ */
+public class BulkOperationProgress {
+
+    private final int total;
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final List<BulkItemFailure> failures = new ArrayList<>();
+    private volatile ExecutionState executionState = ExecutionState.RUNNING;
+
+    public BulkOperationProgress(int total) {
+        this.total = total;
+    }
+
+
+    public int getTotal() {
+        return total;
+    }
+
+
+    /**
+     * Gets the number of processed items.
+     *
+     * @return The number of processed items.
+     */
+    public int getProcessed() {
+        return getSucceeded() + getFailed();
+    }
+
+
+    /**
+     * Gets the number of items which succeeded.
+     *
+     * @return The number of items which succeeded.
+     */
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+
+    /**
+     * Gets the number of failed items.
+     *
+     * @return The number of failed items.
+     */
+    public int getFailed() {
+        synchronized (failures) {
+            return failures.size();
+        }
+    }
+
+
+    /**
+     * Gets the items which failed.
+     *
+     * @return The failed items, in the order of the request.
+     */
+    public List<BulkItemFailure> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+
+    public ExecutionState getExecutionState() {
+        return executionState;
+    }
+
+
+    public void setExecutionState(ExecutionState executionState) {
+        this.executionState = executionState;
+    }
+
+
+    /**
+     * Records items which succeeded.
+     *
+     * @param count The number of items.
+     */
+    public void addSucceeded(int count) {
+        succeeded.addAndGet(count);
+    }
+
+
+    /**
+     * Records an item which failed.
+     *
+     * @param index The index of the item in the request.
+     * @param id The id of the item.
+     * @param message The error message.
+     */
+    public void addFailure(int index, String id, String message) {
+        synchronized (failures) {
+            failures.add(new BulkItemFailure(index, id, message));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.model;
+
+import java.util.Objects;
+
+
+/**
+ * Class representing an entry of the change log, i.e. the latest change of a descriptor. Changes of the Submodel
+ * descriptors contained in an Asset Administration Shell are recorded as changes of the Asset Administration Shell.
+ */
+public class DescriptorChange {
+
+    /**
+     * The type of the changed descriptor.
+     */
+    public enum Resource {
+        SHELL,
+        SUBMODEL
+    }
+
+    private long revision;
+    private Resource resource;
+    private String id;
+    private boolean deleted;
+
+    public DescriptorChange() {}
+
+
+    public DescriptorChange(long revision, Resource resource, String id, boolean deleted) {
+        this.revision = revision;
+        this.resource = resource;
+        this.id = id;
+        this.deleted = deleted;
+    }
+
+
+    public long getRevision() {
+        return revision;
+    }
+
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+
+    public Resource getResource() {
+        return resource;
+    }
+
+
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+
+    public String getId() {
+        return id;
+    }
+
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        DescriptorChange other = (DescriptorChange) obj;
+        return revision == other.revision
+                && resource == other.resource
+                && Objects.equals(id, other.id)
+                && deleted == other.deleted;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(revision, resource, id, deleted);
+    }
+}
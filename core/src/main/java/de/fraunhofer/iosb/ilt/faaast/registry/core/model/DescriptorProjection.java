@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.model;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+
+
+/**
+ * Class representing a sparse fieldset, i.e. the set of top-level descriptor properties a client is interested in.
+ * The id is always part of the projection.
+ */
+public class DescriptorProjection {
+
+    public static final String ID = "id";
+    public static final String ID_SHORT = "idShort";
+    public static final String DESCRIPTION = "description";
+    public static final String DISPLAY_NAME = "displayName";
+    public static final String ADMINISTRATION = "administration";
+    public static final String ENDPOINTS = "endpoints";
+    public static final String EXTENSIONS = "extensions";
+    public static final String ASSET_KIND = "assetKind";
+    public static final String ASSET_TYPE = "assetType";
+    public static final String GLOBAL_ASSET_ID = "globalAssetId";
+    public static final String SPECIFIC_ASSET_IDS = "specificAssetIds";
+    public static final String SUBMODEL_DESCRIPTORS = "submodelDescriptors";
+    public static final String SEMANTIC_ID = "semanticId";
+    public static final String SUPPLEMENTAL_SEMANTIC_IDS = "supplementalSemanticIds";
+
+    /**
+     * The names of the properties of an AssetAdministrationShellDescriptor which may be requested.
+     */
+    public static final Set<String> SHELL_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            ID, ID_SHORT, DESCRIPTION, DISPLAY_NAME, ADMINISTRATION, ENDPOINTS, EXTENSIONS, ASSET_KIND, ASSET_TYPE, GLOBAL_ASSET_ID,
+            SPECIFIC_ASSET_IDS, SUBMODEL_DESCRIPTORS)));
+
+    /**
+     * The names of the properties of a SubmodelDescriptor which may be requested.
+     */
+    public static final Set<String> SUBMODEL_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            ID, ID_SHORT, DESCRIPTION, DISPLAY_NAME, ADMINISTRATION, ENDPOINTS, EXTENSIONS, SEMANTIC_ID, SUPPLEMENTAL_SEMANTIC_IDS)));
+
+    /**
+     * Projection containing all properties.
+     */
+    public static final DescriptorProjection ALL = new DescriptorProjection(null);
+
+    private final Set<String> fields;
+
+    private DescriptorProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+
+    /**
+     * Parses a comma-separated list of property names as given in the fields query parameter.
+     *
+     * @param fields The comma-separated list of property names, may be null.
+     * @param knownFields The properties of the requested descriptors, i.e. {@link #SHELL_FIELDS} or
+     *            {@link #SUBMODEL_FIELDS}.
+     * @return The projection. If fields is null or blank, {@link #ALL} is returned.
+     * @throws BadRequestException if a property the requested descriptors do not have is requested
+     */
+    public static DescriptorProjection parse(String fields, Set<String> knownFields) {
+        if ((fields == null) || fields.isBlank()) {
+            return ALL;
+        }
+        return of(Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(x -> !x.isEmpty())
+                .collect(Collectors.toList()), knownFields);
+    }
+
+
+    /**
+     * Creates a projection for the given property names.
+     *
+     * @param fields The desired property names.
+     * @param knownFields The properties of the requested descriptors, i.e. {@link #SHELL_FIELDS} or
+     *            {@link #SUBMODEL_FIELDS}.
+     * @return The projection.
+     * @throws BadRequestException if a property the requested descriptors do not have is requested
+     */
+    public static DescriptorProjection of(Iterable<String> fields, Set<String> knownFields) {
+        Set<String> set = new LinkedHashSet<>();
+        set.add(ID);
+        for (String field: fields) {
+            if (!knownFields.contains(field)) {
+                throw new BadRequestException(String.format("Unknown field: %s", field));
+            }
+            set.add(field);
+        }
+        return new DescriptorProjection(Collections.unmodifiableSet(set));
+    }
+
+
+    /**
+     * Returns a value indicating whether all properties are requested.
+     *
+     * @return True if all properties are requested, false otherwise.
+     */
+    public boolean isAll() {
+        return fields == null;
+    }
+
+
+    /**
+     * Returns a value indicating whether the given property is requested.
+     *
+     * @param field The name of the desired property.
+     * @return True if the property is requested, false otherwise.
+     */
+    public boolean includes(String field) {
+        return isAll() || fields.contains(field);
+    }
+
+
+    /**
+     * Gets the requested property names.
+     *
+     * @return The requested property names, null if all properties are requested.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+
+    /**
+     * Creates a shallow copy of the given descriptor containing only the requested properties.
+     *
+     * @param descriptor The desired descriptor.
+     * @return The projected descriptor, or the descriptor itself if all properties are requested.
+     */
+    public AssetAdministrationShellDescriptor apply(AssetAdministrationShellDescriptor descriptor) {
+        if (isAll() || Objects.isNull(descriptor)) {
+            return descriptor;
+        }
+        DefaultAssetAdministrationShellDescriptor.Builder builder = new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id(descriptor.getId());
+        if (includes(ID_SHORT)) {
+            builder.idShort(descriptor.getIdShort());
+        }
+        if (includes(DESCRIPTION)) {
+            builder.description(descriptor.getDescription());
+        }
+        if (includes(DISPLAY_NAME)) {
+            builder.displayName(descriptor.getDisplayName());
+        }
+        if (includes(ADMINISTRATION)) {
+            builder.administration(descriptor.getAdministration());
+        }
+        if (includes(ENDPOINTS)) {
+            builder.endpoints(descriptor.getEndpoints());
+        }
+        if (includes(EXTENSIONS)) {
+            builder.extensions(descriptor.getExtensions());
+        }
+        if (includes(ASSET_KIND)) {
+            builder.assetKind(descriptor.getAssetKind());
+        }
+        if (includes(ASSET_TYPE)) {
+            builder.assetType(descriptor.getAssetType());
+        }
+        if (includes(GLOBAL_ASSET_ID)) {
+            builder.globalAssetId(descriptor.getGlobalAssetId());
+        }
+        if (includes(SPECIFIC_ASSET_IDS)) {
+            builder.specificAssetIds(descriptor.getSpecificAssetIds());
+        }
+        if (includes(SUBMODEL_DESCRIPTORS)) {
+            builder.submodelDescriptors(descriptor.getSubmodelDescriptors());
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Creates a shallow copy of the given descriptor containing only the requested properties.
+     *
+     * @param descriptor The desired descriptor.
+     * @return The projected descriptor, or the descriptor itself if all properties are requested.
+     */
+    public SubmodelDescriptor apply(SubmodelDescriptor descriptor) {
+        if (isAll() || Objects.isNull(descriptor)) {
+            return descriptor;
+        }
+        DefaultSubmodelDescriptor.Builder builder = new DefaultSubmodelDescriptor.Builder()
+                .id(descriptor.getId());
+        if (includes(ID_SHORT)) {
+            builder.idShort(descriptor.getIdShort());
+        }
+        if (includes(DESCRIPTION)) {
+            builder.description(descriptor.getDescription());
+        }
+        if (includes(DISPLAY_NAME)) {
+            builder.displayName(descriptor.getDisplayName());
+        }
+        if (includes(ADMINISTRATION)) {
+            builder.administration(descriptor.getAdministration());
+        }
+        if (includes(ENDPOINTS)) {
+            builder.endpoints(descriptor.getEndpoints());
+        }
+        if (includes(EXTENSIONS)) {
+            builder.extensions(descriptor.getExtensions());
+        }
+        if (includes(SEMANTIC_ID)) {
+            builder.semanticId(descriptor.getSemanticId());
+        }
+        if (includes(SUPPLEMENTAL_SEMANTIC_IDS)) {
+            builder.supplementalSemanticIds(descriptor.getSupplementalSemanticIds());
+        }
+        return builder.build();
+    }
+}
@@ -15,8 +15,12 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.core.util;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.service.util.FaaastConstants;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
 
 
@@ -38,4 +42,23 @@ public class AssetLinkHelper {
         return specificAssetIds.stream().map(x -> new AssetLink.Builder().from(x).build())
                 .collect(Collectors.toList());
     }
+
+
+    /**
+     * Helper method for creating the list of all AssetLinks of an AAS descriptor, i.e. its globalAssetId and its
+     * SpecificAssetIds.
+     *
+     * @param descriptor The AAS descriptor.
+     * @return The list of AssetLinks.
+     */
+    public static List<AssetLink> of(AssetAdministrationShellDescriptor descriptor) {
+        List<AssetLink> retval = new ArrayList<>();
+        if (Objects.nonNull(descriptor.getGlobalAssetId())) {
+            retval.add(new AssetLink(FaaastConstants.KEY_GLOBAL_ASSET_ID, descriptor.getGlobalAssetId()));
+        }
+        if (Objects.nonNull(descriptor.getSpecificAssetIds())) {
+            retval.addAll(from(descriptor.getSpecificAssetIds()));
+        }
+        return retval;
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.util;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.service.util.FaaastConstants;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
+
+
+/**
+ * Index of the asset links of AAS descriptors used to evaluate many asset link queries at once. Only the asset links
+ * that occur in one of the queries are indexed, all others are ignored when added.
+ */
+public class AssetLinkIndex {
+
+    private final List<List<AssetLink>> queries;
+    private final Map<String, Set<String>> globalAssetIds = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> specificAssetIds = new HashMap<>();
+
+    /**
+     * Creates a new index for the given queries.
+     *
+     * @param queries The queries, each query is a list of asset links which must all match.
+     */
+    public AssetLinkIndex(List<List<AssetLink>> queries) {
+        this.queries = queries;
+        for (List<AssetLink> query: queries) {
+            for (AssetLink assetLink: query) {
+                if (isGlobalAssetId(assetLink)) {
+                    globalAssetIds.putIfAbsent(assetLink.getValue(), new HashSet<>());
+                }
+                else {
+                    specificAssetIds.computeIfAbsent(assetLink.getValue(), x -> new HashMap<>())
+                            .putIfAbsent(assetLink.getName(), new HashSet<>());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the globalAssetIds used in the queries.
+     *
+     * @return The globalAssetIds.
+     */
+    public Set<String> getGlobalAssetIds() {
+        return globalAssetIds.keySet();
+    }
+
+
+    /**
+     * Returns the values of the specificAssetIds used in the queries.
+     *
+     * @return The values of the specificAssetIds.
+     */
+    public Set<String> getSpecificAssetIdValues() {
+        return specificAssetIds.keySet();
+    }
+
+
+    /**
+     * Adds the asset links of the given descriptor.
+     *
+     * @param descriptor The desired descriptor.
+     */
+    public void add(AssetAdministrationShellDescriptor descriptor) {
+        addGlobalAssetId(descriptor.getId(), descriptor.getGlobalAssetId());
+        for (SpecificAssetId specificAssetId: descriptor.getSpecificAssetIds()) {
+            addSpecificAssetId(descriptor.getId(), specificAssetId.getName(), specificAssetId.getValue());
+        }
+    }
+
+
+    /**
+     * Adds the globalAssetId of an AAS.
+     *
+     * @param aasId The ID of the AAS.
+     * @param globalAssetId The globalAssetId of the AAS.
+     */
+    public void addGlobalAssetId(String aasId, String globalAssetId) {
+        Set<String> aasIds = globalAssetIds.get(globalAssetId);
+        if (aasIds != null) {
+            aasIds.add(aasId);
+        }
+    }
+
+
+    /**
+     * Adds a specificAssetId of an AAS.
+     *
+     * @param aasId The ID of the AAS.
+     * @param name The name of the specificAssetId.
+     * @param value The value of the specificAssetId.
+     */
+    public void addSpecificAssetId(String aasId, String name, String value) {
+        Map<String, Set<String>> names = specificAssetIds.get(value);
+        if ((names != null) && names.containsKey(name)) {
+            names.get(name).add(aasId);
+        }
+    }
+
+
+    /**
+     * Evaluates all queries. The result of a query contains the IDs of all AAS matching all asset links of the query,
+     * sorted by ID. A query containing more than one globalAssetId or no asset link at all does not match any AAS.
+     *
+     * @return The results in the order of the queries.
+     */
+    public List<List<String>> evaluate() {
+        List<List<String>> retval = new ArrayList<>(queries.size());
+        for (List<AssetLink> query: queries) {
+            retval.add(evaluate(query));
+        }
+        return retval;
+    }
+
+
+    private List<String> evaluate(List<AssetLink> query) {
+        if (query.isEmpty() || (query.stream().filter(AssetLinkIndex::isGlobalAssetId).count() > 1)) {
+            return List.of();
+        }
+        Set<String> result = null;
+        for (AssetLink assetLink: query) {
+            Collection<String> matches = isGlobalAssetId(assetLink)
+                    ? globalAssetIds.get(assetLink.getValue())
+                    : specificAssetIds.get(assetLink.getValue()).get(assetLink.getName());
+            if (result == null) {
+                result = new TreeSet<>(matches);
+            }
+            else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+
+    private static boolean isGlobalAssetId(AssetLink assetLink) {
+        return FaaastConstants.KEY_GLOBAL_ASSET_ID.equalsIgnoreCase(assetLink.getName());
+    }
+}
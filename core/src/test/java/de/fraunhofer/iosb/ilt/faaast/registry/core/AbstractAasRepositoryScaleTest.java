@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetConfig;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.transaction.annotation.Transactional;
+
+
+/**
+ * Scale tests of a persistence. Every operation is measured with a small and a large registry generated by
+ * {@link DatasetGenerator}, and the time per call must not grow more than the complexity of the operation allows,
+ * e.g. a transaction changing a single shell must not back up the whole registry. The fastest of several rounds is
+ * compared, so garbage collection and other outliers do not fail the tests.
+ *
+ * <p>The subclasses run as integration tests, as populating the registries takes considerably longer than the unit
+ * tests. The registries are kept small and the bounds tolerant, so the tests run in every build and only fail on a
+ * change of the complexity, not on a slow build agent. They are tagged, so they can be excluded, e.g.
+ * {@code mvn verify -DexcludedGroups=scale}. Every test must finish within its time budget.
+ */
+@Tag(AbstractAasRepositoryScaleTest.TAG)
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+@Transactional
+public abstract class AbstractAasRepositoryScaleTest<T extends AasRepository> {
+
+    public static final String TAG = "scale";
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 7;
+    private static final long MAX_ROUND_NANOS = 1_000_000_000L;
+    private static final int PAGE_SIZE = 100;
+    private static final int BULK_SIZE = 50;
+    private static final int DISCOVERY_QUERIES = 10;
+
+    protected T repository;
+    private final DatasetGenerator generator = new DatasetGenerator(new DatasetConfig.Builder().build());
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int size;
+
+    /**
+     * Returns the number of shells of the small registry.
+     *
+     * @return The number of shells.
+     */
+    protected int getSmallSize() {
+        return 500;
+    }
+
+
+    /**
+     * Returns the number of shells of the large registry.
+     *
+     * @return The number of shells.
+     */
+    protected int getLargeSize() {
+        return 4000;
+    }
+
+
+    /**
+     * Writes pending changes to the datastore. Called after populating the registry and after every round of measured
+     * calls.
+     */
+    protected void flush() {}
+
+
+    @Test
+    public void getAAS() throws Exception {
+        assertScales("getAAS", Growth.SUBLINEAR, 500, () -> repository.getAAS(DatasetGenerator.shellId(random.nextInt(size))));
+    }
+
+
+    @Test
+    public void getSubmodelOfAAS() throws Exception {
+        assertScales("getSubmodel", Growth.SUBLINEAR, 500, () -> {
+            int index = random.nextInt(size);
+            repository.getSubmodel(DatasetGenerator.shellId(index), DatasetGenerator.submodelId(index, 0));
+        });
+    }
+
+
+    @Test
+    public void createAndDeleteAAS() throws Exception {
+        assertScales("create", Growth.SUBLINEAR, 200, () -> {
+            AssetAdministrationShellDescriptor shell = generator.shell(getLargeSize());
+            repository.create(shell);
+            repository.deleteAAS(shell.getId());
+        });
+    }
+
+
+    @Test
+    public void updateInTransaction() throws Exception {
+        assertScales("transaction", Growth.SUBLINEAR, 200, () -> {
+            AssetAdministrationShellDescriptor shell = generator.shell(random.nextInt(size));
+            shell.setIdShort("Changed");
+            int nr = repository.startTransaction();
+            repository.update(shell.getId(), shell);
+            repository.commitTransaction(nr);
+        });
+    }
+
+
+    @Test
+    public void bulkCreate() throws Exception {
+        assertScales("bulk create", Growth.SUBLINEAR, 5, () -> {
+            List<String> ids = new ArrayList<>();
+            int nr = repository.startTransaction();
+            for (int i = 0; i < BULK_SIZE; i++) {
+                ids.add(repository.create(generator.shell(getLargeSize() + i)).getId());
+            }
+            repository.commitTransaction(nr);
+            for (String id: ids) {
+                repository.deleteAAS(id);
+            }
+        });
+    }
+
+
+    @Test
+    public void getFirstPage() throws Exception {
+        assertScales("first page", Growth.SUBLINEAR, 50, () -> repository.getAASs(PagingInfo.builder()
+                .limit(PAGE_SIZE)
+                .build()));
+    }
+
+
+    @Test
+    public void getDeepPage() throws Exception {
+        assertScales("deep page", Growth.LINEAR, 20, () -> repository.getAASs(PagingInfo.builder()
+                .limit(PAGE_SIZE)
+                .cursor(Integer.toString(size - PAGE_SIZE))
+                .build()));
+    }
+
+
+    @Test
+    public void discovery() throws Exception {
+        assertScales("discovery", Growth.LINEAR, 10, () -> repository.getAASIdentifiersByAssetLink(
+                List.of(new AssetLink(DatasetGenerator.SERIAL_NUMBER, DatasetGenerator.serialNumber(random.nextInt(size)))),
+                PagingInfo.ALL));
+    }
+
+
+    @Test
+    public void batchDiscovery() throws Exception {
+        assertScales("batch discovery", Growth.LINEAR, 10, () -> {
+            List<List<AssetLink>> queries = new ArrayList<>();
+            for (int i = 0; i < DISCOVERY_QUERIES; i++) {
+                queries.add(List.of(new AssetLink(DatasetGenerator.SERIAL_NUMBER, DatasetGenerator.serialNumber(random.nextInt(size)))));
+            }
+            repository.getAASIdentifiersByAssetLinks(queries);
+        });
+    }
+
+
+    private void assertScales(String name, Growth growth, int calls, Operation operation) throws Exception {
+        populate(getSmallSize());
+        double small = measure(operation, calls);
+        populate(getLargeSize());
+        double large = measure(operation, calls);
+        double sizeRatio = (double) getLargeSize() / getSmallSize();
+        double bound = growth == Growth.SUBLINEAR ? sizeRatio * 3 / 4 : sizeRatio * 3;
+        Assertions.assertTrue(large / small <= bound, String.format(
+                "%s takes %.3f ms per call with %d shells and %.3f ms with %d shells, growing by factor %.1f (allowed: %.1f)",
+                name,
+                small / 1_000_000,
+                getSmallSize(),
+                large / 1_000_000,
+                getLargeSize(),
+                large / small,
+                bound));
+    }
+
+
+    private void populate(int target) throws Exception {
+        for (int i = size; i < target; i++) {
+            repository.create(generator.shell(i));
+        }
+        size = target;
+        flush();
+    }
+
+
+    private double measure(Operation operation, int calls) throws Exception {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            int executed = 0;
+            long start = System.nanoTime();
+            // a regression must fail the test instead of stalling the build, so a round ends early when it takes too long
+            do {
+                operation.execute();
+                executed++;
+            } while (executed < calls && System.nanoTime() - start < MAX_ROUND_NANOS);
+            flush();
+            long duration = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, (double) duration / executed);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The growth of the time per call allowed when the registry grows.
+     */
+    private enum Growth {
+        /**
+         * The time per call grows by at most three quarters of the size of the registry, e.g. constant or logarithmic.
+         */
+        SUBLINEAR,
+        /**
+         * The time per call grows by at most three times the size of the registry, i.e. quadratic growth fails.
+         */
+        LINEAR
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+
+        void execute() throws Exception;
+    }
+}
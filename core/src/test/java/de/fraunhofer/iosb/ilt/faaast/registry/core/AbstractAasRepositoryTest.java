@@ -14,8 +14,11 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.registry.core;
 
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
@@ -25,6 +28,7 @@ import java.util.Arrays;
 import java.util.List;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringTextType;
 import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAdministrativeInformation;
@@ -168,6 +172,26 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void listAllAASWithProjection() throws Exception {
+        AssetAdministrationShellDescriptor expected = getAASWithSubmodel();
+        repository.create(getAASWithSubmodel());
+        Page<AssetAdministrationShellDescriptor> aass = repository.getAASs(null, null, PagingInfo.ALL,
+                DescriptorProjection.parse("idShort,endpoints", DescriptorProjection.SHELL_FIELDS));
+        Assertions.assertEquals(1, aass.getContent().size());
+        AssetAdministrationShellDescriptor aas = aass.getContent().get(0);
+        Assertions.assertEquals(expected.getId(), aas.getId());
+        Assertions.assertEquals(expected.getIdShort(), aas.getIdShort());
+        Assertions.assertEquals(1, aas.getEndpoints().size());
+        Assertions.assertEquals(expected.getEndpoints().get(0).getProtocolInformation().getHref(), aas.getEndpoints().get(0).getProtocolInformation().getHref());
+        Assertions.assertNull(aas.getGlobalAssetId());
+        Assertions.assertNull(aas.getAdministration());
+        Assertions.assertTrue(aas.getSubmodelDescriptors().isEmpty());
+        Assertions.assertTrue(aas.getSpecificAssetIds().isEmpty());
+        Assertions.assertTrue(aas.getDescription().isEmpty());
+    }
+
+
     @Test
     public void findAASById() throws Exception {
         repository.create(getAASWithSubmodel());
@@ -176,6 +200,18 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void findAASsByIds() throws Exception {
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel();
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAAS2", "TestSubmodel2");
+        repository.create(aas1);
+        repository.create(aas2);
+        List<AssetAdministrationShellDescriptor> aass = repository.getAASsByIds(List.of(aas2.getId(), "unknownAAS", aas1.getId(), aas2.getId()));
+        Assertions.assertEquals(List.of(aas2.getId(), aas1.getId()), aass.stream().map(AssetAdministrationShellDescriptor::getId).toList());
+        Assertions.assertTrue(repository.getAASsByIds(List.of()).isEmpty());
+    }
+
+
     @Test
     public void updateAAS() throws Exception {
         repository.create(getAASWithSubmodel());
@@ -191,6 +227,20 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void upsertAAS() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        repository.upsert(aas);
+        Assertions.assertEquals(aas.getIdShort(), repository.getAAS(aas.getId()).getIdShort());
+
+        AssetAdministrationShellDescriptor updated = getAASWithSubmodel();
+        updated.setIdShort("NewIdShort");
+        repository.upsert(updated);
+        Assertions.assertEquals("NewIdShort", repository.getAAS(aas.getId()).getIdShort());
+        Assertions.assertEquals(1, repository.getAASs(PagingInfo.ALL).getContent().size());
+    }
+
+
     @Test
     public void deleteAAS() throws Exception {
         repository.create(getAASWithSubmodel());
@@ -204,6 +254,20 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void countDescriptors() throws Exception {
+        Assertions.assertEquals(0, repository.getAASCount());
+        Assertions.assertEquals(0, repository.getSubmodelCount());
+        repository.create(getAASWithSubmodel());
+        repository.create(getAASWithSubmodel("TestAAS2", "TestSubmodel2"));
+        repository.addSubmodel(getSubmodel());
+        Assertions.assertEquals(2, repository.getAASCount());
+        Assertions.assertEquals(1, repository.getSubmodelCount());
+        repository.deleteAAS("TestAAS1");
+        Assertions.assertEquals(1, repository.getAASCount());
+    }
+
+
     @Test
     public void getAASIdentifiers() throws Exception {
         AssetAdministrationShellDescriptor aasWithSubmodel = getAASWithSubmodel();
@@ -406,6 +470,32 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void getAASIdentifiersBatch() throws Exception {
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel();
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAAS2", "TestSubmodel2");
+        aas2.setGlobalAssetId("http://example.org/aasTest2");
+        repository.create(aas1);
+        repository.create(aas2);
+
+        AssetLink specificAssetId = new AssetLink("TestKey", "ValueTest");
+        AssetLink globalAssetId1 = new AssetLink(FaaastConstants.KEY_GLOBAL_ASSET_ID, aas1.getGlobalAssetId());
+        AssetLink globalAssetId2 = new AssetLink(FaaastConstants.KEY_GLOBAL_ASSET_ID, aas2.getGlobalAssetId());
+        List<List<String>> result = repository.getAASIdentifiersByAssetLinks(List.of(
+                List.of(specificAssetId),
+                List.of(specificAssetId, globalAssetId2),
+                List.of(new AssetLink("TestKey", "UnknownValue")),
+                List.of(globalAssetId1, globalAssetId2),
+                List.of()));
+        Assertions.assertEquals(List.of(
+                List.of(aas1.getId(), aas2.getId()),
+                List.of(aas2.getId()),
+                List.of(),
+                List.of(),
+                List.of()), result);
+    }
+
+
     @Test
     public void createSubmodel() throws Exception {
         repository.addSubmodel(getSubmodel());
@@ -432,6 +522,80 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void listSubmodelsWithProjection() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.create(getAASWithSubmodel());
+        repository.addSubmodel(getSubmodel());
+        DescriptorProjection projection = DescriptorProjection.parse("semanticId", DescriptorProjection.SUBMODEL_FIELDS);
+
+        List<SubmodelDescriptor> submodels = repository.getSubmodels(PagingInfo.ALL, projection).getContent();
+        Assertions.assertEquals(1, submodels.size());
+        Assertions.assertEquals(submodel.getId(), submodels.get(0).getId());
+        Assertions.assertEquals(submodel.getSemanticId().getKeys().get(0).getValue(), submodels.get(0).getSemanticId().getKeys().get(0).getValue());
+        Assertions.assertNull(submodels.get(0).getIdShort());
+        Assertions.assertTrue(submodels.get(0).getEndpoints().isEmpty());
+
+        submodels = repository.getSubmodels(aas.getId(), PagingInfo.ALL, projection).getContent();
+        Assertions.assertEquals(1, submodels.size());
+        Assertions.assertEquals(aas.getSubmodelDescriptors().get(0).getId(), submodels.get(0).getId());
+        Assertions.assertEquals(aas.getSubmodelDescriptors().get(0).getSemanticId().getKeys().get(0).getValue(),
+                submodels.get(0).getSemanticId().getKeys().get(0).getValue());
+        Assertions.assertTrue(submodels.get(0).getDescription().isEmpty());
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> repository.getSubmodels("unknownAAS", PagingInfo.ALL, projection));
+    }
+
+
+    @Test
+    public void listSubmodelsWithAndWithoutProjectionInSameOrder() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        for (String id: List.of("C", "A", "B")) {
+            SubmodelDescriptor submodel = getSubmodel();
+            submodel.setId("TestSubmodel" + id);
+            aas.getSubmodelDescriptors().add(submodel);
+            SubmodelDescriptor standalone = getSubmodel();
+            standalone.setId("TestStandaloneSubmodel" + id);
+            repository.addSubmodel(standalone);
+        }
+        repository.create(aas);
+        DescriptorProjection projection = DescriptorProjection.parse("idShort", DescriptorProjection.SUBMODEL_FIELDS);
+        List<String> expected = aas.getSubmodelDescriptors().stream().map(SubmodelDescriptor::getId).toList();
+
+        Assertions.assertEquals(expected,
+                repository.getSubmodels(aas.getId(), PagingInfo.ALL).getContent().stream().map(SubmodelDescriptor::getId).toList());
+        Assertions.assertEquals(expected,
+                repository.getSubmodels(aas.getId(), PagingInfo.ALL, projection).getContent().stream().map(SubmodelDescriptor::getId).toList());
+        Assertions.assertEquals(
+                repository.getSubmodels(PagingInfo.ALL).getContent().stream().map(SubmodelDescriptor::getId).toList(),
+                repository.getSubmodels(PagingInfo.ALL, projection).getContent().stream().map(SubmodelDescriptor::getId).toList());
+    }
+
+
+    @Test
+    public void listsKeepTheirOrderWithProjection() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        aas.setDescription(new ArrayList<>());
+        for (String language: List.of("fr", "de", "en", "it")) {
+            aas.getDescription().add(new DefaultLangStringTextType.Builder().text("some aas").language(language).build());
+        }
+        for (String id: List.of("C", "A", "B")) {
+            SubmodelDescriptor submodel = getSubmodel();
+            submodel.setId("TestSubmodel" + id);
+            aas.getSubmodelDescriptors().add(submodel);
+        }
+        repository.create(aas);
+
+        DescriptorProjection projection = DescriptorProjection.parse("description,submodelDescriptors", DescriptorProjection.SHELL_FIELDS);
+        AssetAdministrationShellDescriptor actual = repository.getAASs(null, null, PagingInfo.ALL, projection).getContent().get(0);
+        Assertions.assertEquals(aas.getDescription().stream().map(LangStringTextType::getLanguage).toList(),
+                actual.getDescription().stream().map(LangStringTextType::getLanguage).toList());
+        Assertions.assertEquals(aas.getSubmodelDescriptors().stream().map(SubmodelDescriptor::getId).toList(),
+                actual.getSubmodelDescriptors().stream().map(SubmodelDescriptor::getId).toList());
+    }
+
+
     @Test
     public void findStandAloneSubmodelById() throws Exception {
         AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
@@ -447,6 +611,29 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void findStandAloneSubmodelsByIds() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.create(aas);
+        repository.addSubmodel(submodel);
+
+        // submodels of an AAS are not standalone submodels
+        List<SubmodelDescriptor> submodels = repository.getSubmodelsByIds(List.of(submodel.getId(), aas.getSubmodelDescriptors().get(0).getId()));
+        Assertions.assertEquals(1, submodels.size());
+        compareSubmodel(submodel, submodels.get(0));
+
+        // in the order of the requested IDs
+        SubmodelDescriptor other = getSubmodel();
+        other.setId("TestSubmodel0");
+        repository.addSubmodel(other);
+        submodels = repository.getSubmodelsByIds(List.of(submodel.getId(), other.getId()));
+        Assertions.assertEquals(List.of(submodel.getId(), other.getId()), submodels.stream().map(SubmodelDescriptor::getId).toList());
+        submodels = repository.getSubmodelsByIds(List.of(other.getId(), submodel.getId()));
+        Assertions.assertEquals(List.of(other.getId(), submodel.getId()), submodels.stream().map(SubmodelDescriptor::getId).toList());
+    }
+
+
     @Test
     public void findAASSubmodelById() throws Exception {
         AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
@@ -484,6 +671,107 @@ public abstract class AbstractAasRepositoryTest<T extends AasRepository> {
     }
 
 
+    @Test
+    public void updateStandAloneSubmodel() throws Exception {
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.addSubmodel(submodel);
+        SubmodelDescriptor updated = getSubmodel();
+        updated.setIdShort("NewIdShort");
+        repository.updateSubmodel(submodel.getId(), updated);
+        compareSubmodel(updated, repository.getSubmodel(submodel.getId()));
+
+        SubmodelDescriptor renamed = getSubmodel();
+        renamed.setId("TestSubmodelRenamed");
+        repository.updateSubmodel(submodel.getId(), renamed);
+        compareSubmodel(renamed, repository.getSubmodel(renamed.getId()));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> repository.getSubmodel(submodel.getId()));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> repository.updateSubmodel(submodel.getId(), updated));
+    }
+
+
+    @Test
+    public void updateAASSubmodel() throws Exception {
+        SubmodelDescriptor submodel = getSubmodel();
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel();
+        repository.create(aas);
+        repository.addSubmodel(aas.getId(), submodel);
+        SubmodelDescriptor updated = getSubmodel();
+        updated.setIdShort("NewIdShort");
+        repository.updateSubmodel(aas.getId(), submodel.getId(), updated);
+        compareSubmodel(updated, repository.getSubmodel(aas.getId(), submodel.getId()));
+        Assertions.assertEquals(2, repository.getAAS(aas.getId()).getSubmodelDescriptors().size());
+
+        SubmodelDescriptor renamed = getSubmodel();
+        renamed.setId(aas.getSubmodelDescriptors().get(0).getId());
+        Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> repository.updateSubmodel(aas.getId(), submodel.getId(), renamed));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> repository.updateSubmodel(aas.getId(), "unknownSubmodel", updated));
+    }
+
+
+    @Test
+    public void upsertStandAloneSubmodel() throws Exception {
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.upsertSubmodel(submodel);
+        compareSubmodel(submodel, repository.getSubmodel(submodel.getId()));
+
+        SubmodelDescriptor updated = getSubmodel();
+        updated.setIdShort("NewIdShort");
+        repository.upsertSubmodel(updated);
+        compareSubmodel(updated, repository.getSubmodel(submodel.getId()));
+        Assertions.assertEquals(1, repository.getSubmodels(PagingInfo.ALL).getContent().size());
+    }
+
+
+    @Test
+    public void getChangesSinceRevision() throws Exception {
+        long start = repository.getRevision();
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel();
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAAS2", "TestSubmodel2");
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.create(aas1);
+        repository.create(aas2);
+        repository.addSubmodel(submodel);
+        long revision = repository.getRevision();
+        Assertions.assertEquals(start + 3, revision);
+
+        SubmodelDescriptor aasSubmodel = getSubmodel();
+        aasSubmodel.setId("TestSubmodel3");
+        repository.deleteAAS(aas1.getId());
+        repository.addSubmodel(aas2.getId(), aasSubmodel);
+        Assertions.assertEquals(
+                List.of(
+                        new DescriptorChange(revision + 1, DescriptorChange.Resource.SHELL, aas1.getId(), true),
+                        new DescriptorChange(revision + 2, DescriptorChange.Resource.SHELL, aas2.getId(), false)),
+                repository.getChanges(revision, PagingInfo.ALL).getContent());
+
+        // only the latest change of every descriptor is returned
+        Assertions.assertEquals(
+                List.of(
+                        new DescriptorChange(start + 3, DescriptorChange.Resource.SUBMODEL, submodel.getId(), false),
+                        new DescriptorChange(revision + 1, DescriptorChange.Resource.SHELL, aas1.getId(), true),
+                        new DescriptorChange(revision + 2, DescriptorChange.Resource.SHELL, aas2.getId(), false)),
+                repository.getChanges(start, PagingInfo.ALL).getContent());
+        Assertions.assertTrue(repository.getChanges(revision + 2, PagingInfo.ALL).getContent().isEmpty());
+    }
+
+
+    @Test
+    public void getChangesPaged() throws Exception {
+        long start = repository.getRevision();
+        repository.create(getAASWithSubmodel("TestAAS1", "TestSubmodel1"));
+        repository.create(getAASWithSubmodel("TestAAS2", "TestSubmodel2"));
+        repository.create(getAASWithSubmodel("TestAAS3", "TestSubmodel3"));
+
+        Page<DescriptorChange> page = repository.getChanges(start, PagingInfo.builder().limit(2).build());
+        Assertions.assertEquals(List.of("TestAAS1", "TestAAS2"), page.getContent().stream().map(DescriptorChange::getId).toList());
+        Assertions.assertEquals(Long.toString(start + 2), page.getMetadata().getCursor());
+
+        page = repository.getChanges(start, PagingInfo.builder().limit(2).cursor(page.getMetadata().getCursor()).build());
+        Assertions.assertEquals(List.of("TestAAS3"), page.getContent().stream().map(DescriptorChange::getId).toList());
+        Assertions.assertNull(page.getMetadata().getCursor());
+    }
+
+
     protected void compareSubmodel(SubmodelDescriptor expected, SubmodelDescriptor actual) {
         Assertions.assertEquals(expected, actual);
     }
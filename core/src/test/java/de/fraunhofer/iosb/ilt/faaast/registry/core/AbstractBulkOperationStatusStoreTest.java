@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkItemFailure;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+public abstract class AbstractBulkOperationStatusStoreTest {
+
+    protected static final long TIME_TO_LIVE = 1000;
+
+    protected final TestClock clock = new TestClock();
+
+    /**
+     * Creates the store to test.
+     *
+     * @param capacity The capacity of the store.
+     * @param timeToLive The time to live of finished operations in milliseconds.
+     * @param clock The clock used for the expiry.
+     * @return The store.
+     */
+    protected abstract BulkOperationStatusStore createStore(int capacity, long timeToLive, Clock clock);
+
+
+    /**
+     * Removes the expired entries of stores which evict them in the background.
+     *
+     * @param store The store.
+     */
+    protected void evict(BulkOperationStatusStore store) {}
+
+
+    @Test
+    public void setStatus() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.INITIATED);
+        Assertions.assertEquals(ExecutionState.INITIATED, store.getStatus("handle1"));
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle1"));
+        Assertions.assertNull(store.getStatus("unknown"));
+    }
+
+
+    @Test
+    public void setErrorMessage() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        Assertions.assertNull(store.getErrorMessage("handle1"));
+        store.setErrorMessage("handle1", "some error");
+        store.setStatus("handle1", ExecutionState.FAILED);
+        Assertions.assertEquals("some error", store.getErrorMessage("handle1"));
+    }
+
+
+    @Test
+    public void setProgress() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        Assertions.assertNull(store.getProgress("handle1"));
+
+        BulkOperationProgress progress = new BulkOperationProgress(10);
+        progress.addSucceeded(3);
+        progress.addFailure(3, "id3", "error3");
+        store.setProgress("handle1", progress);
+        progress.addSucceeded(2);
+        progress.addFailure(6, "id6", "error6");
+        store.setProgress("handle1", progress);
+
+        BulkOperationProgress actual = store.getProgress("handle1");
+        Assertions.assertEquals(10, actual.getTotal());
+        Assertions.assertEquals(5, actual.getSucceeded());
+        Assertions.assertEquals(7, actual.getProcessed());
+        Assertions.assertEquals(List.of(new BulkItemFailure(3, "id3", "error3"), new BulkItemFailure(6, "id6", "error6")), actual.getFailures());
+    }
+
+
+    @Test
+    public void unknownStatusIsNotCreated() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.COMPLETED);
+        clock.advance(TIME_TO_LIVE);
+        store.setStatus("handle2", ExecutionState.RUNNING);
+        evict(store);
+        store.setErrorMessage("handle1", "some error");
+        store.setProgress("handle1", new BulkOperationProgress(10));
+        store.setErrorMessage("unknown", "some error");
+        store.setProgress("unknown", new BulkOperationProgress(10));
+        Assertions.assertNull(store.getStatus("handle1"));
+        Assertions.assertNull(store.getErrorMessage("handle1"));
+        Assertions.assertNull(store.getProgress("handle1"));
+        Assertions.assertNull(store.getErrorMessage("unknown"));
+        Assertions.assertNull(store.getProgress("unknown"));
+        Assertions.assertEquals(1, store.size());
+    }
+
+
+    @Test
+    public void size() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        Assertions.assertEquals(0, store.size());
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        store.setStatus("handle2", ExecutionState.COMPLETED);
+        store.setStatus("handle1", ExecutionState.COMPLETED);
+        Assertions.assertEquals(2, store.size());
+    }
+
+
+    @Test
+    public void finishedStatusExpires() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.COMPLETED);
+        clock.advance(TIME_TO_LIVE - 1);
+        Assertions.assertEquals(ExecutionState.COMPLETED, store.getStatus("handle1"));
+        clock.advance(1);
+        Assertions.assertNull(store.getStatus("handle1"));
+    }
+
+
+    @Test
+    public void runningStatusDoesNotExpire() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        clock.advance(10 * TIME_TO_LIVE);
+        store.setStatus("handle2", ExecutionState.COMPLETED);
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle1"));
+    }
+
+
+    @Test
+    public void capacityEvictsFinishedFirst() {
+        BulkOperationStatusStore store = createStore(2, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.COMPLETED);
+        clock.advance(1);
+        store.setStatus("handle2", ExecutionState.FAILED);
+        clock.advance(1);
+        store.setStatus("handle3", ExecutionState.RUNNING);
+        store.setStatus("handle4", ExecutionState.RUNNING);
+        evict(store);
+        Assertions.assertNull(store.getStatus("handle1"));
+        Assertions.assertNull(store.getStatus("handle2"));
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle3"));
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle4"));
+    }
+
+    /**
+     * Clock which only advances when told to.
+     */
+    public static class TestClock extends Clock {
+
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        /**
+         * Advances the clock.
+         *
+         * @param millis The time to advance in milliseconds.
+         */
+        public void advance(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.dataset;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.builder.ExtendableBuilder;
+
+
+/**
+ * Configuration of a synthetic dataset created by {@link DatasetGenerator}. Values shared by several descriptors, e.g.
+ * semantic IDs or asset types, are drawn from pools of the given sizes.
+ */
+public class DatasetConfig {
+
+    private long seed;
+    private long shells;
+    private int minSubmodelsPerShell;
+    private int maxSubmodelsPerShell;
+    private long standaloneSubmodels;
+    private int maxSpecificAssetIdsPerShell;
+    private int specificAssetIdNames;
+    private int specificAssetIdValues;
+    private int semanticIds;
+    private int assetTypes;
+    private int hosts;
+    private int maxEndpoints;
+    private int languages;
+    private double skew;
+
+    public DatasetConfig() {
+        seed = 42;
+        shells = 1000;
+        minSubmodelsPerShell = 1;
+        maxSubmodelsPerShell = 5;
+        standaloneSubmodels = 0;
+        maxSpecificAssetIdsPerShell = 3;
+        specificAssetIdNames = 10;
+        specificAssetIdValues = 100;
+        semanticIds = 50;
+        assetTypes = 20;
+        hosts = 10;
+        maxEndpoints = 2;
+        languages = 1;
+        skew = 1.5;
+    }
+
+
+    public long getSeed() {
+        return seed;
+    }
+
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+
+    public long getShells() {
+        return shells;
+    }
+
+
+    public void setShells(long shells) {
+        this.shells = shells;
+    }
+
+
+    public int getMinSubmodelsPerShell() {
+        return minSubmodelsPerShell;
+    }
+
+
+    public void setMinSubmodelsPerShell(int minSubmodelsPerShell) {
+        this.minSubmodelsPerShell = minSubmodelsPerShell;
+    }
+
+
+    public int getMaxSubmodelsPerShell() {
+        return maxSubmodelsPerShell;
+    }
+
+
+    public void setMaxSubmodelsPerShell(int maxSubmodelsPerShell) {
+        this.maxSubmodelsPerShell = maxSubmodelsPerShell;
+    }
+
+
+    public long getStandaloneSubmodels() {
+        return standaloneSubmodels;
+    }
+
+
+    public void setStandaloneSubmodels(long standaloneSubmodels) {
+        this.standaloneSubmodels = standaloneSubmodels;
+    }
+
+
+    public int getMaxSpecificAssetIdsPerShell() {
+        return maxSpecificAssetIdsPerShell;
+    }
+
+
+    public void setMaxSpecificAssetIdsPerShell(int maxSpecificAssetIdsPerShell) {
+        this.maxSpecificAssetIdsPerShell = maxSpecificAssetIdsPerShell;
+    }
+
+
+    public int getSpecificAssetIdNames() {
+        return specificAssetIdNames;
+    }
+
+
+    public void setSpecificAssetIdNames(int specificAssetIdNames) {
+        this.specificAssetIdNames = specificAssetIdNames;
+    }
+
+
+    public int getSpecificAssetIdValues() {
+        return specificAssetIdValues;
+    }
+
+
+    public void setSpecificAssetIdValues(int specificAssetIdValues) {
+        this.specificAssetIdValues = specificAssetIdValues;
+    }
+
+
+    public int getSemanticIds() {
+        return semanticIds;
+    }
+
+
+    public void setSemanticIds(int semanticIds) {
+        this.semanticIds = semanticIds;
+    }
+
+
+    public int getAssetTypes() {
+        return assetTypes;
+    }
+
+
+    public void setAssetTypes(int assetTypes) {
+        this.assetTypes = assetTypes;
+    }
+
+
+    public int getHosts() {
+        return hosts;
+    }
+
+
+    public void setHosts(int hosts) {
+        this.hosts = hosts;
+    }
+
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+
+    public void setMaxEndpoints(int maxEndpoints) {
+        this.maxEndpoints = maxEndpoints;
+    }
+
+
+    public int getLanguages() {
+        return languages;
+    }
+
+
+    public void setLanguages(int languages) {
+        this.languages = languages;
+    }
+
+
+    public double getSkew() {
+        return skew;
+    }
+
+
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public abstract static class AbstractBuilder<T extends DatasetConfig, B extends AbstractBuilder<T, B>>
+            extends ExtendableBuilder<T, B> {
+
+        /**
+         * Sets the seed of the random number generator.
+         *
+         * @param seed desired value to be set
+         * @return Builder object with new value for seed
+         */
+        public B seed(long seed) {
+            getBuildingInstance().setSeed(seed);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of shells.
+         *
+         * @param shells desired value to be set
+         * @return Builder object with new value for shells
+         */
+        public B shells(long shells) {
+            getBuildingInstance().setShells(shells);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the minimum number of submodels of a shell.
+         *
+         * @param minSubmodelsPerShell desired value to be set
+         * @return Builder object with new value for minSubmodelsPerShell
+         */
+        public B minSubmodelsPerShell(int minSubmodelsPerShell) {
+            getBuildingInstance().setMinSubmodelsPerShell(minSubmodelsPerShell);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the maximum number of submodels of a shell.
+         *
+         * @param maxSubmodelsPerShell desired value to be set
+         * @return Builder object with new value for maxSubmodelsPerShell
+         */
+        public B maxSubmodelsPerShell(int maxSubmodelsPerShell) {
+            getBuildingInstance().setMaxSubmodelsPerShell(maxSubmodelsPerShell);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of standalone submodels, i.e. submodels not belonging to a shell.
+         *
+         * @param standaloneSubmodels desired value to be set
+         * @return Builder object with new value for standaloneSubmodels
+         */
+        public B standaloneSubmodels(long standaloneSubmodels) {
+            getBuildingInstance().setStandaloneSubmodels(standaloneSubmodels);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the maximum number of specific asset IDs of a shell, including the serial number.
+         *
+         * @param maxSpecificAssetIdsPerShell desired value to be set
+         * @return Builder object with new value for maxSpecificAssetIdsPerShell
+         */
+        public B maxSpecificAssetIdsPerShell(int maxSpecificAssetIdsPerShell) {
+            getBuildingInstance().setMaxSpecificAssetIdsPerShell(maxSpecificAssetIdsPerShell);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of distinct names of the specific asset IDs besides the serial number.
+         *
+         * @param specificAssetIdNames desired value to be set
+         * @return Builder object with new value for specificAssetIdNames
+         */
+        public B specificAssetIdNames(int specificAssetIdNames) {
+            getBuildingInstance().setSpecificAssetIdNames(specificAssetIdNames);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of distinct values of the specific asset IDs besides the serial number.
+         *
+         * @param specificAssetIdValues desired value to be set
+         * @return Builder object with new value for specificAssetIdValues
+         */
+        public B specificAssetIdValues(int specificAssetIdValues) {
+            getBuildingInstance().setSpecificAssetIdValues(specificAssetIdValues);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of distinct semantic IDs shared by the submodels.
+         *
+         * @param semanticIds desired value to be set
+         * @return Builder object with new value for semanticIds
+         */
+        public B semanticIds(int semanticIds) {
+            getBuildingInstance().setSemanticIds(semanticIds);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of distinct asset types shared by the shells.
+         *
+         * @param assetTypes desired value to be set
+         * @return Builder object with new value for assetTypes
+         */
+        public B assetTypes(int assetTypes) {
+            getBuildingInstance().setAssetTypes(assetTypes);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of distinct hosts of the endpoints.
+         *
+         * @param hosts desired value to be set
+         * @return Builder object with new value for hosts
+         */
+        public B hosts(int hosts) {
+            getBuildingInstance().setHosts(hosts);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the maximum number of endpoints of a descriptor.
+         *
+         * @param maxEndpoints desired value to be set
+         * @return Builder object with new value for maxEndpoints
+         */
+        public B maxEndpoints(int maxEndpoints) {
+            getBuildingInstance().setMaxEndpoints(maxEndpoints);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the number of languages of the descriptions.
+         *
+         * @param languages desired value to be set
+         * @return Builder object with new value for languages
+         */
+        public B languages(int languages) {
+            getBuildingInstance().setLanguages(languages);
+            return getSelf();
+        }
+
+
+        /**
+         * Sets the skew of the distribution of shared values, 1 for a uniform distribution; with higher values the first values of a pool are used more often.
+         *
+         * @param skew desired value to be set
+         * @return Builder object with new value for skew
+         */
+        public B skew(double skew) {
+            getBuildingInstance().setSkew(skew);
+            return getSelf();
+        }
+    }
+
+    public static class Builder extends AbstractBuilder<DatasetConfig, Builder> {
+
+        @Override
+        protected Builder getSelf() {
+            return this;
+        }
+
+
+        @Override
+        protected DatasetConfig newBuildingInstance() {
+            return new DatasetConfig();
+        }
+    }
+}
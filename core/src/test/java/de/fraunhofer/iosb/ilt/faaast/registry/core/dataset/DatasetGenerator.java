@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.dataset;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.DeserializationException;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.json.JsonDeserializer;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.json.JsonSerializer;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
+import org.eclipse.digitaltwin.aas4j.v3.model.Descriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.Endpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEndpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProtocolInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+
+
+/**
+ * Generates synthetic registry content for benchmarks, load and scale tests. Every descriptor only depends on the
+ * configuration and its index, so datasets are reproducible, can be generated lazily and in parallel, and registries
+ * with millions of descriptors never have to be held in memory as a whole.
+ *
+ * <p>Each shell has a unique specific asset ID {@value #SERIAL_NUMBER} with the value {@link #serialNumber(long)}, so
+ * single shells can be looked up by asset link. Further specific asset IDs, the asset types, the semantic IDs of the
+ * submodels and the hosts of the endpoints are drawn from pools and shared by several descriptors.
+ */
+public class DatasetGenerator {
+
+    public static final String SERIAL_NUMBER = "serialNumber";
+    private static final String BASE_URL = "https://example.com/";
+    private static final String[] LANGUAGES = {
+            "en",
+            "de",
+            "fr",
+            "es",
+            "it",
+            "zh",
+            "ja"
+    };
+    private static final String[] SHELL_INTERFACES = {
+            "AAS-3.0",
+            "AAS-REPOSITORY-3.0"
+    };
+    private static final String[] SUBMODEL_INTERFACES = {
+            "SUBMODEL-3.0",
+            "SUBMODEL-REPOSITORY-3.0"
+    };
+    private static final String[] SCHEMES = {
+            "https",
+            "http"
+    };
+    private static final long SUBMODEL_SEED_OFFSET = 0x5DEECE66DL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final DatasetConfig config;
+
+    public DatasetGenerator(DatasetConfig config) {
+        if (config.getMinSubmodelsPerShell() > config.getMaxSubmodelsPerShell()) {
+            throw new IllegalArgumentException("minSubmodelsPerShell must not be greater than maxSubmodelsPerShell");
+        }
+        if (config.getMaxSpecificAssetIdsPerShell() < 1) {
+            throw new IllegalArgumentException("maxSpecificAssetIdsPerShell must be at least 1");
+        }
+        if (config.getSkew() < 1) {
+            throw new IllegalArgumentException("skew must be at least 1");
+        }
+        this.config = config;
+    }
+
+
+    public DatasetConfig getConfig() {
+        return config;
+    }
+
+
+    /**
+     * Returns the ID of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @return The ID of the shell.
+     */
+    public static String shellId(long index) {
+        return BASE_URL + "ids/aas/" + index;
+    }
+
+
+    /**
+     * Returns the ID of a submodel of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @param submodel The index of the submodel within the shell.
+     * @return The ID of the submodel.
+     */
+    public static String submodelId(long index, int submodel) {
+        return BASE_URL + "ids/sm/" + index + "/" + submodel;
+    }
+
+
+    /**
+     * Returns the ID of the standalone submodel with the given index.
+     *
+     * @param index The index of the standalone submodel.
+     * @return The ID of the submodel.
+     */
+    public static String standaloneSubmodelId(long index) {
+        return BASE_URL + "ids/sm/standalone/" + index;
+    }
+
+
+    /**
+     * Returns the asset type with the given index in the pool of asset types.
+     *
+     * @param index The index in the pool, between 0 and {@link DatasetConfig#getAssetTypes()}.
+     * @return The asset type.
+     */
+    public static String assetType(int index) {
+        return BASE_URL + "types/" + index;
+    }
+
+
+    /**
+     * Returns the value of the specific asset ID {@value #SERIAL_NUMBER} of the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @return The serial number.
+     */
+    public static String serialNumber(long index) {
+        return "SN-" + index;
+    }
+
+
+    /**
+     * Creates the shell with the given index.
+     *
+     * @param index The index of the shell.
+     * @return The shell.
+     */
+    public AssetAdministrationShellDescriptor shell(long index) {
+        SplittableRandom random = random(index);
+        List<SpecificAssetId> specificAssetIds = new ArrayList<>();
+        specificAssetIds.add(new DefaultSpecificAssetId.Builder()
+                .name(SERIAL_NUMBER)
+                .value(serialNumber(index))
+                .build());
+        int count = random.nextInt(config.getMaxSpecificAssetIdsPerShell());
+        for (int i = 0; i < count; i++) {
+            specificAssetIds.add(new DefaultSpecificAssetId.Builder()
+                    .name("property" + draw(random, config.getSpecificAssetIdNames()))
+                    .value("value" + draw(random, config.getSpecificAssetIdValues()))
+                    .build());
+        }
+        List<SubmodelDescriptor> submodels = new ArrayList<>();
+        count = random.nextInt(config.getMinSubmodelsPerShell(), config.getMaxSubmodelsPerShell() + 1);
+        for (int i = 0; i < count; i++) {
+            submodels.add(submodel(random, submodelId(index, i), "Submodel" + i));
+        }
+        return new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id(shellId(index))
+                .idShort("Shell" + index)
+                .description(descriptions(random, "Shell " + index))
+                .assetKind(AssetKind.values()[random.nextInt(AssetKind.values().length)])
+                .assetType(assetType(draw(random, config.getAssetTypes())))
+                .globalAssetId(BASE_URL + "ids/asset/" + index)
+                .specificAssetIds(specificAssetIds)
+                .endpoints(endpoints(random, SHELL_INTERFACES, "shells/" + index))
+                .submodelDescriptors(submodels)
+                .build();
+    }
+
+
+    /**
+     * Creates the standalone submodel with the given index.
+     *
+     * @param index The index of the standalone submodel.
+     * @return The submodel.
+     */
+    public SubmodelDescriptor standaloneSubmodel(long index) {
+        return submodel(random(index + SUBMODEL_SEED_OFFSET), standaloneSubmodelId(index), "Standalone" + index);
+    }
+
+
+    /**
+     * Creates all shells of the dataset, in the order of their index.
+     *
+     * @return The shells.
+     */
+    public Stream<AssetAdministrationShellDescriptor> shells() {
+        return LongStream.range(0, config.getShells()).mapToObj(this::shell);
+    }
+
+
+    /**
+     * Creates all standalone submodels of the dataset, in the order of their index.
+     *
+     * @return The submodels.
+     */
+    public Stream<SubmodelDescriptor> standaloneSubmodels() {
+        return LongStream.range(0, config.getStandaloneSubmodels()).mapToObj(this::standaloneSubmodel);
+    }
+
+
+    /**
+     * Writes all shells to the given file as newline delimited JSON, i.e. one shell per line.
+     *
+     * @param file The file to write.
+     * @throws IOException if writing fails
+     */
+    public void writeShells(Path file) throws IOException {
+        write(file, shells());
+    }
+
+
+    /**
+     * Writes all standalone submodels to the given file as newline delimited JSON, i.e. one submodel per line.
+     *
+     * @param file The file to write.
+     * @throws IOException if writing fails
+     */
+    public void writeStandaloneSubmodels(Path file) throws IOException {
+        write(file, standaloneSubmodels());
+    }
+
+
+    /**
+     * Reads descriptors from a newline delimited JSON file. The descriptors are read lazily, so the returned stream must
+     * be closed.
+     *
+     * @param <T> The type of the descriptors.
+     * @param file The file to read.
+     * @param type The type of the descriptors.
+     * @return The descriptors.
+     * @throws IOException if opening the file fails
+     */
+    public static <T extends Descriptor> Stream<T> read(Path file, Class<T> type) throws IOException {
+        JsonDeserializer deserializer = new JsonDeserializer();
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return reader.lines()
+                .filter(x -> !x.isBlank())
+                .map(x -> {
+                    try {
+                        return deserializer.read(x, type);
+                    }
+                    catch (DeserializationException e) {
+                        throw new IllegalArgumentException(String.format("invalid descriptor in %s", file), e);
+                    }
+                })
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+
+    private static void write(Path file, Stream<? extends Descriptor> descriptors) throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            Iterator<? extends Descriptor> iterator = descriptors.iterator();
+            while (iterator.hasNext()) {
+                writer.write(serializer.toNode(iterator.next()).toString());
+                writer.newLine();
+            }
+        }
+    }
+
+
+    private SubmodelDescriptor submodel(SplittableRandom random, String id, String idShort) {
+        return new DefaultSubmodelDescriptor.Builder()
+                .id(id)
+                .idShort(idShort)
+                .description(descriptions(random, idShort))
+                .semanticId(semanticId(BASE_URL + "semantics/" + draw(random, config.getSemanticIds())))
+                .endpoints(endpoints(random, SUBMODEL_INTERFACES, "submodels/" + Integer.toHexString(id.hashCode())))
+                .build();
+    }
+
+
+    private List<LangStringTextType> descriptions(SplittableRandom random, String name) {
+        List<LangStringTextType> retval = new ArrayList<>();
+        for (int i = 0; i < Math.min(config.getLanguages(), LANGUAGES.length); i++) {
+            retval.add(new DefaultLangStringTextType.Builder()
+                    .language(LANGUAGES[i])
+                    .text(String.format("%s (%s) #%d", name, LANGUAGES[i], random.nextInt(1000)))
+                    .build());
+        }
+        return retval;
+    }
+
+
+    private List<Endpoint> endpoints(SplittableRandom random, String[] interfaces, String path) {
+        List<Endpoint> retval = new ArrayList<>();
+        int count = random.nextInt(1, Math.max(1, config.getMaxEndpoints()) + 1);
+        for (int i = 0; i < count; i++) {
+            retval.add(new DefaultEndpoint.Builder()
+                    ._interface(interfaces[i % interfaces.length])
+                    .protocolInformation(new DefaultProtocolInformation.Builder()
+                            .href(String.format("%s://host%d.example.com/%s", SCHEMES[random.nextInt(SCHEMES.length)], draw(random, config.getHosts()), path))
+                            .endpointProtocol("HTTP")
+                            .endpointProtocolVersion(random.nextBoolean() ? "1.1" : "2")
+                            .build())
+                    .build());
+        }
+        return retval;
+    }
+
+
+    private static Reference semanticId(String value) {
+        return new DefaultReference.Builder()
+                .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                .keys(new DefaultKey.Builder()
+                        .type(KeyTypes.GLOBAL_REFERENCE)
+                        .value(value)
+                        .build())
+                .build();
+    }
+
+
+    /**
+     * Draws an index from a pool of the given size. With a skew of 1 all indices are equally likely, higher values
+     * prefer low indices, so some values are shared by many descriptors and most by few.
+     */
+    private int draw(SplittableRandom random, int poolSize) {
+        if (poolSize <= 1) {
+            return 0;
+        }
+        return Math.min(poolSize - 1, (int) (poolSize * Math.pow(random.nextDouble(), config.getSkew())));
+    }
+
+
+    private SplittableRandom random(long index) {
+        return new SplittableRandom(config.getSeed() + index * GOLDEN_GAMMA);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.core.dataset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class DatasetGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sameSeedSameDataset() {
+        DatasetConfig config = new DatasetConfig.Builder().shells(50).build();
+        Assertions.assertEquals(new DatasetGenerator(config).shells().toList(), new DatasetGenerator(config).shells().toList());
+        Assertions.assertEquals(new DatasetGenerator(config).shell(42), new DatasetGenerator(config).shells().skip(42).findFirst().get());
+    }
+
+
+    @Test
+    public void differentSeedDifferentDataset() {
+        List<AssetAdministrationShellDescriptor> expected = new DatasetGenerator(new DatasetConfig.Builder().seed(1).shells(50).build()).shells().toList();
+        List<AssetAdministrationShellDescriptor> actual = new DatasetGenerator(new DatasetConfig.Builder().seed(2).shells(50).build()).shells().toList();
+        Assertions.assertNotEquals(expected, actual);
+    }
+
+
+    @Test
+    public void cardinalities() {
+        DatasetConfig config = new DatasetConfig.Builder()
+                .shells(200)
+                .minSubmodelsPerShell(2)
+                .maxSubmodelsPerShell(4)
+                .standaloneSubmodels(30)
+                .maxSpecificAssetIdsPerShell(3)
+                .assetTypes(5)
+                .semanticIds(7)
+                .maxEndpoints(2)
+                .languages(2)
+                .build();
+        DatasetGenerator generator = new DatasetGenerator(config);
+        List<AssetAdministrationShellDescriptor> shells = generator.shells().toList();
+        Assertions.assertEquals(200, shells.size());
+        Assertions.assertEquals(200, shells.stream().map(AssetAdministrationShellDescriptor::getId).distinct().count());
+        for (AssetAdministrationShellDescriptor shell: shells) {
+            Assertions.assertTrue(shell.getSubmodelDescriptors().size() >= 2 && shell.getSubmodelDescriptors().size() <= 4);
+            Assertions.assertTrue(shell.getSpecificAssetIds().size() >= 1 && shell.getSpecificAssetIds().size() <= 3);
+            Assertions.assertEquals(DatasetGenerator.SERIAL_NUMBER, shell.getSpecificAssetIds().get(0).getName());
+            Assertions.assertTrue(shell.getEndpoints().size() >= 1 && shell.getEndpoints().size() <= 2);
+            Assertions.assertEquals(2, shell.getDescription().size());
+        }
+        Set<String> assetTypes = shells.stream().map(AssetAdministrationShellDescriptor::getAssetType).collect(Collectors.toSet());
+        Assertions.assertTrue(assetTypes.size() > 1 && assetTypes.size() <= 5);
+        Set<String> semanticIds = shells.stream()
+                .flatMap(x -> x.getSubmodelDescriptors().stream())
+                .map(x -> x.getSemanticId().getKeys().get(0).getValue())
+                .collect(Collectors.toSet());
+        Assertions.assertTrue(semanticIds.size() > 1 && semanticIds.size() <= 7);
+        Assertions.assertEquals(30, generator.standaloneSubmodels().map(SubmodelDescriptor::getId).distinct().count());
+    }
+
+
+    @Test
+    public void ndjsonRoundTrip() throws IOException {
+        DatasetGenerator generator = new DatasetGenerator(new DatasetConfig.Builder().shells(20).standaloneSubmodels(10).build());
+        Path shellFile = tempDir.resolve("shells.ndjson");
+        Path submodelFile = tempDir.resolve("submodels.ndjson");
+        generator.writeShells(shellFile);
+        generator.writeStandaloneSubmodels(submodelFile);
+        Assertions.assertEquals(20, Files.readAllLines(shellFile).size());
+        try (Stream<AssetAdministrationShellDescriptor> shells = DatasetGenerator.read(shellFile, AssetAdministrationShellDescriptor.class);
+                Stream<SubmodelDescriptor> submodels = DatasetGenerator.read(submodelFile, SubmodelDescriptor.class)) {
+            Assertions.assertEquals(generator.shells().toList(), shells.toList());
+            Assertions.assertEquals(generator.standaloneSubmodels().toList(), submodels.toList());
+        }
+    }
+
+
+    @Test
+    public void invalidConfig() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new DatasetGenerator(new DatasetConfig.Builder().minSubmodelsPerShell(3).maxSubmodelsPerShell(2).build()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new DatasetGenerator(new DatasetConfig.Builder().skew(0.5).build()));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+
+/**
+ * Records the latencies of the requests per endpoint in HdrHistograms. Latencies are recorded in microseconds and
+ * reported in milliseconds. Nothing is recorded before {@link #start()} is called, so warmup requests do not distort
+ * the results.
+ */
+public class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private long startTime;
+    private long stopTime;
+
+    /**
+     * Discards everything recorded so far and starts recording.
+     */
+    public void start() {
+        endpoints.clear();
+        startTime = System.nanoTime();
+        recording = true;
+    }
+
+
+    /**
+     * Stops recording.
+     */
+    public void stop() {
+        recording = false;
+        stopTime = System.nanoTime();
+    }
+
+
+    /**
+     * Records a request.
+     *
+     * @param endpoint The endpoint of the request, e.g. the method and the path template.
+     * @param nanos The latency of the request in nanoseconds.
+     * @param success True if the request succeeded, false otherwise.
+     */
+    public void record(String endpoint, long nanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, x -> new EndpointStats());
+        stats.histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+
+    /**
+     * Creates the summary of the recorded requests, one entry per endpoint, ordered by endpoint.
+     *
+     * @return The summary.
+     */
+    public List<Map<String, Object>> summary() {
+        double seconds = (stopTime - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        List<Map<String, Object>> retval = new ArrayList<>();
+        for (var entry: new TreeMap<>(endpoints).entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("endpoint", entry.getKey());
+            line.put("count", histogram.getTotalCount());
+            line.put("errors", entry.getValue().errors.sum());
+            line.put("throughput", histogram.getTotalCount() / seconds);
+            line.put("p50", histogram.getValueAtPercentile(50) / MICROS_PER_MILLI);
+            line.put("p99", histogram.getValueAtPercentile(99) / MICROS_PER_MILLI);
+            line.put("p999", histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI);
+            line.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+            retval.add(line);
+        }
+        return retval;
+    }
+
+
+    /**
+     * Prints the summary as table.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        String format = "%-56s %10s %10s %8s %10s %10s %10s %10s%n";
+        out.printf(format, "endpoint", "count", "req/s", "errors", "p50 [ms]", "p99 [ms]", "p999 [ms]", "max [ms]");
+        for (Map<String, Object> line: summary()) {
+            out.printf(format,
+                    line.get("endpoint"),
+                    line.get("count"),
+                    String.format("%.1f", line.get("throughput")),
+                    line.get("errors"),
+                    String.format("%.2f", line.get("p50")),
+                    String.format("%.2f", line.get("p99")),
+                    String.format("%.2f", line.get("p999")),
+                    String.format("%.2f", line.get("max")));
+        }
+    }
+
+
+    /**
+     * Writes the summary as JSON file (summary.json) and the percentile distribution of each endpoint in the
+     * HdrHistogram format (one .hgrm file per endpoint) to the given directory.
+     *
+     * @param directory The directory to write to.
+     * @throws IOException if writing fails
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ObjectMapper mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+        mapper.writeValue(directory.resolve("summary.json").toFile(), summary());
+        for (var entry: endpoints.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)), false, "UTF-8")) {
+                entry.getValue().histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static class EndpointStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.loadtest;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetConfig;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.App;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Unmatched;
+
+
+/**
+ * Load test of the registry. Starts the registry on a random port, unless the URL of a running registry is given,
+ * registers a generated dataset and then sends a mix of requests from many concurrent clients. Reports the throughput
+ * and the latency percentiles per endpoint.
+ */
+@Command(name = "loadtest", mixinStandardHelpOptions = true, description = "Runs a load test against a FA³ST Registry", usageHelpAutoWidth = true)
+public class LoadTest implements Callable<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+    private static final String CONTEXT_PATH = "/api/v3.0";
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Option(names = "--backend", description = "The persistence of the started registry: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE}).")
+    public Backend backend = Backend.MEMORY;
+
+    @Option(names = "--url", description = "The URL of a running registry including the context path, e.g. http://localhost:8090/api/v3.0. No registry is started if given.")
+    public String url;
+
+    @Option(names = "--shells", description = "The number of shells registered before the test (default: ${DEFAULT-VALUE}).")
+    public long shells = 10000;
+
+    @Option(names = "--skip-load", description = "Does not register the shells, e.g. because a running registry already contains them.")
+    public boolean skipLoad = false;
+
+    @Option(names = "--clients", description = "The number of concurrent clients (default: ${DEFAULT-VALUE}).")
+    public int clients = 64;
+
+    @Option(names = "--warmup", description = "The warmup time in seconds, not included in the results (default: ${DEFAULT-VALUE}).")
+    public int warmup = 10;
+
+    @Option(names = "--duration", description = "The measurement time in seconds (default: ${DEFAULT-VALUE}).")
+    public int duration = 60;
+
+    @Option(names = "--mix", split = ",", description = "The relative weights of the operations, e.g. GET_SHELL=10,BULK_UPSERT=1. Operations not given keep their default weight, 0 disables an operation. Operations: ${COMPLETION-CANDIDATES}.")
+    public Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    @Option(names = "--bulk-size", description = "The number of shells per bulk upsert (default: ${DEFAULT-VALUE}).")
+    public int bulkSize = 100;
+
+    @Option(names = "--seed", description = "The seed of the dataset and the request sequence (default: ${DEFAULT-VALUE}).")
+    public long seed = 42;
+
+    @Option(names = "--output", description = "The directory to write the summary and the latency distributions to.")
+    public Path output;
+
+    @Unmatched
+    public List<String> springArgs = new ArrayList<>();
+
+    private volatile boolean running;
+
+    /**
+     * Entry point of the load test.
+     *
+     * @param args The command line arguments. Arguments unknown to the load test are passed to the started registry,
+     *            e.g. --spring.datasource.url=...
+     */
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new LoadTest()).execute(args));
+    }
+
+
+    @Override
+    public Integer call() throws Exception {
+        ConfigurableApplicationContext context = null;
+        String baseUrl = url;
+        if (baseUrl == null) {
+            context = startRegistry();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + CONTEXT_PATH;
+        }
+        try {
+            DatasetGenerator generator = new DatasetGenerator(new DatasetConfig.Builder()
+                    .seed(seed)
+                    .shells(shells)
+                    .build());
+            LatencyRecorder recorder = new LatencyRecorder();
+            RegistryClient client = new RegistryClient(baseUrl, generator, recorder, bulkSize);
+            if (!skipLoad) {
+                long start = System.nanoTime();
+                client.load(LOAD_BATCH_SIZE);
+                LOGGER.info("registered {} shells in {} s", shells, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+            }
+            run(client, recorder);
+            recorder.print(System.out);
+            if (output != null) {
+                recorder.write(output);
+                LOGGER.info("results written to {}", output.toAbsolutePath());
+            }
+            return 0;
+        }
+        finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+
+    private ConfigurableApplicationContext startRegistry() {
+        // passed as command line arguments, as default properties would be overridden by application.properties
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--server.ssl.enabled=false");
+        if (backend == Backend.JPA) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        // given later, so they take precedence
+        args.addAll(springArgs);
+        LOGGER.info("starting registry with {} persistence", backend);
+        return new SpringApplicationBuilder(App.class)
+                .profiles(backend.getProfile())
+                .bannerMode(Banner.Mode.OFF)
+                .run(args.toArray(String[]::new));
+    }
+
+
+    private void run(RegistryClient client, LatencyRecorder recorder) throws InterruptedException {
+        Operation[] operations = Operation.values();
+        int[] cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += Math.max(0, mix.getOrDefault(operations[i], operations[i].getDefaultWeight()));
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("at least one operation must have a positive weight");
+        }
+        int totalWeight = total;
+        running = true;
+        ExecutorService executor = newExecutor();
+        for (int i = 0; i < clients; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            executor.execute(() -> {
+                while (running) {
+                    int value = random.nextInt(totalWeight);
+                    int operation = 0;
+                    while (cumulativeWeights[operation] <= value) {
+                        operation++;
+                    }
+                    try {
+                        client.execute(operations[operation], random);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    catch (Exception e) {
+                        LOGGER.debug("operation {} failed", operations[operation], e);
+                    }
+                }
+            });
+        }
+        LOGGER.info("warming up for {} s with {} clients", warmup, clients);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        recorder.start();
+        LOGGER.info("measuring for {} s", duration);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        recorder.stop();
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Creates the executor of the clients. Each client gets a virtual thread if the JVM supports them (Java 21 or
+     * later), so the number of clients is not limited by the number of platform threads. The registry is built for Java
+     * 17, so the executor is looked up at runtime.
+     */
+    private ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            LOGGER.warn("virtual threads require Java 21 or later, using {} platform threads", clients);
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+
+    /**
+     * The persistence of the started registry.
+     */
+    public enum Backend {
+        MEMORY("default"),
+        JPA("jpa");
+
+        private final String profile;
+
+        Backend(String profile) {
+            this.profile = profile;
+        }
+
+
+        public String getProfile() {
+            return profile;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.loadtest;
+
+/**
+ * The operations of the load test, each consisting of one or more HTTP requests.
+ */
+public enum Operation {
+    /**
+     * Gets a single shell by its ID.
+     */
+    GET_SHELL(35),
+    /**
+     * Gets the first page of shells of an asset type.
+     */
+    GET_SHELLS(5),
+    /**
+     * Gets a submodel of a shell.
+     */
+    GET_SUBMODEL(25),
+    /**
+     * Looks up a shell by its specific asset ID.
+     */
+    DISCOVERY(25),
+    /**
+     * Creates a new shell and deletes it again, so the registry keeps its size.
+     */
+    CREATE_DELETE_SHELL(9),
+    /**
+     * Replaces registered shells with an asynchronous bulk upsert and waits until the operation is finished.
+     */
+    BULK_UPSERT(1);
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.loadtest;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.config.DescriptorMapperConfig;
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+
+/**
+ * Client sending the requests of the load test to the registry and recording their latencies. The requests use the
+ * descriptors of a {@link DatasetGenerator}, so the client knows which descriptors are registered without asking the
+ * registry.
+ */
+public class RegistryClient {
+
+    private static final String SHELLS_PATH = "/shell-descriptors";
+    private static final String BULK_SHELLS_PATH = "/bulk/shell-descriptors";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final int PAGE_SIZE = 100;
+    private static final long BULK_WAIT_SECONDS = 60;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final DatasetGenerator generator;
+    private final LatencyRecorder recorder;
+    private final int bulkSize;
+    private final long registrySize;
+    private final AtomicLong nextIndex;
+
+    public RegistryClient(String baseUrl, DatasetGenerator generator, LatencyRecorder recorder, int bulkSize) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.mapper = DescriptorMapperConfig.configure(JsonMapper.builder()).build();
+        this.generator = generator;
+        this.recorder = recorder;
+        this.bulkSize = bulkSize;
+        this.registrySize = generator.getConfig().getShells();
+        this.nextIndex = new AtomicLong(registrySize);
+    }
+
+
+    /**
+     * Registers all shells of the dataset with bulk requests of {@code batchSize} shells each.
+     *
+     * @param batchSize The number of shells per request.
+     * @throws IOException if a request fails
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    public void load(int batchSize) throws IOException, InterruptedException {
+        for (long start = 0; start < registrySize; start += batchSize) {
+            List<AssetAdministrationShellDescriptor> shells = LongStream.range(start, Math.min(start + batchSize, registrySize))
+                    .mapToObj(generator::shell)
+                    .toList();
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(uri(BULK_SHELLS_PATH)).POST(body(shells)).header(CONTENT_TYPE, APPLICATION_JSON).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            checkStatus(response, 202);
+            awaitBulkOperation(response);
+        }
+    }
+
+
+    /**
+     * Executes the given operation.
+     *
+     * @param operation The operation to execute.
+     * @param random The random number generator selecting the accessed descriptors.
+     * @throws IOException if a request fails
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    public void execute(Operation operation, SplittableRandom random) throws IOException, InterruptedException {
+        long index = random.nextLong(registrySize);
+        switch (operation) {
+            case GET_SHELL -> send("GET " + SHELLS_PATH + "/{id}",
+                    HttpRequest.newBuilder(uri(SHELLS_PATH + "/" + encode(DatasetGenerator.shellId(index)))).GET());
+            case GET_SHELLS -> send("GET " + SHELLS_PATH + "?assetType",
+                    HttpRequest.newBuilder(uri(String.format("%s?limit=%d&assetType=%s", SHELLS_PATH, PAGE_SIZE,
+                            encode(DatasetGenerator.assetType(random.nextInt(Math.max(1, generator.getConfig().getAssetTypes())))))))
+                            .GET());
+            case GET_SUBMODEL -> send("GET " + SHELLS_PATH + "/{id}/submodel-descriptors/{id}",
+                    HttpRequest.newBuilder(uri(String.format("%s/%s/submodel-descriptors/%s", SHELLS_PATH,
+                            encode(DatasetGenerator.shellId(index)),
+                            encode(DatasetGenerator.submodelId(index, 0)))))
+                            .GET());
+            case DISCOVERY -> send("POST /lookup/shellsByAssetLink",
+                    HttpRequest.newBuilder(uri("/lookup/shellsByAssetLink"))
+                            .POST(body(List.of(new AssetLink(DatasetGenerator.SERIAL_NUMBER, DatasetGenerator.serialNumber(index)))))
+                            .header(CONTENT_TYPE, APPLICATION_JSON));
+            case CREATE_DELETE_SHELL -> createAndDeleteShell();
+            case BULK_UPSERT -> bulkUpsert(index);
+            default -> throw new IllegalArgumentException(String.format("unsupported operation: %s", operation));
+        }
+    }
+
+
+    private void createAndDeleteShell() throws IOException, InterruptedException {
+        AssetAdministrationShellDescriptor shell = generator.shell(nextIndex.getAndIncrement());
+        HttpResponse<String> response = send("POST " + SHELLS_PATH,
+                HttpRequest.newBuilder(uri(SHELLS_PATH)).POST(body(shell)).header(CONTENT_TYPE, APPLICATION_JSON));
+        if (isSuccess(response)) {
+            send("DELETE " + SHELLS_PATH + "/{id}",
+                    HttpRequest.newBuilder(uri(SHELLS_PATH + "/" + encode(shell.getId()))).DELETE());
+        }
+    }
+
+
+    private void bulkUpsert(long index) throws IOException, InterruptedException {
+        long start = Math.min(index, Math.max(0, registrySize - bulkSize));
+        List<AssetAdministrationShellDescriptor> shells = LongStream.range(start, Math.min(start + bulkSize, registrySize))
+                .mapToObj(generator::shell)
+                .toList();
+        long begin = System.nanoTime();
+        HttpResponse<String> response = send("PUT " + BULK_SHELLS_PATH + "?upsert=true",
+                HttpRequest.newBuilder(uri(BULK_SHELLS_PATH + "?upsert=true")).PUT(body(shells)).header(CONTENT_TYPE, APPLICATION_JSON));
+        if (isSuccess(response)) {
+            boolean success = true;
+            try {
+                awaitBulkOperation(response);
+            }
+            catch (IOException e) {
+                success = false;
+            }
+            recorder.record("bulk upsert of " + bulkSize + " shells until finished", System.nanoTime() - begin, success);
+        }
+    }
+
+
+    private void awaitBulkOperation(HttpResponse<String> response) throws IOException, InterruptedException {
+        // the location is relative to the collection, e.g. ../status/{handleId}
+        URI status = uri(BULK_SHELLS_PATH + "/").resolve(response.headers().firstValue("Location")
+                .orElseThrow(() -> new IOException("bulk operation response without location")));
+        URI wait = URI.create(status + "?waitSeconds=" + BULK_WAIT_SECONDS);
+        HttpResponse<String> statusResponse;
+        do {
+            statusResponse = client.send(HttpRequest.newBuilder(wait).GET().build(), HttpResponse.BodyHandlers.ofString());
+        } while (statusResponse.statusCode() == 200);
+        // the registry redirects to the result as soon as the operation is finished
+        if ((statusResponse.statusCode() / 100) != 3) {
+            throw new IOException(String.format("waiting for bulk operation failed with status %d", statusResponse.statusCode()));
+        }
+    }
+
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - start, isSuccess(response));
+            return response;
+        }
+        catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return (response.statusCode() / 100) == 2;
+    }
+
+
+    private static void checkStatus(HttpResponse<String> response, int expected) throws IOException {
+        if (response.statusCode() != expected) {
+            throw new IOException(String.format("request %s failed with status %d: %s", response.uri(), response.statusCode(), response.body()));
+        }
+    }
+
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(value));
+    }
+
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+
+    private static String encode(String value) {
+        return EncodingHelper.base64UrlEncode(value);
+    }
+}
@@ -17,7 +17,11 @@ package de.fraunhofer.iosb.ilt.faaast.registry.jpa;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractAasRepository;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.jfr.TransactionEvent;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkIndex;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaAssetAdministrationShellDescriptor;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSubmodelDescriptor;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSubmodelDescriptorStandalone;
@@ -27,25 +31,32 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
 import de.fraunhofer.iosb.ilt.faaast.service.util.FaaastConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 /**
@@ -55,6 +66,8 @@ import org.springframework.transaction.TransactionStatus;
 public class AasRepositoryJpa extends AbstractAasRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AasRepositoryJpa.class);
+    private static final String BACKEND = "jpa";
+    private static final long MAX_PRUNE_INTERVAL = 600000;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -62,10 +75,24 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     private final Map<Integer, TransactionStatus> transactions = new ConcurrentHashMap<>();
     private final AtomicInteger transactionCounter = new AtomicInteger(0);
     private PlatformTransactionManager txManager;
+    private final long tombstoneRetention;
+    private ScheduledExecutorService pruneExecutor;
 
-    @Autowired
     public AasRepositoryJpa(PlatformTransactionManager txManager) {
+        this(txManager, DEFAULT_TOMBSTONE_RETENTION);
+    }
+
+
+    /**
+     * Instantiates the repository.
+     *
+     * @param txManager The transaction manager.
+     * @param tombstoneRetention The time in milliseconds the deletion of a descriptor is kept in the change log.
+     */
+    public AasRepositoryJpa(PlatformTransactionManager txManager, long tombstoneRetention) {
+        Ensure.require(tombstoneRetention > 0, "tombstoneRetention must be greater than 0");
         this.txManager = txManager;
+        this.tombstoneRetention = tombstoneRetention;
     }
 
 
@@ -76,13 +103,82 @@ public class AasRepositoryJpa extends AbstractAasRepository {
      * @param entityManager The desired EntityManager.
      */
     public AasRepositoryJpa(EntityManager entityManager) {
+        this(entityManager, DEFAULT_TOMBSTONE_RETENTION);
+    }
+
+
+    /**
+     * Constructor with EntityManager as parameter.
+     * Used only for unit test.
+     *
+     * @param entityManager The desired EntityManager.
+     * @param tombstoneRetention The time in milliseconds the deletion of a descriptor is kept in the change log.
+     */
+    public AasRepositoryJpa(EntityManager entityManager, long tombstoneRetention) {
+        Ensure.require(tombstoneRetention > 0, "tombstoneRetention must be greater than 0");
         this.entityManager = entityManager;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+
+    /**
+     * Creates the revision counter if it does not exist yet and starts pruning the deletions from the change log. The
+     * counter is created once at startup, as concurrent transactions must not create it at the same time.
+     */
+    @PostConstruct
+    public void init() {
+        if (txManager == null) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(txManager);
+        transactionTemplate.executeWithoutResult(x -> EntityManagerHelper.initRevision(entityManager));
+        long pruneInterval = Math.min(tombstoneRetention, MAX_PRUNE_INTERVAL);
+        pruneExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-log-pruning");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pruneExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                Integer pruned = transactionTemplate.execute(x -> pruneDeletions());
+                LOGGER.debug("pruned {} deletions from the change log", pruned);
+            }
+            catch (RuntimeException e) {
+                // deletions pruned concurrently by another instance are pruned with the next run
+                LOGGER.debug("pruning the change log failed: {}", e.getMessage());
+            }
+        }, pruneInterval, pruneInterval, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Stops pruning the change log.
+     */
+    @PreDestroy
+    public void close() {
+        if (pruneExecutor != null) {
+            pruneExecutor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Removes the deletions older than the retention time from the change log. Must be called within a transaction.
+     *
+     * @return The number of removed deletions.
+     */
+    public int pruneDeletions() {
+        return EntityManagerHelper.pruneDeletions(entityManager, System.currentTimeMillis() - tombstoneRetention);
     }
 
 
     @Override
-    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging) {
-        return EntityManagerHelper.getPagedAas(entityManager, assetType, assetKind, readLimit(paging), readCursor(paging));
+    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging, DescriptorProjection projection) {
+        ensureProjection(projection);
+        if (projection.isAll()) {
+            return EntityManagerHelper.getPagedAas(entityManager, assetType, assetKind, readLimit(paging), readCursor(paging));
+        }
+        return EntityManagerHelper.getPagedAas(entityManager, assetType, assetKind, readLimit(paging), readCursor(paging), projection);
     }
 
 
@@ -95,6 +191,14 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     }
 
 
+    @Override
+    public List<AssetAdministrationShellDescriptor> getAASsByIds(Collection<String> aasIds) {
+        ensureIds(aasIds);
+        return EntityManagerHelper.getByIds(entityManager, JpaAssetAdministrationShellDescriptor.class, AssetAdministrationShellDescriptor.class, aasIds,
+                AssetAdministrationShellDescriptor::getId);
+    }
+
+
     @Override
     public Page<String> getAASIdentifiersByAssetLink(List<AssetLink> assetLinks, PagingInfo pagingInfo) {
         Ensure.requireNonNull(assetLinks, "specificAssetIds must be non-null");
@@ -105,10 +209,19 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     }
 
 
+    @Override
+    public List<List<String>> getAASIdentifiersByAssetLinks(List<List<AssetLink>> assetLinkQueries) {
+        Ensure.requireNonNull(assetLinkQueries, "assetLinkQueries must be non-null");
+        AssetLinkIndex index = new AssetLinkIndex(assetLinkQueries);
+        EntityManagerHelper.fillAssetLinkIndex(entityManager, index);
+        return index.evaluate();
+    }
+
+
     @Override
     public AssetAdministrationShellDescriptor create(AssetAdministrationShellDescriptor descriptor) throws ResourceAlreadyExistsException {
         AssetAdministrationShellDescriptor retval;
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             retval = doCreate(descriptor);
         }
         else {
@@ -129,7 +242,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
 
     @Override
     public void deleteAAS(String aasId) throws ResourceNotFoundException {
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             doDeleteAAS(aasId);
         }
         else {
@@ -150,7 +263,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     @Override
     public AssetAdministrationShellDescriptor update(String aasId, AssetAdministrationShellDescriptor descriptor) throws ResourceNotFoundException {
         AssetAdministrationShellDescriptor retval;
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             retval = doUpdate(aasId, descriptor);
         }
         else {
@@ -170,18 +283,52 @@ public class AasRepositoryJpa extends AbstractAasRepository {
 
 
     @Override
-    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging) throws ResourceNotFoundException {
+    public AssetAdministrationShellDescriptor upsert(AssetAdministrationShellDescriptor descriptor) {
+        AssetAdministrationShellDescriptor retval;
+        if (isTransactionActive()) {
+            retval = doUpsert(descriptor);
+        }
+        else {
+            // use internal transaction
+            int nr = startTransaction();
+            try {
+                retval = doUpsert(descriptor);
+                commitTransaction(nr);
+            }
+            catch (Exception ex) {
+                rollbackTransaction(nr);
+                throw ex;
+            }
+        }
+        return retval;
+    }
+
+
+    @Override
+    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging, DescriptorProjection projection) throws ResourceNotFoundException {
         ensureAasId(aasId);
-        AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
-        Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
-        List<SubmodelDescriptor> list = aas.getSubmodelDescriptors();
+        ensureProjection(projection);
+        List<SubmodelDescriptor> list;
+        if (projection.isAll()) {
+            AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
+            Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
+            list = aas.getSubmodelDescriptors();
+        }
+        else {
+            Ensure.require(EntityManagerHelper.existsAas(entityManager, aasId), buildAASNotFoundException(aasId));
+            list = EntityManagerHelper.getSubmodelsOfAas(entityManager, aasId, projection);
+        }
         return getPage(list, readCursor(paging), list.size());
     }
 
 
     @Override
-    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging) {
-        return EntityManagerHelper.getAllPaged(entityManager, JpaSubmodelDescriptorStandalone.class, SubmodelDescriptor.class, readLimit(paging), readCursor(paging));
+    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging, DescriptorProjection projection) {
+        ensureProjection(projection);
+        if (projection.isAll()) {
+            return EntityManagerHelper.getAllPaged(entityManager, JpaSubmodelDescriptorStandalone.class, SubmodelDescriptor.class, readLimit(paging), readCursor(paging));
+        }
+        return EntityManagerHelper.getPagedSubmodels(entityManager, readLimit(paging), readCursor(paging), projection);
     }
 
 
@@ -211,10 +358,17 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     }
 
 
+    @Override
+    public List<SubmodelDescriptor> getSubmodelsByIds(Collection<String> submodelIds) {
+        ensureIds(submodelIds);
+        return EntityManagerHelper.getByIds(entityManager, JpaSubmodelDescriptorStandalone.class, SubmodelDescriptor.class, submodelIds, SubmodelDescriptor::getId);
+    }
+
+
     @Override
     public SubmodelDescriptor addSubmodel(String aasId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
         SubmodelDescriptor retval = null;
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             retval = doAddSubmodel(aasId, descriptor);
         }
         else {
@@ -236,7 +390,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     @Override
     public SubmodelDescriptor addSubmodel(SubmodelDescriptor descriptor) throws ResourceAlreadyExistsException {
         SubmodelDescriptor retval = null;
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             retval = doAddSubmodel(descriptor);
         }
         else {
@@ -257,7 +411,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
 
     @Override
     public void deleteSubmodel(String aasId, String submodelId) throws ResourceNotFoundException {
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             doDeleteSubmodel(aasId, submodelId);
         }
         else {
@@ -277,7 +431,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
 
     @Override
     public void deleteSubmodel(String submodelId) throws ResourceNotFoundException {
-        if (!transactions.isEmpty()) {
+        if (isTransactionActive()) {
             doDeleteSubmodel(submodelId);
         }
         else {
@@ -296,13 +450,110 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     }
 
 
+    @Override
+    public SubmodelDescriptor updateSubmodel(String aasId, String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        SubmodelDescriptor retval;
+        if (isTransactionActive()) {
+            retval = doUpdateSubmodel(aasId, submodelId, descriptor);
+        }
+        else {
+            // use internal transaction
+            int nr = startTransaction();
+            try {
+                retval = doUpdateSubmodel(aasId, submodelId, descriptor);
+                commitTransaction(nr);
+            }
+            catch (Exception ex) {
+                rollbackTransaction(nr);
+                throw ex;
+            }
+        }
+        return retval;
+    }
+
+
+    @Override
+    public SubmodelDescriptor updateSubmodel(String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        SubmodelDescriptor retval;
+        if (isTransactionActive()) {
+            retval = doUpdateSubmodel(submodelId, descriptor);
+        }
+        else {
+            // use internal transaction
+            int nr = startTransaction();
+            try {
+                retval = doUpdateSubmodel(submodelId, descriptor);
+                commitTransaction(nr);
+            }
+            catch (Exception ex) {
+                rollbackTransaction(nr);
+                throw ex;
+            }
+        }
+        return retval;
+    }
+
+
+    @Override
+    public SubmodelDescriptor upsertSubmodel(SubmodelDescriptor descriptor) {
+        SubmodelDescriptor retval;
+        if (isTransactionActive()) {
+            retval = doUpsertSubmodel(descriptor);
+        }
+        else {
+            // use internal transaction
+            int nr = startTransaction();
+            try {
+                retval = doUpsertSubmodel(descriptor);
+                commitTransaction(nr);
+            }
+            catch (Exception ex) {
+                rollbackTransaction(nr);
+                throw ex;
+            }
+        }
+        return retval;
+    }
+
+
+    @Override
+    public long getRevision() {
+        return EntityManagerHelper.getRevision(entityManager);
+    }
+
+
+    @Override
+    public long getAASCount() {
+        return EntityManagerHelper.count(entityManager, JpaAssetAdministrationShellDescriptor.class);
+    }
+
+
+    @Override
+    public long getSubmodelCount() {
+        return EntityManagerHelper.count(entityManager, JpaSubmodelDescriptorStandalone.class);
+    }
+
+
+    @Override
+    public Page<DescriptorChange> getChanges(long since, PagingInfo paging) {
+        int limit = readLimit(paging);
+        long revision = readRevision(since, paging);
+        List<DescriptorChange> changes = EntityManagerHelper.getChanges(entityManager, revision, limit + 1);
+        ensureHorizon(revision, EntityManagerHelper.getHorizon(entityManager));
+        return getChangePage(changes, limit);
+    }
+
+
     @Override
     public int startTransaction() {
         int retval = 0;
         if (txManager != null) {
             retval = transactionCounter.incrementAndGet();
             LOGGER.debug("startTransaction {}", retval);
+            TransactionEvent event = new TransactionEvent(BACKEND, TransactionEvent.START, retval);
+            event.begin();
             transactions.put(retval, txManager.getTransaction(null));
+            event.commit();
         }
         return retval;
     }
@@ -313,13 +564,21 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         LOGGER.debug("commitTransaction {}", nr);
         if (txManager != null) {
             TransactionStatus transaction = transactions.get(nr);
-            if ((transaction == null) || (transaction.isCompleted())) {
-                LOGGER.info("transaction already completed");
+            try {
+                if ((transaction == null) || (transaction.isCompleted())) {
+                    LOGGER.info("transaction already completed");
+                }
+                else {
+                    TransactionEvent event = new TransactionEvent(BACKEND, TransactionEvent.COMMIT, nr);
+                    event.begin();
+                    txManager.commit(transaction);
+                    event.commit();
+                }
             }
-            else {
-                txManager.commit(transaction);
+            finally {
+                // the transaction is completed even if the commit fails
+                transactions.remove(nr);
             }
-            transactions.remove(nr);
         }
     }
 
@@ -329,13 +588,21 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         LOGGER.debug("rollbackTransaction {}", nr);
         if (txManager != null) {
             TransactionStatus transaction = transactions.get(nr);
-            if ((transaction == null) || (transaction.isCompleted())) {
-                LOGGER.info("transaction already completed");
+            try {
+                if ((transaction == null) || (transaction.isCompleted())) {
+                    LOGGER.info("transaction already completed");
+                }
+                else {
+                    TransactionEvent event = new TransactionEvent(BACKEND, TransactionEvent.ROLLBACK, nr);
+                    event.begin();
+                    txManager.rollback(transaction);
+                    event.commit();
+                }
             }
-            else {
-                txManager.rollback(transaction);
+            finally {
+                // the transaction is completed even if the rollback fails
+                transactions.remove(nr);
             }
-            transactions.remove(nr);
         }
     }
 
@@ -346,6 +613,15 @@ public class AasRepositoryJpa extends AbstractAasRepository {
     }
 
 
+    /**
+     * Checks whether the current thread runs in a transaction, e.g. started with {@link #startTransaction()}. Other
+     * threads may run in their own transactions at the same time.
+     */
+    private static boolean isTransactionActive() {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+
     private JpaAssetAdministrationShellDescriptor fetchAAS(String aasId) {
         try {
             return entityManager.find(JpaAssetAdministrationShellDescriptor.class, aasId);
@@ -363,7 +639,13 @@ public class AasRepositoryJpa extends AbstractAasRepository {
 
     @Override
     public boolean getTransactionActive() {
-        return !transactions.isEmpty();
+        return isTransactionActive();
+    }
+
+
+    @Override
+    public boolean supportsConcurrentTransactions() {
+        return true;
     }
 
 
@@ -372,6 +654,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
         Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
         entityManager.remove(aas);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, aasId, true);
     }
 
 
@@ -381,6 +664,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         Ensure.require(Objects.isNull(aas), buildAASAlreadyExistsException(descriptor.getId()));
         JpaAssetAdministrationShellDescriptor result = ModelTransformationHelper.convertAAS(descriptor);
         entityManager.persist(result);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, result.getId(), false);
         return result;
     }
 
@@ -390,10 +674,27 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         ensureDescriptorId(descriptor);
         JpaAssetAdministrationShellDescriptor aas = fetchAAS(descriptor.getId());
         Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
-        return entityManager.merge(new JpaAssetAdministrationShellDescriptor.Builder()
+        AssetAdministrationShellDescriptor retval = entityManager.merge(new JpaAssetAdministrationShellDescriptor.Builder()
                 .id(aas.getId())
                 .from(descriptor)
                 .build());
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, aas.getId(), false);
+        return retval;
+    }
+
+
+    private AssetAdministrationShellDescriptor doUpsert(AssetAdministrationShellDescriptor descriptor) {
+        ensureDescriptorId(descriptor);
+        JpaAssetAdministrationShellDescriptor aas = fetchAAS(descriptor.getId());
+        if (aas != null) {
+            removeChildren(aas);
+            // the submodels keep their IDs, so they must be deleted before the new ones are inserted
+            entityManager.flush();
+        }
+        // merge inserts the descriptor if it does not exist yet, otherwise it replaces the existing one
+        AssetAdministrationShellDescriptor retval = entityManager.merge(ModelTransformationHelper.convertAAS(descriptor));
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, retval.getId(), false);
+        return retval;
     }
 
 
@@ -406,8 +707,10 @@ public class AasRepositoryJpa extends AbstractAasRepository {
             throw buildSubmodelAlreadyExistsException(descriptor.getId());
         }
         JpaSubmodelDescriptor submodel = ModelTransformationHelper.convertSubmodel(descriptor, aasId);
+        submodel.setListIndex(nextListIndex(aas.getSubmodelDescriptors()));
         aas.getSubmodelDescriptors().add(submodel);
         entityManager.merge(aas);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, aasId, false);
         return submodel;
     }
 
@@ -418,6 +721,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         Ensure.require(Objects.isNull(submodel), buildSubmodelAlreadyExistsException(descriptor.getId()));
         submodel = ModelTransformationHelper.convertSubmodelStandalone(descriptor);
         entityManager.persist(submodel);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SUBMODEL, submodel.getId(), false);
         return submodel;
     }
 
@@ -436,6 +740,7 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         entityManager.remove(aas);
         aas.getSubmodelDescriptors().removeIf(x -> x.getId().equals(submodelId));
         entityManager.persist(aas);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, aasId, false);
     }
 
 
@@ -444,6 +749,128 @@ public class AasRepositoryJpa extends AbstractAasRepository {
         SubmodelDescriptor submodel = fetchSubmodelStandalone(submodelId);
         Ensure.requireNonNull(submodel, buildSubmodelNotFoundException(submodelId));
         entityManager.remove(submodel);
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SUBMODEL, submodelId, true);
+    }
+
+
+    private SubmodelDescriptor doUpdateSubmodel(String aasId, String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        ensureAasId(aasId);
+        ensureSubmodelId(submodelId);
+        ensureDescriptorId(descriptor);
+        AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
+        Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
+        List<SubmodelDescriptor> submodels = aas.getSubmodelDescriptors();
+        Optional<SubmodelDescriptor> submodel = getSubmodelInternal(submodels, submodelId);
+        Ensure.require(submodel.isPresent(), buildSubmodelNotFoundInAASException(aasId, submodelId));
+        JpaSubmodelDescriptor retval = ModelTransformationHelper.convertSubmodel(descriptor, aasId);
+        // the submodel keeps its position in the list of the AAS
+        retval.setListIndex(((JpaSubmodelDescriptor) submodel.get()).getListIndex());
+        if (Objects.equals(submodelId, descriptor.getId())) {
+            // same key, so the existing row is updated instead of deleting and re-inserting the whole AAS
+            removeChildren(submodel.get());
+            retval = entityManager.merge(retval);
+        }
+        else {
+            if (getSubmodelInternal(submodels, descriptor.getId()).isPresent()) {
+                throw buildSubmodelAlreadyExistsException(descriptor.getId());
+            }
+            submodels.set(submodels.indexOf(submodel.get()), retval);
+            entityManager.remove(submodel.get());
+        }
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SHELL, aasId, false);
+        return retval;
+    }
+
+
+    private SubmodelDescriptor doUpdateSubmodel(String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        ensureSubmodelId(submodelId);
+        ensureDescriptorId(descriptor);
+        SubmodelDescriptor submodel = fetchSubmodelStandalone(submodelId);
+        Ensure.requireNonNull(submodel, buildSubmodelNotFoundException(submodelId));
+        if (!Objects.equals(submodelId, descriptor.getId())) {
+            Ensure.require(Objects.isNull(fetchSubmodelStandalone(descriptor.getId())), buildSubmodelAlreadyExistsException(descriptor.getId()));
+            entityManager.remove(submodel);
+            EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SUBMODEL, submodelId, true);
+        }
+        else {
+            removeChildren(submodel);
+        }
+        SubmodelDescriptor retval = entityManager.merge(ModelTransformationHelper.convertSubmodelStandalone(descriptor));
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SUBMODEL, retval.getId(), false);
+        return retval;
+    }
+
+
+    private SubmodelDescriptor doUpsertSubmodel(SubmodelDescriptor descriptor) {
+        ensureDescriptorId(descriptor);
+        SubmodelDescriptor submodel = fetchSubmodelStandalone(descriptor.getId());
+        if (submodel != null) {
+            removeChildren(submodel);
+        }
+        SubmodelDescriptor retval = entityManager.merge(ModelTransformationHelper.convertSubmodelStandalone(descriptor));
+        EntityManagerHelper.recordChange(entityManager, DescriptorChange.Resource.SUBMODEL, retval.getId(), false);
+        return retval;
+    }
+
+
+    /**
+     * Removes the children of an existing AAS, e.g. its descriptions and endpoints, before it is replaced by merging a new
+     * version. Merging would only replace the references to the children, which have generated IDs, and leave the old
+     * ones orphaned.
+     */
+    private void removeChildren(AssetAdministrationShellDescriptor aas) {
+        List<Object> children = new ArrayList<>();
+        takeAll(aas.getSpecificAssetIds(), children);
+        takeAll(aas.getSubmodelDescriptors(), children);
+        takeAll(aas.getExtensions(), children);
+        takeAll(aas.getDescription(), children);
+        takeAll(aas.getDisplayName(), children);
+        takeAll(aas.getEndpoints(), children);
+        if (aas.getAdministration() != null) {
+            children.add(aas.getAdministration());
+            aas.setAdministration(null);
+        }
+        children.forEach(entityManager::remove);
+    }
+
+
+    /**
+     * Removes the children of an existing submodel before it is replaced by merging a new version.
+     */
+    private void removeChildren(SubmodelDescriptor submodel) {
+        List<Object> children = new ArrayList<>();
+        takeAll(submodel.getDescription(), children);
+        takeAll(submodel.getDisplayName(), children);
+        takeAll(submodel.getEndpoints(), children);
+        takeAll(submodel.getSupplementalSemanticIds(), children);
+        takeAll(submodel.getExtensions(), children);
+        if (submodel.getAdministration() != null) {
+            children.add(submodel.getAdministration());
+            submodel.setAdministration(null);
+        }
+        if (submodel.getSemanticId() != null) {
+            children.add(submodel.getSemanticId());
+            submodel.setSemanticId(null);
+        }
+        children.forEach(entityManager::remove);
+    }
+
+
+    private static int nextListIndex(List<SubmodelDescriptor> submodels) {
+        return submodels.stream()
+                .map(x -> ((JpaSubmodelDescriptor) x).getListIndex())
+                .filter(Objects::nonNull)
+                .max(Integer::compare)
+                .map(x -> x + 1)
+                .orElse(submodels.size());
+    }
+
+
+    private static void takeAll(List<?> source, List<Object> target) {
+        if (source != null) {
+            target.addAll(source);
+            source.clear();
+        }
     }
 
 
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.BulkOperationStatusStore;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkItemFailure;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaBulkItemFailure;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaBulkOperationStatus;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Relational database implementation of the bulk operation status store, so the status of bulk operations survives a
+ * restart. Every access runs in its own transaction, independent of a running transaction of the bulk operation.
+ * Expired entries are evicted periodically in the background, so changing a status does not query the whole table.
+ * Every entry is owned by the registry instance executing the operation, so multiple instances can share a database.
+ * Each instance marks its running operations as alive with every eviction, so running operations of an instance which
+ * disappeared, e.g. a pod replaced under a new host name, are failed after a timeout.
+ */
+public class BulkOperationStatusStoreJpa implements BulkOperationStatusStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkOperationStatusStoreJpa.class);
+    private static final int EVICTION_BATCH_SIZE = 100;
+    private static final String INTERRUPTED_MESSAGE = "operation interrupted by restart";
+    private static final String ABANDONED_MESSAGE = "operation abandoned, the registry instance executing it stopped";
+    private static final long DEFAULT_EVICTION_INTERVAL = 60000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final long timeToLive;
+    private final String owner;
+    private final long evictionInterval;
+    private final long staleTimeout;
+    private final Clock clock;
+    private ScheduledExecutorService evictionExecutor;
+
+    /**
+     * Instantiates the store.
+     *
+     * @param txManager The transaction manager.
+     * @param capacity The maximum number of stored operations.
+     * @param timeToLive The time in milliseconds the status of a finished operation is stored.
+     * @param owner The ID of this registry instance, which must be unique among the instances sharing the database and
+     *            stay the same across restarts. If empty, the host name is used.
+     * @param evictionInterval The time in milliseconds between two evictions of expired entries.
+     * @param staleTimeout The time in milliseconds after which a running operation, which is not marked as alive by its
+     *            instance, is failed. Must be greater than the eviction interval.
+     */
+    public BulkOperationStatusStoreJpa(PlatformTransactionManager txManager, int capacity, long timeToLive, String owner, long evictionInterval,
+            long staleTimeout) {
+        this(txManager, capacity, timeToLive, owner, evictionInterval, staleTimeout, Clock.systemUTC());
+    }
+
+
+    /**
+     * Constructor with EntityManager as parameter.
+     * Used only for unit test.
+     *
+     * @param entityManager The desired EntityManager.
+     * @param txManager The transaction manager.
+     * @param capacity The maximum number of stored operations.
+     * @param timeToLive The time in milliseconds the status of a finished operation is stored.
+     * @param owner The ID of this registry instance.
+     * @param staleTimeout The time in milliseconds after which a running operation not marked as alive is failed.
+     * @param clock The clock used for the expiry.
+     */
+    public BulkOperationStatusStoreJpa(EntityManager entityManager, PlatformTransactionManager txManager, int capacity, long timeToLive, String owner,
+            long staleTimeout, Clock clock) {
+        this(txManager, capacity, timeToLive, owner, DEFAULT_EVICTION_INTERVAL, staleTimeout, clock);
+        this.entityManager = entityManager;
+    }
+
+
+    private BulkOperationStatusStoreJpa(PlatformTransactionManager txManager, int capacity, long timeToLive, String owner, long evictionInterval,
+            long staleTimeout, Clock clock) {
+        Ensure.requireNonNull(txManager, "txManager must be non-null");
+        Ensure.require(capacity > 0, "capacity must be greater than 0");
+        Ensure.require(timeToLive > 0, "timeToLive must be greater than 0");
+        Ensure.require(evictionInterval > 0, "evictionInterval must be greater than 0");
+        Ensure.require(staleTimeout > evictionInterval, "staleTimeout must be greater than evictionInterval");
+        this.transactionTemplate = new TransactionTemplate(txManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacity = capacity;
+        this.timeToLive = timeToLive;
+        this.owner = owner == null || owner.isBlank() ? hostName() : owner;
+        this.evictionInterval = evictionInterval;
+        this.staleTimeout = staleTimeout;
+        this.clock = clock;
+    }
+
+
+    /**
+     * Marks the operations of this instance which were running when it was stopped as failed, as they are not
+     * continued, and starts the eviction. Running operations of other instances are not touched.
+     */
+    @PostConstruct
+    public void init() {
+        inTransaction(() -> {
+            List<JpaBulkOperationStatus> interrupted = entityManager.createQuery(
+                    "SELECT s FROM JpaBulkOperationStatus s WHERE s.expiresAt IS NULL AND s.owner = :owner", JpaBulkOperationStatus.class)
+                    .setParameter("owner", owner)
+                    .getResultList();
+            for (JpaBulkOperationStatus status: interrupted) {
+                status.setErrorMessage(INTERRUPTED_MESSAGE);
+                finish(status, ExecutionState.FAILED);
+            }
+            LOGGER.debug("marked {} interrupted bulk operations of {} as failed", interrupted.size(), owner);
+            return null;
+        });
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bulk-status-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictionExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                evict();
+            }
+            catch (RuntimeException e) {
+                // entries evicted concurrently by another instance are evicted with the next run
+                LOGGER.debug("evicting bulk operation status failed: {}", e.getMessage());
+            }
+        }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Stops the eviction.
+     */
+    @PreDestroy
+    public void close() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+        }
+    }
+
+
+    @Override
+    public void setStatus(String handleId, ExecutionState status) {
+        inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetchOrCreate(handleId);
+            entry.setUpdatedAt(clock.millis());
+            if (status == ExecutionState.COMPLETED || status == ExecutionState.FAILED) {
+                finish(entry, status);
+            }
+            else {
+                entry.setExecutionState(status);
+                entry.setExpiresAt(null);
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public ExecutionState getStatus(String handleId) {
+        return inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetch(handleId);
+            return entry != null ? entry.getExecutionState() : null;
+        });
+    }
+
+
+    @Override
+    public long size() {
+        return inTransaction(this::count);
+    }
+
+
+    @Override
+    public void setErrorMessage(String handleId, String message) {
+        inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetch(handleId);
+            if (entry != null) {
+                entry.setErrorMessage(message);
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public String getErrorMessage(String handleId) {
+        return inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetch(handleId);
+            return entry != null ? entry.getErrorMessage() : null;
+        });
+    }
+
+
+    @Override
+    public void setProgress(String handleId, BulkOperationProgress progress) {
+        List<BulkItemFailure> failures = progress.getFailures();
+        inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetch(handleId);
+            if (entry == null) {
+                // the status was evicted, so the operation is not resurrected
+                return null;
+            }
+            entry.setUpdatedAt(clock.millis());
+            entry.setTotal(progress.getTotal());
+            entry.setSucceeded(progress.getSucceeded());
+            // failures are only added, so only the new ones are stored
+            for (int i = entry.getFailures().size(); i < failures.size(); i++) {
+                entry.getFailures().add(new JpaBulkItemFailure(failures.get(i)));
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public BulkOperationProgress getProgress(String handleId) {
+        return inTransaction(() -> {
+            JpaBulkOperationStatus entry = fetch(handleId);
+            if (entry == null || entry.getTotal() == null) {
+                return null;
+            }
+            BulkOperationProgress retval = new BulkOperationProgress(entry.getTotal());
+            retval.addSucceeded(entry.getSucceeded());
+            entry.getFailures().forEach(x -> retval.addFailure(x.getIndex(), x.getId(), x.getMessage()));
+            retval.setExecutionState(entry.getExecutionState());
+            return retval;
+        });
+    }
+
+
+    private JpaBulkOperationStatus fetch(String handleId) {
+        JpaBulkOperationStatus entry = entityManager.find(JpaBulkOperationStatus.class, handleId);
+        if (entry == null || (entry.getExpiresAt() != null && entry.getExpiresAt() <= clock.millis())) {
+            return null;
+        }
+        return entry;
+    }
+
+
+    private JpaBulkOperationStatus fetchOrCreate(String handleId) {
+        JpaBulkOperationStatus entry = entityManager.find(JpaBulkOperationStatus.class, handleId);
+        if (entry == null) {
+            entry = new JpaBulkOperationStatus(handleId);
+            entry.setOwner(owner);
+            entityManager.persist(entry);
+        }
+        return entry;
+    }
+
+
+    private void finish(JpaBulkOperationStatus entry, ExecutionState status) {
+        entry.setExecutionState(status);
+        entry.setExpiresAt(clock.millis() + timeToLive);
+    }
+
+
+    /**
+     * Marks the running operations of this instance as alive, fails running operations no instance marked as alive
+     * within the stale timeout, removes the expired entries and, while the capacity is exceeded, the entries finished
+     * first. Called periodically after {@link #init()}.
+     */
+    public void evict() {
+        inTransaction(this::markAlive);
+        // every batch is removed in its own transaction, until the store is within its limits
+        while (Boolean.TRUE.equals(inTransaction(this::evictBatch))) {
+            LOGGER.trace("evicted a batch of bulk operation status entries");
+        }
+    }
+
+
+    private Void markAlive() {
+        long now = clock.millis();
+        entityManager.createQuery("UPDATE JpaBulkOperationStatus s SET s.updatedAt = :now WHERE s.expiresAt IS NULL AND s.owner = :owner")
+                .setParameter("now", now)
+                .setParameter("owner", owner)
+                .executeUpdate();
+        int abandoned = entityManager.createQuery("UPDATE JpaBulkOperationStatus s SET s.executionState = :state, s.errorMessage = :message, "
+                + "s.expiresAt = :expiresAt WHERE s.expiresAt IS NULL AND (s.updatedAt IS NULL OR s.updatedAt < :threshold)")
+                .setParameter("state", ExecutionState.FAILED)
+                .setParameter("message", ABANDONED_MESSAGE)
+                .setParameter("expiresAt", now + timeToLive)
+                .setParameter("threshold", now - staleTimeout)
+                .executeUpdate();
+        if (abandoned > 0) {
+            LOGGER.info("marked {} abandoned bulk operations as failed", abandoned);
+        }
+        return null;
+    }
+
+
+    /**
+     * Removes a batch of expired entries, or of the entries finished first if the capacity is exceeded.
+     *
+     * @return True if there may be more entries to remove, false otherwise.
+     */
+    private boolean evictBatch() {
+        List<JpaBulkOperationStatus> expired = entityManager.createQuery(
+                "SELECT s FROM JpaBulkOperationStatus s WHERE s.expiresAt <= :now ORDER BY s.expiresAt", JpaBulkOperationStatus.class)
+                .setParameter("now", clock.millis())
+                .setMaxResults(EVICTION_BATCH_SIZE)
+                .getResultList();
+        expired.forEach(entityManager::remove);
+        if (expired.size() == EVICTION_BATCH_SIZE) {
+            return true;
+        }
+        long excess = count() - capacity;
+        if (excess <= 0) {
+            return false;
+        }
+        List<JpaBulkOperationStatus> finished = entityManager.createQuery(
+                "SELECT s FROM JpaBulkOperationStatus s WHERE s.expiresAt IS NOT NULL ORDER BY s.expiresAt", JpaBulkOperationStatus.class)
+                .setMaxResults((int) Math.min(excess, EVICTION_BATCH_SIZE))
+                .getResultList();
+        finished.forEach(entityManager::remove);
+        // running operations are never removed, so the eviction also ends when no finished entries are left
+        return (excess > EVICTION_BATCH_SIZE) && (finished.size() == EVICTION_BATCH_SIZE);
+    }
+
+
+    private long count() {
+        return entityManager.createQuery("SELECT COUNT(s) FROM JpaBulkOperationStatus s", Long.class).getSingleResult();
+    }
+
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        }
+        catch (UnknownHostException e) {
+            throw new IllegalStateException("owner must be set, as the host name is unknown", e);
+        }
+    }
+
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(x -> action.get());
+    }
+}
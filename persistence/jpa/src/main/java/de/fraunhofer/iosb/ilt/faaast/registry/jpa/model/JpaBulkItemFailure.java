@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa.model;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkItemFailure;
+import java.util.Objects;
+
+
+/**
+ * Registry JPA implementation for a failed item of a bulk operation.
+ */
+public class JpaBulkItemFailure extends BulkItemFailure {
+
+    private String failureId;
+
+    public JpaBulkItemFailure() {
+        failureId = null;
+    }
+
+
+    public JpaBulkItemFailure(BulkItemFailure source) {
+        super(source.getIndex(), source.getId(), source.getMessage());
+        failureId = null;
+    }
+
+
+    public String getFailureId() {
+        return failureId;
+    }
+
+
+    public void setFailureId(String failureId) {
+        this.failureId = failureId;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), failureId);
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj)
+                && Objects.equals(failureId, ((JpaBulkItemFailure) obj).failureId);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+
+
+/**
+ * Registry JPA implementation for the status of a bulk operation.
+ */
+public class JpaBulkOperationStatus {
+
+    private String handleId;
+    private ExecutionState executionState;
+    private String errorMessage;
+    private Integer total;
+    private int succeeded;
+    private Long expiresAt;
+    private Long updatedAt;
+    private String owner;
+    private List<JpaBulkItemFailure> failures;
+
+    public JpaBulkOperationStatus() {
+        failures = new ArrayList<>();
+    }
+
+
+    public JpaBulkOperationStatus(String handleId) {
+        this();
+        this.handleId = handleId;
+    }
+
+
+    public String getHandleId() {
+        return handleId;
+    }
+
+
+    public void setHandleId(String handleId) {
+        this.handleId = handleId;
+    }
+
+
+    public ExecutionState getExecutionState() {
+        return executionState;
+    }
+
+
+    public void setExecutionState(ExecutionState executionState) {
+        this.executionState = executionState;
+    }
+
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+
+    public Integer getTotal() {
+        return total;
+    }
+
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+
+    public String getOwner() {
+        return owner;
+    }
+
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+
+    public List<JpaBulkItemFailure> getFailures() {
+        return failures;
+    }
+
+
+    public void setFailures(List<JpaBulkItemFailure> failures) {
+        this.failures = failures;
+    }
+}
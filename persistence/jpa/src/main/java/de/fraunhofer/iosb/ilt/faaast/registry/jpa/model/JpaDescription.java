@@ -24,11 +24,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringTextType;
 /**
  * Registry Descriptor JPA implementation for Description.
  */
-public class JpaDescription extends DefaultLangStringTextType {
+public class JpaDescription extends DefaultLangStringTextType implements JpaListItem {
 
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaDescription() {
         id = null;
     }
@@ -44,6 +47,18 @@ public class JpaDescription extends DefaultLangStringTextType {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
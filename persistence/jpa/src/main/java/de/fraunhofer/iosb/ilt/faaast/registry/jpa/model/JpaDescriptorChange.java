@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa.model;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+
+/**
+ * Registry JPA implementation for an entry of the change log. The key is a hash of the type and the ID of the
+ * descriptor, as the IDs may be too long for a primary key. Deletions store the time of the deletion, so they can be
+ * pruned after a retention time.
+ */
+public class JpaDescriptorChange extends DescriptorChange {
+
+    private String changeKey;
+    private Long deletedAt;
+
+    public JpaDescriptorChange() {
+        changeKey = null;
+    }
+
+
+    public JpaDescriptorChange(Resource resource, String id) {
+        super(0, resource, id, false);
+        changeKey = createKey(resource, id);
+    }
+
+
+    public String getChangeKey() {
+        return changeKey;
+    }
+
+
+    public void setChangeKey(String changeKey) {
+        this.changeKey = changeKey;
+    }
+
+
+    public Long getDeletedAt() {
+        return deletedAt;
+    }
+
+
+    public void setDeletedAt(Long deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+
+    /**
+     * Creates the key of the change log entry for the given descriptor.
+     *
+     * @param resource The type of the descriptor.
+     * @param id The ID of the descriptor.
+     * @return The key.
+     */
+    public static String createKey(Resource resource, String id) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return resource.name() + ":" + HexFormat.of().formatHex(digest.digest(id.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), changeKey, deletedAt);
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj)
+                && Objects.equals(changeKey, ((JpaDescriptorChange) obj).changeKey)
+                && Objects.equals(deletedAt, ((JpaDescriptorChange) obj).deletedAt);
+    }
+}
@@ -24,10 +24,13 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringNameType;
 /**
  * Registry Descriptor JPA implementation for Display Name.
  */
-public class JpaDisplayName extends DefaultLangStringNameType {
+public class JpaDisplayName extends DefaultLangStringNameType implements JpaListItem {
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaDisplayName() {
         id = null;
     }
@@ -43,6 +46,18 @@ public class JpaDisplayName extends DefaultLangStringNameType {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
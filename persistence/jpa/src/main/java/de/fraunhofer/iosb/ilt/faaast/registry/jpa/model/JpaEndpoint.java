@@ -25,11 +25,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEndpoint;
 /**
  * Registry Descriptor JPA implementation for Endpoint.
  */
-public class JpaEndpoint extends DefaultEndpoint {
+public class JpaEndpoint extends DefaultEndpoint implements JpaListItem {
 
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaEndpoint() {
         id = null;
     }
@@ -45,6 +48,18 @@ public class JpaEndpoint extends DefaultEndpoint {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
@@ -25,11 +25,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultExtension;
 /**
  * Registry Descriptor JPA implementation for Extension.
  */
-public class JpaExtension extends DefaultExtension {
+public class JpaExtension extends DefaultExtension implements JpaListItem {
 
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaExtension() {
         id = null;
     }
@@ -45,6 +48,18 @@ public class JpaExtension extends DefaultExtension {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
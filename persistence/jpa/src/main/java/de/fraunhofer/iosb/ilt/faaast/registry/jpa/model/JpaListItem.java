@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa.model;
+
+/**
+ * JPA object contained in a list of a descriptor. The position in the list is stored with the object, as the database
+ * does not keep the order of the rows.
+ */
+public interface JpaListItem {
+
+    /**
+     * Gets the position of the object in the list.
+     *
+     * @return The position of the object in the list, null if unknown.
+     */
+    public Integer getListIndex();
+
+
+    /**
+     * Sets the position of the object in the list.
+     *
+     * @param listIndex The position of the object in the list.
+     */
+    public void setListIndex(Integer listIndex);
+}
@@ -25,11 +25,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
 /**
  * Registry Descriptor JPA implementation for Reference.
  */
-public class JpaReference extends DefaultReference {
+public class JpaReference extends DefaultReference implements JpaListItem {
 
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaReference() {
         id = null;
     }
@@ -45,6 +48,18 @@ public class JpaReference extends DefaultReference {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa.model;
+
+/**
+ * Registry JPA implementation for the global revision counter. The table contains a single row, which is locked by
+ * every modifying transaction while it commits, so revisions are assigned in commit order. The row also stores the
+ * horizon, i.e. the revision of the latest deletion pruned from the change log.
+ */
+public class JpaRevision {
+
+    public static final int ID = 0;
+
+    private int id;
+    private long revision;
+    // nullable, so the column can be added to existing tables
+    private Long horizon;
+
+    public JpaRevision() {
+        id = ID;
+    }
+
+
+    public int getId() {
+        return id;
+    }
+
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+
+    public long getRevision() {
+        return revision;
+    }
+
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+
+    public Long getHorizon() {
+        return horizon;
+    }
+
+
+    public void setHorizon(Long horizon) {
+        this.horizon = horizon;
+    }
+}
@@ -25,11 +25,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
 /**
  * Registry Descriptor JPA implementation for SpecificAssetId.
  */
-public class JpaSpecificAssetId extends DefaultSpecificAssetId {
+public class JpaSpecificAssetId extends DefaultSpecificAssetId implements JpaListItem {
 
     @JsonIgnore
     private String id;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaSpecificAssetId() {
         id = null;
     }
@@ -45,6 +48,18 @@ public class JpaSpecificAssetId extends DefaultSpecificAssetId {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), id);
@@ -22,11 +22,14 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 /**
  * Registry Descriptor JPA implementation for Submodel of an AAS.
  */
-public class JpaSubmodelDescriptor extends JpaSubmodelDescriptorBase {
+public class JpaSubmodelDescriptor extends JpaSubmodelDescriptorBase implements JpaListItem {
 
     @JsonIgnore
     private String aasId;
 
+    @JsonIgnore
+    private Integer listIndex;
+
     public JpaSubmodelDescriptor() {
         aasId = null;
     }
@@ -42,6 +45,18 @@ public class JpaSubmodelDescriptor extends JpaSubmodelDescriptorBase {
     }
 
 
+    @Override
+    public Integer getListIndex() {
+        return listIndex;
+    }
+
+
+    @Override
+    public void setListIndex(Integer listIndex) {
+        this.listIndex = listIndex;
+    }
+
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), aasId);
@@ -14,23 +14,72 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.registry.jpa.util;
 
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ADMINISTRATION;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ASSET_KIND;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ASSET_TYPE;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.DESCRIPTION;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.DISPLAY_NAME;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ENDPOINTS;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.EXTENSIONS;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.GLOBAL_ASSET_ID;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ID;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.ID_SHORT;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.SEMANTIC_ID;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.SPECIFIC_ASSET_IDS;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.SUBMODEL_DESCRIPTORS;
+import static de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection.SUPPLEMENTAL_SEMANTIC_IDS;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkIndex;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaAssetAdministrationShellDescriptor;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaDescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaRevision;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSpecificAssetId;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSubmodelDescriptorStandalone;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.AbstractQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import jakarta.persistence.criteria.Subquery;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.eclipse.digitaltwin.aas4j.v3.model.AdministrativeInformation;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
+import org.eclipse.digitaltwin.aas4j.v3.model.Endpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.Extension;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringNameType;
+import org.eclipse.digitaltwin.aas4j.v3.model.LangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
 /**
@@ -38,6 +87,42 @@ import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
  */
 public class EntityManagerHelper {
 
+    private static final Map<String, BiConsumer<AssetAdministrationShellDescriptor, Object>> AAS_ATTRIBUTES = Map.of(
+            ID, (d, v) -> d.setId((String) v),
+            ID_SHORT, (d, v) -> d.setIdShort((String) v),
+            ASSET_KIND, (d, v) -> d.setAssetKind((AssetKind) v),
+            ASSET_TYPE, (d, v) -> d.setAssetType((String) v),
+            GLOBAL_ASSET_ID, (d, v) -> d.setGlobalAssetId((String) v));
+
+    private static final Map<String, BiConsumer<AssetAdministrationShellDescriptor, Object>> AAS_RELATIONS = Map.of(
+            ADMINISTRATION, (d, v) -> d.setAdministration((AdministrativeInformation) v),
+            DESCRIPTION, (d, v) -> d.getDescription().add((LangStringTextType) v),
+            DISPLAY_NAME, (d, v) -> d.getDisplayName().add((LangStringNameType) v),
+            ENDPOINTS, (d, v) -> d.getEndpoints().add((Endpoint) v),
+            EXTENSIONS, (d, v) -> d.getExtensions().add((Extension) v),
+            SPECIFIC_ASSET_IDS, (d, v) -> d.getSpecificAssetIds().add((SpecificAssetId) v),
+            SUBMODEL_DESCRIPTORS, (d, v) -> d.getSubmodelDescriptors().add((SubmodelDescriptor) v));
+
+    private static final Map<String, BiConsumer<SubmodelDescriptor, Object>> SUBMODEL_ATTRIBUTES = Map.of(
+            ID, (d, v) -> d.setId((String) v),
+            ID_SHORT, (d, v) -> d.setIdShort((String) v));
+
+    private static final Map<String, BiConsumer<SubmodelDescriptor, Object>> SUBMODEL_RELATIONS = Map.of(
+            ADMINISTRATION, (d, v) -> d.setAdministration((AdministrativeInformation) v),
+            DESCRIPTION, (d, v) -> d.getDescription().add((LangStringTextType) v),
+            DISPLAY_NAME, (d, v) -> d.getDisplayName().add((LangStringNameType) v),
+            ENDPOINTS, (d, v) -> d.getEndpoints().add((Endpoint) v),
+            EXTENSIONS, (d, v) -> d.getExtensions().add((Extension) v),
+            SEMANTIC_ID, (d, v) -> d.setSemanticId((Reference) v),
+            SUPPLEMENTAL_SEMANTIC_IDS, (d, v) -> d.getSupplementalSemanticIds().add((Reference) v));
+
+    /**
+     * Maximum number of parameters used in a single IN clause, as some databases limit the number of elements in a list.
+     */
+    private static final int MAX_IN_PARAMETERS = 1000;
+    private static final String REVISION = "revision";
+    private static final String LIST_INDEX = "listIndex";
+
     private EntityManagerHelper() {}
 
 
@@ -90,11 +175,60 @@ public class EntityManagerHelper {
     public static <R, T extends R> Page<R> getAllPaged(EntityManager entityManager, Class<T> type, Class<R> returnType, int limit, int cursor) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<T> queryCriteria = builder.createQuery(type);
-        queryCriteria.select(queryCriteria.from(type));
+        Root<T> root = queryCriteria.from(type);
+        queryCriteria.select(root).orderBy(builder.asc(root.get(ID)));
         return doPaging(entityManager, returnType, limit, cursor, queryCriteria);
     }
 
 
+    /**
+     * Counts all instances of a given type.
+     *
+     * @param <T> the type to count
+     * @param entityManager the entityManager to use
+     * @param type the type to count
+     * @return the number of instances
+     */
+    public static <T> long count(EntityManager entityManager, Class<T> type) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> queryCriteria = builder.createQuery(Long.class);
+        queryCriteria.select(builder.count(queryCriteria.from(type)));
+        return entityManager.createQuery(queryCriteria).getSingleResult();
+    }
+
+
+    /**
+     * Fetches all instances of a given type with the given IDs from the entityManager using an IN query. IDs that do not
+     * exist are skipped. The instances are returned in the order of the given IDs.
+     *
+     * @param <R> the return type
+     * @param <T> the type to fetch
+     * @param entityManager the entityManager to use
+     * @param type the type to fetch
+     * @param returnType the type to return
+     * @param ids the IDs of the desired instances
+     * @param idOf returns the ID of an instance
+     * @return all instances with the given IDs cast to return type
+     */
+    public static <R, T extends R> List<R> getByIds(EntityManager entityManager, Class<T> type, Class<R> returnType, Collection<String> ids, Function<R, String> idOf) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        Map<String, R> found = new HashMap<>();
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        forEachChunk(distinctIds, chunk -> {
+            CriteriaQuery<T> queryCriteria = builder.createQuery(type);
+            Root<T> root = queryCriteria.from(type);
+            queryCriteria.select(root).where(root.get(ID).in(chunk));
+            entityManager.createQuery(queryCriteria).getResultList().stream()
+                    .map(returnType::cast)
+                    .forEach(x -> found.put(idOf.apply(x), x));
+        });
+        return distinctIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+
     /**
      * Fetches all instances of AssetAdministrationShellDescriptor, matching the given criteria.
      *
@@ -110,12 +244,7 @@ public class EntityManagerHelper {
         CriteriaQuery<JpaAssetAdministrationShellDescriptor> queryCriteria = builder.createQuery(JpaAssetAdministrationShellDescriptor.class);
         Root<JpaAssetAdministrationShellDescriptor> root = queryCriteria.from(JpaAssetAdministrationShellDescriptor.class);
         List<Predicate> predicates = new ArrayList<>();
-        if (assetType != null) {
-            predicates.add(builder.equal(root.get("assetType"), assetType));
-        }
-        if (assetKind != null) {
-            predicates.add(builder.equal(root.get("assetKind"), assetKind));
-        }
+        addAssetPredicates(builder, root, assetType, assetKind, predicates);
         queryCriteria.select(root);
         if (!predicates.isEmpty()) {
             queryCriteria.where(predicates.toArray(Predicate[]::new));
@@ -125,6 +254,80 @@ public class EntityManagerHelper {
     }
 
 
+    /**
+     * Fetches all instances of AssetAdministrationShellDescriptor, matching the given criteria, containing only the
+     * requested properties. Only the requested relations are loaded, each with a single query for the whole page.
+     *
+     * @param entityManager The entityManager to use.
+     * @param assetType The desired assetType.
+     * @param assetKind The desired assetKind.
+     * @param limit The desired limit.
+     * @param cursor The desired cursor.
+     * @param projection The desired properties.
+     * @return All instances matching the given criteria.
+     */
+    public static Page<AssetAdministrationShellDescriptor> getPagedAas(EntityManager entityManager, String assetType, AssetKind assetKind, int limit, int cursor,
+                                                                       DescriptorProjection projection) {
+        List<AssetAdministrationShellDescriptor> list = getProjected(entityManager, (builder, query, predicates) -> {
+            Root<JpaAssetAdministrationShellDescriptor> root = query.from(JpaAssetAdministrationShellDescriptor.class);
+            addAssetPredicates(builder, root, assetType, assetKind, predicates);
+            return root;
+        }, DefaultAssetAdministrationShellDescriptor::new, AAS_ATTRIBUTES, AAS_RELATIONS, projection, cursor, limit + 1);
+        return toPage(list, limit, cursor);
+    }
+
+
+    /**
+     * Fetches all standalone SubmodelDescriptors containing only the requested properties.
+     *
+     * @param entityManager The entityManager to use.
+     * @param limit The desired limit.
+     * @param cursor The desired cursor.
+     * @param projection The desired properties.
+     * @return The submodels of the desired page.
+     */
+    public static Page<SubmodelDescriptor> getPagedSubmodels(EntityManager entityManager, int limit, int cursor, DescriptorProjection projection) {
+        List<SubmodelDescriptor> list = getProjected(entityManager,
+                (builder, query, predicates) -> query.from(JpaSubmodelDescriptorStandalone.class),
+                DefaultSubmodelDescriptor::new, SUBMODEL_ATTRIBUTES, SUBMODEL_RELATIONS, projection, cursor, limit + 1);
+        return toPage(list, limit, cursor);
+    }
+
+
+    /**
+     * Fetches all SubmodelDescriptors of the given AAS containing only the requested properties. The AAS itself is not
+     * loaded.
+     *
+     * @param entityManager The entityManager to use.
+     * @param aasId The ID of the desired AAS.
+     * @param projection The desired properties.
+     * @return The submodels of the AAS.
+     */
+    public static List<SubmodelDescriptor> getSubmodelsOfAas(EntityManager entityManager, String aasId, DescriptorProjection projection) {
+        return getProjected(entityManager, (builder, query, predicates) -> {
+            Root<JpaAssetAdministrationShellDescriptor> root = query.from(JpaAssetAdministrationShellDescriptor.class);
+            predicates.add(builder.equal(root.get(ID), aasId));
+            return root.join(SUBMODEL_DESCRIPTORS);
+        }, DefaultSubmodelDescriptor::new, SUBMODEL_ATTRIBUTES, SUBMODEL_RELATIONS, projection, 0, -1);
+    }
+
+
+    /**
+     * Checks whether an AAS with the given ID exists without loading it.
+     *
+     * @param entityManager The entityManager to use.
+     * @param aasId The ID of the desired AAS.
+     * @return True if the AAS exists, false otherwise.
+     */
+    public static boolean existsAas(EntityManager entityManager, String aasId) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> queryCriteria = builder.createQuery(Long.class);
+        Root<JpaAssetAdministrationShellDescriptor> root = queryCriteria.from(JpaAssetAdministrationShellDescriptor.class);
+        queryCriteria.select(builder.count(root)).where(builder.equal(root.get(ID), aasId));
+        return entityManager.createQuery(queryCriteria).getSingleResult() > 0;
+    }
+
+
     /**
      * Returns a list of AAS descriptors filtered by the given globalAssetId and SpecificAssetId's "name" and "value"
      * fields.
@@ -159,6 +362,202 @@ public class EntityManagerHelper {
     }
 
 
+    /**
+     * Loads the asset links of all AAS descriptors matching one of the globalAssetIds or specificAssetId values of the
+     * given index into the index. Only the ID, name and value columns are read, with one query per chunk of values.
+     *
+     * @param entityManager The entityManager to use.
+     * @param index The index to fill.
+     */
+    public static void fillAssetLinkIndex(EntityManager entityManager, AssetLinkIndex index) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        forEachChunk(index.getGlobalAssetIds(), chunk -> {
+            CriteriaQuery<Object[]> queryCriteria = builder.createQuery(Object[].class);
+            Root<JpaAssetAdministrationShellDescriptor> root = queryCriteria.from(JpaAssetAdministrationShellDescriptor.class);
+            queryCriteria.multiselect(root.get(ID), root.get(GLOBAL_ASSET_ID)).where(root.get(GLOBAL_ASSET_ID).in(chunk));
+            entityManager.createQuery(queryCriteria).getResultList()
+                    .forEach(row -> index.addGlobalAssetId((String) row[0], (String) row[1]));
+        });
+        forEachChunk(index.getSpecificAssetIdValues(), chunk -> {
+            CriteriaQuery<Object[]> queryCriteria = builder.createQuery(Object[].class);
+            Root<JpaAssetAdministrationShellDescriptor> root = queryCriteria.from(JpaAssetAdministrationShellDescriptor.class);
+            Join<JpaAssetAdministrationShellDescriptor, JpaSpecificAssetId> join = root.join(SPECIFIC_ASSET_IDS);
+            queryCriteria.multiselect(root.get(ID), join.get("name"), join.get("value")).where(join.get("value").in(chunk));
+            entityManager.createQuery(queryCriteria).getResultList()
+                    .forEach(row -> index.addSpecificAssetId((String) row[0], (String) row[1], (String) row[2]));
+        });
+    }
+
+
+    /**
+     * Records a change of a descriptor in the change log. Within a transaction, the change is only written when the
+     * transaction commits: the revision counter is then locked for the remaining commit only, so concurrent
+     * modifications run in parallel while revisions still become visible in ascending order.
+     *
+     * @param entityManager The entityManager to use.
+     * @param resource The type of the descriptor.
+     * @param id The ID of the descriptor.
+     * @param deleted True if the descriptor was deleted, false if it was created or updated.
+     */
+    public static void recordChange(EntityManager entityManager, DescriptorChange.Resource resource, String id, boolean deleted) {
+        DescriptorChange change = new DescriptorChange(0, resource, id, deleted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeChanges(entityManager, List.of(change));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PendingChanges.class);
+        if (pending == null) {
+            pending = new PendingChanges(entityManager);
+            TransactionSynchronizationManager.bindResource(PendingChanges.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(change);
+    }
+
+
+    /**
+     * Writes the changes recorded in the current transaction, so they can be read within the transaction. The revision
+     * counter stays locked until the end of the transaction.
+     *
+     * @param entityManager The entityManager to use.
+     */
+    public static void flushChanges(EntityManager entityManager) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(PendingChanges.class) instanceof PendingChanges pending) {
+            pending.write();
+        }
+    }
+
+
+    private static void writeChanges(EntityManager entityManager, Collection<DescriptorChange> changes) {
+        JpaRevision counter = entityManager.find(JpaRevision.class, JpaRevision.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (counter == null) {
+            // only without initialization, e.g. in unit tests
+            counter = new JpaRevision();
+            entityManager.persist(counter);
+        }
+        long now = System.currentTimeMillis();
+        for (DescriptorChange pending: changes) {
+            counter.setRevision(counter.getRevision() + 1);
+            JpaDescriptorChange change = entityManager.find(JpaDescriptorChange.class, JpaDescriptorChange.createKey(pending.getResource(), pending.getId()));
+            if (change == null) {
+                change = new JpaDescriptorChange(pending.getResource(), pending.getId());
+                change.setRevision(counter.getRevision());
+                change.setDeleted(pending.isDeleted());
+                change.setDeletedAt(pending.isDeleted() ? now : null);
+                entityManager.persist(change);
+            }
+            else {
+                change.setRevision(counter.getRevision());
+                change.setDeleted(pending.isDeleted());
+                change.setDeletedAt(pending.isDeleted() ? now : null);
+            }
+        }
+    }
+
+
+    /**
+     * Creates the revision counter if it does not exist yet.
+     *
+     * @param entityManager The entityManager to use.
+     */
+    public static void initRevision(EntityManager entityManager) {
+        if (entityManager.find(JpaRevision.class, JpaRevision.ID) == null) {
+            entityManager.persist(new JpaRevision());
+        }
+    }
+
+
+    /**
+     * Returns the current revision.
+     *
+     * @param entityManager The entityManager to use.
+     * @return The current revision, 0 if nothing was modified yet.
+     */
+    public static long getRevision(EntityManager entityManager) {
+        flushChanges(entityManager);
+        JpaRevision counter = entityManager.find(JpaRevision.class, JpaRevision.ID);
+        return counter != null ? counter.getRevision() : 0;
+    }
+
+
+    /**
+     * Returns the horizon, i.e. the revision of the latest deletion pruned from the change log. Always read from the
+     * database, so a pruning committed in the meantime is detected.
+     *
+     * @param entityManager The entityManager to use.
+     * @return The horizon, 0 if no deletion was pruned yet.
+     */
+    public static long getHorizon(EntityManager entityManager) {
+        List<Long> horizon = entityManager.createQuery("SELECT r.horizon FROM JpaRevision r WHERE r.id = :id", Long.class)
+                .setParameter(ID, JpaRevision.ID)
+                .getResultList();
+        return horizon.isEmpty() || horizon.get(0) == null ? 0 : horizon.get(0);
+    }
+
+
+    /**
+     * Removes the deletions older than the given time from the change log and moves the horizon to the latest removed
+     * deletion. The revision counter is only locked if there is something to remove.
+     *
+     * @param entityManager The entityManager to use.
+     * @param deletedBefore The time in milliseconds before which deletions are removed.
+     * @return The number of removed deletions.
+     */
+    public static int pruneDeletions(EntityManager entityManager, long deletedBefore) {
+        Long latest = entityManager.createQuery(
+                "SELECT MAX(c.revision) FROM JpaDescriptorChange c WHERE c.deleted = true AND c.deletedAt < :deletedBefore", Long.class)
+                .setParameter("deletedBefore", deletedBefore)
+                .getSingleResult();
+        if (latest == null) {
+            return 0;
+        }
+        // serializes with writing changes, so a descriptor created again in the meantime is not removed
+        JpaRevision counter = entityManager.find(JpaRevision.class, JpaRevision.ID, LockModeType.PESSIMISTIC_WRITE);
+        int retval = entityManager.createQuery(
+                "DELETE FROM JpaDescriptorChange c WHERE c.deleted = true AND c.deletedAt < :deletedBefore AND c.revision <= :latest")
+                .setParameter("deletedBefore", deletedBefore)
+                .setParameter("latest", latest)
+                .executeUpdate();
+        if (counter != null && (counter.getHorizon() == null || counter.getHorizon() < latest)) {
+            counter.setHorizon(latest);
+        }
+        return retval;
+    }
+
+
+    /**
+     * Returns the changes after the given revision, ordered by revision. Uses the unique index on the revision.
+     *
+     * @param entityManager The entityManager to use.
+     * @param since The revision after which the changes are requested.
+     * @param limit The maximum number of changes to return.
+     * @return The changes.
+     */
+    public static List<DescriptorChange> getChanges(EntityManager entityManager, long since, int limit) {
+        flushChanges(entityManager);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DescriptorChange> queryCriteria = builder.createQuery(DescriptorChange.class);
+        Root<JpaDescriptorChange> root = queryCriteria.from(JpaDescriptorChange.class);
+        queryCriteria.select(builder.construct(DescriptorChange.class, root.get(REVISION), root.get("resource"), root.get(ID), root.get("deleted")))
+                .where(builder.greaterThan(root.get(REVISION), since))
+                .orderBy(builder.asc(root.get(REVISION)));
+        return entityManager.createQuery(queryCriteria)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+
+    private static void forEachChunk(Collection<String> values, Consumer<List<String>> consumer) {
+        List<String> list = values.stream()
+                .filter(Objects::nonNull)
+                .toList();
+        for (int i = 0; i < list.size(); i += MAX_IN_PARAMETERS) {
+            consumer.accept(list.subList(i, Math.min(i + MAX_IN_PARAMETERS, list.size())));
+        }
+    }
+
+
     private static Predicate createSpecificAssetIdSubquery(
                                                            Root<JpaAssetAdministrationShellDescriptor> root,
                                                            Map<String, String> specificAssetIdNamesValues,
@@ -195,11 +594,81 @@ public class EntityManagerHelper {
     }
 
 
-    private static <R, T extends R> Page<R> doPaging(EntityManager entityManager, Class<R> returnType, int limit, int cursor, CriteriaQuery<T> queryCriteria) {
-        var query = entityManager.createQuery(queryCriteria).setFirstResult(cursor).setMaxResults(limit + 1);
-        List<R> list = query.getResultList().stream()
-                .map(returnType::cast)
+    private static void addAssetPredicates(CriteriaBuilder builder, Root<JpaAssetAdministrationShellDescriptor> root, String assetType, AssetKind assetKind,
+                                           List<Predicate> predicates) {
+        if (assetType != null) {
+            predicates.add(builder.equal(root.get("assetType"), assetType));
+        }
+        if (assetKind != null) {
+            predicates.add(builder.equal(root.get("assetKind"), assetKind));
+        }
+    }
+
+
+    private static <D> List<D> getProjected(EntityManager entityManager,
+                                            DescriptorSource source,
+                                            Supplier<D> factory,
+                                            Map<String, BiConsumer<D, Object>> attributes,
+                                            Map<String, BiConsumer<D, Object>> relations,
+                                            DescriptorProjection projection,
+                                            int first,
+                                            int max) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        // first query: the requested basic attributes only (the projection always contains the id)
+        CriteriaQuery<Tuple> queryCriteria = builder.createTupleQuery();
+        List<Predicate> predicates = new ArrayList<>();
+        From<?, ?> from = source.from(builder, queryCriteria, predicates);
+        List<String> selectedAttributes = attributes.keySet().stream()
+                .filter(projection::includes)
                 .toList();
+        List<Selection<?>> selections = selectedAttributes.stream()
+                .<Selection<?>> map(x -> from.get(x).alias(x))
+                .toList();
+        // descriptors contained in a list, e.g. the submodels of an AAS, keep the order of the list
+        queryCriteria.multiselect(selections)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(from instanceof Join ? builder.asc(from.get(LIST_INDEX)) : builder.asc(from.get(ID)));
+        TypedQuery<Tuple> query = entityManager.createQuery(queryCriteria).setFirstResult(first);
+        if (max >= 0) {
+            query.setMaxResults(max);
+        }
+        Map<String, D> result = new LinkedHashMap<>();
+        for (Tuple row: query.getResultList()) {
+            D descriptor = factory.get();
+            selectedAttributes.forEach(x -> attributes.get(x).accept(descriptor, row.get(x)));
+            result.put(row.get(ID, String.class), descriptor);
+        }
+        if (result.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // one query per requested relation and chunk of the ids of the first query
+        for (Map.Entry<String, BiConsumer<D, Object>> relation: relations.entrySet()) {
+            if (projection.includes(relation.getKey())) {
+                forEachChunk(result.keySet(), chunk -> {
+                    CriteriaQuery<Object[]> relationCriteria = builder.createQuery(Object[].class);
+                    List<Predicate> relationPredicates = new ArrayList<>();
+                    From<?, ?> relationFrom = source.from(builder, relationCriteria, relationPredicates);
+                    Join<?, ?> join = relationFrom.join(relation.getKey());
+                    relationPredicates.add(relationFrom.get(ID).in(chunk));
+                    relationCriteria.multiselect(relationFrom.get(ID), join)
+                            .where(relationPredicates.toArray(Predicate[]::new));
+                    // the elements of a list are added in the order of the list
+                    if (join.getAttribute().isCollection()) {
+                        relationCriteria.orderBy(builder.asc(join.get(LIST_INDEX)));
+                    }
+                    for (Object[] row: entityManager.createQuery(relationCriteria).getResultList()) {
+                        relation.getValue().accept(result.get((String) row[0]), row[1]);
+                    }
+                });
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+
+    private static <R> Page<R> toPage(List<R> list, int limit, int cursor) {
         String nextCursor = null;
         if (list.size() > limit) {
             nextCursor = Integer.toString(cursor + limit);
@@ -211,4 +680,66 @@ public class EntityManagerHelper {
                         .build())
                 .build();
     }
+
+
+    private static <R, T extends R> Page<R> doPaging(EntityManager entityManager, Class<R> returnType, int limit, int cursor, CriteriaQuery<T> queryCriteria) {
+        var query = entityManager.createQuery(queryCriteria).setFirstResult(cursor).setMaxResults(limit + 1);
+        List<R> list = query.getResultList().stream()
+                .map(returnType::cast)
+                .toList();
+        return toPage(list, limit, cursor);
+    }
+
+    /**
+     * Creates the source of the descriptors to query, i.e. the root or join representing the descriptor, and adds the
+     * required restrictions.
+     */
+    @FunctionalInterface
+    private interface DescriptorSource {
+
+        From<?, ?> from(CriteriaBuilder builder, AbstractQuery<?> query, List<Predicate> predicates);
+    }
+
+    /**
+     * The changes recorded in the current transaction, written to the change log before the transaction commits. Only
+     * the last change of each descriptor is kept.
+     */
+    private static class PendingChanges implements TransactionSynchronization {
+
+        private final EntityManager entityManager;
+        private final Map<String, DescriptorChange> changes = new LinkedHashMap<>();
+
+        private PendingChanges(EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+
+        private void add(DescriptorChange change) {
+            String key = JpaDescriptorChange.createKey(change.getResource(), change.getId());
+            changes.remove(key);
+            changes.put(key, change);
+        }
+
+
+        private void write() {
+            if (!changes.isEmpty()) {
+                writeChanges(entityManager, changes.values());
+                changes.clear();
+            }
+        }
+
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // write the descriptors before locking the revision counter, so the lock is only held for the change log
+            entityManager.flush();
+            write();
+        }
+
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingChanges.class);
+        }
+    }
 }
@@ -27,6 +27,7 @@ import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaLangStringDefinitionT
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaLangStringPreferredNameTypeIec61360;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaLangStringShortNameTypeIec61360;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaLevelType;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaListItem;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaProtocolInformation;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaReference;
 import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSecurityAttributeObject;
@@ -109,9 +110,9 @@ public class ModelTransformationHelper {
      * @return The converted list of descriptions.
      */
     public static List<LangStringTextType> convertDescriptions(List<LangStringTextType> descriptions) {
-        return descriptions.stream()
+        return indexed(descriptions.stream()
                 .map(x -> new JpaDescription.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -122,9 +123,9 @@ public class ModelTransformationHelper {
      * @return The converted list of names.
      */
     public static List<LangStringNameType> convertDisplayNames(List<LangStringNameType> names) {
-        return names.stream()
+        return indexed(names.stream()
                 .map(x -> new JpaDisplayName.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -138,9 +139,9 @@ public class ModelTransformationHelper {
         if (Objects.isNull(endpoints)) {
             return null;
         }
-        return endpoints.stream()
+        return indexed(endpoints.stream()
                 .map(x -> new JpaEndpoint.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -154,9 +155,9 @@ public class ModelTransformationHelper {
         if (Objects.isNull(pairs)) {
             return null;
         }
-        return pairs.stream()
+        return indexed(pairs.stream()
                 .map(x -> new JpaSpecificAssetId.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -216,9 +217,9 @@ public class ModelTransformationHelper {
         if (Objects.isNull(references)) {
             return new ArrayList<>();
         }
-        return references.stream()
+        return indexed(references.stream()
                 .map(x -> new JpaReference.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -262,9 +263,9 @@ public class ModelTransformationHelper {
         if (Objects.isNull(submodels)) {
             return null;
         }
-        return submodels.stream()
+        return indexed(submodels.stream()
                 .map(x -> new JpaSubmodelDescriptor.Builder().fromAas(x, aasId).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -294,9 +295,9 @@ public class ModelTransformationHelper {
         if (Objects.isNull(extensions)) {
             return new ArrayList<>();
         }
-        return extensions.stream()
+        return indexed(extensions.stream()
                 .map(x -> new JpaExtension.Builder().from(x).build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
 
@@ -451,4 +452,15 @@ public class ModelTransformationHelper {
                 .map(x -> new JpaString.Builder().value(x).build())
                 .collect(Collectors.toList());
     }
+
+
+    /**
+     * Stores the position of the converted objects in the list, so the list is loaded in the same order.
+     */
+    private static <T> List<T> indexed(List<T> list) {
+        for (int i = 0; i < list.size(); i++) {
+            ((JpaListItem) list.get(i)).setListIndex(i);
+        }
+        return list;
+    }
 }
@@ -17,10 +17,25 @@ package de.fraunhofer.iosb.ilt.faaast.registry.jpa;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractAasRepositoryTest;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.GoneException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaAdministrativeInformation;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaDescription;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaDisplayName;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaEndpoint;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaKey;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaReference;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaSpecificAssetId;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.Callable;
 import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -28,6 +43,9 @@ import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.persistence.autoconfigure.EntityScan;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 @ExtendWith(SpringExtension.class)
@@ -42,12 +60,76 @@ class AasRepositoryJpaTest extends AbstractAasRepositoryTest<AasRepositoryJpa> {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private PlatformTransactionManager txManager;
+
     @BeforeEach
     void setup() {
         repository = new AasRepositoryJpa(entityManager);
     }
 
 
+    @Test
+    void changesAreWrittenOnCommit() throws Exception {
+        long revision = inNewTransaction(repository::getRevision);
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel("TestAASCommitted", "TestSubmodelCommitted");
+        inNewTransaction(() -> repository.create(aas));
+        try {
+            List<DescriptorChange> changes = inNewTransaction(() -> repository.getChanges(revision, PagingInfo.ALL).getContent());
+            Assertions.assertEquals(List.of(new DescriptorChange(revision + 1, DescriptorChange.Resource.SHELL, aas.getId(), false)), changes);
+            Assertions.assertEquals(revision + 1, inNewTransaction(repository::getRevision));
+        }
+        finally {
+            inNewTransaction(() -> {
+                repository.deleteAAS(aas.getId());
+                return null;
+            });
+        }
+    }
+
+
+    @Test
+    void deletionsArePrunedAfterRetention() throws Exception {
+        repository = new AasRepositoryJpa(entityManager, 1);
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel("TestAASPruned1", "TestSubmodelPruned1");
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAASPruned2", "TestSubmodelPruned2");
+        repository.create(aas1);
+        repository.create(aas2);
+        long revision = repository.getRevision();
+        repository.deleteAAS(aas1.getId());
+        Assertions.assertEquals(
+                List.of(new DescriptorChange(revision + 1, DescriptorChange.Resource.SHELL, aas1.getId(), true)),
+                repository.getChanges(revision, PagingInfo.ALL).getContent());
+
+        Thread.sleep(10);
+        Assertions.assertTrue(repository.pruneDeletions() >= 1);
+        Assertions.assertThrows(GoneException.class, () -> repository.getChanges(revision, PagingInfo.ALL));
+        Assertions.assertTrue(repository.getChanges(revision + 1, PagingInfo.ALL).getContent().isEmpty());
+        List<DescriptorChange> changes = repository.getChanges(0, PagingInfo.ALL).getContent();
+        Assertions.assertTrue(changes.contains(new DescriptorChange(revision, DescriptorChange.Resource.SHELL, aas2.getId(), false)));
+        Assertions.assertTrue(changes.stream().noneMatch(x -> x.getId().equals(aas1.getId())));
+    }
+
+
+    @Test
+    void replacingDescriptorsRemovesTheirChildren() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel("TestAASReplaced", "TestSubmodelReplaced");
+        SubmodelDescriptor submodel = getSubmodel();
+        repository.upsert(aas);
+        repository.upsertSubmodel(submodel);
+        List<Long> expected = countChildren();
+
+        for (int i = 0; i < 3; i++) {
+            repository.upsert(aas);
+            repository.updateSubmodel(aas.getId(), "TestSubmodelReplaced", aas.getSubmodelDescriptors().get(0));
+            repository.updateSubmodel(submodel.getId(), submodel);
+            repository.upsertSubmodel(submodel);
+        }
+        Assertions.assertEquals(expected, countChildren());
+        Assertions.assertEquals(1, repository.getSubmodels(aas.getId(), PagingInfo.ALL).getContent().size());
+    }
+
+
     @Override
     protected void compareSubmodel(SubmodelDescriptor expected, SubmodelDescriptor actual) {
         RecursiveComparisonConfiguration ignoreIdConfig = new RecursiveComparisonConfiguration();
@@ -57,4 +139,26 @@ class AasRepositoryJpaTest extends AbstractAasRepositoryTest<AasRepositoryJpa> {
                 .isEqualTo(actual);
     }
 
+
+    private List<Long> countChildren() {
+        return List.of(JpaAdministrativeInformation.class, JpaDescription.class, JpaDisplayName.class, JpaEndpoint.class,
+                JpaKey.class, JpaReference.class, JpaSpecificAssetId.class).stream()
+                .map(x -> entityManager.createQuery("SELECT COUNT(x) FROM " + x.getSimpleName() + " x", Long.class).getSingleResult())
+                .toList();
+    }
+
+
+    private <R> R inNewTransaction(Callable<R> callable) {
+        TransactionTemplate template = new TransactionTemplate(txManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(x -> {
+            try {
+                return callable.call();
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.jpa;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractBulkOperationStatusStoreTest;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.BulkOperationStatusStore;
+import de.fraunhofer.iosb.ilt.faaast.registry.jpa.model.JpaBulkOperationStatus;
+import jakarta.persistence.EntityManager;
+import java.time.Clock;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+@ExtendWith(SpringExtension.class)
+@EnableAutoConfiguration
+@ContextConfiguration(classes = BulkOperationStatusStoreJpaTest.class)
+@DataJpaTest
+@EntityScan(basePackages = {
+        "de.fraunhofer.iosb.ilt.faaast.registry.jpa.model"
+})
+class BulkOperationStatusStoreJpaTest extends AbstractBulkOperationStatusStoreTest {
+
+    private static final String OWNER = "registry1";
+    private static final long STALE_TIMEOUT = 600000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @BeforeEach
+    void setup() {
+        // the store commits in its own transactions, so the entries of previous tests must be removed, also in a
+        // transaction of its own, as the transaction of the test is rolled back
+        TransactionTemplate template = new TransactionTemplate(txManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(x -> entityManager
+                .createQuery("SELECT s FROM JpaBulkOperationStatus s", JpaBulkOperationStatus.class)
+                .getResultList()
+                .forEach(entityManager::remove));
+    }
+
+
+    @Override
+    protected BulkOperationStatusStore createStore(int capacity, long timeToLive, Clock clock) {
+        return createStore(capacity, timeToLive, clock, OWNER);
+    }
+
+
+    @Override
+    protected void evict(BulkOperationStatusStore store) {
+        ((BulkOperationStatusStoreJpa) store).evict();
+    }
+
+
+    @Test
+    void initMarksOnlyOwnRunningOperationsAsFailed() {
+        BulkOperationStatusStore store = createStore(10, TIME_TO_LIVE, clock);
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        BulkOperationStatusStore other = createStore(10, TIME_TO_LIVE, clock, "other");
+        other.setStatus("handle2", ExecutionState.RUNNING);
+
+        BulkOperationStatusStoreJpa restarted = createStore(10, TIME_TO_LIVE, clock, OWNER);
+        restarted.init();
+        restarted.close();
+
+        Assertions.assertEquals(ExecutionState.FAILED, restarted.getStatus("handle1"));
+        Assertions.assertNotNull(restarted.getErrorMessage("handle1"));
+        Assertions.assertEquals(ExecutionState.RUNNING, restarted.getStatus("handle2"));
+    }
+
+
+    @Test
+    void evictFailsAbandonedOperationsOfOtherInstances() {
+        BulkOperationStatusStoreJpa store = createStore(10, TIME_TO_LIVE, clock, OWNER);
+        store.setStatus("handle1", ExecutionState.RUNNING);
+        BulkOperationStatusStore other = createStore(10, TIME_TO_LIVE, clock, "other");
+        other.setStatus("handle2", ExecutionState.RUNNING);
+
+        clock.advance(STALE_TIMEOUT / 2);
+        store.evict();
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle2"));
+
+        // the instance of handle2 disappeared, e.g. a replaced pod with a new host name
+        clock.advance(STALE_TIMEOUT / 2 + 1);
+        store.evict();
+        Assertions.assertEquals(ExecutionState.RUNNING, store.getStatus("handle1"));
+        Assertions.assertEquals(ExecutionState.FAILED, store.getStatus("handle2"));
+        Assertions.assertNotNull(store.getErrorMessage("handle2"));
+    }
+
+
+    @Test
+    void evictEnforcesCapacityBeyondOneBatch() {
+        BulkOperationStatusStoreJpa store = createStore(10, 10 * TIME_TO_LIVE, clock, OWNER);
+        for (int i = 0; i < 250; i++) {
+            store.setStatus("handle" + i, ExecutionState.COMPLETED);
+            clock.advance(1);
+        }
+        store.evict();
+        Assertions.assertEquals(10, store.size());
+        Assertions.assertEquals(ExecutionState.COMPLETED, store.getStatus("handle249"));
+    }
+
+
+    private BulkOperationStatusStoreJpa createStore(int capacity, long timeToLive, Clock clock, String owner) {
+        return new BulkOperationStatusStoreJpa(entityManager, txManager, capacity, timeToLive, owner, STALE_TIMEOUT, clock);
+    }
+}
@@ -17,21 +17,34 @@ package de.fraunhofer.iosb.ilt.faaast.registry.memory;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractAasRepository;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.jfr.TransactionEvent;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkIndex;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.util.DeepCopyHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
-import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,18 +55,50 @@ import org.slf4j.LoggerFactory;
 public class AasRepositoryMemory extends AbstractAasRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AasRepositoryMemory.class);
-    private Map<String, AssetAdministrationShellDescriptor> shellDescriptors;
-    private Map<String, SubmodelDescriptor> submodelDescriptors;
-    private Map<String, String> shellDescriptorsBackup;
-    private Map<String, String> submodelDescriptorsBackup;
-    private boolean transactionActive;
+    private static final String BACKEND = "memory";
+    private final Map<String, AssetAdministrationShellDescriptor> shellDescriptors;
+    private final Map<String, SubmodelDescriptor> submodelDescriptors;
+    // IDs of the shells by the values of their globalAssetId and specificAssetIds, so discovery only checks candidates
+    private final Map<String, Set<String>> shellIdsByAssetIdValue;
+    // state before the transaction of the descriptors changed in the transaction, null if the descriptor did not exist
+    private final Map<String, AssetAdministrationShellDescriptor> shellDescriptorsBackup;
+    private final Map<String, SubmodelDescriptor> submodelDescriptorsBackup;
+    private final Object transactionLock = new Object();
+    private volatile boolean transactionActive;
+    private Thread transactionOwner;
+    private final ChangeLog changeLog;
+    private final List<DescriptorChange> transactionChanges;
+    private long backupTime;
 
     public AasRepositoryMemory() {
+        this(DEFAULT_TOMBSTONE_RETENTION);
+    }
+
+
+    /**
+     * Instantiates the repository.
+     *
+     * @param tombstoneRetention The time in milliseconds the deletion of a descriptor is kept in the change log.
+     */
+    public AasRepositoryMemory(long tombstoneRetention) {
+        this(tombstoneRetention, Clock.systemUTC());
+    }
+
+
+    /**
+     * Instantiates the repository.
+     *
+     * @param tombstoneRetention The time in milliseconds the deletion of a descriptor is kept in the change log.
+     * @param clock The clock used for the retention.
+     */
+    public AasRepositoryMemory(long tombstoneRetention, Clock clock) {
         shellDescriptors = new ConcurrentHashMap<>();
         submodelDescriptors = new ConcurrentHashMap<>();
-        shellDescriptorsBackup = new ConcurrentHashMap<>();
-        submodelDescriptorsBackup = new ConcurrentHashMap<>();
-        transactionActive = false;
+        shellIdsByAssetIdValue = new ConcurrentHashMap<>();
+        shellDescriptorsBackup = new HashMap<>();
+        submodelDescriptorsBackup = new HashMap<>();
+        changeLog = new ChangeLog(tombstoneRetention, clock);
+        transactionChanges = Collections.synchronizedList(new ArrayList<>());
     }
 
 
@@ -63,12 +108,15 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     @Override
     public void clear() {
         shellDescriptors.clear();
+        shellIdsByAssetIdValue.clear();
         submodelDescriptors.clear();
+        changeLog.recordDeletionOfAll();
     }
 
 
     @Override
-    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging) {
+    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging, DescriptorProjection projection) {
+        ensureProjection(projection);
         int limit = readLimit(paging);
         int cursor = readCursor(paging);
         List<AssetAdministrationShellDescriptor> retval = shellDescriptors.values().stream()
@@ -76,6 +124,7 @@ public class AasRepositoryMemory extends AbstractAasRepository {
                 .filter(b -> filterAssetKind(b, assetKind))
                 .skip(cursor)
                 .limit(limit)
+                .map(projection::apply)
                 .toList();
         return getPage(retval, cursor, shellDescriptors.size());
     }
@@ -90,9 +139,53 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     }
 
 
+    @Override
+    public List<AssetAdministrationShellDescriptor> getAASsByIds(Collection<String> aasIds) {
+        ensureIds(aasIds);
+        return aasIds.stream()
+                .distinct()
+                .map(shellDescriptors::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+
     @Override
     public Page<String> getAASIdentifiersByAssetLink(List<AssetLink> assetLinks, PagingInfo pagingInfo) {
-        return filterAssetAdministrationShellDescriptorsByAssetLink(shellsDeepCopy(), assetLinks, pagingInfo);
+        Ensure.requireNonNull(assetLinks, "assetLinks must be non-null");
+        Set<String> candidates = getCandidates(assetLinks);
+        if (candidates == null) {
+            return filterAssetAdministrationShellDescriptorsByAssetLink(shellDescriptors.values(), assetLinks, pagingInfo);
+        }
+        // sorted by ID, so the pages are consistent
+        List<AssetAdministrationShellDescriptor> descriptors = new TreeSet<>(candidates).stream()
+                .map(shellDescriptors::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return filterAssetAdministrationShellDescriptorsByAssetLink(descriptors, assetLinks, pagingInfo);
+    }
+
+
+    @Override
+    public List<List<String>> getAASIdentifiersByAssetLinks(List<List<AssetLink>> assetLinkQueries) {
+        Ensure.requireNonNull(assetLinkQueries, "assetLinkQueries must be non-null");
+        AssetLinkIndex index = new AssetLinkIndex(assetLinkQueries);
+        Set<String> candidates = new HashSet<>();
+        for (List<AssetLink> query: assetLinkQueries) {
+            Set<String> ids = getCandidates(query);
+            if (ids == null && !query.isEmpty()) {
+                shellDescriptors.values().forEach(index::add);
+                return index.evaluate();
+            }
+            else if (ids != null) {
+                candidates.addAll(ids);
+            }
+        }
+        candidates.stream()
+                .map(shellDescriptors::get)
+                .filter(Objects::nonNull)
+                .forEach(index::add);
+        return index.evaluate();
     }
 
 
@@ -101,7 +194,9 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         ensureDescriptorId(descriptor);
         AssetAdministrationShellDescriptor aas = fetchAAS(descriptor.getId());
         Ensure.require(Objects.isNull(aas), buildAASAlreadyExistsException(descriptor.getId()));
-        shellDescriptors.put(descriptor.getId(), descriptor);
+        backupShell(descriptor.getId());
+        putShell(descriptor.getId(), descriptor);
+        recordChange(DescriptorChange.Resource.SHELL, descriptor.getId(), false);
         return descriptor;
     }
 
@@ -111,7 +206,9 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         ensureAasId(aasId);
         AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
         Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
-        shellDescriptors.remove(aasId);
+        backupShell(aasId);
+        removeShell(aasId);
+        recordChange(DescriptorChange.Resource.SHELL, aasId, true);
     }
 
 
@@ -121,31 +218,52 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         ensureDescriptorId(descriptor);
         AssetAdministrationShellDescriptor oldAAS = getAAS(aasId);
         if (Objects.nonNull(oldAAS)) {
-            shellDescriptors.remove(aasId);
-            shellDescriptors.put(descriptor.getId(), descriptor);
+            backupShell(aasId);
+            backupShell(descriptor.getId());
+            removeShell(aasId);
+            putShell(descriptor.getId(), descriptor);
+            if (!Objects.equals(aasId, descriptor.getId())) {
+                recordChange(DescriptorChange.Resource.SHELL, aasId, true);
+            }
+            recordChange(DescriptorChange.Resource.SHELL, descriptor.getId(), false);
         }
         return descriptor;
     }
 
 
     @Override
-    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging) throws ResourceNotFoundException {
+    public AssetAdministrationShellDescriptor upsert(AssetAdministrationShellDescriptor descriptor) {
+        ensureDescriptorId(descriptor);
+        backupShell(descriptor.getId());
+        putShell(descriptor.getId(), descriptor);
+        recordChange(DescriptorChange.Resource.SHELL, descriptor.getId(), false);
+        return descriptor;
+    }
+
+
+    @Override
+    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging, DescriptorProjection projection) throws ResourceNotFoundException {
         ensureAasId(aasId);
+        ensureProjection(projection);
         AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
         Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
 
-        List<SubmodelDescriptor> list = aas.getSubmodelDescriptors();
+        List<SubmodelDescriptor> list = aas.getSubmodelDescriptors().stream()
+                .map(projection::apply)
+                .toList();
         return getPage(list, readCursor(paging), list.size());
     }
 
 
     @Override
-    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging) {
+    public Page<SubmodelDescriptor> getSubmodels(PagingInfo paging, DescriptorProjection projection) {
+        ensureProjection(projection);
         int limit = readLimit(paging);
         int cursor = readCursor(paging);
         List<SubmodelDescriptor> submodels = submodelDescriptors.values().stream()
                 .skip(cursor)
                 .limit(limit)
+                .map(projection::apply)
                 .toList();
         return getPage(submodels, cursor, submodelDescriptors.size());
     }
@@ -172,6 +290,17 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     }
 
 
+    @Override
+    public List<SubmodelDescriptor> getSubmodelsByIds(Collection<String> submodelIds) {
+        ensureIds(submodelIds);
+        return submodelIds.stream()
+                .distinct()
+                .map(submodelDescriptors::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+
     @Override
     public SubmodelDescriptor addSubmodel(String aasId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
         ensureAasId(aasId);
@@ -181,7 +310,9 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         if (getSubmodelInternal(aas.getSubmodelDescriptors(), descriptor.getId()).isPresent()) {
             throw buildSubmodelAlreadyExistsException(descriptor.getId());
         }
+        backupShell(aasId);
         aas.getSubmodelDescriptors().add(descriptor);
+        recordChange(DescriptorChange.Resource.SHELL, aasId, false);
         return descriptor;
     }
 
@@ -192,7 +323,9 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         Ensure.require(
                 !submodelDescriptors.containsKey(descriptor.getId()),
                 buildSubmodelAlreadyExistsException(descriptor.getId()));
+        backupSubmodel(descriptor.getId());
         submodelDescriptors.put(descriptor.getId(), descriptor);
+        recordChange(DescriptorChange.Resource.SUBMODEL, descriptor.getId(), false);
         return descriptor;
     }
 
@@ -203,9 +336,14 @@ public class AasRepositoryMemory extends AbstractAasRepository {
         ensureSubmodelId(submodelId);
         AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
         Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
+        backupShell(aasId);
+        backupSubmodel(submodelId);
         boolean found = aas.getSubmodelDescriptors().removeIf(x -> Objects.equals(x.getId(), submodelId));
         Ensure.require(found, buildSubmodelNotFoundException(submodelId));
-        submodelDescriptors.remove(submodelId);
+        recordChange(DescriptorChange.Resource.SHELL, aasId, false);
+        if (submodelDescriptors.remove(submodelId) != null) {
+            recordChange(DescriptorChange.Resource.SUBMODEL, submodelId, true);
+        }
     }
 
 
@@ -213,19 +351,120 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     public void deleteSubmodel(String submodelId) throws ResourceNotFoundException {
         ensureSubmodelId(submodelId);
         Ensure.require(submodelDescriptors.containsKey(submodelId), buildSubmodelNotFoundException(submodelId));
+        backupSubmodel(submodelId);
         submodelDescriptors.remove(submodelId);
+        recordChange(DescriptorChange.Resource.SUBMODEL, submodelId, true);
+    }
+
+
+    @Override
+    public SubmodelDescriptor updateSubmodel(String aasId, String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        ensureAasId(aasId);
+        ensureSubmodelId(submodelId);
+        ensureDescriptorId(descriptor);
+        AssetAdministrationShellDescriptor aas = fetchAAS(aasId);
+        Ensure.requireNonNull(aas, buildAASNotFoundException(aasId));
+        List<SubmodelDescriptor> submodels = aas.getSubmodelDescriptors();
+        int index = indexOf(submodels, submodelId);
+        Ensure.require(index >= 0, buildSubmodelNotFoundInAASException(aasId, submodelId));
+        if (!Objects.equals(submodelId, descriptor.getId()) && indexOf(submodels, descriptor.getId()) >= 0) {
+            throw buildSubmodelAlreadyExistsException(descriptor.getId());
+        }
+        backupShell(aasId);
+        submodels.set(index, descriptor);
+        recordChange(DescriptorChange.Resource.SHELL, aasId, false);
+        return descriptor;
+    }
+
+
+    @Override
+    public SubmodelDescriptor updateSubmodel(String submodelId, SubmodelDescriptor descriptor) throws ResourceNotFoundException, ResourceAlreadyExistsException {
+        ensureSubmodelId(submodelId);
+        ensureDescriptorId(descriptor);
+        Ensure.require(submodelDescriptors.containsKey(submodelId), buildSubmodelNotFoundException(submodelId));
+        boolean renamed = !Objects.equals(submodelId, descriptor.getId());
+        if (renamed) {
+            Ensure.require(!submodelDescriptors.containsKey(descriptor.getId()), buildSubmodelAlreadyExistsException(descriptor.getId()));
+            backupSubmodel(submodelId);
+            submodelDescriptors.remove(submodelId);
+            recordChange(DescriptorChange.Resource.SUBMODEL, submodelId, true);
+        }
+        backupSubmodel(descriptor.getId());
+        submodelDescriptors.put(descriptor.getId(), descriptor);
+        recordChange(DescriptorChange.Resource.SUBMODEL, descriptor.getId(), false);
+        return descriptor;
+    }
+
+
+    @Override
+    public SubmodelDescriptor upsertSubmodel(SubmodelDescriptor descriptor) {
+        ensureDescriptorId(descriptor);
+        backupSubmodel(descriptor.getId());
+        submodelDescriptors.put(descriptor.getId(), descriptor);
+        recordChange(DescriptorChange.Resource.SUBMODEL, descriptor.getId(), false);
+        return descriptor;
+    }
+
+
+    @Override
+    public long getRevision() {
+        return changeLog.getRevision();
+    }
+
+
+    @Override
+    public long getAASCount() {
+        return shellDescriptors.size();
+    }
+
+
+    @Override
+    public long getSubmodelCount() {
+        return submodelDescriptors.size();
+    }
+
+
+    @Override
+    public Page<DescriptorChange> getChanges(long since, PagingInfo paging) {
+        int limit = readLimit(paging);
+        long revision = readRevision(since, paging);
+        List<DescriptorChange> changes = changeLog.getChanges(revision, limit + 1);
+        ensureHorizon(revision, changeLog.getHorizon());
+        return getChangePage(changes, limit);
     }
 
 
+    /**
+     * Starts a transaction. As only one transaction can be active at a time, waits until a transaction started by another
+     * thread is committed or rolled back. Only the descriptors changed in the transaction are backed up, when they are
+     * changed for the first time.
+     *
+     * @return The transaction number.
+     */
     @Override
     public int startTransaction() {
-        if ((!shellDescriptorsBackup.isEmpty()) || (!submodelDescriptorsBackup.isEmpty())) {
-            throw new IllegalArgumentException("transaction already running");
+        TransactionEvent event = new TransactionEvent(BACKEND, TransactionEvent.START, 0);
+        event.begin();
+        synchronized (transactionLock) {
+            if (transactionOwner == Thread.currentThread()) {
+                throw new IllegalArgumentException("transaction already running");
+            }
+            while (transactionActive) {
+                LOGGER.debug("startTransaction: wait for transaction to finish");
+                try {
+                    transactionLock.wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while waiting for transaction to finish", e);
+                }
+            }
+            transactionActive = true;
+            transactionOwner = Thread.currentThread();
         }
-        transactionActive = true;
+        backupTime = 0;
+        event.commit();
         LOGGER.debug("startTransaction");
-        shellDescriptorsBackup = DeepCopyHelper.createBackupMap(shellDescriptors);
-        submodelDescriptorsBackup = DeepCopyHelper.createBackupMap(submodelDescriptors);
         return 0;
     }
 
@@ -233,22 +472,176 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     @Override
     public void commitTransaction(int nr) {
         LOGGER.debug("commitTransaction");
+        TransactionEvent event = beginTransactionEvent(TransactionEvent.COMMIT);
         shellDescriptorsBackup.clear();
         submodelDescriptorsBackup.clear();
-        transactionActive = false;
+        transactionChanges.clear();
+        endTransaction();
+        event.commit();
     }
 
 
     @Override
     public void rollbackTransaction(int nr) {
         LOGGER.debug("rollbackTransaction");
-        shellDescriptors.clear();
-        shellDescriptors = DeepCopyHelper.restoreBackupMap(shellDescriptorsBackup, AssetAdministrationShellDescriptor.class);
-        shellDescriptorsBackup.clear();
-        submodelDescriptors.clear();
-        submodelDescriptors = DeepCopyHelper.restoreBackupMap(submodelDescriptorsBackup, SubmodelDescriptor.class);
-        submodelDescriptorsBackup.clear();
-        transactionActive = false;
+        TransactionEvent event = beginTransactionEvent(TransactionEvent.ROLLBACK);
+        restore(shellDescriptorsBackup, this::putShell, this::removeShell);
+        restore(submodelDescriptorsBackup, submodelDescriptors::put, submodelDescriptors::remove);
+        // the changes were already visible, so the restored state gets new revisions
+        List<DescriptorChange> changes;
+        synchronized (transactionChanges) {
+            changes = new ArrayList<>(transactionChanges);
+            transactionChanges.clear();
+        }
+        changes.stream()
+                .map(x -> new DescriptorChange(0, x.getResource(), x.getId(), false))
+                .distinct()
+                .forEach(x -> changeLog.record(x.getResource(), x.getId(), !exists(x.getResource(), x.getId())));
+        endTransaction();
+        event.commit();
+    }
+
+
+    /**
+     * Creates the event of a commit or rollback, with the size and the time of the backup of the transaction.
+     */
+    private TransactionEvent beginTransactionEvent(String action) {
+        TransactionEvent event = new TransactionEvent(BACKEND, action, 0);
+        event.setBackupSize(shellDescriptorsBackup.size() + submodelDescriptorsBackup.size());
+        event.setBackupTime(backupTime);
+        event.begin();
+        return event;
+    }
+
+
+    private void endTransaction() {
+        synchronized (transactionLock) {
+            transactionActive = false;
+            transactionOwner = null;
+            transactionLock.notifyAll();
+        }
+    }
+
+
+    private void recordChange(DescriptorChange.Resource resource, String id, boolean deleted) {
+        DescriptorChange change = changeLog.record(resource, id, deleted);
+        if (isTransactionOwner()) {
+            transactionChanges.add(change);
+        }
+    }
+
+
+    private boolean isTransactionOwner() {
+        return transactionActive && transactionOwner == Thread.currentThread();
+    }
+
+
+    private void backupShell(String aasId) {
+        if (isTransactionOwner() && !shellDescriptorsBackup.containsKey(aasId)) {
+            long start = System.nanoTime();
+            AssetAdministrationShellDescriptor aas = shellDescriptors.get(aasId);
+            shellDescriptorsBackup.put(aasId, aas != null ? DeepCopyHelper.deepCopy(aas, AssetAdministrationShellDescriptor.class) : null);
+            backupTime += System.nanoTime() - start;
+        }
+    }
+
+
+    private void backupSubmodel(String submodelId) {
+        if (isTransactionOwner() && !submodelDescriptorsBackup.containsKey(submodelId)) {
+            long start = System.nanoTime();
+            SubmodelDescriptor submodel = submodelDescriptors.get(submodelId);
+            submodelDescriptorsBackup.put(submodelId, submodel != null ? DeepCopyHelper.deepCopy(submodel, SubmodelDescriptor.class) : null);
+            backupTime += System.nanoTime() - start;
+        }
+    }
+
+
+    private static <T> void restore(Map<String, T> backup, BiConsumer<String, T> put, Consumer<String> remove) {
+        for (var entry: backup.entrySet()) {
+            if (entry.getValue() == null) {
+                remove.accept(entry.getKey());
+            }
+            else {
+                put.accept(entry.getKey(), entry.getValue());
+            }
+        }
+        backup.clear();
+    }
+
+
+    private void putShell(String aasId, AssetAdministrationShellDescriptor descriptor) {
+        unindexShell(aasId, shellDescriptors.put(aasId, descriptor));
+        indexShell(aasId, descriptor);
+    }
+
+
+    private void removeShell(String aasId) {
+        unindexShell(aasId, shellDescriptors.remove(aasId));
+    }
+
+
+    private void indexShell(String aasId, AssetAdministrationShellDescriptor descriptor) {
+        for (String value: assetIdValues(descriptor)) {
+            shellIdsByAssetIdValue.compute(value, (k, ids) -> {
+                Set<String> retval = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                retval.add(aasId);
+                return retval;
+            });
+        }
+    }
+
+
+    private void unindexShell(String aasId, AssetAdministrationShellDescriptor descriptor) {
+        if (descriptor == null) {
+            return;
+        }
+        for (String value: assetIdValues(descriptor)) {
+            shellIdsByAssetIdValue.computeIfPresent(value, (k, ids) -> {
+                ids.remove(aasId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+
+    /**
+     * Returns the IDs of the shells which may match all given asset links, i.e. the shells having the value of the rarest
+     * asset link, or null if no asset link has a value and all shells must be checked.
+     */
+    private Set<String> getCandidates(List<AssetLink> assetLinks) {
+        Set<String> retval = null;
+        for (AssetLink assetLink: assetLinks) {
+            if (assetLink.getValue() != null) {
+                Set<String> ids = shellIdsByAssetIdValue.getOrDefault(assetLink.getValue(), Set.of());
+                if ((retval == null) || (ids.size() < retval.size())) {
+                    retval = ids;
+                }
+            }
+        }
+        return retval;
+    }
+
+
+    private static List<String> assetIdValues(AssetAdministrationShellDescriptor descriptor) {
+        List<String> retval = new ArrayList<>();
+        if (descriptor.getGlobalAssetId() != null) {
+            retval.add(descriptor.getGlobalAssetId());
+        }
+        if (descriptor.getSpecificAssetIds() != null) {
+            for (SpecificAssetId specificAssetId: descriptor.getSpecificAssetIds()) {
+                if (specificAssetId.getValue() != null) {
+                    retval.add(specificAssetId.getValue());
+                }
+            }
+        }
+        return retval;
+    }
+
+
+    private boolean exists(DescriptorChange.Resource resource, String id) {
+        return resource == DescriptorChange.Resource.SHELL
+                ? shellDescriptors.containsKey(id)
+                : submodelDescriptors.containsKey(id);
     }
 
 
@@ -258,6 +651,16 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     }
 
 
+    private static int indexOf(List<SubmodelDescriptor> submodels, String submodelId) {
+        for (int i = 0; i < submodels.size(); i++) {
+            if (Objects.equals(submodels.get(i).getId(), submodelId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
     private static boolean filterAssetType(AssetAdministrationShellDescriptor aas, String assetType) {
         if (assetType == null) {
             return true;
@@ -284,23 +687,30 @@ public class AasRepositoryMemory extends AbstractAasRepository {
     }
 
 
-    private List<AssetAdministrationShellDescriptor> shellsDeepCopy() {
-        return shellDescriptors.values().stream()
-                .map(descriptor -> new DefaultAssetAdministrationShellDescriptor.Builder()
-                        .id(descriptor.getId())
-                        .idShort(descriptor.getIdShort())
-                        .specificAssetIds(descriptor.getSpecificAssetIds())
-                        .globalAssetId(descriptor.getGlobalAssetId())
-                        .submodelDescriptors(descriptor.getSubmodelDescriptors())
-                        .extensions(descriptor.getExtensions())
-                        .endpoints(descriptor.getEndpoints())
-                        .displayName(descriptor.getDisplayName())
-                        .administration(descriptor.getAdministration())
-                        .assetType(descriptor.getAssetType())
-                        .assetKind(descriptor.getAssetKind())
-                        .description(descriptor.getDescription())
-                        .build())
-                .collect(Collectors.toUnmodifiableList());
+    @Override
+    public boolean supportsConcurrentTransactions() {
+        // there is a single transaction lock, so a transaction waits until the running one ended
+        return false;
+    }
+
+
+    /**
+     * Returns the stored shell descriptors without copying them, to analyze their memory footprint.
+     *
+     * @return The stored shell descriptors.
+     */
+    Collection<AssetAdministrationShellDescriptor> storedShells() {
+        return shellDescriptors.values();
+    }
+
+
+    /**
+     * Returns the stored standalone submodel descriptors without copying them, to analyze their memory footprint.
+     *
+     * @return The stored submodel descriptors.
+     */
+    Collection<SubmodelDescriptor> storedSubmodels() {
+        return submodelDescriptors.values();
     }
 
 }
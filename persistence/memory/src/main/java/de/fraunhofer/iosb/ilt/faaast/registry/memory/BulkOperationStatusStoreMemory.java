@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.memory;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.BulkOperationStatusStore;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
+
+
+/**
+ * In-memory implementation of the bulk operation status store. Reading and writing a status is lock-free. As all
+ * entries have the same time to live, the order in which the operations finish is also the order in which they expire,
+ * so a FIFO queue of the finished operations serves as priority queue for the expiry.
+ */
+public class BulkOperationStatusStoreMemory implements BulkOperationStatusStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int capacity;
+    private final long timeToLive;
+    private final Clock clock;
+
+    public BulkOperationStatusStoreMemory(int capacity, long timeToLive) {
+        this(capacity, timeToLive, Clock.systemUTC());
+    }
+
+
+    public BulkOperationStatusStoreMemory(int capacity, long timeToLive, Clock clock) {
+        Ensure.require(capacity > 0, "capacity must be greater than 0");
+        Ensure.require(timeToLive > 0, "timeToLive must be greater than 0");
+        this.capacity = capacity;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+
+    @Override
+    public void setStatus(String handleId, ExecutionState status) {
+        Entry entry = entries.computeIfAbsent(handleId, x -> new Entry());
+        entry.status = status;
+        if (status == ExecutionState.COMPLETED || status == ExecutionState.FAILED) {
+            long expiresAt = clock.millis() + timeToLive;
+            entry.expiresAt = expiresAt;
+            expiries.add(new Expiry(handleId, expiresAt));
+        }
+        evict();
+    }
+
+
+    @Override
+    public ExecutionState getStatus(String handleId) {
+        Entry entry = getEntry(handleId);
+        return entry != null ? entry.status : null;
+    }
+
+
+    @Override
+    public long size() {
+        return entries.size();
+    }
+
+
+    @Override
+    public void setErrorMessage(String handleId, String message) {
+        Entry entry = getEntry(handleId);
+        if (entry != null) {
+            entry.errorMessage = message;
+        }
+    }
+
+
+    @Override
+    public String getErrorMessage(String handleId) {
+        Entry entry = getEntry(handleId);
+        return entry != null ? entry.errorMessage : null;
+    }
+
+
+    @Override
+    public void setProgress(String handleId, BulkOperationProgress progress) {
+        Entry entry = getEntry(handleId);
+        if (entry != null) {
+            entry.progress = progress;
+        }
+    }
+
+
+    @Override
+    public BulkOperationProgress getProgress(String handleId) {
+        Entry entry = getEntry(handleId);
+        return entry != null ? entry.progress : null;
+    }
+
+
+    private Entry getEntry(String handleId) {
+        Entry entry = entries.get(handleId);
+        if (entry == null || entry.expiresAt <= clock.millis()) {
+            return null;
+        }
+        return entry;
+    }
+
+
+    /**
+     * Removes the expired entries and, while the capacity is exceeded, the entries finished first. Only one thread
+     * evicts at a time, the others skip the eviction.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            Expiry expiry = expiries.peek();
+            while (expiry != null && (expiry.expiresAt() <= now || entries.size() > capacity)) {
+                expiries.poll();
+                Expiry removed = expiry;
+                entries.computeIfPresent(removed.handleId(), (k, v) -> v.expiresAt == removed.expiresAt() ? null : v);
+                expiry = expiries.peek();
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class Entry {
+        private volatile ExecutionState status;
+        private volatile String errorMessage;
+        private volatile BulkOperationProgress progress;
+        private volatile long expiresAt = Long.MAX_VALUE;
+    }
+
+    private record Expiry(String handleId, long expiresAt) {}
+}
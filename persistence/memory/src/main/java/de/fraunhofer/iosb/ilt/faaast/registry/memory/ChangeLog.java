@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.memory;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+
+/**
+ * In-memory change log. Keeps only the latest change of every descriptor, indexed by revision, so the changes after a
+ * given revision can be read in O(changes). Deletions are pruned after a retention time, so the change log does not
+ * grow with every descriptor ever deleted. The revision of the latest pruned deletion is the horizon, the changes after
+ * an older revision are incomplete.
+ */
+public class ChangeLog {
+
+    private final NavigableMap<Long, DescriptorChange> changes = new TreeMap<>();
+    private final Map<Key, Long> revisions = new HashMap<>();
+    // time of the deletions in the change log by their revision, i.e. in the order of deletion
+    private final NavigableMap<Long, Long> deletionTimes = new TreeMap<>();
+    private final long tombstoneRetention;
+    private final Clock clock;
+    private long revision = 0;
+    private long horizon = 0;
+
+    public ChangeLog(long tombstoneRetention) {
+        this(tombstoneRetention, Clock.systemUTC());
+    }
+
+
+    /**
+     * Instantiates the change log.
+     *
+     * @param tombstoneRetention The time in milliseconds the deletion of a descriptor is kept.
+     * @param clock The clock used for the retention.
+     */
+    public ChangeLog(long tombstoneRetention, Clock clock) {
+        Ensure.require(tombstoneRetention > 0, "tombstoneRetention must be greater than 0");
+        Ensure.requireNonNull(clock, "clock must be non-null");
+        this.tombstoneRetention = tombstoneRetention;
+        this.clock = clock;
+    }
+
+
+    /**
+     * Records a change of a descriptor and assigns the next revision to it.
+     *
+     * @param resource The type of the descriptor.
+     * @param id The ID of the descriptor.
+     * @param deleted True if the descriptor was deleted, false if it was created or updated.
+     * @return The recorded change.
+     */
+    public synchronized DescriptorChange record(DescriptorChange.Resource resource, String id, boolean deleted) {
+        DescriptorChange change = new DescriptorChange(++revision, resource, id, deleted);
+        Long previous = revisions.put(new Key(resource, id), change.getRevision());
+        if (previous != null) {
+            changes.remove(previous);
+            deletionTimes.remove(previous);
+        }
+        changes.put(change.getRevision(), change);
+        if (deleted) {
+            deletionTimes.put(change.getRevision(), clock.millis());
+        }
+        pruneDeletions();
+        return change;
+    }
+
+
+    /**
+     * Returns the current revision.
+     *
+     * @return The current revision.
+     */
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+
+    /**
+     * Returns the horizon, i.e. the revision of the latest pruned deletion.
+     *
+     * @return The horizon, 0 if no deletion was pruned yet.
+     */
+    public synchronized long getHorizon() {
+        pruneDeletions();
+        return horizon;
+    }
+
+
+    /**
+     * Returns the changes after the given revision, ordered by revision.
+     *
+     * @param since The revision after which the changes are requested.
+     * @param limit The maximum number of changes to return.
+     * @return The changes.
+     */
+    public synchronized List<DescriptorChange> getChanges(long since, int limit) {
+        List<DescriptorChange> retval = new ArrayList<>();
+        for (DescriptorChange change: changes.tailMap(since, false).values()) {
+            if (retval.size() >= limit) {
+                break;
+            }
+            retval.add(change);
+        }
+        return retval;
+    }
+
+
+    /**
+     * Records the deletion of every descriptor which is not deleted yet, e.g. when the registry is cleared, so clients
+     * synchronizing the changes remove them as well.
+     */
+    public synchronized void recordDeletionOfAll() {
+        for (DescriptorChange change: new ArrayList<>(changes.values())) {
+            if (!change.isDeleted()) {
+                record(change.getResource(), change.getId(), true);
+            }
+        }
+    }
+
+    private void pruneDeletions() {
+        long expired = clock.millis() - tombstoneRetention;
+        Iterator<Map.Entry<Long, Long>> iterator = deletionTimes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> deletion = iterator.next();
+            if (deletion.getValue() >= expired) {
+                break;
+            }
+            iterator.remove();
+            DescriptorChange change = changes.remove(deletion.getKey());
+            revisions.remove(new Key(change.getResource(), change.getId()));
+            horizon = deletion.getKey();
+        }
+    }
+
+    /**
+     * Key of a descriptor. No record, as the fields of records cannot be accessed by the {@link HeapFootprintAnalyzer}.
+     */
+    private static final class Key {
+
+        private final DescriptorChange.Resource resource;
+        private final String id;
+
+        private Key(DescriptorChange.Resource resource, String id) {
+            this.resource = resource;
+            this.id = id;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return resource == other.resource
+                    && Objects.equals(id, other.id);
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resource, id);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.memory;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Result of a {@link HeapFootprintAnalyzer}: the estimated retained heap of the stored descriptors, the potential of
+ * sharing equal objects and the projected maximum size of the registry. All sizes are in bytes.
+ */
+public class HeapFootprint {
+
+    private final List<DescriptorFootprint> descriptors;
+    private final Deduplication deduplication;
+    private final Projection projection;
+
+    public HeapFootprint(List<DescriptorFootprint> descriptors, Deduplication deduplication, Projection projection) {
+        this.descriptors = descriptors;
+        this.deduplication = deduplication;
+        this.projection = projection;
+    }
+
+
+    public List<DescriptorFootprint> getDescriptors() {
+        return descriptors;
+    }
+
+
+    public Deduplication getDeduplication() {
+        return deduplication;
+    }
+
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+
+    /**
+     * Returns the estimated retained heap of all stored descriptors, including the overhead of the repository.
+     *
+     * @return The estimated retained heap in bytes.
+     */
+    public long getTotalBytes() {
+        return descriptors.stream()
+                .mapToLong(DescriptorFootprint::getTotalBytes)
+                .sum();
+    }
+
+    /**
+     * Footprint of one type of descriptors, i.e. shells or standalone submodels.
+     */
+    public static class DescriptorFootprint {
+
+        private final String type;
+        private final long count;
+        private final int sampled;
+        private final long averageBytes;
+        private final long overheadBytes;
+        private final Map<String, Long> averageBytesBySubStructure;
+
+        public DescriptorFootprint(String type, long count, int sampled, long averageBytes, long overheadBytes, Map<String, Long> averageBytesBySubStructure) {
+            this.type = type;
+            this.count = count;
+            this.sampled = sampled;
+            this.averageBytes = averageBytes;
+            this.overheadBytes = overheadBytes;
+            this.averageBytesBySubStructure = averageBytesBySubStructure;
+        }
+
+
+        public String getType() {
+            return type;
+        }
+
+
+        public long getCount() {
+            return count;
+        }
+
+
+        public int getSampled() {
+            return sampled;
+        }
+
+
+        /**
+         * Returns the average retained heap of a descriptor.
+         *
+         * @return The average retained heap in bytes.
+         */
+        public long getAverageBytes() {
+            return averageBytes;
+        }
+
+
+        /**
+         * Returns the heap used by the repository per descriptor in addition to the descriptor, i.e. for the map
+         * entry and the change log.
+         *
+         * @return The overhead per descriptor in bytes.
+         */
+        public long getOverheadBytes() {
+            return overheadBytes;
+        }
+
+
+        /**
+         * Returns the average retained heap of a descriptor by sub-structure, e.g. endpoints. The sub-structure other
+         * contains everything not contained in another sub-structure, e.g. the identifiers and the lists.
+         *
+         * @return The average retained heap by sub-structure in bytes.
+         */
+        public Map<String, Long> getAverageBytesBySubStructure() {
+            return averageBytesBySubStructure;
+        }
+
+
+        /**
+         * Returns the estimated retained heap of all descriptors of this type.
+         *
+         * @return The estimated retained heap in bytes.
+         */
+        public long getTotalBytes() {
+            return count * (averageBytes + overheadBytes);
+        }
+    }
+
+    /**
+     * Heap which could be saved by sharing equal objects instead of storing a copy per descriptor, extrapolated from
+     * the analyzed descriptors. Strings are also contained in the sub-structures, so the savings overlap.
+     */
+    public static class Deduplication {
+
+        private final long duplicateStrings;
+        private final long stringBytes;
+        private final Map<String, Long> bytesBySubStructure;
+
+        public Deduplication(long duplicateStrings, long stringBytes, Map<String, Long> bytesBySubStructure) {
+            this.duplicateStrings = duplicateStrings;
+            this.stringBytes = stringBytes;
+            this.bytesBySubStructure = bytesBySubStructure;
+        }
+
+
+        public long getDuplicateStrings() {
+            return duplicateStrings;
+        }
+
+
+        public long getStringBytes() {
+            return stringBytes;
+        }
+
+
+        public Map<String, Long> getBytesBySubStructure() {
+            return bytesBySubStructure;
+        }
+    }
+
+    /**
+     * Maximum size of the registry for a maximum heap size, assuming the current ratio of shells and standalone
+     * submodels and the current average size of the descriptors.
+     */
+    public static class Projection {
+
+        private final long maxHeapBytes;
+        private final long baselineBytes;
+        private final double occupancy;
+        private final long maxShells;
+        private final long maxSubmodels;
+
+        public Projection(long maxHeapBytes, long baselineBytes, double occupancy, long maxShells, long maxSubmodels) {
+            this.maxHeapBytes = maxHeapBytes;
+            this.baselineBytes = baselineBytes;
+            this.occupancy = occupancy;
+            this.maxShells = maxShells;
+            this.maxSubmodels = maxSubmodels;
+        }
+
+
+        public long getMaxHeapBytes() {
+            return maxHeapBytes;
+        }
+
+
+        /**
+         * Returns the heap used independent of the stored descriptors.
+         *
+         * @return The baseline heap in bytes.
+         */
+        public long getBaselineBytes() {
+            return baselineBytes;
+        }
+
+
+        /**
+         * Returns the share of the maximum heap which may be used, the rest is left for the garbage collector and the
+         * processing of requests.
+         *
+         * @return The share of the maximum heap.
+         */
+        public double getOccupancy() {
+            return occupancy;
+        }
+
+
+        public long getMaxShells() {
+            return maxShells;
+        }
+
+
+        public long getMaxSubmodels() {
+            return maxSubmodels;
+        }
+    }
+}
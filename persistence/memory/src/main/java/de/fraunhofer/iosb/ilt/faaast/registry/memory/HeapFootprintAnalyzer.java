@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.memory;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractAasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.eclipse.digitaltwin.aas4j.v3.model.AbstractLangString;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.Endpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+
+/**
+ * Estimates the retained heap of the descriptors stored in an {@link AasRepositoryMemory}, broken down by
+ * sub-structure, the heap which could be saved by sharing equal objects, and the maximum number of descriptors for a
+ * maximum heap size.
+ *
+ * <p>The sizes are measured with JOL on a sample of evenly spread descriptors and extrapolated to all descriptors, so
+ * the analysis takes about the same time for every registry size. The descriptors are not copied and not locked, so
+ * concurrent changes may slightly distort the result.
+ */
+public class HeapFootprintAnalyzer {
+
+    public static final String ENDPOINTS = "endpoints";
+    public static final String SPECIFIC_ASSET_IDS = "specificAssetIds";
+    public static final String REFERENCES = "references";
+    public static final String LANG_STRINGS = "langStrings";
+    public static final String SUBMODELS = "submodels";
+    public static final String OTHER = "other";
+    public static final int DEFAULT_SAMPLE_SIZE = 1000;
+    public static final int MAX_SAMPLE_SIZE = 10000;
+    public static final long DEFAULT_BASELINE_BYTES = 128L * 1024 * 1024;
+    public static final double DEFAULT_OCCUPANCY = 0.7;
+
+    private static final List<String> SUB_STRUCTURES = List.of(ENDPOINTS, SPECIFIC_ASSET_IDS, REFERENCES, LANG_STRINGS, SUBMODELS, OTHER);
+    private static final String MODEL_PACKAGE = "org.eclipse.digitaltwin.aas4j";
+    private static final String SHELL = "shell";
+    private static final String SUBMODEL = "submodel";
+
+    private final AasRepositoryMemory repository;
+
+    public HeapFootprintAnalyzer(AasRepositoryMemory repository) {
+        this.repository = repository;
+    }
+
+
+    /**
+     * Analyzes the stored descriptors with the default baseline and occupancy.
+     *
+     * @param sampleSize The maximum number of analyzed descriptors per descriptor type.
+     * @param maxHeapBytes The maximum heap size used for the projection, e.g. the value of -Xmx.
+     * @return The footprint of the stored descriptors.
+     */
+    public HeapFootprint analyze(int sampleSize, long maxHeapBytes) {
+        return analyze(sampleSize, maxHeapBytes, DEFAULT_BASELINE_BYTES, DEFAULT_OCCUPANCY);
+    }
+
+
+    /**
+     * Analyzes the stored descriptors.
+     *
+     * @param sampleSize The maximum number of analyzed descriptors per descriptor type.
+     * @param maxHeapBytes The maximum heap size used for the projection, e.g. the value of -Xmx.
+     * @param baselineBytes The heap used independent of the stored descriptors.
+     * @param occupancy The share of the maximum heap which may be used.
+     * @return The footprint of the stored descriptors.
+     */
+    public HeapFootprint analyze(int sampleSize, long maxHeapBytes, long baselineBytes, double occupancy) {
+        Ensure.require(sampleSize > 0, "sampleSize must be greater than 0");
+        Ensure.require(maxHeapBytes > 0, "maxHeapBytes must be greater than 0");
+        Ensure.require(occupancy > 0 && occupancy <= 1, "occupancy must be greater than 0 and at most 1");
+        Duplicates duplicates = new Duplicates();
+        HeapFootprint.DescriptorFootprint shells = analyze(SHELL, repository.storedShells(), AssetAdministrationShellDescriptor::getId,
+                DescriptorChange.Resource.SHELL, sampleSize, duplicates);
+        HeapFootprint.DescriptorFootprint submodels = analyze(SUBMODEL, repository.storedSubmodels(), SubmodelDescriptor::getId,
+                DescriptorChange.Resource.SUBMODEL, sampleSize, duplicates);
+        int sampled = shells.getSampled() + submodels.getSampled();
+        double factor = sampled == 0 ? 0 : (double) (shells.getCount() + submodels.getCount()) / sampled;
+        return new HeapFootprint(List.of(shells, submodels), duplicates.toDeduplication(factor),
+                project(shells, submodels, maxHeapBytes, baselineBytes, occupancy));
+    }
+
+
+    /**
+     * Parses a memory size in the format of -Xmx, e.g. 512m or 4g.
+     *
+     * @param value The memory size.
+     * @return The memory size in bytes.
+     * @throws IllegalArgumentException if the value is not a valid memory size.
+     */
+    public static long parseSize(String value) {
+        Ensure.requireNonNull(value, "value must be non-null");
+        String trimmed = value.strip().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        if (trimmed.endsWith("k")) {
+            unit = 1024L;
+        }
+        else if (trimmed.endsWith("m")) {
+            unit = 1024L * 1024;
+        }
+        else if (trimmed.endsWith("g")) {
+            unit = 1024L * 1024 * 1024;
+        }
+        else if (trimmed.endsWith("t")) {
+            unit = 1024L * 1024 * 1024 * 1024;
+        }
+        String number = unit == 1 ? trimmed : trimmed.substring(0, trimmed.length() - 1);
+        try {
+            return Math.multiplyExact(Long.parseLong(number), unit);
+        }
+        catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("invalid memory size: %s", value), e);
+        }
+    }
+
+
+    private static <T> HeapFootprint.DescriptorFootprint analyze(String type, Collection<T> descriptors, Function<T, String> idOf, DescriptorChange.Resource resource,
+                                                                 int sampleSize, Duplicates duplicates) {
+        long count = descriptors.size();
+        List<T> sample = sample(descriptors, sampleSize);
+        Map<String, Long> bySubStructure = new LinkedHashMap<>();
+        SUB_STRUCTURES.forEach(x -> bySubStructure.put(x, 0L));
+        long total = 0;
+        for (T descriptor: sample) {
+            long size = sizeOf(descriptor);
+            Map<String, List<Object>> subStructures = new HashMap<>();
+            walk(descriptor, null, subStructures, duplicates);
+            long other = size;
+            for (Map.Entry<String, List<Object>> subStructure: subStructures.entrySet()) {
+                long subStructureSize = sizeOf(subStructure.getValue().toArray());
+                bySubStructure.merge(subStructure.getKey(), subStructureSize, Long::sum);
+                other -= subStructureSize;
+            }
+            bySubStructure.merge(OTHER, Math.max(0, other), Long::sum);
+            total += size;
+        }
+        if (!sample.isEmpty()) {
+            bySubStructure.replaceAll((name, size) -> size / sample.size());
+        }
+        return new HeapFootprint.DescriptorFootprint(type, count, sample.size(), sample.isEmpty() ? 0 : total / sample.size(),
+                overheadOf(sample, idOf, resource), bySubStructure);
+    }
+
+
+    /**
+     * Takes at most size evenly spread values.
+     */
+    private static <T> List<T> sample(Collection<T> values, int size) {
+        int stride = Math.max(1, (int) Math.ceil((double) values.size() / size));
+        List<T> result = new ArrayList<>();
+        int index = 0;
+        for (T value: values) {
+            if (index++ % stride == 0) {
+                result.add(value);
+                if (result.size() >= size) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Measures the heap used by the repository for the sampled descriptors besides the descriptors, by storing them in
+     * the same structures as the repository.
+     */
+    private static <T> long overheadOf(List<T> sample, Function<T, String> idOf, DescriptorChange.Resource resource) {
+        if (sample.isEmpty()) {
+            return 0;
+        }
+        Map<String, T> descriptors = new ConcurrentHashMap<>();
+        ChangeLog changeLog = new ChangeLog(AbstractAasRepository.DEFAULT_TOMBSTONE_RETENTION);
+        for (T descriptor: sample) {
+            descriptors.put(idOf.apply(descriptor), descriptor);
+            changeLog.record(resource, idOf.apply(descriptor), false);
+        }
+        long size = GraphLayout.parseInstance(descriptors, changeLog).totalSize();
+        return Math.max(0, (size - sizeOf(sample.toArray())) / sample.size());
+    }
+
+
+    /**
+     * Walks the fields of a model object. The outermost objects of a sub-structure are added to subStructures, all
+     * strings and the sub-structures outside of other sub-structures, or inside of submodels, to the duplicates.
+     */
+    private static void walk(Object object, String subStructure, Map<String, List<Object>> subStructures, Duplicates duplicates) {
+        for (Class<?> type = object.getClass(); type != null && type.getPackageName().startsWith(MODEL_PACKAGE); type = type.getSuperclass()) {
+            for (Field field: type.getDeclaredFields()) {
+                Object value = valueOf(field, object);
+                if (value instanceof Collection<?> collection) {
+                    collection.forEach(x -> visit(x, subStructure, subStructures, duplicates));
+                }
+                else {
+                    visit(value, subStructure, subStructures, duplicates);
+                }
+            }
+        }
+    }
+
+
+    private static void visit(Object value, String subStructure, Map<String, List<Object>> subStructures, Duplicates duplicates) {
+        if (value instanceof String string) {
+            duplicates.addString(string);
+            return;
+        }
+        if (value == null || value instanceof Enum || !value.getClass().getPackageName().startsWith(MODEL_PACKAGE)) {
+            return;
+        }
+        String current = subStructureOf(value);
+        if (current == null) {
+            walk(value, subStructure, subStructures, duplicates);
+            return;
+        }
+        if (subStructure == null) {
+            subStructures.computeIfAbsent(current, x -> new ArrayList<>()).add(value);
+        }
+        if (subStructure == null || (SUBMODELS.equals(subStructure) && !SUBMODELS.equals(current))) {
+            duplicates.add(current, value);
+        }
+        walk(value, subStructure == null ? current : subStructure, subStructures, duplicates);
+    }
+
+
+    private static String subStructureOf(Object value) {
+        if (value instanceof Endpoint) {
+            return ENDPOINTS;
+        }
+        if (value instanceof SpecificAssetId) {
+            return SPECIFIC_ASSET_IDS;
+        }
+        if (value instanceof Reference) {
+            return REFERENCES;
+        }
+        if (value instanceof AbstractLangString) {
+            return LANG_STRINGS;
+        }
+        if (value instanceof SubmodelDescriptor) {
+            return SUBMODELS;
+        }
+        return null;
+    }
+
+
+    private static Object valueOf(Field field, Object object) {
+        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+            return null;
+        }
+        try {
+            field.setAccessible(true);
+            return field.get(object);
+        }
+        catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    private static HeapFootprint.Projection project(HeapFootprint.DescriptorFootprint shells, HeapFootprint.DescriptorFootprint submodels, long maxHeapBytes,
+                                                    long baselineBytes, double occupancy) {
+        if (shells.getCount() == 0 && submodels.getCount() == 0) {
+            return null;
+        }
+        long usable = Math.max(0, (long) (maxHeapBytes * occupancy) - baselineBytes);
+        long bytesPerSubmodel = submodels.getAverageBytes() + submodels.getOverheadBytes();
+        if (shells.getCount() == 0) {
+            return new HeapFootprint.Projection(maxHeapBytes, baselineBytes, occupancy, 0, bytesPerSubmodel == 0 ? 0 : usable / bytesPerSubmodel);
+        }
+        // standalone submodels grow proportionally to the shells
+        double submodelsPerShell = (double) submodels.getCount() / shells.getCount();
+        double bytesPerShell = shells.getAverageBytes() + shells.getOverheadBytes() + submodelsPerShell * bytesPerSubmodel;
+        long maxShells = bytesPerShell == 0 ? 0 : (long) (usable / bytesPerShell);
+        return new HeapFootprint.Projection(maxHeapBytes, baselineBytes, occupancy, maxShells, Math.round(maxShells * submodelsPerShell));
+    }
+
+
+    private static long sizeOf(Object... roots) {
+        return roots.length == 0 ? 0 : GraphLayout.parseInstance(roots).totalSize();
+    }
+
+
+    /**
+     * Estimates the retained heap of a string, assuming compact strings.
+     */
+    private static long sizeOfString(String value) {
+        boolean latin1 = value.chars().allMatch(x -> x < 256);
+        long arraySize = VM.current().arrayHeaderSize() + (long) value.length() * (latin1 ? 1 : 2);
+        return VM.current().sizeOf(value) + align(arraySize);
+    }
+
+
+    private static long align(long size) {
+        int alignment = VM.current().objectAlignment();
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Collects the instances of equal strings and sub-structures.
+     */
+    private static class Duplicates {
+
+        private final Map<String, Set<Object>> strings = new HashMap<>();
+        private final Map<String, Map<Object, Set<Object>>> subStructures = new LinkedHashMap<>();
+
+        private void addString(String value) {
+            strings.computeIfAbsent(value, x -> identitySet()).add(value);
+        }
+
+
+        private void add(String subStructure, Object value) {
+            subStructures.computeIfAbsent(subStructure, x -> new HashMap<>())
+                    .computeIfAbsent(value, x -> identitySet())
+                    .add(value);
+        }
+
+
+        /**
+         * Sums up the heap which could be saved by keeping one instance of equal objects.
+         */
+        private HeapFootprint.Deduplication toDeduplication(double factor) {
+            long duplicateStrings = 0;
+            long stringBytes = 0;
+            for (Map.Entry<String, Set<Object>> string: strings.entrySet()) {
+                int copies = string.getValue().size() - 1;
+                if (copies > 0) {
+                    duplicateStrings += copies;
+                    stringBytes += copies * sizeOfString(string.getKey());
+                }
+            }
+            Map<String, Long> bytesBySubStructure = new LinkedHashMap<>();
+            for (String subStructure: SUB_STRUCTURES) {
+                if (OTHER.equals(subStructure)) {
+                    continue;
+                }
+                long bytes = 0;
+                for (Set<Object> instances: subStructures.getOrDefault(subStructure, Map.of()).values()) {
+                    if (instances.size() > 1) {
+                        bytes += (instances.size() - 1) * sizeOf(instances.iterator().next());
+                    }
+                }
+                bytesBySubStructure.put(subStructure, Math.round(bytes * factor));
+            }
+            return new HeapFootprint.Deduplication(Math.round(duplicateStrings * factor), Math.round(stringBytes * factor), bytesBySubStructure);
+        }
+
+
+        private static Set<Object> identitySet() {
+            return Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+    }
+}
@@ -15,7 +15,26 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.memory;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractAasRepositoryTest;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AbstractBulkOperationStatusStoreTest.TestClock;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.GoneException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.jfr.TransactionEvent;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 
 class AasRepositoryMemoryTest extends AbstractAasRepositoryTest<AasRepositoryMemory> {
@@ -30,4 +49,134 @@ class AasRepositoryMemoryTest extends AbstractAasRepositoryTest<AasRepositoryMem
     public void clearDatastore() {
         repository.clear();
     }
+
+
+    @Test
+    void startTransactionWaitsForRunningTransaction() throws Exception {
+        int nr = repository.startTransaction();
+        CompletableFuture<Integer> other = CompletableFuture.supplyAsync(repository::startTransaction);
+        Assertions.assertThrows(TimeoutException.class, () -> other.get(200, TimeUnit.MILLISECONDS));
+        Assertions.assertThrows(IllegalArgumentException.class, repository::startTransaction);
+
+        repository.commitTransaction(nr);
+        repository.commitTransaction(other.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(repository.getTransactionActive());
+    }
+
+
+    @Test
+    void rollbackTransactionRestoresChangedDescriptors() throws Exception {
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAAS2", "TestSubmodel2");
+        repository.create(aas1);
+        repository.create(aas2);
+
+        int nr = repository.startTransaction();
+        repository.create(getAASWithSubmodel("TestAAS3", "TestSubmodel3"));
+        AssetAdministrationShellDescriptor changed = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        changed.setIdShort("Changed");
+        repository.update(changed.getId(), changed);
+        repository.addSubmodel(aas1.getId(), getSubmodel());
+        repository.addSubmodel(getSubmodel());
+        repository.rollbackTransaction(nr);
+
+        List<AssetAdministrationShellDescriptor> actual = repository.getAASs(PagingInfo.ALL).getContent();
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals(aas1, repository.getAAS(aas1.getId()));
+        Assertions.assertEquals(aas2, repository.getAAS(aas2.getId()));
+        Assertions.assertTrue(repository.getSubmodels(PagingInfo.ALL).getContent().isEmpty());
+    }
+
+
+    @Test
+    void discoveryFollowsChangedAssetLinks() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        aas.setSpecificAssetIds(List.of(new DefaultSpecificAssetId.Builder().name("serialNumber").value("1234").build()));
+        repository.create(aas);
+        List<AssetLink> oldLinks = List.of(new AssetLink("serialNumber", "1234"));
+        List<AssetLink> newLinks = List.of(new AssetLink("serialNumber", "5678"));
+
+        AssetAdministrationShellDescriptor changed = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        changed.setSpecificAssetIds(List.of(new DefaultSpecificAssetId.Builder().name("serialNumber").value("5678").build()));
+        repository.update(aas.getId(), changed);
+        Assertions.assertTrue(repository.getAASIdentifiersByAssetLink(oldLinks, PagingInfo.ALL).getContent().isEmpty());
+        Assertions.assertEquals(List.of(aas.getId()), repository.getAASIdentifiersByAssetLink(newLinks, PagingInfo.ALL).getContent());
+
+        int nr = repository.startTransaction();
+        repository.deleteAAS(aas.getId());
+        Assertions.assertTrue(repository.getAASIdentifiersByAssetLink(newLinks, PagingInfo.ALL).getContent().isEmpty());
+        repository.rollbackTransaction(nr);
+        Assertions.assertEquals(List.of(aas.getId()), repository.getAASIdentifiersByAssetLink(newLinks, PagingInfo.ALL).getContent());
+
+        repository.clear();
+        Assertions.assertTrue(repository.getAASIdentifiersByAssetLink(newLinks, PagingInfo.ALL).getContent().isEmpty());
+    }
+
+
+    @Test
+    void clearRecordsDeletions() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        repository.create(aas);
+        repository.addSubmodel(getSubmodel());
+        long revision = repository.getRevision();
+
+        repository.clear();
+
+        List<DescriptorChange> changes = repository.getChanges(revision, PagingInfo.ALL).getContent();
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertTrue(changes.stream().allMatch(DescriptorChange::isDeleted));
+        Assertions.assertTrue(changes.stream().anyMatch(x -> x.getResource() == DescriptorChange.Resource.SHELL && x.getId().equals(aas.getId())));
+        Assertions.assertTrue(repository.getRevision() > revision);
+    }
+
+
+    @Test
+    void deletionsArePrunedAfterRetention() throws Exception {
+        TestClock clock = new TestClock();
+        repository = new AasRepositoryMemory(1000, clock);
+        AssetAdministrationShellDescriptor aas1 = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+        AssetAdministrationShellDescriptor aas2 = getAASWithSubmodel("TestAAS2", "TestSubmodel2");
+        repository.create(aas1);
+        repository.create(aas2);
+        long revision = repository.getRevision();
+        repository.deleteAAS(aas1.getId());
+
+        clock.advance(1000);
+        Assertions.assertEquals(
+                List.of(new DescriptorChange(revision + 1, DescriptorChange.Resource.SHELL, aas1.getId(), true)),
+                repository.getChanges(revision, PagingInfo.ALL).getContent());
+
+        clock.advance(1);
+        Assertions.assertThrows(GoneException.class, () -> repository.getChanges(revision, PagingInfo.ALL));
+        Assertions.assertThrows(GoneException.class, () -> repository.getChanges(0, PagingInfo.builder().cursor(Long.toString(revision)).build()));
+        Assertions.assertTrue(repository.getChanges(revision + 1, PagingInfo.ALL).getContent().isEmpty());
+        Assertions.assertEquals(
+                List.of(new DescriptorChange(revision, DescriptorChange.Resource.SHELL, aas2.getId(), false)),
+                repository.getChanges(0, PagingInfo.ALL).getContent());
+    }
+
+
+    @Test
+    void transactionEventsContainBackup() throws Exception {
+        repository.create(getAASWithSubmodel("TestAAS1", "TestSubmodel1"));
+        Path file = Files.createTempFile("transaction", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransactionEvent.NAME);
+            recording.start();
+            int nr = repository.startTransaction();
+            AssetAdministrationShellDescriptor changed = getAASWithSubmodel("TestAAS1", "TestSubmodel1");
+            changed.setIdShort("Changed");
+            repository.update(changed.getId(), changed);
+            repository.commitTransaction(nr);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        Assertions.assertEquals(List.of(TransactionEvent.START, TransactionEvent.COMMIT), events.stream().map(x -> x.getString("action")).toList());
+        RecordedEvent commit = events.get(1);
+        Assertions.assertEquals("memory", commit.getString("backend"));
+        Assertions.assertEquals(1, commit.getInt("backupSize"));
+        Assertions.assertTrue(commit.getDuration("backupTime").toNanos() > 0);
+    }
 }
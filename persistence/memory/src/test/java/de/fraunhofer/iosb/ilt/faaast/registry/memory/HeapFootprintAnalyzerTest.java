@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.memory;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetConfig;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.dataset.DatasetGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+class HeapFootprintAnalyzerTest {
+
+    private static final long MAX_HEAP = HeapFootprintAnalyzer.parseSize("2g");
+
+    private AasRepositoryMemory repository;
+    private HeapFootprintAnalyzer analyzer;
+
+    @BeforeEach
+    void setup() throws Exception {
+        repository = new AasRepositoryMemory();
+        analyzer = new HeapFootprintAnalyzer(repository);
+        DatasetConfig config = new DatasetConfig();
+        config.setShells(200);
+        config.setStandaloneSubmodels(50);
+        DatasetGenerator generator = new DatasetGenerator(config);
+        for (var shell: generator.shells().toList()) {
+            repository.create(shell);
+        }
+        for (var submodel: generator.standaloneSubmodels().toList()) {
+            repository.addSubmodel(submodel);
+        }
+    }
+
+
+    @Test
+    void footprintBySubStructure() {
+        HeapFootprint footprint = analyzer.analyze(50, MAX_HEAP);
+
+        HeapFootprint.DescriptorFootprint shells = footprint.getDescriptors().get(0);
+        Assertions.assertEquals(200, shells.getCount());
+        Assertions.assertEquals(50, shells.getSampled());
+        Assertions.assertTrue(shells.getOverheadBytes() > 0);
+        Assertions.assertTrue(shells.getAverageBytesBySubStructure().get(HeapFootprintAnalyzer.ENDPOINTS) > 0);
+        Assertions.assertTrue(shells.getAverageBytesBySubStructure().get(HeapFootprintAnalyzer.SPECIFIC_ASSET_IDS) > 0);
+        Assertions.assertTrue(shells.getAverageBytesBySubStructure().get(HeapFootprintAnalyzer.SUBMODELS) > 0);
+        long sum = shells.getAverageBytesBySubStructure().values().stream().mapToLong(Long::longValue).sum();
+        // the averages of the sub-structures are rounded down separately
+        Assertions.assertTrue(Math.abs(shells.getAverageBytes() - sum) < shells.getAverageBytesBySubStructure().size());
+
+        HeapFootprint.DescriptorFootprint submodels = footprint.getDescriptors().get(1);
+        Assertions.assertEquals(50, submodels.getCount());
+        Assertions.assertTrue(submodels.getAverageBytesBySubStructure().get(HeapFootprintAnalyzer.REFERENCES) > 0);
+        Assertions.assertEquals(0, submodels.getAverageBytesBySubStructure().get(HeapFootprintAnalyzer.SUBMODELS));
+        Assertions.assertEquals(shells.getTotalBytes() + submodels.getTotalBytes(), footprint.getTotalBytes());
+    }
+
+
+    @Test
+    void deduplication() {
+        HeapFootprint.Deduplication deduplication = analyzer.analyze(HeapFootprintAnalyzer.DEFAULT_SAMPLE_SIZE, MAX_HEAP).getDeduplication();
+
+        // the generated descriptors share interfaces, hosts and semantic ids, but not the instances
+        Assertions.assertTrue(deduplication.getDuplicateStrings() > 0);
+        Assertions.assertTrue(deduplication.getStringBytes() > 0);
+        Assertions.assertTrue(deduplication.getBytesBySubStructure().get(HeapFootprintAnalyzer.REFERENCES) > 0);
+    }
+
+
+    @Test
+    void projection() {
+        HeapFootprint footprint = analyzer.analyze(50, MAX_HEAP);
+        HeapFootprint.Projection projection = footprint.getProjection();
+        Assertions.assertTrue(projection.getMaxShells() > 200);
+        Assertions.assertEquals(projection.getMaxShells() / 4, projection.getMaxSubmodels(), 1);
+
+        HeapFootprint.Projection doubled = analyzer.analyze(50, 2 * MAX_HEAP).getProjection();
+        Assertions.assertTrue(doubled.getMaxShells() > 2 * projection.getMaxShells());
+    }
+
+
+    @Test
+    void emptyRepository() {
+        repository.clear();
+        HeapFootprint footprint = analyzer.analyze(50, MAX_HEAP);
+        Assertions.assertEquals(0, footprint.getTotalBytes());
+        Assertions.assertNull(footprint.getProjection());
+    }
+
+
+    @Test
+    void parseSize() {
+        Assertions.assertEquals(512L * 1024 * 1024, HeapFootprintAnalyzer.parseSize("512m"));
+        Assertions.assertEquals(4L * 1024 * 1024 * 1024, HeapFootprintAnalyzer.parseSize("4G"));
+        Assertions.assertEquals(1000, HeapFootprintAnalyzer.parseSize("1000"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HeapFootprintAnalyzer.parseSize("4x"));
+    }
+}
@@ -75,7 +75,9 @@ import org.springframework.boot.jackson.autoconfigure.JsonMapperBuilderCustomize
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.module.SimpleAbstractTypeResolver;
 import tools.jackson.databind.module.SimpleModule;
 import tools.jackson.databind.util.StdDateFormat;
@@ -95,6 +97,20 @@ public class DescriptorMapperConfig {
     @Bean
     @Primary
     public JsonMapperBuilderCustomizer jacksonCustomizer() {
+        return DescriptorMapperConfig::configure;
+    }
+
+
+    /**
+     * Register our Mappings in the given mapper builder. Used for JSON as well as for the binary formats, so all formats
+     * share the same type mappings, mixins and inclusion rules.
+     *
+     * @param <M> The type of the mapper.
+     * @param <B> The type of the builder.
+     * @param builder The desired mapper builder.
+     * @return The configured builder.
+     */
+    public static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(B builder) {
         SimpleModule module = new SimpleModule();
 
         SimpleAbstractTypeResolver resolver = new SimpleAbstractTypeResolver();
@@ -124,7 +140,7 @@ public class DescriptorMapperConfig {
         ReflectionHelper.ENUMS.forEach(x -> module.addDeserializer(x, new EnumDeserializer3(x)));
 
         module.setAbstractTypes(resolver);
-        return builder -> builder
+        return builder
                 .addModule(module)
                 .addMixIn(Page.class, PageMixin.class)
                 .addMixIn(Endpoint.class, EndpointMixin.class)
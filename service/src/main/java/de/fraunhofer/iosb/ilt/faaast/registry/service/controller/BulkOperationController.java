@@ -15,6 +15,7 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.controller;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.*;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
 import java.net.URI;
@@ -30,6 +31,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 /**
@@ -104,6 +106,29 @@ public class BulkOperationController {
     }
 
 
+    /**
+     * Bulk operation for creating or replacing multiple submodel descriptors.
+     *
+     * @param submodels The desired Submodels.
+     * @return The ResponseEntity object.
+     * @throws BadRequestException an error occurs.
+     * @throws InterruptedException the operation was interrupted.
+     */
+    @PutMapping(value = "/submodel-descriptors", params = "upsert=true")
+    public ResponseEntity<Void> bulkUpsertSubmodels(@RequestBody List<SubmodelDescriptor> submodels) throws BadRequestException, InterruptedException {
+        String handleId = service.bulkUpsertSubmodels(submodels);
+
+        LOGGER.debug("bulkUpsertSubmodels: Handle: {}", handleId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create(STATUS_URI + handleId));
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .headers(headers)
+                .build();
+    }
+
+
     /**
      * Bulk operation for deleting multiple submodel descriptors with the given IDs.
      *
@@ -189,6 +214,29 @@ public class BulkOperationController {
     }
 
 
+    /**
+     * Bulk operation for creating or replacing multiple aas descriptors.
+     *
+     * @param shells The desired asset administration shell descriptors.
+     * @return The ResponseEntity object.
+     * @throws BadRequestException an error occurs.
+     * @throws InterruptedException The execution was interrupted.
+     */
+    @PutMapping(value = "/shell-descriptors", params = "upsert=true")
+    public ResponseEntity<Void> bulkUpsertShells(@RequestBody List<AssetAdministrationShellDescriptor> shells) throws BadRequestException, InterruptedException {
+        String handleId = service.bulkUpsertShells(shells);
+
+        LOGGER.debug("bulkUpsertShells: Handle: {}", handleId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create(STATUS_URI + handleId));
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .headers(headers)
+                .build();
+    }
+
+
     /**
      * Bulk operation for deleting multiple aas descriptors with the given IDs.
      *
@@ -237,10 +285,28 @@ public class BulkOperationController {
     }
 
 
+    /**
+     * Returns the status of an asynchronously invoked bulk operation, waiting up to the given time until the
+     * operation is finished.
+     *
+     * @param handleId the id for retrieving the bulk operation status.
+     * @param waitSeconds the maximum time to wait in seconds.
+     * @return The operation result.
+     * @throws MovedPermanentlyException an error occurs.
+     * @throws ResourceNotFoundException an error occurs.
+     */
+    @GetMapping(value = "/status/{handleId}", params = "waitSeconds")
+    public DeferredResult<OperationResult> waitForBulkOperationStatus(@PathVariable("handleId") String handleId, @RequestParam("waitSeconds") long waitSeconds)
+            throws MovedPermanentlyException, ResourceNotFoundException {
+        return service.waitForBulkOperationStatus(handleId, waitSeconds);
+    }
+
+
     /**
      * Returns the result of an asynchronously invoked bulk operation.
      *
      * @param handleId the id for retrieving the bulk operation result object.
+     * @return The progress with the per-item outcome if the operation is executed in chunks, no content otherwise.
      * @throws BadRequestException an error occurs.
      * @throws MovedPermanentlyException an error occurs.
      * @throws UnauthorizedException an error occurs.
@@ -249,10 +315,13 @@ public class BulkOperationController {
      * @throws ResourceNotFoundException an error occurs.
      */
     @GetMapping(value = "/result/{handleId}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void getBulkOperationResult(@PathVariable("handleId") String handleId)
+    public ResponseEntity<BulkOperationProgress> getBulkOperationResult(@PathVariable("handleId") String handleId)
             throws MovedPermanentlyException, UnauthorizedException, ForbiddenException, ResourceNotFoundException, InternalServerErrorException {
-        service.getBulkOperationResult(handleId);
+        BulkOperationProgress progress = service.getBulkOperationResult(handleId);
+        if (progress == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(progress);
     }
 
 }
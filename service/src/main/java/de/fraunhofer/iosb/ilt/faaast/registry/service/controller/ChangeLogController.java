@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.controller;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+/**
+ * REST controller for the change log, used by clients to synchronize their copy of the registry.
+ */
+@RestController
+@RequestMapping(value = Constants.CHANGES_PATH)
+public class ChangeLogController {
+
+    private final RegistryService service;
+
+    @Autowired
+    public ChangeLogController(RegistryService service) {
+        this.service = service;
+    }
+
+
+    /**
+     * Retrieves the descriptors changed after the given revision. The current revision of the registry is returned in
+     * the header {@link Constants#REVISION_HEADER}.
+     *
+     * @param since The revision after which the changes are requested, all changes if not set.
+     * @param limit The limit value.
+     * @param cursor The cursor value.
+     * @return The changes, ordered by revision.
+     */
+    @GetMapping()
+    public ResponseEntity<Page<DescriptorChange>> getChanges(@RequestParam(name = "since", required = false) Long since,
+                                                             @RequestParam(name = "limit", required = false) Long limit,
+                                                             @RequestParam(name = "cursor", required = false) String cursor) {
+        PagingInfo.Builder pageBuilder = PagingInfo.builder().cursor(cursor);
+        if (limit != null) {
+            if (limit == 0) {
+                throw new BadRequestException("Limit must be greater than 0");
+            }
+            pageBuilder.limit(limit);
+        }
+        // read the revision first, so it never covers changes missing in the result
+        long revision = service.getRevision();
+        return ResponseEntity.ok()
+                .header(Constants.REVISION_HEADER, Long.toString(revision))
+                .body(service.getChanges(since, pageBuilder.build()));
+    }
+}
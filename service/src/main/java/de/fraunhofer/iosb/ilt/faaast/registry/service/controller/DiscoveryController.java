@@ -18,6 +18,7 @@ import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkHelper;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.DeepCopyHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
@@ -125,7 +126,8 @@ public class DiscoveryController {
     public ResponseEntity<List<SpecificAssetId>> postAllAssetLinksById(@PathVariable(name = "aasIdentifier") String aasIdentifier,
                                                                        @RequestBody List<SpecificAssetId> specificAssetIds)
             throws ResourceNotFoundException {
-        AssetAdministrationShellDescriptor selectedDescriptor = service.getAAS(aasIdentifier);
+        // work on a copy, the stored descriptor still provides the previous asset links to the update
+        AssetAdministrationShellDescriptor selectedDescriptor = DeepCopyHelper.deepCopy(service.getAAS(aasIdentifier), AssetAdministrationShellDescriptor.class);
 
         List<SpecificAssetId> globalKeys = specificAssetIds.stream()
                 .filter(x -> FaaastConstants.KEY_GLOBAL_ASSET_ID.equals(x.getName()))
@@ -188,7 +190,7 @@ public class DiscoveryController {
      */
     @DeleteMapping("/shells/{aasIdentifier}")
     public ResponseEntity<Void> deleteAllAssetLinksById(@PathVariable(name = "aasIdentifier") String aasIdentifier) throws ResourceNotFoundException {
-        AssetAdministrationShellDescriptor selectedDescriptor = service.getAAS(aasIdentifier);
+        AssetAdministrationShellDescriptor selectedDescriptor = DeepCopyHelper.deepCopy(service.getAAS(aasIdentifier), AssetAdministrationShellDescriptor.class);
         selectedDescriptor.getSpecificAssetIds().clear();
         selectedDescriptor.setGlobalAssetId(null);
 
@@ -215,4 +217,18 @@ public class DiscoveryController {
         PagingInfo pagingInfo = PagingInfo.builder().cursor(cursor).limit(limit == null ? PagingInfo.DEFAULT_LIMIT : limit).build();
         return service.getAASIdsByAssetLink(assetLinks, pagingInfo);
     }
+
+
+    /**
+     * Returns the Asset Administration Shell IDs for many independent queries of asset links in one request. The
+     * queries are evaluated together and the result contains a list of IDs for each query, in the order of the
+     * queries.
+     *
+     * @param assetLinkQueries A list of queries, each query is a list of asset links which must all match.
+     * @return The requested Asset Administration Shell ids for each query.
+     */
+    @PostMapping(value = "/shellsByAssetLink/batch")
+    public List<List<String>> searchAssetAdministrationShellIdsByAssetLinkBatch(@RequestBody List<List<AssetLink>> assetLinkQueries) {
+        return service.getAASIdsByAssetLinks(assetLinkQueries);
+    }
 }
@@ -15,6 +15,8 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.controller;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BulkValidationException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.GoneException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.MovedPermanentlyException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
@@ -97,6 +99,46 @@ public class RegistryControllerAdvice {
     }
 
 
+    /**
+     * Handles GoneException.
+     *
+     * @param e The desired exception.
+     * @return The corresponding response.
+     */
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<Result> handleGoneException(Exception e) {
+        return new ResponseEntity<>(
+                new DefaultResult.Builder()
+                        .messages(Message.builder()
+                                .messageType(MessageType.ERROR)
+                                .text(e.getMessage())
+                                .build())
+                        .build(),
+                HttpStatus.GONE);
+    }
+
+
+    /**
+     * Handles BulkValidationException with one message per violation.
+     *
+     * @param e The desired exception.
+     * @return The corresponding response.
+     */
+    @ExceptionHandler(BulkValidationException.class)
+    public ResponseEntity<Result> handleBulkValidationException(BulkValidationException e) {
+        return new ResponseEntity<>(
+                new DefaultResult.Builder()
+                        .messages(e.getViolations().stream()
+                                .map(x -> (org.eclipse.digitaltwin.aas4j.v3.model.Message) Message.builder()
+                                        .messageType(MessageType.ERROR)
+                                        .text(x)
+                                        .build())
+                                .toList())
+                        .build(),
+                HttpStatus.BAD_REQUEST);
+    }
+
+
     /**
      * Fallback method. Handles all other exceptions.
      *
@@ -19,19 +19,23 @@ import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ConstraintViolatedException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.CommonConstraintHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BatchGetResult;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import java.net.URI;
+import java.util.List;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -58,10 +62,12 @@ public class ShellRegistryController {
 
     //@Autowired
     private final RegistryService service;
+    private final int maxBatchSize;
 
     @Autowired
-    public ShellRegistryController(RegistryService service) {
+    public ShellRegistryController(RegistryService service, @Value("${batch.maxSize:1000}") int maxBatchSize) {
         this.service = service;
+        this.maxBatchSize = maxBatchSize;
     }
 
 
@@ -72,13 +78,15 @@ public class ShellRegistryController {
      * @param assetKind The desired Asset Kind.
      * @param limit The limit value.
      * @param cursor The cursor value.
+     * @param fields The comma-separated list of the desired properties, all properties if not set.
      * @return The list of all registered Asset Administration Shells.
      */
     @GetMapping()
     public Page<AssetAdministrationShellDescriptor> getAASs(@RequestParam(name = "assetType", required = false) String assetType,
                                                             @RequestParam(name = "assetKind", required = false) AssetKind assetKind,
                                                             @RequestParam(name = "limit", required = false) Long limit,
-                                                            @RequestParam(name = "cursor", required = false) String cursor) {
+                                                            @RequestParam(name = "cursor", required = false) String cursor,
+                                                            @RequestParam(name = "fields", required = false) String fields) {
         PagingInfo.Builder pageBuilder = PagingInfo.builder().cursor(cursor);
         if (limit != null) {
             if (limit == 0) {
@@ -89,7 +97,7 @@ public class ShellRegistryController {
         else {
             pageBuilder.limit(AasRepository.DEFAULT_LIMIT);
         }
-        return service.getAASs(assetType, assetKind, pageBuilder.build());
+        return service.getAASs(assetType, assetKind, pageBuilder.build(), DescriptorProjection.parse(fields, DescriptorProjection.SHELL_FIELDS));
     }
 
 
@@ -106,6 +114,22 @@ public class ShellRegistryController {
     }
 
 
+    /**
+     * Retrieves all Asset Administration Shells with the given IDs in a single request.
+     *
+     * @param aasIdentifiers The IDs of the desired Asset Administration Shells (not encoded).
+     * @return The Asset Administration Shells found and the IDs that were not found.
+     * @throws BadRequestException if more IDs are requested than allowed by batch.maxSize.
+     */
+    @PostMapping(value = "/batch-get")
+    public BatchGetResult<AssetAdministrationShellDescriptor> getAASsByIds(@RequestBody List<String> aasIdentifiers) {
+        if (aasIdentifiers != null && aasIdentifiers.size() > maxBatchSize) {
+            throw new BadRequestException(String.format("at most %d IDs may be requested at once", maxBatchSize));
+        }
+        return service.getAASsByIds(aasIdentifiers);
+    }
+
+
     /**
      * Create the given Asset Administration Shell.
      *
@@ -166,13 +190,15 @@ public class ShellRegistryController {
      * @param aasIdentifier The ID of the desired Asset Administration Shell.
      * @param limit The limit value.
      * @param cursor The cursor value.
+     * @param fields The comma-separated list of the desired properties, all properties if not set.
      * @return The list of Submodels.
      * @throws ResourceNotFoundException When the AAS was not found.
      */
     @GetMapping(value = "/{aasIdentifier}/submodel-descriptors")
     public Page<SubmodelDescriptor> getSubmodelsOfAAS(@PathVariable("aasIdentifier") String aasIdentifier,
                                                       @RequestParam(name = "limit", required = false) Long limit,
-                                                      @RequestParam(name = "cursor", required = false) String cursor)
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      @RequestParam(name = "fields", required = false) String fields)
             throws ResourceNotFoundException {
         PagingInfo.Builder pageBuilder = PagingInfo.builder().cursor(cursor);
         if (limit != null) {
@@ -181,7 +207,7 @@ public class ShellRegistryController {
             }
             pageBuilder.limit(limit);
         }
-        return service.getSubmodels(aasIdentifier, pageBuilder.build());
+        return service.getSubmodels(aasIdentifier, pageBuilder.build(), DescriptorProjection.parse(fields, DescriptorProjection.SUBMODEL_FIELDS));
     }
 
 
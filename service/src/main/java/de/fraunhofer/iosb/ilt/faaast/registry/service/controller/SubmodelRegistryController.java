@@ -18,17 +18,21 @@ import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ConstraintViolatedException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceAlreadyExistsException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.CommonConstraintHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BatchGetResult;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import java.net.URI;
+import java.util.List;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -55,10 +59,12 @@ public class SubmodelRegistryController {
 
     //@Autowired
     private final RegistryService service;
+    private final int maxBatchSize;
 
     @Autowired
-    public SubmodelRegistryController(RegistryService service) {
+    public SubmodelRegistryController(RegistryService service, @Value("${batch.maxSize:1000}") int maxBatchSize) {
         this.service = service;
+        this.maxBatchSize = maxBatchSize;
     }
 
 
@@ -67,11 +73,13 @@ public class SubmodelRegistryController {
      *
      * @param limit The limit value.
      * @param cursor The cursor value.
+     * @param fields The comma-separated list of the desired properties, all properties if not set.
      * @return The list of Submodels.
      * @throws ResourceNotFoundException When the Submodel was not found.
      */
     @GetMapping()
-    public Page<SubmodelDescriptor> getSubmodels(@RequestParam(name = "limit", required = false) Long limit, @RequestParam(name = "cursor", required = false) String cursor)
+    public Page<SubmodelDescriptor> getSubmodels(@RequestParam(name = "limit", required = false) Long limit, @RequestParam(name = "cursor", required = false) String cursor,
+                                                 @RequestParam(name = "fields", required = false) String fields)
             throws ResourceNotFoundException {
         PagingInfo.Builder pageBuilder = PagingInfo.builder().cursor(cursor);
         if (limit != null) {
@@ -80,7 +88,7 @@ public class SubmodelRegistryController {
             }
             pageBuilder.limit(limit);
         }
-        return service.getSubmodels(pageBuilder.build());
+        return service.getSubmodels(null, pageBuilder.build(), DescriptorProjection.parse(fields, DescriptorProjection.SUBMODEL_FIELDS));
     }
 
 
@@ -97,6 +105,22 @@ public class SubmodelRegistryController {
     }
 
 
+    /**
+     * Retrieves all Submodels with the given IDs in a single request.
+     *
+     * @param submodelIdentifiers The IDs of the desired Submodels (not encoded).
+     * @return The Submodels found and the IDs that were not found.
+     * @throws BadRequestException if more IDs are requested than allowed by batch.maxSize.
+     */
+    @PostMapping(value = "/batch-get")
+    public BatchGetResult<SubmodelDescriptor> getSubmodelsByIds(@RequestBody List<String> submodelIdentifiers) {
+        if (submodelIdentifiers != null && submodelIdentifiers.size() > maxBatchSize) {
+            throw new BadRequestException(String.format("at most %d IDs may be requested at once", maxBatchSize));
+        }
+        return service.getSubmodelsByIds(submodelIdentifiers);
+    }
+
+
     /**
      * Creates a new submodel.
      *
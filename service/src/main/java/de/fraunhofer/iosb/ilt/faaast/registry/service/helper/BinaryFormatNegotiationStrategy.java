@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+
+/**
+ * Content negotiation strategy selecting a binary representation only if the client explicitly asks for it in the
+ * Accept header and prefers it over JSON. In all other cases JSON is used, as before, so clients sending other or
+ * wildcard Accept headers are not affected. Server-sent events are only selected if explicitly requested, too.
+ */
+public class BinaryFormatNegotiationStrategy implements ContentNegotiationStrategy {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    public static final List<MediaType> BINARY_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final List<MediaType> EXPLICIT_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE, MediaType.TEXT_EVENT_STREAM);
+
+    private final HeaderContentNegotiationStrategy headerStrategy = new HeaderContentNegotiationStrategy();
+
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> retval = new ArrayList<>();
+        for (MediaType mediaType: headerStrategy.resolveMediaTypes(webRequest)) {
+            MediaType selected = EXPLICIT_MEDIA_TYPES.stream()
+                    .filter(mediaType::equalsTypeAndSubtype)
+                    .findFirst()
+                    .orElse(mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) ? MediaType.APPLICATION_JSON : null);
+            if ((selected != null) && !retval.contains(selected)) {
+                retval.add(selected);
+            }
+        }
+        if (!retval.contains(MediaType.APPLICATION_JSON)) {
+            retval.add(MediaType.APPLICATION_JSON);
+        }
+        return retval;
+    }
+}
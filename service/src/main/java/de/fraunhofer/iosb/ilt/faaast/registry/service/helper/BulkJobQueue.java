@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkBaseData;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Queue of bulk operations shared by the bulk workers. A worker only takes an operation which doesn't affect a
+ * descriptor affected by a running operation or by an operation queued earlier. This way, operations on different
+ * descriptors run concurrently, while overlapping operations run one after another in the order they were added.
+ */
+public class BulkJobQueue {
+
+    private final boolean exclusive;
+    private final List<Job> pending = new LinkedList<>();
+    private final Map<BulkBaseData, Set<String>> running = new IdentityHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param exclusive True if only one operation may run at a time, e.g. because the repository doesn't support
+     *            concurrent transactions.
+     */
+    public BulkJobQueue(boolean exclusive) {
+        this.exclusive = exclusive;
+    }
+
+
+    /**
+     * Adds an operation to the queue.
+     *
+     * @param job The operation.
+     */
+    public synchronized void add(BulkBaseData job) {
+        pending.add(new Job(job, job.getAffectedKeys()));
+        notifyAll();
+    }
+
+
+    /**
+     * Takes the next operation which can run now, waiting until there is one. The caller must call
+     * {@link #done(BulkBaseData)} when the operation is finished.
+     *
+     * @return The operation.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public synchronized BulkBaseData take() throws InterruptedException {
+        Job retval = next();
+        while (retval == null) {
+            wait();
+            retval = next();
+        }
+        running.put(retval.data(), retval.keys());
+        return retval.data();
+    }
+
+
+    /**
+     * Marks the given operation as finished, so operations waiting for its descriptors can run.
+     *
+     * @param job The operation.
+     */
+    public synchronized void done(BulkBaseData job) {
+        running.remove(job);
+        notifyAll();
+    }
+
+
+    /**
+     * Returns the number of queued operations which are not yet running.
+     *
+     * @return The number of queued operations.
+     */
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+
+    /**
+     * Returns the number of running operations.
+     *
+     * @return The number of running operations.
+     */
+    public synchronized int getInFlight() {
+        return running.size();
+    }
+
+
+    /**
+     * Removes and returns the first queued operation without conflicts, null if there is none.
+     */
+    private Job next() {
+        if (exclusive && !running.isEmpty()) {
+            return null;
+        }
+        Set<String> blocked = new HashSet<>();
+        running.values().forEach(blocked::addAll);
+        Iterator<Job> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (Collections.disjoint(job.keys(), blocked)) {
+                iterator.remove();
+                return job;
+            }
+            // later operations must not overtake this one
+            blocked.addAll(job.keys());
+        }
+        return null;
+    }
+
+    private record Job(BulkBaseData data, Set<String> keys) {}
+}
@@ -79,7 +79,7 @@ public class CommonConstraintHelper {
             else if ((maxLength > 0) && (txt.length() > maxLength)) {
                 raiseConstraintViolatedException(String.format("%s too long", msg));
             }
-            else if (!ConstraintHelper.TEXT_PATTERN.matcher(txt).matches()) {
+            else if (!TextConstraintHelper.isValidText(txt)) {
                 raiseConstraintViolatedException(String.format("%s doesn't match the pattern", msg));
             }
         }
@@ -96,7 +96,7 @@ public class CommonConstraintHelper {
         if (language == null) {
             raiseConstraintViolatedException(String.format("no %s provided", msg));
         }
-        else if (!ConstraintHelper.LANG_LANGUAGE_PATTERN.matcher(language).matches()) {
+        else if (!TextConstraintHelper.isValidLanguage(language)) {
             raiseConstraintViolatedException(String.format("%s doesn't match the pattern", msg));
         }
     }
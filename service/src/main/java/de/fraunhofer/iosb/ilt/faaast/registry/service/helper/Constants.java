@@ -24,6 +24,9 @@ public final class Constants {
     public static final String DESCRIPTION_REQUEST_PATH = "/description";
     public static final String BULK_REQUEST_PATH = "/bulk";
     public static final String DISCOVERY_PATH = "/lookup";
+    public static final String EVENTS_PATH = "/events";
+    public static final String CHANGES_PATH = "/changes";
+    public static final String REVISION_HEADER = "X-Revision";
 
     private Constants() {}
 }
@@ -14,12 +14,15 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
 
-import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BulkValidationException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ConstraintViolatedException;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import org.eclipse.digitaltwin.aas4j.v3.model.AdministrativeInformation;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.Extension;
@@ -38,6 +41,7 @@ public class ConstraintHelper {
             .compile("^([\\t\\n\\r -퟿-�]|\\ud800[\\udc00-\\udfff]|[\\ud801-\\udbfe][\\udc00-\\udfff]|\\udbff[\\udc00-\\udfff])*$");
     public static final Pattern LANG_LANGUAGE_PATTERN = Pattern.compile(
             "^(([a-zA-Z]{2,3}(-[a-zA-Z]{3}(-[a-zA-Z]{3}){2})?|[a-zA-Z]{4}|[a-zA-Z]{5,8})(-[a-zA-Z]{4})?(-([a-zA-Z]{2}|[0-9]{3}))?(-(([a-zA-Z0-9]){5,8}|[0-9]([a-zA-Z0-9]){3}))*(-[0-9A-WY-Za-wy-z](-([a-zA-Z0-9]){2,8})+)*(-[xX](-([a-zA-Z0-9]){1,8})+)?|[xX](-([a-zA-Z0-9]){1,8})+|((en-GB-oed|i-ami|i-bnn|i-default|i-enochian|i-hak|i-klingon|i-lux|i-mingo|i-navajo|i-pwn|i-tao|i-tay|i-tsu|sgn-BE-FR|sgn-BE-NL|sgn-CH-DE)|(art-lojban|cel-gaulish|no-bok|no-nyn|zh-guoyu|zh-hakka|zh-min|zh-min-nan|zh-xiang)))$");
+    private static final int PARALLEL_THRESHOLD = 64;
     private static final Pattern VERSION_PATTERN = Pattern.compile("^(0|[1-9][0-9]*)$");
     public static final int MAX_IDENTIFIER_LENGTH = 2000;
     public static final int MAX_IDSHORT_LENGTH = 128;
@@ -73,21 +77,13 @@ public class ConstraintHelper {
 
 
     /**
-     * Validate a list of given AAS Descriptors.
+     * Validate a list of given AAS Descriptors. Large lists are validated in parallel.
      *
      * @param shells The desired AAS Descriptors.
+     * @throws BulkValidationException if one or more AAS Descriptors violate constraints.
      */
     public static void validate(List<AssetAdministrationShellDescriptor> shells) {
-        if (shells != null) {
-            for (AssetAdministrationShellDescriptor shell: shells) {
-                try {
-                    validate(shell);
-                }
-                catch (ConstraintViolatedException e) {
-                    throw new BadRequestException();
-                }
-            }
-        }
+        validateAll(shells, ConstraintHelper::validate);
     }
 
 
@@ -102,20 +98,51 @@ public class ConstraintHelper {
 
 
     /**
-     * Validate a list of given Submodel Descriptors.
+     * Validate a list of given Submodel Descriptors. Large lists are validated in parallel.
      *
      * @param submodels The desired Submodels Descriptors.
+     * @throws BulkValidationException if one or more Submodel Descriptors violate constraints.
      */
     public static void validateSubmodels(List<SubmodelDescriptor> submodels) {
-        if (submodels != null) {
-            for (SubmodelDescriptor submodel: submodels) {
-                try {
-                    validate(submodel);
-                }
-                catch (ConstraintViolatedException e) {
-                    throw new BadRequestException();
-                }
-            }
+        validateAll(submodels, ConstraintHelper::validate);
+    }
+
+
+    /**
+     * Validates all items of the given list and collects the violations of all items, prefixed with the index of the
+     * item. Lists with at least {@link #PARALLEL_THRESHOLD} items are split into chunks validated in parallel on the
+     * common fork-join pool.
+     *
+     * @param <T> The type of the items.
+     * @param items The items to validate.
+     * @param validator The validator for a single item.
+     * @throws BulkValidationException if one or more items violate constraints.
+     */
+    public static <T> void validateAll(List<T> items, Consumer<T> validator) {
+        if (items == null) {
+            return;
+        }
+        IntStream indexes = IntStream.range(0, items.size());
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        List<String> violations = indexes
+                .mapToObj(i -> checkItem(i, items.get(i), validator))
+                .filter(Objects::nonNull)
+                .toList();
+        if (!violations.isEmpty()) {
+            throw new BulkValidationException(violations);
+        }
+    }
+
+
+    private static <T> String checkItem(int index, T item, Consumer<T> validator) {
+        try {
+            validator.accept(item);
+            return null;
+        }
+        catch (ConstraintViolatedException | IllegalArgumentException e) {
+            return String.format("item %d: %s", index, e.getMessage());
         }
     }
 
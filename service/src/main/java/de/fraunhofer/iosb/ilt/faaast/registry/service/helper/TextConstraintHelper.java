@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import java.util.Set;
+
+
+/**
+ * Helper class for checking texts and language tags without regular expressions. The checks accept exactly the strings
+ * matched by {@link ConstraintHelper#TEXT_PATTERN} and {@link ConstraintHelper#LANG_LANGUAGE_PATTERN}, but scan the
+ * string once without allocating objects.
+ */
+public class TextConstraintHelper {
+
+    private static final char SUBTAG_SEPARATOR = '-';
+    private static final int EXTLANG_COUNT = 3;
+    private static final Set<String> GRANDFATHERED_TAGS = Set.of(
+            "en-GB-oed", "i-ami", "i-bnn", "i-default", "i-enochian", "i-hak", "i-klingon", "i-lux", "i-mingo", "i-navajo", "i-pwn", "i-tao", "i-tay", "i-tsu",
+            "sgn-BE-FR", "sgn-BE-NL", "sgn-CH-DE", "art-lojban", "cel-gaulish", "no-bok", "no-nyn", "zh-guoyu", "zh-hakka", "zh-min", "zh-min-nan", "zh-xiang");
+
+    private TextConstraintHelper() {}
+
+
+    /**
+     * Checks whether the given text only contains allowed characters. Allowed are tab, line feed, carriage return and
+     * the characters from U+0020 to U+D7FF and from U+E000 to U+FFFD. Like the regular expression, surrogates are not
+     * allowed, as java.util.regex matches supplementary characters as a whole and not as surrogate pair.
+     *
+     * @param txt The text to check.
+     * @return True if the text only contains allowed characters, false otherwise.
+     */
+    public static boolean isValidText(String txt) {
+        for (int i = 0; i < txt.length(); i++) {
+            char c = txt.charAt(i);
+            if (c < 0x20) {
+                if ((c != '\t') && (c != '\n') && (c != '\r')) {
+                    return false;
+                }
+            }
+            else if (((c > 0xD7FF) && (c < 0xE000)) || (c > 0xFFFD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Checks whether the given string is a valid language tag according to BCP 47.
+     *
+     * @param language The language tag to check.
+     * @return True if the language tag is valid, false otherwise.
+     */
+    public static boolean isValidLanguage(String language) {
+        if (GRANDFATHERED_TAGS.contains(language)) {
+            return true;
+        }
+        int length = language.length();
+        int end = subtagEnd(language, 0);
+        if ((end == 1) && isPrivateUseSingleton(language.charAt(0))) {
+            return isPrivateUse(language, end);
+        }
+        if ((end < 2) || (end > 8) || !isAlpha(language, 0, end)) {
+            return false;
+        }
+        // position of the separator in front of the next subtag, or the length of the tag
+        int pos = end;
+        if (end <= 3) {
+            int count = 0;
+            while ((count < EXTLANG_COUNT) && (pos < length)) {
+                end = subtagEnd(language, pos + 1);
+                if ((end - pos - 1 != 3) || !isAlpha(language, pos + 1, end)) {
+                    break;
+                }
+                count++;
+                pos = end;
+            }
+            if ((count > 0) && (count < EXTLANG_COUNT)) {
+                return false;
+            }
+        }
+        // script
+        if (pos < length) {
+            end = subtagEnd(language, pos + 1);
+            if ((end - pos - 1 == 4) && isAlpha(language, pos + 1, end)) {
+                pos = end;
+            }
+        }
+        // region
+        if (pos < length) {
+            end = subtagEnd(language, pos + 1);
+            int n = end - pos - 1;
+            if (((n == 2) && isAlpha(language, pos + 1, end)) || ((n == 3) && isDigit(language, pos + 1, end))) {
+                pos = end;
+            }
+        }
+        // variants
+        while (pos < length) {
+            end = subtagEnd(language, pos + 1);
+            int n = end - pos - 1;
+            if (!(((n >= 5) && (n <= 8)) || ((n == 4) && isDigit(language.charAt(pos + 1)))) || !isAlphaNumeric(language, pos + 1, end)) {
+                break;
+            }
+            pos = end;
+        }
+        // extensions
+        while (pos < length) {
+            end = subtagEnd(language, pos + 1);
+            if ((end - pos - 1 != 1) || !isAlphaNumeric(language.charAt(pos + 1)) || isPrivateUseSingleton(language.charAt(pos + 1))) {
+                break;
+            }
+            int count = 0;
+            pos = end;
+            while (pos < length) {
+                end = subtagEnd(language, pos + 1);
+                int n = end - pos - 1;
+                if ((n < 2) || (n > 8) || !isAlphaNumeric(language, pos + 1, end)) {
+                    break;
+                }
+                count++;
+                pos = end;
+            }
+            if (count == 0) {
+                return false;
+            }
+        }
+        // private use
+        if (pos < length) {
+            end = subtagEnd(language, pos + 1);
+            if ((end - pos - 1 != 1) || !isPrivateUseSingleton(language.charAt(pos + 1))) {
+                return false;
+            }
+            return isPrivateUse(language, end);
+        }
+        return true;
+    }
+
+
+    /**
+     * Checks the subtags of a private use sequence, starting at the separator after the singleton.
+     */
+    private static boolean isPrivateUse(String language, int pos) {
+        int length = language.length();
+        if (pos >= length) {
+            return false;
+        }
+        while (pos < length) {
+            int end = subtagEnd(language, pos + 1);
+            int n = end - pos - 1;
+            if ((n < 1) || (n > 8) || !isAlphaNumeric(language, pos + 1, end)) {
+                return false;
+            }
+            pos = end;
+        }
+        return true;
+    }
+
+
+    private static int subtagEnd(String language, int start) {
+        int end = language.indexOf(SUBTAG_SEPARATOR, start);
+        return end < 0 ? language.length() : end;
+    }
+
+
+    private static boolean isPrivateUseSingleton(char c) {
+        return (c == 'x') || (c == 'X');
+    }
+
+
+    private static boolean isAlpha(char c) {
+        return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z'));
+    }
+
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
+
+    private static boolean isAlphaNumeric(char c) {
+        return isAlpha(c) || isDigit(c);
+    }
+
+
+    private static boolean isAlpha(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isAlpha(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean isDigit(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean isAlphaNumeric(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isAlphaNumeric(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
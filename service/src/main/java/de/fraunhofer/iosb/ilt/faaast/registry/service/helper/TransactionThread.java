@@ -15,16 +15,36 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BulkValidationException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.jfr.BulkOperationEvent;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkHelper;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.logging.OperationDiagnostics;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkBaseData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkCreateShellData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkCreateSubmodelData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteShellData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteSubmodelData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpdateShellData;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpdateSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpsertShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpsertSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.ChangeEvent;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.ChangeFeedService;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.DiscoveryCache;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.service.TransactionService;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.tracing.TracingHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Objects;
+import java.util.function.Function;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
@@ -33,7 +53,7 @@ import org.slf4j.LoggerFactory;
 
 
 /**
- * Thread to handle transactions.
+ * Worker thread executing bulk operations taken from a {@link BulkJobQueue}.
  */
 public class TransactionThread extends Thread {
 
@@ -41,13 +61,26 @@ public class TransactionThread extends Thread {
 
     private final AasRepository aasRepository;
     private final TransactionService transactionService;
-    private final LinkedBlockingQueue<Object> queue;
-    private boolean ende = false;
-
-    public TransactionThread(AasRepository aasRepository, TransactionService transactionService) {
+    private final ChangeFeedService changeFeed;
+    private final DiscoveryCache discoveryCache;
+    private final boolean validate;
+    private final long commitDelay;
+    private final int chunkSize;
+    private final BulkJobQueue queue;
+    private final Tracer tracer;
+    private volatile boolean ende = false;
+
+    public TransactionThread(AasRepository aasRepository, TransactionService transactionService, ChangeFeedService changeFeed, DiscoveryCache discoveryCache,
+            boolean validate, long commitDelay, int chunkSize, BulkJobQueue queue, Tracer tracer) {
         this.aasRepository = aasRepository;
         this.transactionService = transactionService;
-        queue = new LinkedBlockingQueue<>();
+        this.changeFeed = changeFeed;
+        this.discoveryCache = discoveryCache;
+        this.validate = validate;
+        this.commitDelay = commitDelay;
+        this.chunkSize = chunkSize;
+        this.queue = queue;
+        this.tracer = tracer;
     }
 
 
@@ -55,37 +88,18 @@ public class TransactionThread extends Thread {
     public void run() {
         while (!ende) {
             try {
-                Object obj = queue.take();
-                while (aasRepository.getTransactionActive()) {
-                    LOGGER.debug("run: wait for transaction to finish");
-                    Thread.sleep(50);
-                }
-
-                if (obj instanceof BulkCreateShellData createData) {
-                    doCreateShells(createData.getShells(), createData.getHandleId());
-                }
-                else if (obj instanceof BulkUpdateShellData updateData) {
-                    doUpdateShells(updateData.getShells(), updateData.getHandleId());
-                }
-                else if (obj instanceof BulkDeleteShellData deleteData) {
-                    doDeleteShells(deleteData.getIdentifiers(), deleteData.getHandleId());
+                BulkBaseData obj = queue.take();
+                try {
+                    execute(obj);
                 }
-                else if (obj instanceof BulkCreateSubmodelData createSubmodelData) {
-                    doCreateSubmodels(createSubmodelData.getSubmodels(), createSubmodelData.getHandleId());
+                finally {
+                    queue.done(obj);
                 }
-                else if (obj instanceof BulkUpdateSubmodelData updateSubmodelData) {
-                    doUpdateSubmodels(updateSubmodelData.getSubmodels(), updateSubmodelData.getHandleId());
-                }
-                else if (obj instanceof BulkDeleteSubmodelData deleteSubmodelData) {
-                    doDeleteSubmodels(deleteSubmodelData.getIdentifiers(), deleteSubmodelData.getHandleId());
-                }
-
-                // Wait for half a second so it doesn't print too fast
-                Thread.sleep(500);
             }
             catch (InterruptedException e) {
-                LOGGER.warn("TransactionThread interrupted");
+                LOGGER.debug("TransactionThread interrupted");
                 Thread.currentThread().interrupt();
+                ende = true;
             }
         }
         LOGGER.trace("TransactionThread finished");
@@ -101,294 +115,309 @@ public class TransactionThread extends Thread {
     }
 
 
-    /**
-     * Adds a task to create a list of shell descriptors.
-     *
-     * @param shells The desired shell descriptors.
-     * @param handleId The handle.
-     */
-    public void createShells(List<AssetAdministrationShellDescriptor> shells, String handleId) {
-        queue.add(new BulkCreateShellData(shells, handleId));
-    }
-
-
-    /**
-     * Adds a task to update a list of shell descriptors.
-     *
-     * @param shells The desired shell descriptors.
-     * @param handleId The handle.
-     */
-    public void updateShells(List<AssetAdministrationShellDescriptor> shells, String handleId) {
-        queue.add(new BulkUpdateShellData(shells, handleId));
+    private void execute(BulkBaseData obj) {
+        // a repository supporting only one transaction at a time waits in startTransaction for running transactions
+        if (obj instanceof BulkCreateShellData createData) {
+            List<AssetAdministrationShellDescriptor> shells = createData.getShells();
+            execute(createData, "createShells", shells, AssetAdministrationShellDescriptor::getId, () -> ConstraintHelper.validate(shells),
+                    this::createShell);
+        }
+        else if (obj instanceof BulkUpdateShellData updateData) {
+            List<AssetAdministrationShellDescriptor> shells = updateData.getShells();
+            execute(updateData, "updateShells", shells, AssetAdministrationShellDescriptor::getId, () -> ConstraintHelper.validate(shells),
+                    this::updateShell);
+        }
+        else if (obj instanceof BulkUpsertShellData upsertData) {
+            List<AssetAdministrationShellDescriptor> shells = upsertData.getShells();
+            execute(upsertData, "upsertShells", shells, AssetAdministrationShellDescriptor::getId, () -> ConstraintHelper.validate(shells),
+                    this::upsertShell);
+        }
+        else if (obj instanceof BulkDeleteShellData deleteData) {
+            execute(deleteData, "deleteShells", deleteData.getIdentifiers(), Function.identity(), null, this::deleteShell);
+        }
+        else if (obj instanceof BulkCreateSubmodelData createSubmodelData) {
+            List<SubmodelDescriptor> submodels = createSubmodelData.getSubmodels();
+            execute(createSubmodelData, "createSubmodels", submodels, SubmodelDescriptor::getId, () -> ConstraintHelper.validateSubmodels(submodels),
+                    this::createSubmodel);
+        }
+        else if (obj instanceof BulkUpdateSubmodelData updateSubmodelData) {
+            List<SubmodelDescriptor> submodels = updateSubmodelData.getSubmodels();
+            execute(updateSubmodelData, "updateSubmodels", submodels, SubmodelDescriptor::getId, () -> ConstraintHelper.validateSubmodels(submodels),
+                    this::updateSubmodel);
+        }
+        else if (obj instanceof BulkUpsertSubmodelData upsertSubmodelData) {
+            List<SubmodelDescriptor> submodels = upsertSubmodelData.getSubmodels();
+            execute(upsertSubmodelData, "upsertSubmodels", submodels, SubmodelDescriptor::getId, () -> ConstraintHelper.validateSubmodels(submodels),
+                    this::upsertSubmodel);
+        }
+        else if (obj instanceof BulkDeleteSubmodelData deleteSubmodelData) {
+            execute(deleteSubmodelData, "deleteSubmodels", deleteSubmodelData.getIdentifiers(), Function.identity(), null, this::deleteSubmodel);
+        }
     }
 
 
     /**
-     * Adds a task to delete a list of shell descriptors.
-     *
-     * @param shellIdentifiers The desired list of shell identifiers.
-     * @param handleId The handle.
+     * Executes the operation in its own trace, as it runs after the request has finished. The span links the span of
+     * the request which started the operation.
      */
-    public void deleteShells(List<String> shellIdentifiers, String handleId) {
-        queue.add(new BulkDeleteShellData(shellIdentifiers, handleId));
+    private <T> void execute(BulkBaseData data, String operation, List<T> items, Function<T, String> idOf, Runnable validation, ItemAction<T> action) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name("bulk " + operation)
+                .setNoParent()
+                .tag(TracingHelper.TAG_HANDLE_ID, data.getHandleId())
+                .tag(TracingHelper.TAG_ITEMS, items != null ? items.size() : 0);
+        if (data.getOrigin() != null) {
+            builder.addLink(new Link(data.getOrigin()));
+        }
+        Span span = builder.start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            span.tag(TracingHelper.TAG_STATE, executeOperation(data, operation, items, idOf, validation, action).name());
+        }
+        finally {
+            span.end();
+        }
     }
 
 
-    /**
-     * Adds a task to create a list of Submodel Descriptors.
-     *
-     * @param submodels The desired submodel descriptors.
-     * @param handleId The handle.
-     */
-    public void createSubmodels(List<SubmodelDescriptor> submodels, String handleId) {
-        queue.add(new BulkCreateSubmodelData(submodels, handleId));
+    private <T> ExecutionState executeOperation(BulkBaseData data, String operation, List<T> items, Function<T, String> idOf, Runnable validation,
+            ItemAction<T> action) {
+        String handleId = data.getHandleId();
+        int size = items != null ? items.size() : 0;
+        long queueTime = System.nanoTime() - data.getCreatedAt();
+        if (validate && validation != null) {
+            BulkOperationEvent event = new BulkOperationEvent(handleId, operation, BulkOperationEvent.VALIDATION, size, queueTime);
+            event.begin();
+            boolean valid = isValid(handleId, validation);
+            event.setState(valid ? ExecutionState.RUNNING.name() : ExecutionState.FAILED.name());
+            event.commit();
+            if (!valid) {
+                return ExecutionState.FAILED;
+            }
+        }
+        BulkOperationEvent event = new BulkOperationEvent(handleId, operation, BulkOperationEvent.EXECUTION, size, queueTime);
+        event.begin();
+        ExecutionState state = ExecutionState.FAILED;
+        try {
+            LOGGER.debug("{} start", operation);
+            transactionService.updateState(handleId, ExecutionState.RUNNING);
+            String error = chunkSize > 0
+                    ? executeChunked(handleId, items, idOf, action)
+                    : executeTransaction(items, action);
+            if (error == null) {
+                state = ExecutionState.COMPLETED;
+                transactionService.updateState(handleId, state);
+            }
+            else {
+                transactionService.updateState(handleId, state, error);
+            }
+            LOGGER.debug("{} finished", operation);
+        }
+        catch (InterruptedException ex) {
+            transactionService.updateState(handleId, state, ex.getMessage());
+            LOGGER.info("{} interrupted", operation);
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception ex) {
+            transactionService.updateState(handleId, state, ex.getMessage());
+            LOGGER.info("{} error starting transaction: {}", operation, ex.getMessage(), ex);
+        }
+        finally {
+            event.setState(state.name());
+            event.commit();
+        }
+        return state;
     }
 
 
     /**
-     * Adds a task to update a list of Submodel Descriptors.
+     * Executes the items in chunks of chunkSize items, each in its own transaction. When a chunk fails, its items are
+     * executed one by one to determine the items which failed.
      *
-     * @param submodels The desired submodel descriptors.
-     * @param handleId The handle.
+     * @return The error message if items failed, null otherwise.
      */
-    public void updateSubmodels(List<SubmodelDescriptor> submodels, String handleId) {
-        queue.add(new BulkUpdateSubmodelData(submodels, handleId));
+    private <T> String executeChunked(String handleId, List<T> items, Function<T, String> idOf, ItemAction<T> action) throws InterruptedException {
+        BulkOperationProgress progress = new BulkOperationProgress(items.size());
+        transactionService.updateProgress(handleId, progress);
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<T> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+            if (executeTransaction(chunk, action) == null) {
+                progress.addSucceeded(chunk.size());
+            }
+            else {
+                for (int i = 0; i < chunk.size(); i++) {
+                    T item = chunk.get(i);
+                    String error = executeTransaction(Collections.singletonList(item), action);
+                    if (error == null) {
+                        progress.addSucceeded(1);
+                    }
+                    else {
+                        progress.addFailure(start + i, item != null ? idOf.apply(item) : null, error);
+                    }
+                }
+            }
+            transactionService.updateProgress(handleId, progress);
+        }
+        return progress.getFailed() == 0
+                ? null
+                : String.format("%d of %d items failed", progress.getFailed(), progress.getTotal());
     }
 
 
     /**
-     * Adds a task to delete a list of Submodel Descriptors.
+     * Executes the items in one transaction.
      *
-     * @param submodelIdentifiers The desired submodel identifiers.
-     * @param handleId The handle.
+     * @return The error message if the transaction was rolled back, null otherwise.
      */
-    public void deleteSubmodels(List<String> submodelIdentifiers, String handleId) {
-        queue.add(new BulkDeleteSubmodelData(submodelIdentifiers, handleId));
-    }
-
-
-    private void doCreateShells(List<AssetAdministrationShellDescriptor> shells, String handleId) {
+    private <T> String executeTransaction(List<T> items, ItemAction<T> action) throws InterruptedException {
+        // the diagnostics of slow repository calls are collected per transaction
+        OperationDiagnostics.start();
         try {
-            LOGGER.info("createShells start");
-            doCreateShellsIntern(handleId, shells);
+            return doExecuteTransaction(items, action);
         }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("createShells error starting transaction: {}", ex.getMessage(), ex);
+        finally {
+            OperationDiagnostics.stop();
         }
     }
 
 
-    private void doCreateShellsIntern(String handleId, List<AssetAdministrationShellDescriptor> shells) {
+    private <T> String doExecuteTransaction(List<T> items, ItemAction<T> action) throws InterruptedException {
         // don't call rollbackTransaction when startTransaction fails
         int transactionNr = aasRepository.startTransaction();
+        long start = System.nanoTime();
+        List<ChangeEvent> events = new ArrayList<>();
+        List<AssetLink> assetLinks = new ArrayList<>();
         try {
-            LOGGER.info("createShells execute");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (AssetAdministrationShellDescriptor shell: shells) {
-                aasRepository.create(shell);
+            for (T item: items) {
+                action.execute(item, events, assetLinks);
             }
-            Thread.sleep(5000);
-            doCommit(transactionNr, handleId);
-            LOGGER.info("createShells finished");
+            delayCommit();
+            // the datastore may only detect violations, e.g. of constraints, when writing the changes on commit
+            aasRepository.commitTransaction(transactionNr);
         }
         catch (InterruptedException ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("createShells interrupted");
-            Thread.currentThread().interrupt();
+            doRollback(transactionNr, assetLinks, start);
+            throw ex;
         }
         catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("createShells error");
+            doRollback(transactionNr, assetLinks, start);
+            LOGGER.debug("transaction rolled back: {}", ex.getMessage());
+            return Objects.requireNonNullElse(ex.getMessage(), ex.getClass().getSimpleName());
         }
+        transactionService.recordTransaction(System.nanoTime() - start, true);
+        discoveryCache.invalidate(assetLinks);
+        changeFeed.publish(events);
+        return null;
     }
 
 
-    private void doUpdateShells(List<AssetAdministrationShellDescriptor> shells, String handleId) {
-
-        try {
-            doUpdateShellsIntern(handleId, shells);
-        }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("updateShells error starting transaction: {}", ex.getMessage(), ex);
-        }
+    private void createShell(AssetAdministrationShellDescriptor shell, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        aasRepository.create(shell);
+        assetLinks.addAll(AssetLinkHelper.of(shell));
+        events.add(ChangeEvent.shell(ChangeEvent.Type.CREATED, shell.getId()));
     }
 
 
-    private void doUpdateShellsIntern(String handleId, List<AssetAdministrationShellDescriptor> shells) {
-        // don't call rollbackTransaction when startTransaction fails
-        int transactionNr = aasRepository.startTransaction();
-        try {
-            LOGGER.debug("updateShells start");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (AssetAdministrationShellDescriptor shell: shells) {
-                Ensure.requireNonNull(shell);
-                aasRepository.update(shell.getId(), shell);
-            }
-            doCommit(transactionNr, handleId);
-            LOGGER.debug("updateShells finished");
-        }
-        catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("updateShells error", ex);
-        }
+    private void updateShell(AssetAdministrationShellDescriptor shell, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        Ensure.requireNonNull(shell);
+        assetLinks.addAll(getAssetLinks(shell.getId()));
+        assetLinks.addAll(AssetLinkHelper.of(shell));
+        aasRepository.update(shell.getId(), shell);
+        events.add(ChangeEvent.shell(ChangeEvent.Type.UPDATED, shell.getId()));
     }
 
 
-    private void doDeleteShells(List<String> shellIdentifiers, String handleId) {
-
-        try {
-            doDeleteShellsIntern(handleId, shellIdentifiers);
-        }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("deleteShells error starting transaction: {}", ex.getMessage(), ex);
+    private void upsertShell(AssetAdministrationShellDescriptor shell, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        Ensure.requireNonNull(shell);
+        if (discoveryCache.isEnabled()) {
+            aasRepository.getAASsByIds(List.of(shell.getId())).forEach(x -> assetLinks.addAll(AssetLinkHelper.of(x)));
         }
+        assetLinks.addAll(AssetLinkHelper.of(shell));
+        // upserted descriptors are published as updated, so the repository is not queried whether they existed
+        aasRepository.upsert(shell);
+        events.add(ChangeEvent.shell(ChangeEvent.Type.UPDATED, shell.getId()));
     }
 
 
-    private void doDeleteShellsIntern(String handleId, List<String> shellIdentifiers) {
-        // don't call rollbackTransaction when startTransaction fails
-        int transactionNr = aasRepository.startTransaction();
-        try {
-            LOGGER.debug("deleteShells start");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (String shell: shellIdentifiers) {
-                Ensure.requireNonNull(shell);
-                aasRepository.deleteAAS(shell);
-            }
-            doCommit(transactionNr, handleId);
-            LOGGER.debug("deleteShells finished");
-        }
-        catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("deleteShells error", ex);
-        }
+    private void deleteShell(String shellId, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        Ensure.requireNonNull(shellId);
+        assetLinks.addAll(getAssetLinks(shellId));
+        aasRepository.deleteAAS(shellId);
+        events.add(ChangeEvent.shell(ChangeEvent.Type.DELETED, shellId));
     }
 
 
-    private void doCreateSubmodels(List<SubmodelDescriptor> submodels, String handleId) {
-        try {
-            LOGGER.info("doCreateSubmodels start");
-            doCreateSubmodelsIntern(handleId, submodels);
-        }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("doCreateSubmodels error starting transaction: {}", ex.getMessage(), ex);
-        }
+    private void createSubmodel(SubmodelDescriptor submodel, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        aasRepository.addSubmodel(submodel);
+        events.add(ChangeEvent.submodel(ChangeEvent.Type.CREATED, null, submodel.getId()));
     }
 
 
-    private void doCreateSubmodelsIntern(String handleId, List<SubmodelDescriptor> submodels) {
-        // don't call rollbackTransaction when startTransaction fails
-        int transactionNr = aasRepository.startTransaction();
-        try {
-            LOGGER.info("doCreateSubmodels execute");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (SubmodelDescriptor submodel: submodels) {
-                aasRepository.addSubmodel(submodel);
-            }
-            Thread.sleep(5000);
-            doCommit(transactionNr, handleId);
-            LOGGER.info("doCreateSubmodels finished");
-        }
-        catch (InterruptedException ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            Thread.currentThread().interrupt();
-            LOGGER.info("doCreateSubmodels interrupted");
-        }
-        catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("doCreateSubmodels error");
-        }
+    private void updateSubmodel(SubmodelDescriptor submodel, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        aasRepository.updateSubmodel(submodel.getId(), submodel);
+        events.add(ChangeEvent.submodel(ChangeEvent.Type.UPDATED, null, submodel.getId()));
     }
 
 
-    private void doUpdateSubmodels(List<SubmodelDescriptor> submodels, String handleId) {
-        try {
-            LOGGER.info("doUpdateSubmodels start");
-            doUpdateSubmodelsIntern(handleId, submodels);
-        }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("doUpdateSubmodels error starting transaction: {}", ex.getMessage(), ex);
-        }
+    private void upsertSubmodel(SubmodelDescriptor submodel, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        aasRepository.upsertSubmodel(submodel);
+        events.add(ChangeEvent.submodel(ChangeEvent.Type.UPDATED, null, submodel.getId()));
     }
 
 
-    private void doUpdateSubmodelsIntern(String handleId, List<SubmodelDescriptor> submodels) {
-        // don't call rollbackTransaction when startTransaction fails
-        int transactionNr = aasRepository.startTransaction();
-        try {
-            LOGGER.info("doUpdateSubmodels execute");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (SubmodelDescriptor submodel: submodels) {
-                aasRepository.deleteSubmodel(submodel.getId());
-                aasRepository.addSubmodel(submodel);
-            }
-            Thread.sleep(5000);
-            doCommit(transactionNr, handleId);
-            LOGGER.info("doUpdateSubmodels finished");
-        }
-        catch (InterruptedException ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("doUpdateSubmodels interrupted");
-            Thread.currentThread().interrupt();
-        }
-        catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("doUpdateSubmodels error");
-        }
+    private void deleteSubmodel(String submodelId, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception {
+        aasRepository.deleteSubmodel(submodelId);
+        events.add(ChangeEvent.submodel(ChangeEvent.Type.DELETED, null, submodelId));
     }
 
 
-    private void doDeleteSubmodels(List<String> submodelIdentifiers, String handleId) {
-        try {
-            LOGGER.info("doDeleteSubmodels start");
-            doDeleteSubmodelsIntern(handleId, submodelIdentifiers);
-        }
-        catch (Exception ex) {
-            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
-            LOGGER.info("doDeleteSubmodels error starting transaction: {}", ex.getMessage(), ex);
+    /**
+     * Delays the commit of a bulk operation by the configured time. Only intended for tests, which need to observe a
+     * running bulk operation.
+     */
+    private void delayCommit() throws InterruptedException {
+        if (commitDelay > 0) {
+            Thread.sleep(commitDelay);
         }
     }
 
 
-    private void doDeleteSubmodelsIntern(String handleId, List<String> submodelIdentifiers) {
-        // don't call rollbackTransaction when startTransaction fails
-        int transactionNr = aasRepository.startTransaction();
+    /**
+     * Runs the given validation and fails the bulk operation if descriptors are invalid.
+     *
+     * @return False if the validation failed, true otherwise.
+     */
+    private boolean isValid(String handleId, Runnable validation) {
         try {
-            LOGGER.info("doDeleteSubmodels execute");
-            transactionService.updateState(handleId, ExecutionState.RUNNING);
-            for (String submodel: submodelIdentifiers) {
-                aasRepository.deleteSubmodel(submodel);
-            }
-            Thread.sleep(5000);
-            doCommit(transactionNr, handleId);
-            LOGGER.info("doDeleteSubmodels finished");
+            validation.run();
         }
-        catch (InterruptedException ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("doDeleteSubmodels interrupted");
-            Thread.currentThread().interrupt();
-        }
-        catch (Exception ex) {
-            doRollback(handleId, transactionNr, ex.getMessage());
-            LOGGER.info("doDeleteSubmodels error");
+        catch (BulkValidationException ex) {
+            transactionService.updateState(handleId, ExecutionState.FAILED, ex.getMessage());
+            LOGGER.debug("validation failed: {}", ex.getMessage());
+            return false;
         }
+        return true;
     }
 
 
-    private void doRollback(String handleId, int transactionNr, String msg) {
-        transactionService.updateState(handleId, ExecutionState.FAILED, msg);
+    private void doRollback(int transactionNr, List<AssetLink> assetLinks, long start) {
         aasRepository.rollbackTransaction(transactionNr);
+        transactionService.recordTransaction(System.nanoTime() - start, false);
+        // results cached during the transaction may contain changes that were rolled back
+        discoveryCache.invalidate(assetLinks);
     }
 
 
-    private void doCommit(int transactionNr, String handleId) {
-        aasRepository.commitTransaction(transactionNr);
-        transactionService.updateState(handleId, ExecutionState.COMPLETED);
+    private List<AssetLink> getAssetLinks(String aasId) throws ResourceNotFoundException {
+        return discoveryCache.isEnabled() ? AssetLinkHelper.of(aasRepository.getAAS(aasId)) : List.of();
     }
 
+
+    /**
+     * Executes a single item of a bulk operation, collecting the resulting change events and the asset links to
+     * invalidate.
+     */
+    @FunctionalInterface
+    private interface ItemAction<T> {
+        void execute(T item, List<ChangeEvent> events, List<AssetLink> assetLinks) throws Exception;
+    }
 }
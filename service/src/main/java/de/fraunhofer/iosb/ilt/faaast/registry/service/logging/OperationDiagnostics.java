@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.logging;
+
+/**
+ * Collects the work done by the current thread for the current request or bulk transaction, i.e. the calls to the
+ * persistence and the executed JDBC statements. The counters are only updated by the thread they belong to. Outside of
+ * {@link #start()} and {@link #stop()}, the work is not collected.
+ */
+public class OperationDiagnostics {
+
+    private static final ThreadLocal<OperationDiagnostics> CURRENT = new ThreadLocal<>();
+
+    private int repositoryCalls;
+    private long repositoryNanos;
+    private int statements;
+    private long statementNanos;
+    private int resultSize = -1;
+
+    /**
+     * Returns the diagnostics of the current thread. If the thread does not collect diagnostics, a new instance is
+     * returned which is not kept, so long-running threads do not accumulate counters.
+     *
+     * @return The diagnostics of the current thread.
+     */
+    public static OperationDiagnostics current() {
+        OperationDiagnostics result = CURRENT.get();
+        return result != null ? result : new OperationDiagnostics();
+    }
+
+
+    /**
+     * Starts collecting the diagnostics of a new request or bulk transaction in the current thread.
+     *
+     * @return The new diagnostics.
+     */
+    public static OperationDiagnostics start() {
+        OperationDiagnostics result = new OperationDiagnostics();
+        CURRENT.set(result);
+        return result;
+    }
+
+
+    /**
+     * Stops collecting the diagnostics in the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+
+    /**
+     * Adds an executed JDBC statement.
+     *
+     * @param nanos The execution time in nanoseconds.
+     */
+    public void addStatement(long nanos) {
+        statements++;
+        statementNanos += nanos;
+    }
+
+
+    /**
+     * Adds a call to the persistence.
+     *
+     * @param nanos The duration of the call in nanoseconds.
+     * @param size The number of returned elements.
+     */
+    public void addRepositoryCall(long nanos, int size) {
+        repositoryCalls++;
+        repositoryNanos += nanos;
+        resultSize = size;
+    }
+
+
+    public int getRepositoryCalls() {
+        return repositoryCalls;
+    }
+
+
+    public long getRepositoryNanos() {
+        return repositoryNanos;
+    }
+
+
+    public int getStatements() {
+        return statements;
+    }
+
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+
+    /**
+     * Returns the number of elements returned by the last call to the persistence.
+     *
+     * @return The number of returned elements, -1 if the persistence was not called.
+     */
+    public int getResultSize() {
+        return resultSize;
+    }
+}
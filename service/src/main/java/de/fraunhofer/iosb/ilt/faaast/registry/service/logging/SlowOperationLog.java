@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+
+/**
+ * Logs requests and calls to the persistence exceeding a configurable duration as JSON objects, independent of the
+ * configured log level of the FA³ST packages. The entries are logged with level WARN, so they are also logged when
+ * debug logging is disabled.
+ */
+@Component
+public class SlowOperationLog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowOperationLog.class);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final long requestThreshold;
+    private final long repositoryThreshold;
+
+    /**
+     * Creates the slow operation log.
+     *
+     * @param requestThreshold The duration in milliseconds from which requests are logged, negative to log no
+     *            requests.
+     * @param repositoryThreshold The duration in milliseconds from which calls to the persistence are logged, negative
+     *            to log no calls.
+     */
+    public SlowOperationLog(@Value("${slowLog.requestThreshold:1000}") long requestThreshold, @Value("${slowLog.repositoryThreshold:500}") long repositoryThreshold) {
+        this.requestThreshold = requestThreshold < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(requestThreshold);
+        this.repositoryThreshold = repositoryThreshold < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(repositoryThreshold);
+    }
+
+
+    /**
+     * Checks whether a request with the given duration is logged.
+     *
+     * @param nanos The duration of the request in nanoseconds.
+     * @return True if the request is logged, false otherwise.
+     */
+    public boolean isSlowRequest(long nanos) {
+        return requestThreshold >= 0 && nanos >= requestThreshold;
+    }
+
+
+    /**
+     * Checks whether a call to the persistence with the given duration is logged.
+     *
+     * @param nanos The duration of the call in nanoseconds.
+     * @return True if the call is logged, false otherwise.
+     */
+    public boolean isSlowRepositoryCall(long nanos) {
+        return repositoryThreshold >= 0 && nanos >= repositoryThreshold;
+    }
+
+
+    /**
+     * Logs a slow request.
+     *
+     * @param endpoint The HTTP method and the path pattern of the endpoint.
+     * @param ids The decoded identifiers of the path.
+     * @param paging The paging parameters.
+     * @param status The HTTP status of the response.
+     * @param nanos The duration of the request in nanoseconds.
+     * @param diagnostics The work done for the request.
+     */
+    public void logRequest(String endpoint, Map<String, String> ids, Map<String, String> paging, int status, long nanos, OperationDiagnostics diagnostics) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("type", "request");
+        entry.put("endpoint", endpoint);
+        entry.put("ids", ids);
+        entry.put("paging", paging);
+        entry.put("status", status);
+        if (diagnostics.getResultSize() >= 0) {
+            entry.put("resultSize", diagnostics.getResultSize());
+        }
+        entry.put("repositoryCalls", diagnostics.getRepositoryCalls());
+        entry.put("statements", diagnostics.getStatements());
+        Map<String, Object> time = new LinkedHashMap<>();
+        time.put("totalMs", millis(nanos));
+        time.put("repositoryMs", millis(diagnostics.getRepositoryNanos()));
+        time.put("statementsMs", millis(diagnostics.getStatementNanos()));
+        // parsing, validation and serialization
+        time.put("otherMs", millis(nanos - diagnostics.getRepositoryNanos()));
+        entry.put("time", time);
+        log(entry);
+    }
+
+
+    /**
+     * Logs a slow call to the persistence.
+     *
+     * @param operation The called method.
+     * @param backend The persistence backend.
+     * @param ids The identifiers passed to the method, may be null.
+     * @param resultSize The number of returned elements.
+     * @param statements The number of JDBC statements executed by the call.
+     * @param statementNanos The execution time of the JDBC statements in nanoseconds.
+     * @param nanos The duration of the call in nanoseconds.
+     * @param exception The simple name of the thrown exception, null if the call succeeded.
+     */
+    public void logRepositoryCall(String operation, String backend, String ids, int resultSize, int statements, long statementNanos, long nanos,
+                                  String exception) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("type", "repository");
+        entry.put("operation", operation);
+        entry.put("backend", backend);
+        entry.put("ids", ids);
+        entry.put("resultSize", resultSize);
+        entry.put("statements", statements);
+        if (exception != null) {
+            entry.put("exception", exception);
+        }
+        Map<String, Object> time = new LinkedHashMap<>();
+        time.put("totalMs", millis(nanos));
+        time.put("statementsMs", millis(statementNanos));
+        entry.put("time", time);
+        log(entry);
+    }
+
+
+    private void log(Map<String, Object> entry) {
+        LOGGER.warn("{}", mapper.writeValueAsString(entry));
+    }
+
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.logging;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+
+/**
+ * Measures every request and passes the slow ones to the {@link SlowOperationLog}, together with the work done for
+ * the request.
+ */
+@Component
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private static final List<String> ENCODED_IDS = List.of("aasIdentifier", "submodelIdentifier");
+    private static final List<String> PAGING_PARAMETERS = List.of("limit", "cursor");
+
+    private final SlowOperationLog slowOperationLog;
+
+    public SlowRequestFilter(SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        OperationDiagnostics diagnostics = OperationDiagnostics.start();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        }
+        finally {
+            long duration = System.nanoTime() - start;
+            OperationDiagnostics.stop();
+            if (slowOperationLog.isSlowRequest(duration)) {
+                slowOperationLog.logRequest(endpointOf(request), idsOf(request), pagingOf(request), response.getStatus(), duration, diagnostics);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the HTTP method and the path pattern, e.g. GET /shell-descriptors/{aasIdentifier}, so entries of the same
+     * endpoint can be grouped.
+     */
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+
+    /**
+     * Returns the variables of the path, the identifiers of descriptors are decoded.
+     */
+    private static Map<String, String> idsOf(HttpServletRequest request) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables) {
+            variables.forEach((name, value) -> result.put(String.valueOf(name),
+                    ENCODED_IDS.contains(name) ? decode(String.valueOf(value)) : String.valueOf(value)));
+        }
+        return result;
+    }
+
+
+    private static Map<String, String> pagingOf(HttpServletRequest request) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String parameter: PAGING_PARAMETERS) {
+            String value = request.getParameter(parameter);
+            if (value != null) {
+                result.put(parameter, value);
+            }
+        }
+        return result;
+    }
+
+
+    private static String decode(String value) {
+        try {
+            return EncodingHelper.base64UrlDecode(value);
+        }
+        catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.metrics;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.memory.AasRepositoryMemory;
+import de.fraunhofer.iosb.ilt.faaast.registry.memory.HeapFootprint;
+import de.fraunhofer.iosb.ilt.faaast.registry.memory.HeapFootprintAnalyzer;
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.core.InfrastructureProxy;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Actuator endpoint reporting the heap footprint of the descriptors stored in the In-Memory Persistence, e.g.
+ * /actuator/heapfootprint?xmx=4g. Not found with the Database Persistence. Only available if JOL is on the classpath,
+ * i.e. when built with the profile heapfootprint, and not exposed by default.
+ */
+@Component
+@ConditionalOnClass(name = "org.openjdk.jol.info.GraphLayout")
+@Endpoint(id = "heapfootprint")
+public class HeapFootprintEndpoint {
+
+    private final AasRepository repository;
+
+    public HeapFootprintEndpoint(AasRepository repository) {
+        this.repository = repository;
+    }
+
+
+    /**
+     * Analyzes the stored descriptors.
+     *
+     * @param xmx The maximum heap size used for the projection, e.g. 4g, by default the maximum heap size of the
+     *            registry.
+     * @param sampleSize The maximum number of analyzed descriptors per descriptor type, at most
+     *            {@link HeapFootprintAnalyzer#MAX_SAMPLE_SIZE}.
+     * @param baseline The heap used independent of the stored descriptors, e.g. 128m.
+     * @param occupancy The share of the maximum heap which may be used.
+     * @return The footprint of the stored descriptors, null with the Database Persistence.
+     */
+    @ReadOperation
+    public HeapFootprint heapFootprint(@Nullable String xmx, @Nullable Integer sampleSize, @Nullable String baseline, @Nullable Double occupancy) {
+        Object target = repository instanceof InfrastructureProxy proxy ? proxy.getWrappedObject() : repository;
+        if (!(target instanceof AasRepositoryMemory memory)) {
+            return null;
+        }
+        try {
+            return new HeapFootprintAnalyzer(memory).analyze(
+                    // the analysis blocks the request thread and walks the object graph of every sampled descriptor
+                    Math.min(Objects.requireNonNullElse(sampleSize, HeapFootprintAnalyzer.DEFAULT_SAMPLE_SIZE), HeapFootprintAnalyzer.MAX_SAMPLE_SIZE),
+                    xmx != null ? HeapFootprintAnalyzer.parseSize(xmx) : Runtime.getRuntime().maxMemory(),
+                    baseline != null ? HeapFootprintAnalyzer.parseSize(baseline) : HeapFootprintAnalyzer.DEFAULT_BASELINE_BYTES,
+                    Objects.requireNonNullElse(occupancy, HeapFootprintAnalyzer.DEFAULT_OCCUPANCY));
+        }
+        catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.metrics;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.BulkOperationStatusStore;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.DiscoveryCache;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.TransactionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Registers the gauges of the registry and defines the names of all registry specific meters. The gauges are read on
+ * every scrape, so with a relational database each scrape executes the count queries of the repository and the status
+ * store.
+ */
+@Component
+public class RegistryMetrics implements MeterBinder {
+
+    public static final String PREFIX = "faaast.registry.";
+    public static final String REPOSITORY = PREFIX + "repository";
+    public static final String TRANSACTION = PREFIX + "transaction";
+    public static final String BULK_OPERATIONS = PREFIX + "bulk.operations";
+    public static final String BULK_QUEUE_DEPTH = PREFIX + "bulk.queue.depth";
+    public static final String BULK_IN_FLIGHT = PREFIX + "bulk.in.flight";
+    public static final String BULK_STATUS_STORE_SIZE = PREFIX + "bulk.status.store.size";
+    public static final String SHELLS = PREFIX + "shells";
+    public static final String SUBMODELS = PREFIX + "submodels";
+    public static final String DISCOVERY_CACHE_GETS = PREFIX + "discovery.cache.gets";
+    public static final String DISCOVERY_CACHE_EVICTIONS = PREFIX + "discovery.cache.evictions";
+    public static final String DISCOVERY_CACHE_INVALIDATIONS = PREFIX + "discovery.cache.invalidations";
+    public static final String DISCOVERY_CACHE_SIZE = PREFIX + "discovery.cache.size";
+
+    public static final String TAG_METHOD = "method";
+    public static final String TAG_BACKEND = "backend";
+    public static final String TAG_EXCEPTION = "exception";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_STATE = "state";
+    public static final String TAG_RESULT = "result";
+    public static final String NONE = "none";
+
+    private final AasRepository aasRepository;
+    private final BulkOperationStatusStore statusStore;
+    private final TransactionService transactionService;
+    private final DiscoveryCache discoveryCache;
+
+    public RegistryMetrics(AasRepository aasRepository, BulkOperationStatusStore statusStore, TransactionService transactionService, DiscoveryCache discoveryCache) {
+        this.aasRepository = aasRepository;
+        this.statusStore = statusStore;
+        this.transactionService = transactionService;
+        this.discoveryCache = discoveryCache;
+    }
+
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(BULK_QUEUE_DEPTH, transactionService, TransactionService::getQueueDepth)
+                .description("Number of bulk operations waiting for a worker")
+                .register(registry);
+        Gauge.builder(BULK_IN_FLIGHT, transactionService, TransactionService::getInFlight)
+                .description("Number of bulk operations currently executed")
+                .register(registry);
+        Gauge.builder(BULK_STATUS_STORE_SIZE, statusStore, BulkOperationStatusStore::size)
+                .description("Number of entries in the bulk operation status store")
+                .register(registry);
+        Gauge.builder(SHELLS, aasRepository, AasRepository::getAASCount)
+                .description("Number of registered Asset Administration Shell Descriptors")
+                .register(registry);
+        Gauge.builder(SUBMODELS, aasRepository, AasRepository::getSubmodelCount)
+                .description("Number of registered standalone Submodel Descriptors")
+                .register(registry);
+        FunctionCounter.builder(DISCOVERY_CACHE_GETS, discoveryCache, DiscoveryCache::getHitCount)
+                .description("Number of discovery queries, answered from the cache or not")
+                .tag(TAG_RESULT, "hit")
+                .register(registry);
+        FunctionCounter.builder(DISCOVERY_CACHE_GETS, discoveryCache, DiscoveryCache::getMissCount)
+                .description("Number of discovery queries, answered from the cache or not")
+                .tag(TAG_RESULT, "miss")
+                .register(registry);
+        FunctionCounter.builder(DISCOVERY_CACHE_EVICTIONS, discoveryCache, DiscoveryCache::getEvictionCount)
+                .description("Number of cached discovery results removed because they expired or the cache was full")
+                .register(registry);
+        FunctionCounter.builder(DISCOVERY_CACHE_INVALIDATIONS, discoveryCache, DiscoveryCache::getInvalidationCount)
+                .description("Number of cached discovery results removed because of a modification")
+                .register(registry);
+        Gauge.builder(DISCOVERY_CACHE_SIZE, discoveryCache, DiscoveryCache::getSize)
+                .description("Number of cached discovery results")
+                .register(registry);
+    }
+}
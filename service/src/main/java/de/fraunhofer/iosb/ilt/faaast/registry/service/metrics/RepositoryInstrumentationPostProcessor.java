@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.metrics;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.jfr.RepositoryOperationEvent;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.logging.OperationDiagnostics;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.logging.SlowOperationLog;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.tracing.TracingHelper;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.InfrastructureProxy;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Wraps the {@link AasRepository} bean in a proxy recording every method call as timer, as span and as JDK Flight
+ * Recorder event, and logging slow calls, so both backends are measured the same way without changing the
+ * implementations. The meter registry, the tracer and the slow operation log are resolved lazily, as the repository is
+ * created before the metrics infrastructure. The proxy implements {@link InfrastructureProxy} to give access to the
+ * wrapped repository.
+ */
+@Component
+public class RepositoryInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private static final String CLASS_PREFIX = "AasRepository";
+    private static final int MAX_IDS = 10;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<Tracer> tracer;
+    private final ObjectProvider<SlowOperationLog> slowOperationLog;
+
+    public RepositoryInstrumentationPostProcessor(ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<Tracer> tracer,
+            ObjectProvider<SlowOperationLog> slowOperationLog) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.slowOperationLog = slowOperationLog;
+    }
+
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof AasRepository repository)) {
+            return bean;
+        }
+        String backend = backendOf(AopUtils.getTargetClass(bean));
+        return Proxy.newProxyInstance(AasRepository.class.getClassLoader(), new Class<?>[] {
+                AasRepository.class,
+                InfrastructureProxy.class
+        }, new InstrumentationHandler(repository, backend));
+    }
+
+
+    /**
+     * Derives the backend name from the class name of the repository, e.g. memory for AasRepositoryMemory.
+     */
+    private static String backendOf(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.startsWith(CLASS_PREFIX) && name.length() > CLASS_PREFIX.length()) {
+            name = name.substring(CLASS_PREFIX.length());
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+
+    /**
+     * Lists the identifiers passed to a repository method, including the identifiers of passed descriptors, at most
+     * MAX_IDS of a collection.
+     */
+    private static String idsOf(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (Object arg: args) {
+            if (arg instanceof String id) {
+                ids.add(id);
+            }
+            else if (arg instanceof AssetAdministrationShellDescriptor shell) {
+                ids.add(shell.getId());
+            }
+            else if (arg instanceof SubmodelDescriptor submodel) {
+                ids.add(submodel.getId());
+            }
+            else if (arg instanceof Collection<?> collection && !collection.isEmpty() && collection.iterator().next() instanceof String) {
+                collection.stream().limit(MAX_IDS).forEach(x -> ids.add(String.valueOf(x)));
+                if (collection.size() > MAX_IDS) {
+                    ids.add(String.format("... (%d in total)", collection.size()));
+                }
+            }
+        }
+        return ids.isEmpty() ? null : String.join(", ", ids);
+    }
+
+
+    private static int sizeOf(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getContent() != null ? page.getContent().size() : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return result != null ? 1 : 0;
+    }
+
+
+    private class InstrumentationHandler implements InvocationHandler {
+
+        private final AasRepository target;
+        private final String backend;
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        InstrumentationHandler(AasRepository target, String backend) {
+            this.target = target;
+            this.backend = backend;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == InfrastructureProxy.class) {
+                return target;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+            RepositoryOperationEvent event = new RepositoryOperationEvent();
+            event.begin();
+            Tracer currentTracer = TracingHelper.tracer(tracer);
+            Span span = currentTracer.nextSpan().name(CLASS_PREFIX + "." + method.getName()).start();
+            OperationDiagnostics diagnostics = OperationDiagnostics.current();
+            int statements = diagnostics.getStatements();
+            long statementNanos = diagnostics.getStatementNanos();
+            long start = System.nanoTime();
+            Object result = null;
+            String exception = RegistryMetrics.NONE;
+            try (Tracer.SpanInScope scope = currentTracer.withSpan(span)) {
+                result = invokeTarget(method, args);
+                return result;
+            }
+            catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                span.error(e);
+                throw e;
+            }
+            finally {
+                long duration = System.nanoTime() - start;
+                event.end();
+                int resultSize = sizeOf(result);
+                diagnostics.addRepositoryCall(duration, resultSize);
+                SlowOperationLog slowLog = slowOperationLog.getIfAvailable();
+                boolean slow = slowLog != null && slowLog.isSlowRepositoryCall(duration);
+                // the fields of the event are only computed if the event is enabled and exceeds the threshold
+                boolean commitEvent = event.shouldCommit();
+                String ids = slow || commitEvent || !span.isNoop() ? idsOf(args) : null;
+                if (slow) {
+                    slowLog.logRepositoryCall(method.getName(), backend, ids, resultSize, diagnostics.getStatements() - statements,
+                            diagnostics.getStatementNanos() - statementNanos, duration, RegistryMetrics.NONE.equals(exception) ? null : exception);
+                }
+                if (!span.isNoop()) {
+                    span.tag(TracingHelper.TAG_BACKEND, backend);
+                    if (ids != null) {
+                        span.tag(TracingHelper.TAG_IDS, ids);
+                    }
+                    span.tag(TracingHelper.TAG_RESULT_SIZE, resultSize);
+                }
+                span.end();
+                Timer timer = timerOf(method, exception);
+                if (timer != null) {
+                    timer.record(duration, TimeUnit.NANOSECONDS);
+                }
+                if (commitEvent) {
+                    event.setOperation(method.getName());
+                    event.setBackend(backend);
+                    event.setIds(ids);
+                    event.setResultSize(resultSize);
+                    event.setException(RegistryMetrics.NONE.equals(exception) ? null : exception);
+                    event.commit();
+                }
+            }
+        }
+
+
+        /**
+         * Returns the timer of the method. The timers of successful calls are cached per method, so they are not looked
+         * up in the registry on every call; failed calls are rare, so their timers are looked up by exception.
+         */
+        private Timer timerOf(Method method, String exception) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return null;
+            }
+            if (RegistryMetrics.NONE.equals(exception)) {
+                return timers.computeIfAbsent(method, x -> buildTimer(registry, method, exception));
+            }
+            return buildTimer(registry, method, exception);
+        }
+
+
+        private Timer buildTimer(MeterRegistry registry, Method method, String exception) {
+            return Timer.builder(RegistryMetrics.REPOSITORY)
+                    .description("Duration of the calls to the AAS repository")
+                    .tag(RegistryMetrics.TAG_METHOD, method.getName())
+                    .tag(RegistryMetrics.TAG_BACKEND, backend)
+                    .tag(RegistryMetrics.TAG_EXCEPTION, exception)
+                    .register(registry);
+        }
+
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Result of a batch read operation, containing the descriptors found and the IDs that were not found.
+ *
+ * @param <T> The type of the descriptors.
+ */
+public class BatchGetResult<T> {
+
+    private List<T> result;
+    private List<String> notFound;
+
+    public BatchGetResult() {
+        this(new ArrayList<>(), new ArrayList<>());
+    }
+
+
+    public BatchGetResult(List<T> result, List<String> notFound) {
+        this.result = result;
+        this.notFound = notFound;
+    }
+
+
+    public List<T> getResult() {
+        return result;
+    }
+
+
+    public void setResult(List<T> result) {
+        this.result = result;
+    }
+
+
+    public List<String> getNotFound() {
+        return notFound;
+    }
+
+
+    public void setNotFound(List<String> notFound) {
+        this.notFound = notFound;
+    }
+}
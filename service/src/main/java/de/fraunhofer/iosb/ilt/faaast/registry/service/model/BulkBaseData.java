@@ -14,15 +14,28 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
 
+import io.micrometer.tracing.TraceContext;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+
 /**
  * Base data class for bulk operations.
  */
-public class BulkBaseData {
+public abstract class BulkBaseData {
+
+    protected static final String SHELL_KEY_PREFIX = "shell:";
+    protected static final String SUBMODEL_KEY_PREFIX = "submodel:";
 
     private final String handleId;
+    private final long createdAt;
+    private TraceContext origin;
 
     public BulkBaseData(String handleId) {
         this.handleId = handleId;
+        this.createdAt = System.nanoTime();
     }
 
 
@@ -30,4 +43,55 @@ public class BulkBaseData {
         return handleId;
     }
 
+
+    /**
+     * Returns the time the operation was created, as returned by {@link System#nanoTime()}.
+     *
+     * @return The creation time in nanoseconds.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+
+    /**
+     * Returns the trace context of the request which started the operation, if the request was traced.
+     *
+     * @return The trace context of the request, or null.
+     */
+    public TraceContext getOrigin() {
+        return origin;
+    }
+
+
+    public void setOrigin(TraceContext origin) {
+        this.origin = origin;
+    }
+
+
+    /**
+     * Returns the keys of the descriptors affected by the operation. Operations with overlapping keys must not run
+     * concurrently.
+     *
+     * @return The keys of the affected descriptors.
+     */
+    public abstract Set<String> getAffectedKeys();
+
+
+    /**
+     * Creates the keys for the given descriptor identifiers.
+     *
+     * @param prefix The prefix of the descriptor type.
+     * @param identifiers The identifiers of the descriptors.
+     * @return The keys of the descriptors.
+     */
+    protected static Set<String> toKeys(String prefix, List<String> identifiers) {
+        if (identifiers == null) {
+            return Set.of();
+        }
+        return identifiers.stream()
+                .filter(Objects::nonNull)
+                .map(x -> prefix + x)
+                .collect(Collectors.toSet());
+    }
 }
@@ -15,6 +15,7 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
 
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -26,4 +27,9 @@ public class BulkDeleteShellData extends BulkStringData {
         super(shellIdentifiers, handleId);
     }
 
+
+    @Override
+    public Set<String> getAffectedKeys() {
+        return toKeys(SHELL_KEY_PREFIX, getIdentifiers());
+    }
 }
@@ -15,6 +15,7 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
 
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -26,4 +27,9 @@ public class BulkDeleteSubmodelData extends BulkStringData {
         super(submodelIdentifiers, handleId);
     }
 
+
+    @Override
+    public Set<String> getAffectedKeys() {
+        return toKeys(SUBMODEL_KEY_PREFIX, getIdentifiers());
+    }
 }
@@ -15,6 +15,8 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 
 
@@ -34,4 +36,16 @@ public class BulkShellData extends BulkBaseData {
     public List<AssetAdministrationShellDescriptor> getShells() {
         return shells;
     }
+
+
+    @Override
+    public Set<String> getAffectedKeys() {
+        if (shells == null) {
+            return Set.of();
+        }
+        return toKeys(SHELL_KEY_PREFIX, shells.stream()
+                .filter(Objects::nonNull)
+                .map(AssetAdministrationShellDescriptor::getId)
+                .toList());
+    }
 }
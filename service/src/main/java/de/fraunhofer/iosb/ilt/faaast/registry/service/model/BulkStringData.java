@@ -20,7 +20,7 @@ import java.util.List;
 /**
  * Data for ID bulk operations.
  */
-public class BulkStringData extends BulkBaseData {
+public abstract class BulkStringData extends BulkBaseData {
 
     private final List<String> identifiers;
 
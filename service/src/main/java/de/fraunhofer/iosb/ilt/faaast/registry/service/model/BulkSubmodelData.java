@@ -15,6 +15,8 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 
 
@@ -34,4 +36,16 @@ public class BulkSubmodelData extends BulkBaseData {
     public List<SubmodelDescriptor> getSubmodels() {
         return submodels;
     }
+
+
+    @Override
+    public Set<String> getAffectedKeys() {
+        if (submodels == null) {
+            return Set.of();
+        }
+        return toKeys(SUBMODEL_KEY_PREFIX, submodels.stream()
+                .filter(Objects::nonNull)
+                .map(SubmodelDescriptor::getId)
+                .toList());
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.model;
+
+import java.time.Instant;
+
+
+/**
+ * A change of a descriptor in the registry, as published in the change feed.
+ */
+public class ChangeEvent {
+
+    /**
+     * The type of the change.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * The type of the changed resource.
+     */
+    public enum Resource {
+        SHELL,
+        SUBMODEL
+    }
+
+    private long sequence;
+    private Type type;
+    private Resource resource;
+    private String id;
+    private String aasId;
+    private Instant timestamp;
+
+    public ChangeEvent() {}
+
+
+    public ChangeEvent(Type type, Resource resource, String id, String aasId) {
+        this.type = type;
+        this.resource = resource;
+        this.id = id;
+        this.aasId = aasId;
+        this.timestamp = Instant.now();
+    }
+
+
+    /**
+     * Creates a new event for a change of an Asset Administration Shell.
+     *
+     * @param type The type of the change.
+     * @param aasId The ID of the Asset Administration Shell.
+     * @return The event.
+     */
+    public static ChangeEvent shell(Type type, String aasId) {
+        return new ChangeEvent(type, Resource.SHELL, aasId, null);
+    }
+
+
+    /**
+     * Creates a new event for a change of a Submodel.
+     *
+     * @param type The type of the change.
+     * @param aasId The ID of the Asset Administration Shell containing the Submodel, null for a standalone Submodel.
+     * @param submodelId The ID of the Submodel.
+     * @return The event.
+     */
+    public static ChangeEvent submodel(Type type, String aasId, String submodelId) {
+        return new ChangeEvent(type, Resource.SUBMODEL, submodelId, aasId);
+    }
+
+
+    public long getSequence() {
+        return sequence;
+    }
+
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+
+    public Type getType() {
+        return type;
+    }
+
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+
+    public Resource getResource() {
+        return resource;
+    }
+
+
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+
+    public String getId() {
+        return id;
+    }
+
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+
+    public String getAasId() {
+        return aasId;
+    }
+
+
+    public void setAasId(String aasId) {
+        this.aasId = aasId;
+    }
+
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
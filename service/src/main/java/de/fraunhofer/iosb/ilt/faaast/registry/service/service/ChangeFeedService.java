@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.service;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+/**
+ * Service for the change feed. Assigns monotonic sequence numbers to the changes of the descriptors and pushes them to
+ * the subscribers as server-sent events. The most recent events are kept in a buffer, so subscribers can resume after
+ * a reconnect without missing events.
+ * Every subscriber has its own bounded queue of pending events, sent in the order of their sequence numbers by a task
+ * of its own, so a slow subscriber neither blocks the thread modifying the registry nor the other subscribers. A
+ * subscriber whose queue overflows is disconnected and resumes from the buffer when it reconnects.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String CHANGE_EVENT_NAME = "change";
+    public static final String RESET_EVENT_NAME = "reset";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final int bufferSize;
+    private final int queueSize;
+    private final long timeout;
+    private final Deque<ChangeEvent> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence = 0;
+
+    /**
+     * Instantiates the change feed service.
+     *
+     * @param bufferSize The number of recent events kept for resuming subscribers.
+     * @param queueSize The maximum number of events pending for a subscriber, before it is disconnected.
+     * @param timeout The timeout of a subscription in milliseconds, after which the subscriber has to reconnect, 0 for
+     *            no timeout.
+     */
+    @Autowired
+    public ChangeFeedService(@Value("${events.bufferSize:10000}") int bufferSize,
+            @Value("${events.queueSize:1000}") int queueSize,
+            @Value("${events.timeout:1800000}") long timeout) {
+        this.bufferSize = bufferSize;
+        this.queueSize = queueSize;
+        this.timeout = timeout;
+    }
+
+
+    /**
+     * Publishes the given events. Must be called after the changes were committed.
+     *
+     * @param events The events to publish.
+     */
+    public void publish(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        synchronized (buffer) {
+            for (ChangeEvent event: events) {
+                event.setSequence(++sequence);
+                buffer.addLast(event);
+                if (buffer.size() > bufferSize) {
+                    buffer.removeFirst();
+                }
+            }
+            for (Subscriber subscriber: subscribers) {
+                subscriber.enqueue(events);
+            }
+        }
+    }
+
+
+    /**
+     * Publishes the given event. Must be called after the change was committed.
+     *
+     * @param event The event to publish.
+     */
+    public void publish(ChangeEvent event) {
+        publish(List.of(event));
+    }
+
+
+    /**
+     * Returns the sequence number of the latest event.
+     *
+     * @return The sequence number of the latest event, 0 if there is none.
+     */
+    public long getLatestSequence() {
+        synchronized (buffer) {
+            return sequence;
+        }
+    }
+
+
+    /**
+     * Subscribes to the change feed. If a sequence number is given, all buffered events after this sequence number are
+     * sent first. If events after the given sequence number are no longer available, e.g. because the buffer overflowed
+     * or the server was restarted, a reset event is sent instead, telling the subscriber to reload the registry.
+     *
+     * @param since The sequence number of the last event received by the subscriber, null to receive only new events.
+     * @return The emitter for the events.
+     */
+    public SseEmitter subscribe(Long since) {
+        return subscribe(new SseEmitter(timeout), since);
+    }
+
+
+    /**
+     * Subscribes the given emitter to the change feed.
+     *
+     * @param emitter The emitter for the events.
+     * @param since The sequence number of the last event received by the subscriber, null to receive only new events.
+     * @return The emitter for the events.
+     */
+    SseEmitter subscribe(SseEmitter emitter, Long since) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(x -> subscriber.close());
+        synchronized (buffer) {
+            // send a comment first, so the response is committed and the client knows it is connected
+            subscriber.enqueueInitial(SseEmitter.event().comment("subscribed"));
+            if (since != null) {
+                long latest = sequence;
+                if ((since > latest) || ((since < latest) && (buffer.isEmpty() || (buffer.getFirst().getSequence() > since + 1)))) {
+                    subscriber.enqueueInitial(SseEmitter.event()
+                            .id(Long.toString(latest))
+                            .name(RESET_EVENT_NAME)
+                            .data(""));
+                }
+                else {
+                    buffer.stream()
+                            .filter(x -> x.getSequence() > since)
+                            .forEach(x -> subscriber.enqueueInitial(toEvent(x)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+
+    /**
+     * Completes all subscriptions when the application shuts down. This must happen before the web server stops, as
+     * open subscriptions would otherwise delay the graceful shutdown.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        subscribers.forEach(x -> x.emitter.complete());
+        subscribers.clear();
+    }
+
+
+    /**
+     * Completes all subscriptions and stops the senders.
+     */
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        subscribers.forEach(x -> x.emitter.complete());
+        subscribers.clear();
+    }
+
+
+    private static SseEmitter.SseEventBuilder toEvent(ChangeEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.getSequence()))
+                .name(CHANGE_EVENT_NAME)
+                .data(event);
+    }
+
+    /**
+     * A subscriber of the change feed with its pending events. At most one task sends the events of a subscriber at a
+     * time, so they are sent in order. The events sent when subscribing, e.g. the replayed events, are sent first and
+     * do not count towards the size of the queue.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> initial = new ArrayDeque<>();
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+
+        private synchronized void enqueueInitial(SseEmitter.SseEventBuilder event) {
+            initial.addLast(event);
+            startSending();
+        }
+
+
+        private synchronized void enqueue(List<ChangeEvent> events) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() + events.size() > queueSize) {
+                // the subscriber fell behind, it resumes from the buffer or gets a reset when it reconnects
+                LOGGER.debug("change feed subscriber fell behind by more than {} events, disconnecting it", queueSize);
+                close();
+                // the emitter is completed by the sending task, as completing it may wait for a running send
+                startSending();
+                return;
+            }
+            events.forEach(x -> pending.addLast(toEvent(x)));
+            startSending();
+        }
+
+
+        private void startSending() {
+            // no more events are sent once the service was closed
+            if (!sending && !senders.isShutdown()) {
+                sending = true;
+                senders.execute(this::send);
+            }
+        }
+
+
+        private synchronized void close() {
+            closed = true;
+            initial.clear();
+            pending.clear();
+            subscribers.remove(this);
+        }
+
+
+        private void send() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    if (closed) {
+                        sending = false;
+                        break;
+                    }
+                    event = !initial.isEmpty() ? initial.pollFirst() : pending.pollFirst();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                }
+                catch (IOException | IllegalStateException e) {
+                    LOGGER.debug("change feed subscriber disconnected: {}", e.getMessage());
+                    synchronized (this) {
+                        sending = false;
+                        close();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            emitter.complete();
+        }
+    }
+}
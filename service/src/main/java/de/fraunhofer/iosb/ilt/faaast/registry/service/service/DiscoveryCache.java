@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.service;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import de.fraunhofer.iosb.ilt.faaast.service.util.FaaastConstants;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * Cache for the results of the discovery by asset links. The cache is bounded in size (least recently used entries
+ * are evicted first) and every entry expires after a configurable time.
+ * Entries are indexed by the asset links of their query. When an AAS descriptor is modified, only the entries whose
+ * query contains one of the asset links of the descriptor (before or after the modification) are invalidated, as the
+ * result of every other query cannot have changed.
+ */
+@Service
+public class DiscoveryCache {
+
+    private static final Link ANY = new Link(null, null);
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Link, Set<Key>> index = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation = 0;
+
+    /**
+     * Instantiates the discovery cache.
+     *
+     * @param maxSize The maximum number of cached results, 0 disables the cache.
+     * @param timeToLive The time in milliseconds after which a cached result expires.
+     */
+    @Autowired
+    public DiscoveryCache(@Value("${discovery.cache.maxSize:10000}") int maxSize, @Value("${discovery.cache.timeToLive:60000}") long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive * 1_000_000;
+    }
+
+
+    /**
+     * Returns a value indicating whether the cache is enabled.
+     *
+     * @return True if the cache is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+
+    /**
+     * Returns the cached result of the given query. If there is none, the result is loaded and cached.
+     *
+     * @param assetLinks The asset links of the query.
+     * @param paging The paging information of the query.
+     * @param loader Loads the result if it is not cached.
+     * @return The result of the query.
+     */
+    public Page<String> get(List<AssetLink> assetLinks, PagingInfo paging, Supplier<Page<String>> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        Key key = Key.of(assetLinks, paging);
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.created < timeToLive) {
+                    hits.incrementAndGet();
+                    return entry.result;
+                }
+                remove(key);
+                evictions.incrementAndGet();
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        Page<String> result = loader.get();
+        synchronized (this) {
+            // a modification while loading may have made the result outdated
+            if (loadGeneration == generation) {
+                put(key, result);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Invalidates all cached results which may be affected by a modification of an AAS descriptor with the given asset
+     * links. Must be called with the asset links before and after the modification.
+     *
+     * @param assetLinks The asset links of the modified AAS descriptors.
+     */
+    public void invalidate(Collection<AssetLink> assetLinks) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            invalidate(ANY);
+            assetLinks.stream()
+                    .filter(Objects::nonNull)
+                    .map(Link::of)
+                    .distinct()
+                    .forEach(this::invalidate);
+        }
+    }
+
+
+    /**
+     * Removes all cached results.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        index.clear();
+    }
+
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+
+    /**
+     * Returns the ratio of the queries answered from the cache.
+     *
+     * @return The hit ratio, 0 if there was no query yet.
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+
+    /**
+     * Returns the number of results removed because they expired or the cache was full.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+
+    /**
+     * Returns the number of results removed because of a modification.
+     *
+     * @return The number of invalidations.
+     */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+
+    private void invalidate(Link link) {
+        Set<Key> keys = index.remove(link);
+        if (keys != null) {
+            for (Key key: keys) {
+                if (remove(key)) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+
+    private void put(Key key, Page<String> result) {
+        if (entries.put(key, new Entry(result, System.nanoTime())) == null) {
+            key.indexLinks().forEach(x -> index.computeIfAbsent(x, k -> new HashSet<>()).add(key));
+        }
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize) {
+            Key evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted);
+            evictions.incrementAndGet();
+        }
+    }
+
+
+    private boolean remove(Key key) {
+        if (entries.remove(key) == null) {
+            return false;
+        }
+        unindex(key);
+        return true;
+    }
+
+
+    private void unindex(Key key) {
+        for (Link link: key.indexLinks()) {
+            Set<Key> keys = index.get(link);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    index.remove(link);
+                }
+            }
+        }
+    }
+
+    private record Entry(Page<String> result, long created) {}
+
+    private record Link(String name, String value) {
+
+        static Link of(AssetLink assetLink) {
+            // the globalAssetId is matched case-insensitive
+            String name = FaaastConstants.KEY_GLOBAL_ASSET_ID.equalsIgnoreCase(assetLink.getName())
+                    ? FaaastConstants.KEY_GLOBAL_ASSET_ID
+                    : assetLink.getName();
+            return new Link(name, assetLink.getValue());
+        }
+    }
+
+    private record Key(List<Link> links, long limit, String cursor) {
+
+        static Key of(List<AssetLink> assetLinks, PagingInfo paging) {
+            // duplicates are kept, as they change the result
+            List<Link> links = assetLinks.stream()
+                    .map(Link::of)
+                    .sorted(Comparator.comparing(Link::name, Comparator.nullsFirst(Comparator.naturalOrder()))
+                            .thenComparing(Link::value, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .toList();
+            return new Key(links, paging.hasLimit() ? paging.getLimit() : -1, paging.getCursor());
+        }
+
+
+        List<Link> indexLinks() {
+            return links.isEmpty() ? List.of(ANY) : links;
+        }
+    }
+}
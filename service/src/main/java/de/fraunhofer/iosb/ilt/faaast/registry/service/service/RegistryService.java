@@ -17,12 +17,23 @@ package de.fraunhofer.iosb.ilt.faaast.registry.service.service;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.*;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.model.AssetLink;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorProjection;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.util.AssetLinkHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.ConstraintHelper;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BatchGetResult;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.ChangeEvent;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetKind;
 import org.eclipse.digitaltwin.aas4j.v3.model.OperationResult;
@@ -31,6 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 /**
@@ -43,14 +55,19 @@ public class RegistryService {
     public static final String AAS_NOT_NULL_TXT = "aas must be non-null";
     public static final String SPECIFIC_ASSET_IDS_NOT_NULL_TXT = "specificAssetIds must be non-null";
     public static final String SUBMODEL_NOT_NULL_TXT = "submodel must be non-null";
+    public static final String IDS_NOT_NULL_TXT = "ids must be non-null";
 
     private final AasRepository aasRepository;
     private final TransactionService transactionService;
+    private final ChangeFeedService changeFeed;
+    private final DiscoveryCache discoveryCache;
 
     @Autowired
-    public RegistryService(AasRepository aasRepository, TransactionService transactionService) {
+    public RegistryService(AasRepository aasRepository, TransactionService transactionService, ChangeFeedService changeFeed, DiscoveryCache discoveryCache) {
         this.aasRepository = aasRepository;
         this.transactionService = transactionService;
+        this.changeFeed = changeFeed;
+        this.discoveryCache = discoveryCache;
     }
 
 
@@ -63,6 +80,20 @@ public class RegistryService {
      * @return The list of all registered Asset Administration Shells.
      */
     public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging) {
+        return getAASs(assetType, assetKind, paging, DescriptorProjection.ALL);
+    }
+
+
+    /**
+     * Retrieves a list of all registered Asset Administration Shells, containing only the requested properties.
+     *
+     * @param assetType The desired Asset Type.
+     * @param assetKind The desired Asset Kind.
+     * @param paging The paging information.
+     * @param projection The desired properties.
+     * @return The list of all registered Asset Administration Shells.
+     */
+    public Page<AssetAdministrationShellDescriptor> getAASs(String assetType, AssetKind assetKind, PagingInfo paging, DescriptorProjection projection) {
         // Asset type is Base64URL encoded
         String assetTypeDecoded = EncodingHelper.base64UrlDecode(assetType);
         if ((assetTypeDecoded != null) && (assetTypeDecoded.length() > ConstraintHelper.MAX_IDENTIFIER_LENGTH)) {
@@ -74,7 +105,7 @@ public class RegistryService {
         if (assetKind != null) {
             LOGGER.debug("getAASs: AssetKind {}", assetKind);
         }
-        return aasRepository.getAASs(assetTypeDecoded, assetKind, paging);
+        return aasRepository.getAASs(assetTypeDecoded, assetKind, paging, projection);
     }
 
 
@@ -90,6 +121,18 @@ public class RegistryService {
     }
 
 
+    /**
+     * Retrieves all Asset Administration Shells with the given IDs with a single repository call.
+     *
+     * @param aasIds The IDs of the desired Asset Administration Shells (not encoded).
+     * @return The Asset Administration Shells found and the IDs that were not found.
+     */
+    public BatchGetResult<AssetAdministrationShellDescriptor> getAASsByIds(List<String> aasIds) {
+        ensureIds(aasIds);
+        return toBatchGetResult(aasIds, aasRepository.getAASsByIds(aasIds), AssetAdministrationShellDescriptor::getId);
+    }
+
+
     /**
      * Retrieves the Asset Administration Shell IDs with the given AssetLink.
      *
@@ -100,7 +143,23 @@ public class RegistryService {
     public Page<String> getAASIdsByAssetLink(List<AssetLink> assetLinks, PagingInfo paging) {
         Ensure.requireNonNull(assetLinks, SPECIFIC_ASSET_IDS_NOT_NULL_TXT);
 
-        return aasRepository.getAASIdentifiersByAssetLink(assetLinks, paging);
+        return discoveryCache.get(assetLinks, paging, () -> aasRepository.getAASIdentifiersByAssetLink(new ArrayList<>(assetLinks), paging));
+    }
+
+
+    /**
+     * Retrieves the Asset Administration Shell IDs for many independent AssetLink queries with a single repository
+     * call.
+     *
+     * @param assetLinkQueries The queries, each query is a list of AssetLinks which must all match.
+     * @return The desired Asset Administration Shell IDs for each query, in the order of the queries.
+     */
+    public List<List<String>> getAASIdsByAssetLinks(List<List<AssetLink>> assetLinkQueries) {
+        if ((assetLinkQueries == null)
+                || assetLinkQueries.stream().anyMatch(x -> (x == null) || x.isEmpty() || x.contains(null))) {
+            throw new BadRequestException("each query must contain at least one asset link");
+        }
+        return aasRepository.getAASIdentifiersByAssetLinks(assetLinkQueries);
     }
 
 
@@ -121,6 +180,8 @@ public class RegistryService {
         try {
             AssetAdministrationShellDescriptor retval = aasRepository.create(aas);
             aasRepository.commitTransaction(nr);
+            discoveryCache.invalidate(AssetLinkHelper.of(aas));
+            changeFeed.publish(ChangeEvent.shell(ChangeEvent.Type.CREATED, retval.getId()));
             return retval;
         }
         catch (Exception ex) {
@@ -139,10 +200,13 @@ public class RegistryService {
     public void deleteAAS(String id) throws ResourceNotFoundException {
         String idDecoded = EncodingHelper.base64UrlDecode(id);
         LOGGER.debug("deleteAAS: AAS {}", idDecoded);
+        List<AssetLink> assetLinks = getAssetLinks(idDecoded);
         int nr = aasRepository.startTransaction();
         try {
             aasRepository.deleteAAS(idDecoded);
             aasRepository.commitTransaction(nr);
+            discoveryCache.invalidate(assetLinks);
+            changeFeed.publish(ChangeEvent.shell(ChangeEvent.Type.DELETED, idDecoded));
         }
         catch (Exception ex) {
             aasRepository.rollbackTransaction(nr);
@@ -165,10 +229,14 @@ public class RegistryService {
         LOGGER.debug("updateAAS: {}", idDecoded);
         checkShellIdentifiers(aas);
         aas.getSubmodelDescriptors().stream().forEach(this::checkSubmodelIdentifiers);
+        List<AssetLink> assetLinks = getAssetLinks(idDecoded);
+        assetLinks.addAll(AssetLinkHelper.of(aas));
         int nr = aasRepository.startTransaction();
         try {
             AssetAdministrationShellDescriptor retval = aasRepository.update(idDecoded, aas);
             aasRepository.commitTransaction(nr);
+            discoveryCache.invalidate(assetLinks);
+            changeFeed.publish(ChangeEvent.shell(ChangeEvent.Type.UPDATED, retval.getId()));
             return retval;
         }
         catch (Exception ex) {
@@ -199,18 +267,45 @@ public class RegistryService {
      * @throws ResourceNotFoundException When the AAS was not found.
      */
     public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging) throws ResourceNotFoundException {
+        return getSubmodels(aasId, paging, DescriptorProjection.ALL);
+    }
+
+
+    /**
+     * Retrieves a list of all Submodels of the given Asset Administration Shell, containing only the requested
+     * properties.
+     *
+     * @param aasId The ID of the desired Asset Administration Shell, null for the standalone Submodels.
+     * @param paging The paging information.
+     * @param projection The desired properties.
+     * @return The list of Submodels.
+     * @throws ResourceNotFoundException When the AAS was not found.
+     */
+    public Page<SubmodelDescriptor> getSubmodels(String aasId, PagingInfo paging, DescriptorProjection projection) throws ResourceNotFoundException {
         Page<SubmodelDescriptor> retval;
         if (aasId == null) {
-            retval = aasRepository.getSubmodels(paging);
+            retval = aasRepository.getSubmodels(paging, projection);
         }
         else {
             String aasIdDecoded = EncodingHelper.base64UrlDecode(aasId);
-            retval = aasRepository.getSubmodels(aasIdDecoded, paging);
+            retval = aasRepository.getSubmodels(aasIdDecoded, paging, projection);
         }
         return retval;
     }
 
 
+    /**
+     * Retrieves all standalone Submodels with the given IDs with a single repository call.
+     *
+     * @param submodelIds The IDs of the desired Submodels (not encoded).
+     * @return The Submodels found and the IDs that were not found.
+     */
+    public BatchGetResult<SubmodelDescriptor> getSubmodelsByIds(List<String> submodelIds) {
+        ensureIds(submodelIds);
+        return toBatchGetResult(submodelIds, aasRepository.getSubmodelsByIds(submodelIds), SubmodelDescriptor::getId);
+    }
+
+
     /**
      * Retrieves the Submodel with given Submodel ID.
      *
@@ -270,16 +365,18 @@ public class RegistryService {
         int nr = aasRepository.startTransaction();
         try {
             SubmodelDescriptor retval;
+            String aasIdDecoded = null;
             if (aasId == null) {
                 LOGGER.debug("createSubmodel: Submodel {}", submodel.getId());
                 retval = aasRepository.addSubmodel(submodel);
             }
             else {
-                String aasIdDecoded = EncodingHelper.base64UrlDecode(aasId);
+                aasIdDecoded = EncodingHelper.base64UrlDecode(aasId);
                 LOGGER.debug("createSubmodel: AAS '{}'; Submodel {}", aasIdDecoded, submodel.getId());
                 retval = aasRepository.addSubmodel(aasIdDecoded, submodel);
             }
             aasRepository.commitTransaction(nr);
+            changeFeed.publish(ChangeEvent.submodel(ChangeEvent.Type.CREATED, aasIdDecoded, retval.getId()));
             return retval;
         }
         catch (Exception ex) {
@@ -311,16 +408,18 @@ public class RegistryService {
         String submodelIdDecoded = EncodingHelper.base64UrlDecode(submodelId);
         int nr = aasRepository.startTransaction();
         try {
+            String aasIdDecoded = null;
             if (aasId == null) {
                 LOGGER.debug("deleteSubmodel: Submodel {}", submodelIdDecoded);
                 aasRepository.deleteSubmodel(submodelIdDecoded);
             }
             else {
-                String aasIdDecoded = EncodingHelper.base64UrlDecode(aasId);
+                aasIdDecoded = EncodingHelper.base64UrlDecode(aasId);
                 LOGGER.debug("deleteSubmodel: AAS '{}'; Submodel {}", aasIdDecoded, submodelIdDecoded);
                 aasRepository.deleteSubmodel(aasIdDecoded, submodelIdDecoded);
             }
             aasRepository.commitTransaction(nr);
+            changeFeed.publish(ChangeEvent.submodel(ChangeEvent.Type.DELETED, aasIdDecoded, submodelIdDecoded));
         }
         catch (Exception ex) {
             aasRepository.rollbackTransaction(nr);
@@ -343,17 +442,9 @@ public class RegistryService {
         String submodelIdDecoded = EncodingHelper.base64UrlDecode(submodelId);
         checkSubmodelIdentifiers(submodel);
         LOGGER.debug("updateSubmodel: Submodel {}", submodelIdDecoded);
-        int nr = aasRepository.startTransaction();
-        try {
-            aasRepository.deleteSubmodel(submodelIdDecoded);
-            SubmodelDescriptor retval = aasRepository.addSubmodel(submodel);
-            aasRepository.commitTransaction(nr);
-            return retval;
-        }
-        catch (Exception ex) {
-            aasRepository.rollbackTransaction(nr);
-            throw ex;
-        }
+        SubmodelDescriptor retval = aasRepository.updateSubmodel(submodelIdDecoded, submodel);
+        changeFeed.publish(ChangeEvent.submodel(ChangeEvent.Type.UPDATED, null, retval.getId()));
+        return retval;
     }
 
 
@@ -373,8 +464,31 @@ public class RegistryService {
         String submodelIdDecoded = EncodingHelper.base64UrlDecode(submodelId);
         checkSubmodelIdentifiers(submodel);
         LOGGER.debug("updateSubmodel: AAS '{}'; Submodel {}", aasIdDecoded, submodelIdDecoded);
-        aasRepository.deleteSubmodel(aasIdDecoded, submodelIdDecoded);
-        return aasRepository.addSubmodel(aasIdDecoded, submodel);
+        SubmodelDescriptor retval = aasRepository.updateSubmodel(aasIdDecoded, submodelIdDecoded, submodel);
+        changeFeed.publish(ChangeEvent.submodel(ChangeEvent.Type.UPDATED, aasIdDecoded, retval.getId()));
+        return retval;
+    }
+
+
+    /**
+     * Retrieves the descriptors changed after the given revision.
+     *
+     * @param since The revision after which the changes are requested, null for all changes.
+     * @param paging The desired Paging info.
+     * @return The changes for the desired page, ordered by revision.
+     */
+    public Page<DescriptorChange> getChanges(Long since, PagingInfo paging) {
+        return aasRepository.getChanges(since != null ? since : 0, paging);
+    }
+
+
+    /**
+     * Retrieves the current revision of the registry.
+     *
+     * @return The current revision.
+     */
+    public long getRevision() {
+        return aasRepository.getRevision();
     }
 
 
@@ -391,7 +505,6 @@ public class RegistryService {
      */
     public String bulkCreateSubmodels(List<SubmodelDescriptor> submodels)
             throws BadRequestException, UnauthorizedException, ForbiddenException, InternalServerErrorException, InterruptedException {
-        ConstraintHelper.validateSubmodels(submodels);
         return transactionService.createSubmodels(submodels);
     }
 
@@ -409,11 +522,23 @@ public class RegistryService {
      */
     public String bulkUpdateSubmodels(List<SubmodelDescriptor> submodels)
             throws BadRequestException, UnauthorizedException, ForbiddenException, InternalServerErrorException, InterruptedException {
-        ConstraintHelper.validateSubmodels(submodels);
         return transactionService.updateSubmodels(submodels);
     }
 
 
+    /**
+     * Bulk operation for creating or replacing multiple submodel descriptors.
+     *
+     * @param submodels The desired Submodels.
+     * @return The transaction handle.
+     * @throws BadRequestException an error occurs.
+     * @throws InterruptedException The operation was interrupted.
+     */
+    public String bulkUpsertSubmodels(List<SubmodelDescriptor> submodels) throws BadRequestException, InterruptedException {
+        return transactionService.upsertSubmodels(submodels);
+    }
+
+
     /**
      * Bulk operation for deleting multiple submodel descriptors with the given IDs.
      *
@@ -447,8 +572,6 @@ public class RegistryService {
     //@Transactional
     public String bulkCreateShells(List<AssetAdministrationShellDescriptor> shells)
             throws BadRequestException, UnauthorizedException, ForbiddenException, InternalServerErrorException, ResourceAlreadyExistsException, InterruptedException {
-
-        ConstraintHelper.validate(shells);
         return transactionService.createShells(shells);
     }
 
@@ -467,11 +590,23 @@ public class RegistryService {
     //@Async
     public String bulkUpdateShells(List<AssetAdministrationShellDescriptor> shells)
             throws BadRequestException, UnauthorizedException, ForbiddenException, InternalServerErrorException, InterruptedException {
-        ConstraintHelper.validate(shells);
         return transactionService.updateShells(shells);
     }
 
 
+    /**
+     * Bulk operation for creating or replacing multiple aas descriptors.
+     *
+     * @param shells The desired aas.
+     * @return The transaction handle.
+     * @throws BadRequestException an error occurs.
+     * @throws InterruptedException The execution was interrupted.
+     */
+    public String bulkUpsertShells(List<AssetAdministrationShellDescriptor> shells) throws BadRequestException, InterruptedException {
+        return transactionService.upsertShells(shells);
+    }
+
+
     /**
      * Bulk operation for deleting multiple aas descriptors with the given IDs.
      *
@@ -508,10 +643,25 @@ public class RegistryService {
     }
 
 
+    /**
+     * Waits until an asynchronously invoked bulk operation is finished or the given time has elapsed.
+     *
+     * @param handleId the id for retrieving the bulk operation status.
+     * @param waitSeconds the maximum time to wait in seconds.
+     * @return The deferred operation result.
+     * @throws MovedPermanentlyException an error occurs.
+     * @throws ResourceNotFoundException an error occurs.
+     */
+    public DeferredResult<OperationResult> waitForBulkOperationStatus(String handleId, long waitSeconds) throws MovedPermanentlyException, ResourceNotFoundException {
+        return transactionService.waitForStatus(handleId, waitSeconds);
+    }
+
+
     /**
      * Returns the status of an asynchronously invoked bulk operation.
      *
      * @param handleId the id for retrieving the bulk operation result object.
+     * @return The progress with the per-item outcome if the operation is executed in chunks, null otherwise.
      * @throws BadRequestException an error occurs.
      * @throws MovedPermanentlyException an error occurs.
      * @throws UnauthorizedException an error occurs.
@@ -519,9 +669,9 @@ public class RegistryService {
      * @throws InternalServerErrorException an error occurs.
      * @throws ResourceNotFoundException an error occurs.
      */
-    public void getBulkOperationResult(String handleId)
+    public BulkOperationProgress getBulkOperationResult(String handleId)
             throws MovedPermanentlyException, UnauthorizedException, ForbiddenException, ResourceNotFoundException, InternalServerErrorException {
-        transactionService.getResult(handleId);
+        return transactionService.getResult(handleId);
     }
 
 
@@ -540,4 +690,40 @@ public class RegistryService {
         }
     }
 
+
+    /**
+     * Returns the asset links of the AAS with the given ID, required to invalidate the discovery cache. The links are
+     * copied, as the descriptor may be modified by the following operation.
+     */
+    private List<AssetLink> getAssetLinks(String aasId) {
+        List<AssetLink> retval = new ArrayList<>();
+        if (discoveryCache.isEnabled() && (aasId != null)) {
+            try {
+                retval.addAll(AssetLinkHelper.of(aasRepository.getAAS(aasId)));
+            }
+            catch (ResourceNotFoundException e) {
+                // the operation itself reports the missing AAS
+            }
+        }
+        return retval;
+    }
+
+
+    private static void ensureIds(List<String> ids) {
+        if ((ids == null) || ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException(IDS_NOT_NULL_TXT);
+        }
+    }
+
+
+    private static <T> BatchGetResult<T> toBatchGetResult(List<String> ids, List<T> found, Function<T, String> idExtractor) {
+        Set<String> foundIds = found.stream()
+                .map(idExtractor)
+                .collect(Collectors.toSet());
+        List<String> notFound = ids.stream()
+                .distinct()
+                .filter(x -> !foundIds.contains(x))
+                .toList();
+        return new BatchGetResult<>(found, notFound);
+    }
 }
@@ -15,16 +15,45 @@
 package de.fraunhofer.iosb.ilt.faaast.registry.service.service;
 
 import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.BulkOperationStatusStore;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BadRequestException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BulkValidationException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.InternalServerErrorException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.MovedPermanentlyException;
 import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.ResourceNotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.BulkOperationProgress;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.BulkJobQueue;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.ConstraintHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.OperationHelper;
 import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.TransactionThread;
-import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkOperationStatusStore;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.metrics.RegistryMetrics;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkBaseData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkCreateShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkCreateSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpdateShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpdateSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpsertShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkUpsertSubmodelData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.tracing.TracingHelper;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.ExecutionState;
 import org.eclipse.digitaltwin.aas4j.v3.model.OperationResult;
@@ -32,9 +61,12 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultOperationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 /**
@@ -48,27 +80,91 @@ import org.springframework.stereotype.Service;
 public class TransactionService {
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionService.class);
     private final BulkOperationStatusStore statusStore;
-
-    private final TransactionThread transactionThread;
+    private final boolean asyncValidation;
+    private final BulkJobQueue queue;
+    private final List<TransactionThread> workers = new ArrayList<>();
+    private final Map<String, Set<CompletableFuture<ExecutionState>>> completions = new ConcurrentHashMap<>();
+    private final long maxWait;
+    private final Map<ExecutionState, Counter> stateCounters = new EnumMap<>(ExecutionState.class);
+    private final Timer committedTransactions;
+    private final Timer rolledBackTransactions;
+    private final Tracer tracer;
 
     /**
      * Instantiates the Transaction Service.
      *
      * @param aasRepository The AAS Repository.
      * @param statusStore Utility class for storing and retrieving the status of asynchronous bulk operations.
+     * @param changeFeed The change feed to publish committed changes to.
+     * @param discoveryCache The discovery cache to invalidate on committed changes.
+     * @param asyncValidation True if the descriptors are validated as first step of the bulk operation, false if they
+     *            are validated before the operation is started.
+     * @param workerCount The number of workers executing bulk operations concurrently.
+     * @param commitDelay The time in milliseconds a bulk operation waits before its commit, only intended for tests.
+     * @param maxWait The maximum time in seconds a status request waits for the completion of a bulk operation.
+     * @param chunkSize The number of items committed together, 0 to execute a bulk operation in one transaction.
+     * @param meterRegistry The registry of the bulk operation metrics.
+     * @param tracer The tracer creating the spans of the bulk operations, if tracing is enabled.
      */
     @Autowired
-    public TransactionService(AasRepository aasRepository, BulkOperationStatusStore statusStore) {
+    public TransactionService(AasRepository aasRepository, BulkOperationStatusStore statusStore, ChangeFeedService changeFeed, DiscoveryCache discoveryCache,
+            @Value("${bulk.validation.async:false}") boolean asyncValidation, @Value("${bulk.workers:4}") int workerCount,
+            @Value("${bulk.commitDelay:0}") long commitDelay, @Value("${bulk.status.maxWait:60}") long maxWait, @Value("${bulk.chunkSize:0}") int chunkSize,
+            MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer) {
+        Ensure.require(workerCount > 0, "bulk.workers must be greater than 0");
+        Ensure.require(maxWait >= 0, "bulk.status.maxWait must not be negative");
+        Ensure.require(chunkSize >= 0, "bulk.chunkSize must not be negative");
         this.statusStore = statusStore;
-        transactionThread = new TransactionThread(aasRepository, this);
+        this.maxWait = maxWait;
+        this.asyncValidation = asyncValidation;
+        this.tracer = TracingHelper.tracer(tracer);
+        for (ExecutionState state: ExecutionState.values()) {
+            stateCounters.put(state, Counter.builder(RegistryMetrics.BULK_OPERATIONS)
+                    .description("Number of bulk operations that reached a state")
+                    .tag(RegistryMetrics.TAG_STATE, state.name())
+                    .register(meterRegistry));
+        }
+        committedTransactions = transactionTimer(meterRegistry, "commit");
+        rolledBackTransactions = transactionTimer(meterRegistry, "rollback");
+        queue = new BulkJobQueue(!aasRepository.supportsConcurrentTransactions());
+        for (int i = 0; i < workerCount; i++) {
+            TransactionThread worker = new TransactionThread(aasRepository, this, changeFeed, discoveryCache, asyncValidation, commitDelay, chunkSize, queue,
+                    this.tracer);
+            worker.setName("bulk-worker-" + i);
+            workers.add(worker);
+        }
     }
 
 
     @PostConstruct
     private void postConstruct() {
-        if (transactionThread != null) {
-            transactionThread.start();
-        }
+        workers.forEach(Thread::start);
+    }
+
+
+    @PreDestroy
+    private void preDestroy() {
+        workers.forEach(TransactionThread::stopThread);
+    }
+
+
+    /**
+     * Returns the number of bulk operations waiting for a worker.
+     *
+     * @return The number of waiting bulk operations.
+     */
+    public int getQueueDepth() {
+        return queue.getQueueDepth();
+    }
+
+
+    /**
+     * Returns the number of bulk operations currently executed.
+     *
+     * @return The number of running bulk operations.
+     */
+    public int getInFlight() {
+        return queue.getInFlight();
     }
 
 
@@ -80,6 +176,13 @@ public class TransactionService {
      */
     public void updateState(String handleId, ExecutionState state) {
         statusStore.setStatus(handleId, state);
+        stateCounters.get(state).increment();
+        if (isFinished(state)) {
+            Set<CompletableFuture<ExecutionState>> waiting = completions.remove(handleId);
+            if (waiting != null) {
+                waiting.forEach(x -> x.complete(state));
+            }
+        }
     }
 
 
@@ -91,8 +194,46 @@ public class TransactionService {
      * @param message The error message.
      */
     public void updateState(String handleId, ExecutionState state, String message) {
-        updateState(handleId, state);
+        // set the message first, waiting clients read it as soon as the state is updated
         statusStore.setErrorMessage(handleId, message);
+        updateState(handleId, state);
+    }
+
+
+    /**
+     * Records the duration of a transaction executed by a bulk operation, from its start until the commit or the
+     * rollback.
+     *
+     * @param durationNanos The duration in nanoseconds.
+     * @param committed True if the transaction was committed, false if it was rolled back.
+     */
+    public void recordTransaction(long durationNanos, boolean committed) {
+        (committed ? committedTransactions : rolledBackTransactions).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Sets the progress of a bulk operation executed in chunks.
+     *
+     * @param handleId id of the operation handle for future reference.
+     * @param progress The progress, updated while the operation is executed.
+     */
+    public void updateProgress(String handleId, BulkOperationProgress progress) {
+        statusStore.setProgress(handleId, progress);
+    }
+
+
+    /**
+     * Adds the operation to the queue. The span of the request is tagged with the handle id and linked by the span of
+     * the operation, which runs after the request has finished.
+     */
+    private void enqueue(BulkBaseData data) throws InterruptedException {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            span.tag(TracingHelper.TAG_HANDLE_ID, data.getHandleId());
+            data.setOrigin(span.context());
+        }
+        queue.add(data);
     }
 
 
@@ -102,13 +243,17 @@ public class TransactionService {
      *
      * @param shells list of shell descriptors that shall be created.
      * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
      * @throws InterruptedException The execution was interrupted.
      */
     public String createShells(List<AssetAdministrationShellDescriptor> shells) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validate(shells);
+        }
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.createShells(shells, handleId);
+        enqueue(new BulkCreateShellData(shells, handleId));
         return handleId;
     }
 
@@ -119,13 +264,38 @@ public class TransactionService {
      *
      * @param shells list of shell descriptors that shall be created.
      * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
      * @throws InterruptedException The execution was interrupted.
      */
     public String updateShells(List<AssetAdministrationShellDescriptor> shells) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validate(shells);
+        }
+        String handleId = OperationHelper.generateOperationHandleId();
+        updateState(handleId, ExecutionState.INITIATED);
+
+        enqueue(new BulkUpdateShellData(shells, handleId));
+        return handleId;
+    }
+
+
+    /**
+     * This method implements the logic for PUT on the /bulk/shell-descriptors endpoint with upsert=true.
+     * Creates or replaces multiple Asset Administration Shell Descriptors.
+     *
+     * @param shells list of shell descriptors that shall be created or replaced.
+     * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
+     * @throws InterruptedException The execution was interrupted.
+     */
+    public String upsertShells(List<AssetAdministrationShellDescriptor> shells) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validate(shells);
+        }
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.updateShells(shells, handleId);
+        enqueue(new BulkUpsertShellData(shells, handleId));
         return handleId;
     }
 
@@ -139,9 +309,9 @@ public class TransactionService {
      */
     public String deleteShells(List<String> shellIdentifiers) throws InterruptedException {
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.deleteShells(shellIdentifiers, handleId);
+        enqueue(new BulkDeleteShellData(shellIdentifiers, handleId));
         return handleId;
     }
 
@@ -152,13 +322,17 @@ public class TransactionService {
      *
      * @param submodels list of Submodel Descriptors that shall be created.
      * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
      * @throws InterruptedException The execution was interrupted.
      */
     public String createSubmodels(List<SubmodelDescriptor> submodels) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validateSubmodels(submodels);
+        }
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.createSubmodels(submodels, handleId);
+        enqueue(new BulkCreateSubmodelData(submodels, handleId));
         return handleId;
     }
 
@@ -169,13 +343,38 @@ public class TransactionService {
      *
      * @param submodels list of Submodel Descriptors that shall be updated.
      * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
      * @throws InterruptedException The execution was interrupted.
      */
     public String updateSubmodels(List<SubmodelDescriptor> submodels) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validateSubmodels(submodels);
+        }
+        String handleId = OperationHelper.generateOperationHandleId();
+        updateState(handleId, ExecutionState.INITIATED);
+
+        enqueue(new BulkUpdateSubmodelData(submodels, handleId));
+        return handleId;
+    }
+
+
+    /**
+     * This method implements the logic for PUT on the /bulk/submodel-descriptors endpoint with upsert=true.
+     * Creates or replaces multiple Submodel Descriptors.
+     *
+     * @param submodels list of Submodel Descriptors that shall be created or replaced.
+     * @return Id of the operation handle for future reference.
+     * @throws BulkValidationException if one or more descriptors violate constraints.
+     * @throws InterruptedException The execution was interrupted.
+     */
+    public String upsertSubmodels(List<SubmodelDescriptor> submodels) throws InterruptedException {
+        if (!asyncValidation) {
+            ConstraintHelper.validateSubmodels(submodels);
+        }
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.updateSubmodels(submodels, handleId);
+        enqueue(new BulkUpsertSubmodelData(submodels, handleId));
         return handleId;
     }
 
@@ -190,9 +389,9 @@ public class TransactionService {
      */
     public String deleteSubmodels(List<String> submodelIdentifiers) throws InterruptedException {
         String handleId = OperationHelper.generateOperationHandleId();
-        statusStore.setStatus(handleId, ExecutionState.INITIATED);
+        updateState(handleId, ExecutionState.INITIATED);
 
-        transactionThread.deleteSubmodels(submodelIdentifiers, handleId);
+        enqueue(new BulkDeleteSubmodelData(submodelIdentifiers, handleId));
         return handleId;
     }
 
@@ -222,11 +421,7 @@ public class TransactionService {
                     operationResult.setExecutionState(status);
                     return operationResult;
                 case COMPLETED, FAILED:
-                    URI location = URI.create("../result/" + handleId);
-                    HttpHeaders headers = new HttpHeaders();
-                    LOGGER.debug("getStatus: status {}; location: {}", status, location);
-                    headers.setLocation(location);
-                    throw new MovedPermanentlyException("Operation completed. See result endpoint.", headers);
+                    throw resultRedirect(handleId, status);
                 default:
                     LOGGER.info("getStatus: Operation status {}", status);
                     break;
@@ -236,20 +431,118 @@ public class TransactionService {
 
 
     /**
-     * This method implements the logic for GET on the /bulk/status/{handleId} endpoint.
+     * This method implements the logic for GET on the /bulk/status/{handleId}?waitSeconds= endpoint.
+     * Waits until the asynchronously invoked bulk operation is finished or the given time has elapsed. The request
+     * is not bound to a thread while waiting, it is completed by {@link #updateState(String, ExecutionState)}.
+     *
+     * @param handleId id of the operation handle for future reference.
+     * @param waitSeconds The maximum time to wait in seconds, limited by bulk.status.maxWait.
+     * @return The deferred result, containing the operation result if the operation is still running after the given
+     *         time, or a {@link MovedPermanentlyException} to the result endpoint if it is finished.
+     * @throws ResourceNotFoundException if there is no handle with that id.
+     * @throws MovedPermanentlyException if the operation is already finished.
+     */
+    public DeferredResult<OperationResult> waitForStatus(String handleId, long waitSeconds) throws ResourceNotFoundException {
+        OperationResult running = getStatus(handleId);
+        long timeout = Math.min(Math.max(waitSeconds, 0), maxWait);
+        DeferredResult<OperationResult> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeout));
+        if (timeout == 0) {
+            result.setResult(running);
+            return result;
+        }
+        CompletableFuture<ExecutionState> completion = awaitCompletion(handleId);
+        result.onTimeout(() -> {
+            stopWaiting(handleId, completion);
+            try {
+                result.setResult(getStatus(handleId));
+            }
+            catch (ResourceNotFoundException | RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        // also when the request fails, e.g. because the client disconnected
+        result.onCompletion(() -> stopWaiting(handleId, completion));
+        completion.thenAccept(state -> result.setErrorResult(resultRedirect(handleId, state)));
+        return result;
+    }
+
+
+    /**
+     * Registers a future for a waiting request, which is completed when the operation is finished. Every request has
+     * its own future, so it is removed as soon as the request is done, also if the operation is never finished on this
+     * instance, e.g. when its status is evicted or it is executed by another instance.
+     */
+    private CompletableFuture<ExecutionState> awaitCompletion(String handleId) {
+        CompletableFuture<ExecutionState> completion = new CompletableFuture<>();
+        completions.compute(handleId, (k, v) -> {
+            Set<CompletableFuture<ExecutionState>> waiting = v != null ? v : ConcurrentHashMap.newKeySet();
+            waiting.add(completion);
+            return waiting;
+        });
+        // the operation may have finished before the future was registered
+        ExecutionState status = statusStore.getStatus(handleId);
+        if (isFinished(status)) {
+            stopWaiting(handleId, completion);
+            completion.complete(status);
+        }
+        return completion;
+    }
+
+
+    private void stopWaiting(String handleId, CompletableFuture<ExecutionState> completion) {
+        completions.computeIfPresent(handleId, (k, v) -> {
+            v.remove(completion);
+            return v.isEmpty() ? null : v;
+        });
+    }
+
+
+    private static Timer transactionTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(RegistryMetrics.TRANSACTION)
+                .description("Duration of the transactions of bulk operations")
+                .tag(RegistryMetrics.TAG_OUTCOME, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+
+    private static boolean isFinished(ExecutionState state) {
+        return state == ExecutionState.COMPLETED || state == ExecutionState.FAILED;
+    }
+
+
+    private static MovedPermanentlyException resultRedirect(String handleId, ExecutionState status) {
+        URI location = URI.create("../result/" + handleId);
+        HttpHeaders headers = new HttpHeaders();
+        LOGGER.debug("getStatus: status {}; location: {}", status, location);
+        headers.setLocation(location);
+        return new MovedPermanentlyException("Operation completed. See result endpoint.", headers);
+    }
+
+
+    /**
+     * This method implements the logic for GET on the /bulk/result/{handleId} endpoint.
      * Returns the result object of an asynchronously invoked bulk operation
      *
      * @param handleId id of the operation handle for future reference.
+     * @return The progress with the per-item outcome if the operation is executed in chunks, null if it is executed in
+     *         one transaction and completed.
      * @throws ResourceNotFoundException if there is no handle with that id.
+     * @throws BadRequestException if the operation is executed in one transaction and failed.
      */
-    public void getResult(String handleId) throws ResourceNotFoundException {
+    public BulkOperationProgress getResult(String handleId) throws ResourceNotFoundException {
         ExecutionState status = statusStore.getStatus(handleId);
-        if (status == null || status == ExecutionState.RUNNING) {
+        BulkOperationProgress progress = statusStore.getProgress(handleId);
+        if (status != null && progress != null) {
+            progress.setExecutionState(status);
+            return progress;
+        }
+        if (status == null || status == ExecutionState.RUNNING || status == ExecutionState.INITIATED) {
             throw new ResourceNotFoundException("Result not available or still running for handleId: " + handleId);
         }
 
         if (status == ExecutionState.COMPLETED) {
-            return;
+            return null;
         }
 
         String msg = "One or more items failed.";
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+
+/**
+ * Exports the finished spans to a local file, one JSON object per line, so traces can be analyzed without a tracing
+ * backend.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final BufferedWriter writer;
+    private boolean closed;
+
+    /**
+     * Creates a new exporter appending to the given file.
+     *
+     * @param file The file the spans are written to.
+     * @throws IOException The file could not be opened.
+     */
+    public FileSpanExporter(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (closed) {
+            return CompletableResultCode.ofFailure();
+        }
+        try {
+            for (SpanData span: spans) {
+                writer.write(mapper.writeValueAsString(toMap(span)));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        }
+        catch (IOException | JacksonException e) {
+            LOGGER.warn("exporting spans failed: {}", e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        }
+        catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (closed) {
+            return CompletableResultCode.ofSuccess();
+        }
+        closed = true;
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        }
+        catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+
+    private static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", span.getTraceId());
+        result.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            result.put("parentSpanId", span.getParentSpanId());
+        }
+        result.put("name", span.getName());
+        result.put("kind", span.getKind().name());
+        result.put("startEpochNanos", span.getStartEpochNanos());
+        result.put("durationNanos", span.getEndEpochNanos() - span.getStartEpochNanos());
+        result.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        result.put("attributes", attributes);
+        if (!span.getLinks().isEmpty()) {
+            List<Map<String, String>> links = new ArrayList<>();
+            for (LinkData link: span.getLinks()) {
+                links.add(Map.of("traceId", link.getSpanContext().getTraceId(), "spanId", link.getSpanContext().getSpanId()));
+            }
+            result.put("links", links);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.tracing;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.logging.OperationDiagnostics;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+
+/**
+ * Data source creating a span for every executed JDBC statement, so the statements executed by the JPA persistence
+ * show up as children of the repository calls. Statements executed outside a span, e.g. while the schema is created,
+ * are not traced. The statements are also counted in the {@link OperationDiagnostics} of the executing thread.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_STATEMENT_LENGTH = 2000;
+
+    private final ObjectProvider<Tracer> tracer;
+
+    public TracingDataSource(DataSource target, ObjectProvider<Tracer> tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+
+    private static <T> T wrap(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] {
+                type
+        }, handler));
+    }
+
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Names the span after the SQL command, e.g. SELECT, as the statements differ in their parameters only.
+     */
+    private static String operationOf(String statement) {
+        if (statement == null || statement.isBlank()) {
+            return "jdbc batch";
+        }
+        String trimmed = statement.strip();
+        int end = 0;
+        while (end < trimmed.length() && !Character.isWhitespace(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+
+    /**
+     * Wraps the statements created by a connection.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, statement, new StatementHandler(statement, null));
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * Creates a span for every execution of a statement and counts the executions.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return execute(method, args);
+            }
+            finally {
+                OperationDiagnostics.current().addStatement(System.nanoTime() - start);
+            }
+        }
+
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            Tracer current = TracingHelper.tracer(tracer);
+            if (current.currentSpan() == null) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            String statement = (args != null && args.length > 0 && args[0] instanceof String text) ? text : sql;
+            Span span = current.nextSpan().name(operationOf(statement)).start();
+            if (!span.isNoop()) {
+                span.tag(TracingHelper.TAG_DB_OPERATION, method.getName());
+                if (statement != null) {
+                    span.tag(TracingHelper.TAG_DB_STATEMENT,
+                            statement.length() > MAX_STATEMENT_LENGTH ? statement.substring(0, MAX_STATEMENT_LENGTH) : statement);
+                }
+            }
+            try (Tracer.SpanInScope scope = current.withSpan(span)) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            catch (Throwable e) {
+                span.error(e);
+                throw e;
+            }
+            finally {
+                span.end();
+            }
+        }
+
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.tracing;
+
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * Helper class with the names of the span tags.
+ */
+public class TracingHelper {
+
+    public static final String TAG_BACKEND = "registry.backend";
+    public static final String TAG_IDS = "registry.ids";
+    public static final String TAG_RESULT_SIZE = "registry.result_size";
+    public static final String TAG_HANDLE_ID = "registry.bulk.handle_id";
+    public static final String TAG_ITEMS = "registry.bulk.items";
+    public static final String TAG_STATE = "registry.bulk.state";
+    public static final String TAG_DB_STATEMENT = "db.statement";
+    public static final String TAG_DB_OPERATION = "db.operation";
+
+    private TracingHelper() {}
+
+
+    /**
+     * Gets the tracer, or a tracer creating no spans if tracing is disabled.
+     *
+     * @param tracer The provider of the tracer.
+     * @return The tracer.
+     */
+    public static Tracer tracer(ObjectProvider<Tracer> tracer) {
+        return tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+}
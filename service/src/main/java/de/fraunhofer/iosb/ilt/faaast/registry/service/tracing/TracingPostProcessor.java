@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.tracing;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.service.RegistryService;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import javax.sql.DataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Adds spans for the calls to the {@link RegistryService} and for the JDBC statements of the data source. The spans of
+ * the REST calls are created by Spring, the spans of the repository calls by
+ * {@link de.fraunhofer.iosb.ilt.faaast.registry.service.metrics.RepositoryInstrumentationPostProcessor}.
+ */
+@Component
+public class TracingPostProcessor implements BeanPostProcessor {
+
+    private static final String SERVICE_PREFIX = "RegistryService.";
+
+    private final ObjectProvider<Tracer> tracer;
+
+    public TracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RegistryService) {
+            ProxyFactory factory = new ProxyFactory(bean);
+            factory.setProxyTargetClass(true);
+            factory.addAdvice(new ServiceInterceptor());
+            return factory.getProxy(bean.getClass().getClassLoader());
+        }
+        if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+            return new TracingDataSource(dataSource, tracer);
+        }
+        return bean;
+    }
+
+
+    /**
+     * Creates a span for every call of a public method of the service.
+     */
+    private class ServiceInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Tracer current = TracingHelper.tracer(tracer);
+            Span span = current.nextSpan().name(SERVICE_PREFIX + invocation.getMethod().getName()).start();
+            try (Tracer.SpanInScope scope = current.withSpan(span)) {
+                return invocation.proceed();
+            }
+            catch (Throwable e) {
+                span.error(e);
+                throw e;
+            }
+            finally {
+                span.end();
+            }
+        }
+    }
+}
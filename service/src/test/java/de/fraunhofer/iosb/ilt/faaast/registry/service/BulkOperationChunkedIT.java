@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.AasRepository;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.InfrastructureProxy;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest.properties", properties = "bulk.chunkSize=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureTestRestTemplate
+class BulkOperationChunkedIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockitoSpyBean
+    private AasRepository aasRepository;
+
+    @BeforeEach
+    void init() {
+        aasRepository.clear();
+    }
+
+
+    @Test
+    void testCreatePartiallyFailed() {
+        List<AssetAdministrationShellDescriptor> shells = List.of(
+                generateAas("001"),
+                generateAas("002"),
+                generateAas("003"),
+                generateAas("001"),
+                generateAas("004"));
+
+        HttpEntity<List<AssetAdministrationShellDescriptor>> entity = new HttpEntity<>(shells);
+        ResponseEntity<Void> createResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors"), HttpMethod.POST, entity, Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, createResponse.getStatusCode());
+        URI location = createResponse.getHeaders().getLocation();
+        Assertions.assertNotNull(location);
+
+        ResponseEntity<Map> resultResponse = restTemplate.getForEntity(
+                location.toString().replace("..", createURLWithPort("")) + "?waitSeconds=30",
+                Map.class);
+        Assertions.assertEquals(HttpStatus.OK, resultResponse.getStatusCode());
+        Map<?, ?> result = resultResponse.getBody();
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(5, result.get("total"));
+        Assertions.assertEquals(5, result.get("processed"));
+        Assertions.assertEquals(4, result.get("succeeded"));
+        Assertions.assertEquals(1, result.get("failed"));
+        Map<?, ?> failure = (Map<?, ?>) ((List<?>) result.get("failures")).get(0);
+        Assertions.assertEquals(3, failure.get("index"));
+        Assertions.assertEquals(generateAas("001").getId(), failure.get("id"));
+
+        // the items before and after the failed item are committed
+        Assertions.assertEquals(4, aasRepository.getAASs(PagingInfo.ALL).getContent().size());
+    }
+
+
+    @Test
+    void testCommitFailureExecutesItemsOneByOne() {
+        // e.g. a constraint violation, which a database only detects when writing the changes on commit; the spy is
+        // wrapped by the instrumentation of the repository
+        AasRepository spy = (AasRepository) ((InfrastructureProxy) aasRepository).getWrappedObject();
+        Mockito.doThrow(new IllegalStateException("commit failed"))
+                .doCallRealMethod()
+                .when(spy).commitTransaction(ArgumentMatchers.anyInt());
+        List<AssetAdministrationShellDescriptor> shells = List.of(
+                generateAas("001"),
+                generateAas("002"));
+
+        HttpEntity<List<AssetAdministrationShellDescriptor>> entity = new HttpEntity<>(shells);
+        ResponseEntity<Void> createResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors"), HttpMethod.POST, entity, Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, createResponse.getStatusCode());
+        URI location = createResponse.getHeaders().getLocation();
+        Assertions.assertNotNull(location);
+
+        ResponseEntity<Map> resultResponse = restTemplate.getForEntity(
+                location.toString().replace("..", createURLWithPort("")) + "?waitSeconds=30",
+                Map.class);
+        Assertions.assertEquals(HttpStatus.OK, resultResponse.getStatusCode());
+        Assertions.assertEquals(2, resultResponse.getBody().get("succeeded"));
+        Assertions.assertEquals(0, resultResponse.getBody().get("failed"));
+        Assertions.assertEquals(2, aasRepository.getAASs(PagingInfo.ALL).getContent().size());
+    }
+
+
+    @Test
+    void testDeleteCompleted() throws Exception {
+        List<AssetAdministrationShellDescriptor> shells = List.of(
+                generateAas("001"),
+                generateAas("002"),
+                generateAas("003"));
+        for (var shell: shells) {
+            aasRepository.create(shell);
+        }
+
+        HttpEntity<List<String>> entity = new HttpEntity<>(shells.stream().map(AssetAdministrationShellDescriptor::getId).toList());
+        ResponseEntity<Void> deleteResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors"), HttpMethod.DELETE, entity, Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, deleteResponse.getStatusCode());
+        URI location = deleteResponse.getHeaders().getLocation();
+        Assertions.assertNotNull(location);
+
+        ResponseEntity<Map> resultResponse = restTemplate.getForEntity(
+                location.toString().replace("..", createURLWithPort("")) + "?waitSeconds=30",
+                Map.class);
+        Assertions.assertEquals(HttpStatus.OK, resultResponse.getStatusCode());
+        Assertions.assertEquals(3, resultResponse.getBody().get("succeeded"));
+        Assertions.assertEquals(0, resultResponse.getBody().get("failed"));
+        Assertions.assertTrue(aasRepository.getAASs(PagingInfo.ALL).getContent().isEmpty());
+    }
+
+
+    private AssetAdministrationShellDescriptor generateAas(String id) {
+        return new DefaultAssetAdministrationShellDescriptor.Builder()
+                .idShort("ChunkedTest" + id)
+                .id("http://iosb.fraunhofer.de/ChunkedTest/AAS" + id)
+                .build();
+    }
+
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + "/api/v3.0/bulk" + uri;
+    }
+}
@@ -265,6 +265,78 @@ class BulkOperationControllerIT {
     }
 
 
+    @Test
+    void testCreateInvalid() {
+        List<AssetAdministrationShellDescriptor> invalidAASList = List.of(
+                generateAas("006"),
+                generateAas("007"),
+                generateAas("008"));
+        invalidAASList.get(2).getDescription().get(0).setLanguage("not a language");
+
+        HttpEntity<List<AssetAdministrationShellDescriptor>> entity = new HttpEntity<>(invalidAASList);
+        ResponseEntity<String> createResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors"), HttpMethod.POST, entity, String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, createResponse.getStatusCode());
+        Assertions.assertEquals(new ArrayList<AssetAdministrationShellDescriptor>(), aasRepository.getAASs(PagingInfo.ALL).getContent());
+    }
+
+
+    @Test
+    void testStatusWait() {
+        List<AssetAdministrationShellDescriptor> commitAASList = List.of(
+                generateAas("009"),
+                generateAas("010"));
+
+        HttpEntity<List<AssetAdministrationShellDescriptor>> entity = new HttpEntity<>(commitAASList);
+        ResponseEntity<Void> createResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors"), HttpMethod.POST, entity, Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, createResponse.getStatusCode());
+        URI location = createResponse.getHeaders().getLocation();
+        Assertions.assertNotNull(location);
+
+        // a single request waits for the operation and is redirected to the result
+        ResponseEntity<String> statusResponse = restTemplate.getForEntity(
+                location.toString().replace("..", createURLWithPort("")) + "?waitSeconds=30",
+                String.class);
+        Assertions.assertEquals(HttpStatus.NO_CONTENT, statusResponse.getStatusCode());
+        List<AssetAdministrationShellDescriptor> actual = aasRepository.getAASs(PagingInfo.ALL).getContent();
+        Assertions.assertEquals(commitAASList.size(), actual.size());
+        Assertions.assertTrue(actual.containsAll(commitAASList));
+    }
+
+
+    @Test
+    void testUpsertShells() throws Exception {
+        AssetAdministrationShellDescriptor existing = generateAas("011");
+        aasRepository.create(existing);
+        AssetAdministrationShellDescriptor updated = generateAas("011");
+        updated.setIdShort("IntegrationTest011_new");
+        List<AssetAdministrationShellDescriptor> upsertAASList = List.of(updated, generateAas("012"));
+
+        HttpEntity<List<AssetAdministrationShellDescriptor>> entity = new HttpEntity<>(upsertAASList);
+        ResponseEntity<Void> upsertResponse = restTemplate.exchange(createURLWithPort("/shell-descriptors?upsert=true"), HttpMethod.PUT, entity, Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, upsertResponse.getStatusCode());
+        URI location = upsertResponse.getHeaders().getLocation();
+        Assertions.assertNotNull(location);
+
+        ResponseEntity<String> statusResponse = restTemplate.getForEntity(
+                location.toString().replace("..", createURLWithPort("")) + "?waitSeconds=30",
+                String.class);
+        Assertions.assertEquals(HttpStatus.NO_CONTENT, statusResponse.getStatusCode());
+        List<AssetAdministrationShellDescriptor> actual = aasRepository.getAASs(PagingInfo.ALL).getContent();
+        Assertions.assertEquals(upsertAASList.size(), actual.size());
+        Assertions.assertTrue(actual.containsAll(upsertAASList));
+    }
+
+
+    @Test
+    void testStatusWaitUnknownHandle() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                createURLWithPort("/status/unknown-id?waitSeconds=5"),
+                String.class);
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+
     @Test
     void testStatusUnknownHandle() {
         ResponseEntity<String> response = restTemplate.getForEntity(
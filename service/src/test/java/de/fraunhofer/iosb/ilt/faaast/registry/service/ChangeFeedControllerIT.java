@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import static de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants.EVENTS_PATH;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest.properties")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureTestRestTemplate
+class ChangeFeedControllerIT extends AbstractShellRegistryControllerIT {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    public ChangeFeedControllerIT() {
+        super(EVENTS_PATH);
+    }
+
+
+    @Test
+    void testLiveEvents() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAas();
+        BlockingQueue<String> lines = subscribe(null);
+        Thread.sleep(500);
+        createAas(aas);
+        restTemplate.delete("http://localhost:" + port + "/api/v3.0/shell-descriptors/" + EncodingHelper.base64UrlEncode(aas.getId()));
+
+        List<String> event1 = readEvent(lines);
+        Assertions.assertTrue(event1.contains("id:1"));
+        Assertions.assertTrue(event1.contains("event:change"));
+        Assertions.assertTrue(event1.stream().anyMatch(x -> x.contains("\"CREATED\"") && x.contains(aas.getId())));
+        List<String> event2 = readEvent(lines);
+        Assertions.assertTrue(event2.contains("id:2"));
+        Assertions.assertTrue(event2.stream().anyMatch(x -> x.contains("\"DELETED\"") && x.contains(aas.getId())));
+    }
+
+
+    @Test
+    void testResume() throws Exception {
+        AssetAdministrationShellDescriptor aas = getAas();
+        createAas(aas);
+        restTemplate.delete("http://localhost:" + port + "/api/v3.0/shell-descriptors/" + EncodingHelper.base64UrlEncode(aas.getId()));
+
+        List<String> event = readEvent(subscribe(1L));
+        Assertions.assertTrue(event.contains("id:2"));
+        Assertions.assertTrue(event.stream().anyMatch(x -> x.contains("\"DELETED\"") && x.contains(aas.getId())));
+
+        // unknown sequence, e.g. after a restart of the server
+        event = readEvent(subscribe(42L));
+        Assertions.assertTrue(event.contains("event:reset"));
+    }
+
+
+    private BlockingQueue<String> subscribe(Long lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(createURLWithPort("")))
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", Long.toString(lastEventId));
+        }
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        Assertions.assertEquals(200, response.statusCode());
+        Thread reader = new Thread(() -> response.body().forEach(lines::add));
+        reader.setDaemon(true);
+        reader.start();
+        return lines;
+    }
+
+
+    private static List<String> readEvent(BlockingQueue<String> lines) throws InterruptedException {
+        List<String> retval = new ArrayList<>();
+        while (true) {
+            String line = lines.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Assertions.assertNotNull(line, "timeout waiting for event");
+            if (line.isEmpty()) {
+                if (!retval.isEmpty()) {
+                    return retval;
+                }
+            }
+            else if (!line.startsWith(":")) {
+                retval.add(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import static de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants.CHANGES_PATH;
+import static de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants.REVISION_HEADER;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.model.DescriptorChange;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import java.util.List;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest.properties")
+@AutoConfigureTestRestTemplate
+class ChangeLogControllerIT extends AbstractShellRegistryControllerIT {
+
+    public ChangeLogControllerIT() {
+        super(CHANGES_PATH);
+    }
+
+
+    @Test
+    void testGetChanges() {
+        long revision = getRevision(getChanges(""));
+        AssetAdministrationShellDescriptor aas = getAas();
+        createAas(aas);
+        restTemplate.delete("http://localhost:" + port + "/api/v3.0/shell-descriptors/" + EncodingHelper.base64UrlEncode(aas.getId()));
+
+        ResponseEntity<Page<DescriptorChange>> response = getChanges("?since=" + revision);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(revision + 2, getRevision(response));
+        Assertions.assertEquals(
+                List.of(new DescriptorChange(revision + 2, DescriptorChange.Resource.SHELL, aas.getId(), true)),
+                response.getBody().getContent());
+
+        response = getChanges("?since=" + (revision + 2));
+        Assertions.assertTrue(response.getBody().getContent().isEmpty());
+    }
+
+
+    @Test
+    void testGetChangesInvalidRevision() {
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, getChanges("?since=-1").getStatusCode());
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, getChanges("?cursor=abc").getStatusCode());
+    }
+
+
+    private ResponseEntity<Page<DescriptorChange>> getChanges(String query) {
+        return restTemplate.exchange(createURLWithPort(query), HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+    }
+
+
+    private static long getRevision(ResponseEntity<?> response) {
+        return Long.parseLong(response.getHeaders().getFirst(REVISION_HEADER));
+    }
+}
@@ -664,6 +664,49 @@ class DiscoveryControllerIT extends AbstractShellRegistryControllerIT {
     }
 
 
+    @Test
+    void searchAssetAdministrationShellIdsByAssetLinkBatch() {
+        AssetAdministrationShellDescriptor descriptor = getAas();
+        createAas(descriptor);
+
+        List<List<AssetLinkHelper>> queries = List.of(
+                List.of(AssetLinkHelper.of(descriptor.getSpecificAssetIds().get(0))),
+                List.of(new AssetLinkHelper(FaaastConstants.KEY_GLOBAL_ASSET_ID, UUID.randomUUID().toString())),
+                List.of(new AssetLinkHelper(FaaastConstants.KEY_GLOBAL_ASSET_ID, descriptor.getGlobalAssetId())));
+
+        ResponseEntity<List<List<String>>> response = restTemplate.exchange(createURLWithPort("/shellsByAssetLink/batch"), HttpMethod.POST,
+                new HttpEntity<>(queries), new ParameterizedTypeReference<>() {});
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(List.of(List.of(descriptor.getId()), List.of(), List.of(descriptor.getId())), response.getBody());
+
+        ResponseEntity<Void> error = restTemplate.exchange(createURLWithPort("/shellsByAssetLink/batch"), HttpMethod.POST,
+                new HttpEntity<>(List.of(List.of())), Void.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+
+    @Test
+    void searchAllAssetAdministrationShellIdsBySpecificAssetIdsReflectsChanges() {
+        AssetAdministrationShellDescriptor descriptor = getAas();
+        List<AssetLinkHelper> toFilterFor = List.of(new AssetLinkHelper(FaaastConstants.KEY_GLOBAL_ASSET_ID, descriptor.getGlobalAssetId()));
+        String urlWithPort = createURLWithPort("/shellsByAssetLink");
+
+        ResponseEntity<Page<String>> response = searchAllAssetAdministrationShellIdsBySpecificAssetIds(urlWithPort, toFilterFor);
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertTrue(response.getBody().getContent().isEmpty());
+
+        createAas(descriptor);
+        response = searchAllAssetAdministrationShellIdsBySpecificAssetIds(urlWithPort, toFilterFor);
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(List.of(descriptor.getId()), response.getBody().getContent());
+
+        deleteAllAssetLinksById(createURLWithPort(String.format("/shells/%s", EncodingHelper.base64UrlEncode(descriptor.getId()))));
+        response = searchAllAssetAdministrationShellIdsBySpecificAssetIds(urlWithPort, toFilterFor);
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertTrue(response.getBody().getContent().isEmpty());
+    }
+
+
     private void assertSameGlobalAssetId(AssetAdministrationShellDescriptor expected, List<SpecificAssetId> actual) {
         Assertions.assertEquals(expected.getGlobalAssetId(), actual.stream()
                 .filter(id -> FaaastConstants.KEY_GLOBAL_ASSET_ID.equals(id.getName()))
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.metrics.RegistryMetrics;
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.SerializationException;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.json.JsonSerializer;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest.properties", properties = "management.endpoints.web.exposure.include=health,prometheus,heapfootprint")
+@AutoConfigureTestRestTemplate
+class MetricsIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testRequestAndRepositoryTimers() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/api/v3.0/shell-descriptors"), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Assertions.assertNotNull(meterRegistry.find("http.server.requests").tag("uri", "/shell-descriptors").timer());
+        Assertions.assertTrue(meterRegistry.get(RegistryMetrics.REPOSITORY)
+                .tag(RegistryMetrics.TAG_METHOD, "getAASs")
+                .tag(RegistryMetrics.TAG_BACKEND, "memory")
+                .tag(RegistryMetrics.TAG_EXCEPTION, RegistryMetrics.NONE)
+                .timer()
+                .count() > 0);
+    }
+
+
+    @Test
+    void testGauges() {
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.SHELLS).gauge());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.SUBMODELS).gauge());
+        Assertions.assertEquals(0, meterRegistry.get(RegistryMetrics.BULK_QUEUE_DEPTH).gauge().value());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.BULK_IN_FLIGHT).gauge());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.BULK_STATUS_STORE_SIZE).gauge());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_SIZE).gauge());
+    }
+
+
+    @Test
+    void testDiscoveryCacheCounters() throws SerializationException {
+        double misses = meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_GETS).tag(RegistryMetrics.TAG_RESULT, "miss").functionCounter().count();
+        double hits = meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_GETS).tag(RegistryMetrics.TAG_RESULT, "hit").functionCounter().count();
+        String assetIds = new JsonSerializer().write(List.of(new DefaultSpecificAssetId.Builder()
+                .name("metricsTest")
+                .value("value")
+                .build()));
+        String url = createURLWithPort("/api/v3.0/lookup/shells?assetIds=" + EncodingHelper.base64UrlEncode(assetIds));
+        restTemplate.getForEntity(url, String.class);
+        restTemplate.getForEntity(url, String.class);
+        Assertions.assertEquals(misses + 1, meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_GETS).tag(RegistryMetrics.TAG_RESULT, "miss").functionCounter().count());
+        Assertions.assertEquals(hits + 1, meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_GETS).tag(RegistryMetrics.TAG_RESULT, "hit").functionCounter().count());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_EVICTIONS).functionCounter());
+        Assertions.assertNotNull(meterRegistry.get(RegistryMetrics.DISCOVERY_CACHE_INVALIDATIONS).functionCounter());
+    }
+
+
+    @Test
+    void testPrometheusEndpoint() {
+        restTemplate.getForEntity(createURLWithPort("/api/v3.0/shell-descriptors"), String.class);
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/api/v3.0/actuator/prometheus"), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(response.getBody().contains("faaast_registry_repository_seconds_bucket"));
+        Assertions.assertTrue(response.getBody().contains("http_server_requests_seconds_bucket"));
+        Assertions.assertTrue(response.getBody().contains("faaast_registry_bulk_operations_total{state=\"COMPLETED\"}"));
+    }
+
+
+    @Test
+    void testHeapFootprintEndpoint() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/api/v3.0/actuator/heapfootprint?xmx=1g&sampleSize=10"), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(response.getBody().contains("\"averageBytesBySubStructure\""));
+        Assertions.assertTrue(response.getBody().contains("\"deduplication\""));
+
+        response = restTemplate.getForEntity(createURLWithPort("/api/v3.0/actuator/heapfootprint?xmx=1x"), String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+}
@@ -16,12 +16,16 @@ package de.fraunhofer.iosb.ilt.faaast.registry.service;
 
 import static de.fraunhofer.iosb.ilt.faaast.registry.service.helper.Constants.SHELL_REQUEST_PATH;
 
+import de.fraunhofer.iosb.ilt.faaast.registry.service.config.DescriptorMapperConfig;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.helper.BinaryFormatNegotiationStrategy;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BatchGetResult;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAdministrativeInformation;
@@ -38,13 +42,16 @@ import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRe
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 
 @ExtendWith(SpringExtension.class)
@@ -193,6 +200,94 @@ class ShellRegistryControllerIT extends AbstractShellRegistryControllerIT {
     }
 
 
+    @Test
+    void testGetAASsWithFields() {
+        AssetAdministrationShellDescriptor aas = getAas();
+        createAas(aas);
+        ResponseEntity<Page<AssetAdministrationShellDescriptor>> response = restTemplate.exchange(
+                createURLWithPort("?fields=idShort,endpoints"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<Page<AssetAdministrationShellDescriptor>>() {});
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Optional<AssetAdministrationShellDescriptor> actual = response.getBody().getContent().stream()
+                .filter(x -> aas.getId().equals(x.getId()))
+                .findAny();
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals(new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id(aas.getId())
+                .idShort(aas.getIdShort())
+                .endpoints(aas.getEndpoints())
+                .build(), actual.get());
+
+        ResponseEntity<Void> error = restTemplate.exchange(createURLWithPort("?fields=unknown"), HttpMethod.GET, null, Void.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+
+        // a property of submodel descriptors only
+        error = restTemplate.exchange(createURLWithPort("?fields=semanticId"), HttpMethod.GET, null, Void.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+
+    @Test
+    void testGetAASsByIds() {
+        AssetAdministrationShellDescriptor aas = getAas();
+        createAas(aas);
+        String unknownId = "http://iosb.fraunhofer.de/IntegrationTest/Unknown";
+        ResponseEntity<BatchGetResult<AssetAdministrationShellDescriptor>> response = restTemplate.exchange(
+                createURLWithPort("/batch-get"), HttpMethod.POST, new HttpEntity<>(List.of(aas.getId(), unknownId)),
+                new ParameterizedTypeReference<BatchGetResult<AssetAdministrationShellDescriptor>>() {});
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(List.of(aas), response.getBody().getResult());
+        Assertions.assertEquals(List.of(unknownId), response.getBody().getNotFound());
+    }
+
+
+    @Test
+    void testGetAASsByIdsTooMany() {
+        List<String> ids = IntStream.range(0, 1001)
+                .mapToObj(x -> "http://iosb.fraunhofer.de/IntegrationTest/" + x)
+                .toList();
+        ResponseEntity<String> response = restTemplate.exchange(createURLWithPort("/batch-get"), HttpMethod.POST, new HttpEntity<>(ids), String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+
+    @Test
+    void testCreateGetAasCbor() {
+        CBORMapper mapper = DescriptorMapperConfig.configure(CBORMapper.builder()).build();
+        AssetAdministrationShellDescriptor aas = getAas();
+        aas.setId("http://iosb.fraunhofer.de/IntegrationTest/AAS99/Cbor");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_CBOR);
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        ResponseEntity<byte[]> responsePost = restTemplate.exchange(createURLWithPort(""), HttpMethod.POST,
+                new HttpEntity<>(mapper.writeValueAsBytes(aas), headers), byte[].class);
+        Assertions.assertEquals(HttpStatus.CREATED, responsePost.getStatusCode());
+        Assertions.assertTrue(MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(responsePost.getHeaders().getContentType()));
+        Assertions.assertEquals(aas, mapper.readValue(responsePost.getBody(), AssetAdministrationShellDescriptor.class));
+
+        ResponseEntity<byte[]> responseGet = restTemplate.exchange(createURLWithPort("/" + EncodingHelper.base64UrlEncode(aas.getId())), HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+        Assertions.assertEquals(HttpStatus.OK, responseGet.getStatusCode());
+        Assertions.assertEquals(aas, mapper.readValue(responseGet.getBody(), AssetAdministrationShellDescriptor.class));
+
+        // JSON is still used, if no binary format is requested
+        checkGetAas(aas);
+    }
+
+
+    @Test
+    void testGetAASsSmile() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(BinaryFormatNegotiationStrategy.APPLICATION_SMILE));
+        ResponseEntity<byte[]> response = restTemplate.exchange(createURLWithPort(""), HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(BinaryFormatNegotiationStrategy.APPLICATION_SMILE.equalsTypeAndSubtype(response.getHeaders().getContentType()));
+    }
+
+
     @Test
     void testAddUpdateDeleteSubmodel() {
         // create AAS
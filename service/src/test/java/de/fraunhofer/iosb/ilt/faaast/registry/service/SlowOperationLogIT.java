@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import static org.awaitility.Awaitility.await;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.logging.SlowOperationLog;
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest-mult.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:slowlog",
+        "slowLog.requestThreshold=0",
+        "slowLog.repositoryThreshold=0"
+})
+@AutoConfigureTestRestTemplate
+class SlowOperationLogIT {
+
+    private static final String AAS_ID = "https://example.org/slowlog/aas";
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void addAppender() {
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(SlowOperationLog.class)).addAppender(appender);
+    }
+
+
+    @AfterEach
+    void removeAppender() {
+        ((Logger) LoggerFactory.getLogger(SlowOperationLog.class)).detachAppender(appender);
+    }
+
+
+    @Test
+    void testRequestEntry() {
+        AssetAdministrationShellDescriptor aas = new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id(AAS_ID)
+                .idShort("slowlog")
+                .build();
+        Assertions.assertEquals(HttpStatus.CREATED, restTemplate.postForEntity(createURLWithPort("/shell-descriptors"), aas, String.class).getStatusCode());
+        appender.list.clear();
+
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/shell-descriptors/" + EncodingHelper.base64UrlEncode(AAS_ID)),
+                String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        JsonNode request = awaitEntry("request");
+        Assertions.assertEquals("GET /shell-descriptors/{aasIdentifier}", request.get("endpoint").asString());
+        Assertions.assertEquals(AAS_ID, request.get("ids").get("aasIdentifier").asString());
+        Assertions.assertEquals(200, request.get("status").asInt());
+        Assertions.assertEquals(1, request.get("resultSize").asInt());
+        Assertions.assertTrue(request.get("statements").asInt() > 0);
+        Assertions.assertTrue(request.get("time").has("repositoryMs"));
+
+        JsonNode repository = awaitEntry("repository");
+        Assertions.assertEquals("getAAS", repository.get("operation").asString());
+        Assertions.assertEquals("jpa", repository.get("backend").asString());
+        Assertions.assertEquals(AAS_ID, repository.get("ids").asString());
+        Assertions.assertTrue(repository.get("statements").asInt() > 0);
+    }
+
+
+    @Test
+    void testPagingParameters() {
+        appender.list.clear();
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/shell-descriptors?limit=5"), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        JsonNode request = awaitEntry("request");
+        Assertions.assertEquals("GET /shell-descriptors", request.get("endpoint").asString());
+        Assertions.assertEquals("5", request.get("paging").get("limit").asString());
+    }
+
+
+    private JsonNode awaitEntry(String type) {
+        await()
+                .atMost(5, TimeUnit.SECONDS)
+                .pollInterval(50, TimeUnit.MILLISECONDS)
+                .until(() -> entries().stream().anyMatch(x -> type.equals(x.get("type").asString())));
+        return entries().stream()
+                .filter(x -> type.equals(x.get("type").asString()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+
+    private List<JsonNode> entries() {
+        List<ILoggingEvent> events;
+        // the appender appends while holding its lock
+        synchronized (appender) {
+            events = List.copyOf(appender.list);
+        }
+        return events.stream()
+                .map(x -> mapper.readTree(x.getFormattedMessage()))
+                .toList();
+    }
+
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + "/api/v3.0" + uri;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service;
+
+import static org.awaitility.Awaitility.await;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.tracing.TracingHelper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-integrationtest-mult.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing",
+        "management.tracing.sampling.probability=1.0",
+        "management.opentelemetry.tracing.export.schedule-delay=50ms"
+})
+@AutoConfigureTestRestTemplate
+class TracingIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @BeforeEach
+    void resetSpans() {
+        exporter.reset();
+    }
+
+
+    @Test
+    void testRequestSpans() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createURLWithPort("/shell-descriptors"), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        SpanData repository = awaitSpan("AasRepository.getAASs");
+        SpanData service = findSpan(repository.getParentSpanId());
+        Assertions.assertEquals("RegistryService.getAASs", service.getName());
+        Assertions.assertEquals(SpanKind.SERVER, findSpan(service.getParentSpanId()).getKind());
+        Assertions.assertEquals("jpa", repository.getAttributes().get(AttributeKey.stringKey(TracingHelper.TAG_BACKEND)));
+        Assertions.assertTrue(exporter.getFinishedSpanItems().stream()
+                .anyMatch(x -> x.getParentSpanId().equals(repository.getSpanId()) && "SELECT".equals(x.getName())));
+    }
+
+
+    @Test
+    void testBulkOperationSpan() {
+        AssetAdministrationShellDescriptor aas = new DefaultAssetAdministrationShellDescriptor.Builder()
+                .id("https://example.org/tracing/aas")
+                .idShort("tracing")
+                .build();
+        ResponseEntity<Void> response = restTemplate.exchange(createURLWithPort("/bulk/shell-descriptors"), HttpMethod.POST,
+                new HttpEntity<>(List.of(aas)), Void.class);
+        Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+
+        SpanData bulk = awaitSpan("bulk createShells");
+        String handleId = bulk.getAttributes().get(AttributeKey.stringKey(TracingHelper.TAG_HANDLE_ID));
+        Assertions.assertTrue(response.getHeaders().getLocation().toString().endsWith(handleId));
+        Assertions.assertEquals("COMPLETED", bulk.getAttributes().get(AttributeKey.stringKey(TracingHelper.TAG_STATE)));
+        Assertions.assertEquals(1, bulk.getLinks().size());
+        SpanData origin = findSpan(bulk.getLinks().get(0).getSpanContext().getSpanId());
+        Assertions.assertEquals(handleId, origin.getAttributes().get(AttributeKey.stringKey(TracingHelper.TAG_HANDLE_ID)));
+        Assertions.assertNotEquals(origin.getTraceId(), bulk.getTraceId());
+        Assertions.assertTrue(exporter.getFinishedSpanItems().stream()
+                .anyMatch(x -> x.getTraceId().equals(origin.getTraceId()) && x.getKind() == SpanKind.SERVER));
+    }
+
+
+    private SpanData awaitSpan(String name) {
+        return awaitSpan(name, SpanData::getName);
+    }
+
+
+    private SpanData awaitSpan(String value, Function<SpanData, String> property) {
+        await()
+                .atMost(10, TimeUnit.SECONDS)
+                .pollInterval(50, TimeUnit.MILLISECONDS)
+                .until(() -> exporter.getFinishedSpanItems().stream().anyMatch(x -> value.equals(property.apply(x))));
+        return exporter.getFinishedSpanItems().stream()
+                .filter(x -> value.equals(property.apply(x)))
+                .findFirst()
+                .orElseThrow();
+    }
+
+
+    private SpanData findSpan(String spanId) {
+        return awaitSpan(spanId, SpanData::getSpanId);
+    }
+
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + port + "/api/v3.0" + uri;
+    }
+
+    @TestConfiguration
+    static class ExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkBaseData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteShellData;
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.BulkDeleteSubmodelData;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+public class BulkJobQueueTest {
+
+    @Test
+    public void testNonOverlappingRunConcurrently() throws InterruptedException {
+        BulkJobQueue queue = new BulkJobQueue(false);
+        BulkBaseData first = new BulkDeleteShellData(List.of("a", "b"), "1");
+        BulkBaseData second = new BulkDeleteShellData(List.of("c"), "2");
+        BulkBaseData third = new BulkDeleteSubmodelData(List.of("a"), "3");
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+
+        Assertions.assertSame(first, queue.take());
+        Assertions.assertSame(second, queue.take());
+        Assertions.assertSame(third, queue.take());
+        Assertions.assertEquals(0, queue.getQueueDepth());
+        Assertions.assertEquals(3, queue.getInFlight());
+    }
+
+
+    @Test
+    public void testOverlappingRunInOrder() throws Exception {
+        BulkJobQueue queue = new BulkJobQueue(false);
+        BulkBaseData first = new BulkDeleteShellData(List.of("a"), "1");
+        BulkBaseData second = new BulkDeleteShellData(List.of("a", "b"), "2");
+        BulkBaseData third = new BulkDeleteShellData(List.of("b"), "3");
+        BulkBaseData fourth = new BulkDeleteShellData(List.of("c"), "4");
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+        queue.add(fourth);
+
+        Assertions.assertSame(first, queue.take());
+        // second conflicts with first, third must not overtake second
+        Assertions.assertSame(fourth, queue.take());
+        Assertions.assertEquals(2, queue.getQueueDepth());
+        CompletableFuture<BulkBaseData> next = takeAsync(queue);
+        Assertions.assertThrows(TimeoutException.class, () -> next.get(200, TimeUnit.MILLISECONDS));
+
+        queue.done(first);
+        Assertions.assertSame(second, next.get(5, TimeUnit.SECONDS));
+        queue.done(second);
+        Assertions.assertSame(third, queue.take());
+    }
+
+
+    @Test
+    public void testExclusive() throws Exception {
+        BulkJobQueue queue = new BulkJobQueue(true);
+        BulkBaseData first = new BulkDeleteShellData(List.of("a"), "1");
+        BulkBaseData second = new BulkDeleteShellData(List.of("b"), "2");
+        queue.add(first);
+        queue.add(second);
+
+        Assertions.assertSame(first, queue.take());
+        CompletableFuture<BulkBaseData> next = takeAsync(queue);
+        Assertions.assertThrows(TimeoutException.class, () -> next.get(200, TimeUnit.MILLISECONDS));
+
+        queue.done(first);
+        Assertions.assertSame(second, next.get(5, TimeUnit.SECONDS));
+    }
+
+
+    private static CompletableFuture<BulkBaseData> takeAsync(BulkJobQueue queue) {
+        CompletableFuture<BulkBaseData> retval = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                retval.complete(queue.take());
+            }
+            catch (InterruptedException e) {
+                retval.completeExceptionally(e);
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return retval;
+    }
+}
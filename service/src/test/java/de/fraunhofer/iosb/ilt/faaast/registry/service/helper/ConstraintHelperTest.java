@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.core.exception.BulkValidationException;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEndpoint;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProtocolInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+public class ConstraintHelperTest {
+
+    @Test
+    public void testValidateSubmodelsReportsAllViolations() {
+        List<SubmodelDescriptor> submodels = IntStream.range(0, 1000)
+                .mapToObj(i -> (i % 100 == 7) ? getSubmodel(null) : getSubmodel("http://iosb.fraunhofer.de/Submodel" + i))
+                .toList();
+
+        BulkValidationException exception = Assertions.assertThrows(BulkValidationException.class, () -> ConstraintHelper.validateSubmodels(submodels));
+
+        List<String> expected = IntStream.range(0, 10)
+                .mapToObj(i -> String.format("item %d: ", i * 100 + 7))
+                .toList();
+        Assertions.assertEquals(expected, exception.getViolations().stream().map(x -> x.substring(0, x.indexOf(':') + 2)).toList());
+    }
+
+
+    @Test
+    public void testValidateSubmodelsValid() {
+        Assertions.assertDoesNotThrow(() -> ConstraintHelper.validateSubmodels(List.of(getSubmodel("http://iosb.fraunhofer.de/Submodel1"))));
+        Assertions.assertDoesNotThrow(() -> ConstraintHelper.validateSubmodels(null));
+    }
+
+
+    private static SubmodelDescriptor getSubmodel(String id) {
+        return new DefaultSubmodelDescriptor.Builder()
+                .id(id)
+                .endpoints(new DefaultEndpoint.Builder()
+                        ._interface("SUBMODEL-3.0")
+                        .protocolInformation(new DefaultProtocolInformation.Builder()
+                                .href("http://iosb.fraunhofer.de/submodel")
+                                .build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+public class TextConstraintHelperTest {
+
+    private static final long SEED = 42;
+    private static final int RANDOM_SAMPLES = 200000;
+    private static final String[] SUBTAGS = {
+            "", "x", "X", "a", "b", "1", "de", "DE", "en", "US", "419", "123", "yue", "abc", "Latn", "latn", "1996", "1abc", "rozaj", "abcdefgh", "abcdefghi", "a1b2c",
+            "12", "oed", "GB", "i", "ami", "sgn", "BE", "FR", "zh", "min", "nan", "x1", "12345678", "123456789", "ä"
+    };
+    private static final int[] CODE_POINTS = {
+            0x0, 0x9, 0xA, 0xB, 0xD, 0x1F, 0x20, 0x41, 0x7F, 0x85, 0xA0, 0xD7FF, 0xD800, 0xDBFF, 0xDC00, 0xDFFF, 0xE000, 0xFFFD, 0xFFFE, 0xFFFF, 0x10000, 0x1F600,
+            0x10FFFF
+    };
+
+    @Test
+    public void testTextMatchesPattern() {
+        for (int cp: CODE_POINTS) {
+            assertSameText(new StringBuilder().appendCodePoint(cp).toString());
+            assertSameText(new StringBuilder("a").appendCodePoint(cp).append('b').toString());
+        }
+        assertSameText("");
+        assertSameText(new StringBuilder().append((char) 0xDC00).append((char) 0xD800).toString());
+        assertSameText(new StringBuilder().append('a').append((char) 0xD83D).toString());
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                if (random.nextBoolean()) {
+                    builder.appendCodePoint(CODE_POINTS[random.nextInt(CODE_POINTS.length)]);
+                }
+                else {
+                    builder.append((char) random.nextInt(Character.MAX_VALUE + 1));
+                }
+            }
+            assertSameText(builder.toString());
+        }
+    }
+
+
+    @Test
+    public void testLanguageMatchesPattern() {
+        List<String> tags = new ArrayList<>(List.of("de", "de-DE", "en-US", "es-419", "zh-Hant-TW", "sl-rozaj-biske", "de-CH-1996", "en-a-bbb-x-a-ccc", "x-whatever",
+                "zh-yue-abc-def", "zh-yue", "zh-yue-abc", "en-GB-oed", "i-klingon", "sgn-BE-FR", "zh-min-nan", "EN-gb-OED", "en--US", "en-", "-en", "en-a", "en-x",
+                "en-a-bb-a-cc", "en-x-a-b", "abcd", "abcdefgh", "abcdefghi", "e", "1a"));
+        for (String tag: tags) {
+            assertSameLanguage(tag);
+        }
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            StringBuilder builder = new StringBuilder(SUBTAGS[random.nextInt(SUBTAGS.length)]);
+            int count = random.nextInt(6);
+            for (int j = 0; j < count; j++) {
+                builder.append('-').append(SUBTAGS[random.nextInt(SUBTAGS.length)]);
+            }
+            assertSameLanguage(builder.toString());
+        }
+    }
+
+
+    private static void assertSameText(String txt) {
+        Assertions.assertEquals(ConstraintHelper.TEXT_PATTERN.matcher(txt).matches(), TextConstraintHelper.isValidText(txt), txt);
+    }
+
+
+    private static void assertSameLanguage(String language) {
+        Assertions.assertEquals(ConstraintHelper.LANG_LANGUAGE_PATTERN.matcher(language).matches(), TextConstraintHelper.isValidLanguage(language), language);
+    }
+}
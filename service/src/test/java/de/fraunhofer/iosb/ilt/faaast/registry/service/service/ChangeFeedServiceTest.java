@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.registry.service.service;
+
+import de.fraunhofer.iosb.ilt.faaast.registry.service.model.ChangeEvent;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+public class ChangeFeedServiceTest {
+
+    private static final int QUEUE_SIZE = 5;
+    private static final long TIMEOUT = 5000;
+
+    private final ChangeFeedService service = new ChangeFeedService(100, QUEUE_SIZE, 0);
+
+    @AfterEach
+    public void closeService() {
+        service.close();
+    }
+
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockOthers() throws InterruptedException {
+        TestEmitter slow = new TestEmitter();
+        TestEmitter fast = new TestEmitter();
+        slow.block();
+        service.subscribe(slow, null);
+        service.subscribe(fast, null);
+
+        for (int i = 0; i < QUEUE_SIZE - 1; i++) {
+            service.publish(ChangeEvent.shell(ChangeEvent.Type.CREATED, "aas" + i));
+        }
+
+        // the comment sent when subscribing and the events
+        Assertions.assertTrue(fast.awaitSent(QUEUE_SIZE));
+        Assertions.assertFalse(slow.isCompleted());
+        slow.unblock();
+        Assertions.assertTrue(slow.awaitSent(QUEUE_SIZE));
+        Assertions.assertFalse(slow.isCompleted());
+    }
+
+
+    @Test
+    public void testSubscriberFallingBehindIsDisconnected() throws InterruptedException {
+        TestEmitter slow = new TestEmitter();
+        TestEmitter fast = new TestEmitter();
+        slow.block();
+        service.subscribe(slow, null);
+        service.subscribe(fast, null);
+
+        for (int i = 0; i < QUEUE_SIZE + 2; i++) {
+            service.publish(ChangeEvent.shell(ChangeEvent.Type.CREATED, "aas" + i));
+            // only the slow subscriber falls behind, the comment sent when subscribing and the events
+            Assertions.assertTrue(fast.awaitSent(i + 2));
+        }
+        slow.unblock();
+
+        Assertions.assertTrue(slow.awaitCompleted());
+        Assertions.assertTrue(fast.awaitSent(QUEUE_SIZE + 3));
+        Assertions.assertFalse(fast.isCompleted());
+    }
+
+    /**
+     * Emitter recording the sent events, whose sending can be blocked to simulate a slow client.
+     */
+    private static class TestEmitter extends SseEmitter {
+
+        private final AtomicInteger sent = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private CountDownLatch blocked = new CountDownLatch(0);
+
+        private void block() {
+            blocked = new CountDownLatch(1);
+        }
+
+
+        private void unblock() {
+            blocked.countDown();
+        }
+
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                blocked.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            synchronized (sent) {
+                sent.incrementAndGet();
+                sent.notifyAll();
+            }
+        }
+
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+
+        private boolean isCompleted() {
+            return completed.getCount() == 0;
+        }
+
+
+        private boolean awaitCompleted() throws InterruptedException {
+            return completed.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+
+        private boolean awaitSent(int count) throws InterruptedException {
+            long end = System.currentTimeMillis() + TIMEOUT;
+            synchronized (sent) {
+                while (sent.get() < count && System.currentTimeMillis() < end) {
+                    sent.wait(end - System.currentTimeMillis());
+                }
+                return sent.get() >= count;
+            }
+        }
+    }
+}